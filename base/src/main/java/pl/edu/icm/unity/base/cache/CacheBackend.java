@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.base.cache;
+
+/**
+ * Implementation of {@link NamedCache}s. The backend available in the Spring context is used to create 
+ * all named caches of the server, when not present {@link LocalCacheBackend} is used.
+ */
+public interface CacheBackend
+{
+	<K, V> NamedCache<K, V> createCache(String name, CacheSettings settings);
+}
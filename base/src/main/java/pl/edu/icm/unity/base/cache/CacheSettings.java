@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.base.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of a single {@link NamedCache}. Zero durations turn off the respective expiration.
+ */
+public class CacheSettings
+{
+	public final int maxEntries;
+	public final Duration timeToLive;
+	public final Duration maxIdle;
+
+	public CacheSettings(int maxEntries, Duration timeToLive, Duration maxIdle)
+	{
+		if (maxEntries <= 0)
+			throw new IllegalArgumentException("Maximum number of cache entries must be positive");
+		if (timeToLive.isNegative() || maxIdle.isNegative())
+			throw new IllegalArgumentException("Cache expiration times can not be negative");
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		this.maxIdle = maxIdle;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(maxEntries, timeToLive, maxIdle);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		CacheSettings other = (CacheSettings) obj;
+		return maxEntries == other.maxEntries && Objects.equals(timeToLive, other.timeToLive)
+				&& Objects.equals(maxIdle, other.maxIdle);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CacheSettings [maxEntries=" + maxEntries + ", timeToLive=" + timeToLive + ", maxIdle="
+				+ maxIdle + "]";
+	}
+}
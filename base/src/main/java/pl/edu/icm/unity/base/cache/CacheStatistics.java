@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.base.cache;
+
+/**
+ * Snapshot of the statistics of a {@link NamedCache}. Counters are cumulative since the cache creation
+ * and are collected on the local node.
+ */
+public class CacheStatistics
+{
+	public final long hits;
+	public final long misses;
+	public final long entries;
+
+	public CacheStatistics(long hits, long misses, long entries)
+	{
+		this.hits = hits;
+		this.misses = misses;
+		this.entries = entries;
+	}
+
+	public double getHitRatio()
+	{
+		long all = hits + misses;
+		return all == 0 ? 0 : (double) hits / all;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CacheStatistics [hits=" + hits + ", misses=" + misses + ", entries=" + entries
+				+ ", hitRatio=" + getHitRatio() + "]";
+	}
+}
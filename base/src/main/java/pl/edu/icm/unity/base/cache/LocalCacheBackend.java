@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.base.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Creates caches stored in the heap of the local node. Each cache is bounded separately, so entries 
+ * of one cache are never evicted to make room for another one.
+ */
+public class LocalCacheBackend implements CacheBackend
+{
+	@Override
+	public <K, V> NamedCache<K, V> createCache(String name, CacheSettings settings)
+	{
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+				.maximumSize(settings.maxEntries)
+				.recordStats();
+		if (!settings.timeToLive.isZero())
+			builder.expireAfterWrite(settings.timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+		if (!settings.maxIdle.isZero())
+			builder.expireAfterAccess(settings.maxIdle.toMillis(), TimeUnit.MILLISECONDS);
+		return new LocalNamedCache<>(name, builder.build());
+	}
+
+	private static class LocalNamedCache<K, V> implements NamedCache<K, V>
+	{
+		private final String name;
+		private final Cache<K, V> cache;
+
+		LocalNamedCache(String name, Cache<K, V> cache)
+		{
+			this.name = name;
+			this.cache = cache;
+		}
+
+		@Override
+		public String getName()
+		{
+			return name;
+		}
+
+		@Override
+		public V get(K key)
+		{
+			return cache.getIfPresent(key);
+		}
+
+		@Override
+		public void put(K key, V value)
+		{
+			cache.put(key, value);
+		}
+
+		@Override
+		public boolean remove(K key)
+		{
+			return cache.asMap().remove(key) != null;
+		}
+
+		@Override
+		public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction)
+		{
+			return cache.asMap().compute(key, remappingFunction);
+		}
+
+		@Override
+		public Collection<V> values()
+		{
+			return new ArrayList<>(cache.asMap().values());
+		}
+
+		@Override
+		public CacheStatistics getStatistics()
+		{
+			CacheStats stats = cache.stats();
+			return new CacheStatistics(stats.hitCount(), stats.missCount(), cache.size());
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.base.cache;
+
+import java.util.Collection;
+import java.util.function.BiFunction;
+
+/**
+ * Cache created by a {@link CacheBackend}. Depending on the backend the contents can be local
+ * to the node or shared by all cluster nodes, so keys and values should be treated as immutable 
+ * and must not be modified after they were put: a shared cache stores copies.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface NamedCache<K, V>
+{
+	String getName();
+
+	/**
+	 * @return cached value or null if not present or expired
+	 */
+	V get(K key);
+
+	void put(K key, V value);
+
+	/**
+	 * @return true if the entry was present
+	 */
+	boolean remove(K key);
+
+	/**
+	 * Atomically updates the entry, also with respect to other cluster nodes in case of shared caches. 
+	 * The function is invoked on the calling node, with null if the entry is not present. 
+	 * @return the new value, if it is null the entry is removed.
+	 */
+	V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+	/**
+	 * @return all not expired values. In case of shared caches this is a remote operation, which should 
+	 * be used only for small caches.
+	 */
+	Collection<V> values();
+
+	CacheStatistics getStatistics();
+}
@@ -5,6 +5,7 @@
 package pl.edu.icm.unity.base.event;
 
 import java.util.Date;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
@@ -16,6 +17,9 @@ import pl.edu.icm.unity.types.Event;
 /**
  * Describes execution of operation with its context. Suitable for auditing, 
  * time measurement, logging or sending notifications. 
+ * <p>
+ * Contents can be provided lazily, then they are created on the first access. Such event must be 
+ * passed to other threads only after the contents were retrieved.
  * @author K. Benedyczak
  */
 public class PersistableEvent implements Event
@@ -24,6 +28,7 @@ public class PersistableEvent implements Event
 	private Long invokerEntity;
 	private Date timestamp;
 	private String contents;
+	private Supplier<String> contentsSupplier;
 
 	public PersistableEvent(Enum<?> trigger, String contents)
 	{
@@ -91,12 +96,36 @@ public class PersistableEvent implements Event
 
 	public String getContents()
 	{
+		if (contentsSupplier != null)
+		{
+			contents = contentsSupplier.get();
+			contentsSupplier = null;
+		}
 		return contents;
 	}
 
 	public void setContents(String contents)
 	{
 		this.contents = contents;
+		this.contentsSupplier = null;
+	}
+
+	/**
+	 * Sets contents which are created only when needed.
+	 */
+	public void setContents(Supplier<String> contentsSupplier)
+	{
+		this.contents = null;
+		this.contentsSupplier = contentsSupplier;
+	}
+	
+	/**
+	 * @return the trigger, which is the category of persistable events
+	 */
+	@Override
+	public String getCategory()
+	{
+		return trigger;
 	}
 
 	@JsonValue
@@ -124,7 +153,7 @@ public class PersistableEvent implements Event
 	public String toString()
 	{
 		return "[trigger=" + trigger + ", invokerEntity=" + invokerEntity
-				+ ", timestamp=" + timestamp + ", contents=" + contents + "]";
+				+ ", timestamp=" + timestamp + ", contents=" + getContents() + "]";
 	}
 
 	@Override
@@ -133,6 +162,7 @@ public class PersistableEvent implements Event
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((trigger == null) ? 0 : trigger.hashCode());
+		String contents = getContents();
 		result = prime * result + ((contents == null) ? 0 : contents.hashCode());
 		result = prime * result + ((invokerEntity == null) ? 0 : invokerEntity.hashCode());
 		result = prime * result + ((timestamp == null) ? 0 : timestamp.hashCode());
@@ -155,11 +185,12 @@ public class PersistableEvent implements Event
 				return false;
 		} else if (!trigger.equals(other.trigger))
 			return false;
+		String contents = getContents();
 		if (contents == null)
 		{
-			if (other.contents != null)
+			if (other.getContents() != null)
 				return false;
-		} else if (!contents.equals(other.contents))
+		} else if (!contents.equals(other.getContents()))
 			return false;
 		if (invokerEntity == null)
 		{
@@ -22,6 +22,7 @@ public class Token
 	private Long owner;
 	private Date created;
 	private Date expires;
+	private Date inactivityDeadline;
 	private byte[] contents;
 
 	public Token(String type, String value, Long owner)
@@ -84,6 +85,14 @@ public class Token
 	{
 		this.expires = expires;
 	}
+	public Date getInactivityDeadline()
+	{
+		return inactivityDeadline;
+	}
+	public void setInactivityDeadline(Date inactivityDeadline)
+	{
+		this.inactivityDeadline = inactivityDeadline;
+	}
 	public byte[] getContents()
 	{
 		return contents;
@@ -106,6 +115,7 @@ public class Token
 		result = prime * result + Arrays.hashCode(contents);
 		result = prime * result + ((created == null) ? 0 : created.hashCode());
 		result = prime * result + ((expires == null) ? 0 : expires.hashCode());
+		result = prime * result + ((inactivityDeadline == null) ? 0 : inactivityDeadline.hashCode());
 		result = prime * result + ((owner == null) ? 0 : owner.hashCode());
 		result = prime * result + ((type == null) ? 0 : type.hashCode());
 		result = prime * result + ((value == null) ? 0 : value.hashCode());
@@ -136,6 +146,12 @@ public class Token
 				return false;
 		} else if (!expires.equals(other.expires))
 			return false;
+		if (inactivityDeadline == null)
+		{
+			if (other.inactivityDeadline != null)
+				return false;
+		} else if (!inactivityDeadline.equals(other.inactivityDeadline))
+			return false;
 		if (owner == null)
 		{
 			if (other.owner != null)
@@ -26,6 +26,8 @@ public interface AttributeValueConverter
 
 	List<String> internalValuesToExternal(String attributeName, List<String> internalValues);
 
+	List<String> storedValuesToInternal(String attributeName, List<String> storedValues);
+
 	<T> List<?> internalValuesToObjectValues(String attributeName, List<String> internalValues)
 			throws IllegalAttributeValueException;
 
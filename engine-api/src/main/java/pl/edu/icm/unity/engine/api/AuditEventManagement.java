@@ -5,6 +5,7 @@
 package pl.edu.icm.unity.engine.api;
 
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 
 import java.util.Date;
 import java.util.List;
@@ -39,6 +40,24 @@ public interface AuditEventManagement
 	 */
 	List<AuditEvent> getAuditEvents(final Date from, final Date until, final int limit, final String order, final int direction);
 
+	/**
+	 * Retrieve a page of AuditEvents sorted by timestamp for given time period. Subsequent pages are retrieved
+	 * by passing the key returned with the previous page.
+	 * @param from
+	 * 		From date or from the earliest timestamp (if null)
+	 * @param until
+	 * 		Until date or till the latest timestamp (if null)
+	 * @param after
+	 * 		Key of the previous page or null to get the first page
+	 * @param pageSize
+	 * 		Maximum number of returned records
+	 * @param direction
+	 * 		Descending in case of negative value, ascending order in other cases.
+	 * @return page of AuditEvents sorted by timestamp.
+	 */
+	AuditEventsPage getAuditEventsPage(final Date from, final Date until, final AuditEventsPage.PageKey after, 
+			final int pageSize, final int direction);
+
 	/**
 	 * List of tags.
 	 * @return all Tags sorted by name.
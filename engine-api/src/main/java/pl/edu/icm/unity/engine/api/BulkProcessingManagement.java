@@ -9,6 +9,7 @@ import java.util.concurrent.TimeoutException;
 
 import pl.edu.icm.unity.exceptions.AuthorizationException;
 import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.types.bulkops.BulkProcessingStatus;
 import pl.edu.icm.unity.types.bulkops.ScheduledProcessingRule;
 import pl.edu.icm.unity.types.bulkops.ScheduledProcessingRuleParam;
 import pl.edu.icm.unity.types.translation.TranslationRule;
@@ -38,4 +39,10 @@ public interface BulkProcessingManagement
 	List<ScheduledProcessingRule> getScheduledRules() throws EngineException;
 	
 	ScheduledProcessingRule getScheduledRule(String id) throws EngineException;
+	
+	/**
+	 * @return progress of the currently running and recently finished rule executions, 
+	 * the most recent first
+	 */
+	List<BulkProcessingStatus> getProcessingStatus() throws EngineException;
 }
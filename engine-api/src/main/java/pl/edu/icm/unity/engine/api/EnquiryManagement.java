@@ -14,6 +14,7 @@ import pl.edu.icm.unity.types.registration.EnquiryResponse;
 import pl.edu.icm.unity.types.registration.EnquiryResponseState;
 import pl.edu.icm.unity.types.registration.RegistrationContext;
 import pl.edu.icm.unity.types.registration.RegistrationRequestAction;
+import pl.edu.icm.unity.types.registration.RegistrationRequestStatus;
 
 /**
  * Enquires support: forms, submissions of requests and their processing.
@@ -119,6 +120,20 @@ public interface EnquiryManagement
 	 */
 	List<EnquiryResponseState> getEnquiryResponses() throws EngineException;
 
+	/**
+	 * Lists a page of responses, ordered by submission.
+	 * @param offset number of responses to skip
+	 * @param limit maximum number of returned responses
+	 */
+	List<EnquiryResponseState> getEnquiryResponses(int offset, int limit) throws EngineException;
+
+	/**
+	 * Lists responses to a given enquiry, ordered by submission.
+	 * @param status if null responses with any status are returned
+	 */
+	List<EnquiryResponseState> getEnquiryResponses(String formId, RegistrationRequestStatus status) 
+			throws EngineException;
+
 	/**
 	 * @return a specific enquiry response
 	 */
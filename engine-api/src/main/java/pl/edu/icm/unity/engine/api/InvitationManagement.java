@@ -49,6 +49,18 @@ public interface InvitationManagement
 	 * @throws EngineException
 	 */
 	List<InvitationWithCode> getInvitations() throws EngineException;
+
+	/**
+	 * @param offset number of invitations to skip
+	 * @param limit maximum number of returned invitations
+	 * @return a page of invitations, ordered by creation
+	 */
+	List<InvitationWithCode> getInvitations(int offset, int limit) throws EngineException;
+
+	/**
+	 * @return invitations to the given registration or enquiry form, ordered by creation
+	 */
+	List<InvitationWithCode> getInvitations(String formId) throws EngineException;
 	
 	/**
 	 * Retrieves an invitation by code
@@ -13,6 +13,7 @@ import pl.edu.icm.unity.types.registration.RegistrationForm;
 import pl.edu.icm.unity.types.registration.RegistrationRequest;
 import pl.edu.icm.unity.types.registration.RegistrationRequestAction;
 import pl.edu.icm.unity.types.registration.RegistrationRequestState;
+import pl.edu.icm.unity.types.registration.RegistrationRequestStatus;
 
 /**
  * Registrations support: forms, submissions of requests and their processing.
@@ -93,6 +94,20 @@ public interface RegistrationsManagement
 	 */
 	List<RegistrationRequestState> getRegistrationRequests() throws EngineException;
 
+	/**
+	 * Lists a page of registration requests, ordered by submission.
+	 * @param offset number of requests to skip
+	 * @param limit maximum number of returned requests
+	 */
+	List<RegistrationRequestState> getRegistrationRequests(int offset, int limit) throws EngineException;
+
+	/**
+	 * Lists registration requests of a given form, ordered by submission.
+	 * @param status if null requests with any status are returned
+	 */
+	List<RegistrationRequestState> getRegistrationRequests(String formId, RegistrationRequestStatus status) 
+			throws EngineException;
+
 	/**
 	 * @return registration request by id
 	 */
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.api.attributes;
+
+/**
+ * Stores large, binary contents of attribute values outside of the values. Contents are 
+ * addressed by their hash, so the same contents are stored only once.
+ */
+public interface AttributeContentStore
+{
+	/**
+	 * Stores the contents if not already stored.
+	 * @return id of the contents, to be used to load them
+	 */
+	String store(byte[] contents);
+	
+	/**
+	 * @return contents stored under the given id
+	 * @throws IllegalArgumentException if there are no such contents
+	 */
+	byte[] load(String contentId);
+}
@@ -168,4 +168,25 @@ public interface AttributeValueSyntax<T>
 	{
 		return Optional.empty();
 	}
+
+	/**
+	 * Converts a value in the string representation to the form which is persisted. Syntaxes with large
+	 * binary values can move the contents to the given store, leaving only a reference in the value.
+	 * The returned value must be accepted by {@link #convertFromString(String)}.
+	 * By default the value is stored as is.
+	 */
+	default String toStorageForm(String stringRepresentation, AttributeContentStore contentStore)
+	{
+		return stringRepresentation;
+	}
+
+	/**
+	 * Reverses {@link #toStorageForm(String, AttributeContentStore)}: converts a persisted value to the 
+	 * self contained string representation, which can be exposed outside of the system.
+	 * By default the value is returned as is.
+	 */
+	default String fromStorageForm(String storedValue)
+	{
+		return storedValue;
+	}
 }
@@ -269,6 +269,14 @@ public class LoginSession
 		long inactiveFor = timestamp - getLastUsed().getTime();
 		return inactiveFor > getMaxInactivity();
 	}
+
+	/**
+	 * @return the time after which the session is expired, unless used in the meantime
+	 */
+	public Date getInactivityDeadline()
+	{
+		return new Date(getLastUsed().getTime() + getMaxInactivity());
+	}
 	
 	public void deserialize(Token token)
 	{
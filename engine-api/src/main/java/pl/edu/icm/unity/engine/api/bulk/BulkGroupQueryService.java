@@ -6,6 +6,7 @@ package pl.edu.icm.unity.engine.api.bulk;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.types.basic.AttributeExt;
@@ -16,7 +17,9 @@ import pl.edu.icm.unity.types.basic.GroupContents;
  * Supports fast resolving of data about a group contents in bulk. Usage pattern:
  * first call {@link #getBulkMembershipData(String)} to obtain a data object. This is the slowest part.
  * Then use it as an argument to other, fast methods converting it to desired contents.
- * 
+ * <p>
+ * Membership data can be served from an in-memory snapshot shared between callers, therefore
+ * the data object and objects obtained from it must be treated as read only.
  */
 public interface BulkGroupQueryService
 {
@@ -35,6 +38,21 @@ public interface BulkGroupQueryService
 
 	Map<Long, EntityInGroupData> getMembershipInfo(GroupMembershipData dataO);
 	
+	/**
+	 * Streaming variant of {@link #getMembershipInfo(GroupMembershipData)}. Group members are loaded 
+	 * in pages of the given size, ordered by entity id, as the stream is consumed. Therefore memory 
+	 * usage is bounded by the page size and not by the group size. Each page is loaded in a separate 
+	 * transaction.
+	 */
+	Stream<EntityInGroupData> getMembershipInfoStream(String group, int pageSize) throws EngineException;
+
+	/**
+	 * Streaming variant of {@link #getGroupUsersAttributes(String, GroupMembershipData)}, 
+	 * loading group members in pages as {@link #getMembershipInfoStream(String, int)}.
+	 */
+	Stream<EntityGroupAttributes> getGroupUsersAttributesStream(String group, int pageSize) 
+			throws EngineException;
+	
 	
 	GroupStructuralData getBulkStructuralData(String group) throws EngineException;
 
@@ -22,6 +22,7 @@ public abstract class EntityAction extends TranslationActionInstance
 	/**
 	 * Performs an implementation specific action.
 	 * @param entity entity to operate on.
+	 * @throws RuntimeEngineException when the action failed, so that the failure is reported by the caller
 	 */
 	public abstract void invoke(Entity entity);
 }
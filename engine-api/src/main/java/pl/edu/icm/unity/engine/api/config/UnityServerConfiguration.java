@@ -89,6 +89,9 @@ public class UnityServerConfiguration extends UnityFilePropertiesHelper
 	public static final String DEFAULT_WEB_PATH = "defaultWebPath";
 	public static final String REDIRECT_MODE = "redirectMode";
 	public static final String AUDITEVENTLOGS_ENABLED = "auditEventLogsEnabled";
+	public static final String AUDITEVENTLOGS_RETENTION_DAYS = "auditEventLogsRetentionDays";
+	public static final String BULK_PROCESSING_THREADS = "bulkProcessingThreads";
+	public static final String BULK_PROCESSING_CHUNK_SIZE = "bulkProcessingChunkSize";
 	
 	public static final String IMPORT_PFX = "userImport."; 
 	
@@ -287,6 +290,14 @@ public class UnityServerConfiguration extends UnityFilePropertiesHelper
 				"If set Unity will redirect request without the path to this one"));
 		defaults.put(AUDITEVENTLOGS_ENABLED, new PropertyMD("true").setCategory(mainCat).setDescription(
 				"Indicate if AuditEvent logs are gathered by the system."));
+		defaults.put(AUDITEVENTLOGS_RETENTION_DAYS, new PropertyMD("0").setNonNegative().setCategory(mainCat).setDescription(
+				"Number of days for which AuditEvent logs are kept. Older events are periodically removed. "
+				+ "Zero value turns off the removal, i.e. the events are kept forever."));
+		defaults.put(BULK_PROCESSING_THREADS, new PropertyMD("4").setPositive().setCategory(mainCat).setDescription(
+				"Number of threads processing entities in parallel when a bulk entity processing rule is executed."));
+		defaults.put(BULK_PROCESSING_CHUNK_SIZE, new PropertyMD("500").setPositive().setCategory(mainCat).setDescription(
+				"Number of entities loaded and processed together by bulk entity processing rules. "
+				+ "Actions on entities of a chunk are performed in a single transaction."));
 		defaults.put(UNITYGW_WEB_CONTENT_PATH, new PropertyMD().setPath().setCategory(mainCat).setDescription(
 				"Defines a folder from which all the web applications operating on the shared unitygw path "
 				+ "(e.g. the email confirmation screen) "
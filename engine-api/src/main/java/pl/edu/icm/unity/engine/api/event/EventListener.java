@@ -4,6 +4,9 @@
  */
 package pl.edu.icm.unity.engine.api.event;
 
+import java.util.Collections;
+import java.util.Set;
+
 import pl.edu.icm.unity.types.Event;
 
 /**
@@ -15,6 +18,11 @@ public interface EventListener
 {
 	public static final int DEFAULT_MAX_FAILURES = 10+7*24;
 	
+	/**
+	 * Category to be used to subscribe to events of all categories.
+	 */
+	public static final String ALL_CATEGORIES = "*";
+	
 	/**
 	 * @return if true is returned then the listener's handle method will be invoked 
 	 * without persisting the event into database first. Therefore it is assumed that 
@@ -25,7 +33,17 @@ public interface EventListener
 	boolean isLightweight();
 	
 	/**
-	 * This method should perform a fast filtering of uninteresting events.
+	 * @return categories (see {@link Event#getCategory()}) of events to be passed to the listener. 
+	 * Events of other categories are not even passed to {@link #isWanted(Event)}. The set must not change 
+	 * after the listener was added. By default the listener is subscribed to {@link #ALL_CATEGORIES}.
+	 */
+	default Set<String> getCategories()
+	{
+		return Collections.singleton(ALL_CATEGORIES);
+	}
+	
+	/**
+	 * This method should perform a fast filtering of uninteresting events of the subscribed categories.
 	 * @return true if the event should be handled by this listener
 	 */
 	boolean isWanted(Event event);
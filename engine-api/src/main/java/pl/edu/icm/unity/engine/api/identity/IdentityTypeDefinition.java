@@ -61,6 +61,15 @@ public interface IdentityTypeDefinition
 	 */
 	boolean isExpired(Identity identity); 
 
+	/**
+	 * @return false if identities of this type never expire, i.e. {@link #isExpired(Identity)} 
+	 * always returns false. Then there is no need to check identities of this type for expiration.
+	 */
+	default boolean isExpirable()
+	{
+		return isDynamic();
+	}
+
 	
 	/**
 	 * Checks if the value is valid
@@ -39,6 +39,13 @@ public interface TokensManagement
 	void addToken(String type, String value, EntityParam owner, byte[] contents, Date created, Date expires) 
 			throws IllegalIdentityValueException, IllegalTypeException;
 
+	/**
+	 * As {@link #addToken(String, String, EntityParam, byte[], Date, Date)} but additionally sets 
+	 * the inactivity deadline, which is used to efficiently find tokens which were not used for too long.
+	 */
+	void addToken(String type, String value, EntityParam owner, byte[] contents, Date created, Date expires,
+			Date inactivityDeadline) throws IllegalIdentityValueException, IllegalTypeException;
+
 	/**
 	 * Adds a new token without owner
 	 * @param type type or category of the token
@@ -61,6 +68,12 @@ public interface TokensManagement
 	 * @param contents if null -> leave unchanged
 	 */
 	void updateToken(String type, String value, Date expires, byte[] contents);
+
+	/**
+	 * As {@link #updateToken(String, String, Date, byte[])} but also updates the inactivity deadline.
+	 * @param inactivityDeadline if null -> leave unchanged
+	 */
+	void updateToken(String type, String value, Date expires, Date inactivityDeadline, byte[] contents);
 	
 	/**
 	 * Returns a specified token 
@@ -82,6 +95,11 @@ public interface TokensManagement
 	 * @return all tokens 
 	 */
 	List<Token> getAllTokens(); 
+
+	/**
+	 * @return at most limit tokens of a given type, which inactivity deadline has passed or was never set. 
+	 */
+	List<Token> getInactiveTokens(String type, int limit);
 	
 	/**
 	 * Adds a new listenr which is notified about expired tokens of a specified type 
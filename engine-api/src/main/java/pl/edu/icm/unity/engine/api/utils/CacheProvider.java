@@ -4,23 +4,48 @@
  */
 package pl.edu.icm.unity.engine.api.utils;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.Configuration;
+import pl.edu.icm.unity.base.cache.CacheBackend;
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.CacheStatistics;
+import pl.edu.icm.unity.base.cache.LocalCacheBackend;
+import pl.edu.icm.unity.base.cache.NamedCache;
+import pl.edu.icm.unity.base.utils.Log;
 
 /**
- * Component providing access to Ehcache CacheManager. 
+ * Component providing access to caches. Named caches are created by the configured {@link CacheBackend},
+ * which shares them among cluster nodes when the storage engine allows for that, and by default keeps 
+ * them locally. Ehcache CacheManager is available for caches of objects which can not be shared 
+ * between nodes.
  * @author K. Benedyczak
  */
 @Component
 public class CacheProvider
 {
+	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, CacheProvider.class);
 	private CacheManager cacheManager;
-	
+	private final CacheBackend backend;
+	private final CacheBackend localBackend = new LocalCacheBackend();
+	private final Map<String, NamedCache<?, ?>> namedCaches = new ConcurrentHashMap<>();
 	
 	public CacheProvider()
+	{
+		this(Optional.empty());
+	}
+
+	@Autowired
+	public CacheProvider(Optional<CacheBackend> backend)
 	{
 		Configuration config = new Configuration();
 		config.setName("UNITY cache manager");
@@ -29,10 +54,52 @@ public class CacheProvider
 		CacheConfiguration defC = new CacheConfiguration();
 		config.addDefaultCache(defC);
 		cacheManager = CacheManager.create(config);
+		this.backend = backend.orElse(localBackend);
 	}
 
+	/**
+	 * @return node-local cache manager, heap usage of all its caches is limited together.
+	 */
 	public CacheManager getManager()
 	{
 		return cacheManager;
 	}
+	
+	/**
+	 * @return cache with the given name, created with the given settings if it doesn't exist yet. 
+	 * Settings of an existing cache are not changed.
+	 */
+	public <K, V> NamedCache<K, V> getCache(String name, CacheSettings settings)
+	{
+		return getCache(name, settings, backend);
+	}
+
+	/**
+	 * As {@link #getCache(String, CacheSettings)} but the cache is always kept on the local node. 
+	 * To be used for entries which can not be serialized.
+	 */
+	public <K, V> NamedCache<K, V> getLocalCache(String name, CacheSettings settings)
+	{
+		return getCache(name, settings, localBackend);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <K, V> NamedCache<K, V> getCache(String name, CacheSettings settings, CacheBackend cacheBackend)
+	{
+		return (NamedCache<K, V>) namedCaches.computeIfAbsent(name, cacheName -> 
+		{
+			log.debug("Creating cache {} with {}", cacheName, settings);
+			return cacheBackend.createCache(cacheName, settings);
+		});
+	}
+	
+	/**
+	 * @return statistics of all named caches, by cache name
+	 */
+	public Map<String, CacheStatistics> getStatistics()
+	{
+		Map<String, CacheStatistics> ret = new TreeMap<>();
+		namedCaches.forEach((name, cache) -> ret.put(name, cache.getStatistics()));
+		return ret;
+	}
 }
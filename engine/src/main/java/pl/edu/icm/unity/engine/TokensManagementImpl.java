@@ -36,6 +36,7 @@ import pl.edu.icm.unity.types.basic.EntityParam;
 public class TokensManagementImpl implements TokensManagement
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, TokensManagementImpl.class);
+	private static final int EXPIRED_REMOVAL_BATCH = 500;
 	private EntityResolver idResolver;
 	private TokenDAO dbTokens;
 	private TransactionalRunner tx; 
@@ -55,7 +56,13 @@ public class TokensManagementImpl implements TokensManagement
 			@Override
 			public void run()
 			{
-				removeExpired();
+				try
+				{
+					removeExpired();
+				} catch (Exception e)
+				{
+					log.error("Removing expired tokens failed", e);
+				}
 			}
 		};
 		executorsService.getService().scheduleWithFixedDelay(cleaner, 30, 60, TimeUnit.SECONDS);
@@ -68,7 +75,17 @@ public class TokensManagementImpl implements TokensManagement
 			throws IllegalIdentityValueException, IllegalTypeException
 	{
 		long entity = idResolver.getEntityId(owner);
-		addTokenInternal(type, value, contents, created, expires, entity);
+		addTokenInternal(type, value, contents, created, expires, null, entity);
+	}
+
+	@Transactional
+	@Override
+	public void addToken(String type, String value, EntityParam owner, byte[] contents,
+			Date created, Date expires, Date inactivityDeadline) 
+			throws IllegalIdentityValueException, IllegalTypeException
+	{
+		long entity = idResolver.getEntityId(owner);
+		addTokenInternal(type, value, contents, created, expires, inactivityDeadline, entity);
 	}
 	
 	@Transactional
@@ -77,16 +94,17 @@ public class TokensManagementImpl implements TokensManagement
 			Date created, Date expires) 
 			throws IllegalTypeException
 	{
-		addTokenInternal(type, value, contents, created, expires, null);
+		addTokenInternal(type, value, contents, created, expires, null, null);
 	}
 	
 	private void addTokenInternal(String type, String value, byte[] contents,
-			Date created, Date expires, Long entity)
+			Date created, Date expires, Date inactivityDeadline, Long entity)
 	{
 		Token token = new Token(type, value, entity);
 		token.setContents(contents);
 		token.setCreated(created);
 		token.setExpires(expires);
+		token.setInactivityDeadline(inactivityDeadline);
 		dbTokens.create(token);
 	}
 	
@@ -100,12 +118,22 @@ public class TokensManagementImpl implements TokensManagement
 	@Transactional
 	@Override
 	public void updateToken(String type, String value, Date expires, byte[] contents)
+	{
+		updateToken(type, value, expires, null, contents);
+	}
+
+	@Transactional
+	@Override
+	public void updateToken(String type, String value, Date expires, Date inactivityDeadline, 
+			byte[] contents)
 	{
 		Token token = getTokenById(type, value);
 		if (contents != null)
 			token.setContents(contents);
 		if (expires != null)
-			token.setExpires(expires);		
+			token.setExpires(expires);
+		if (inactivityDeadline != null)
+			token.setInactivityDeadline(inactivityDeadline);
 		dbTokens.update(token);
 	}
 
@@ -145,6 +173,13 @@ public class TokensManagementImpl implements TokensManagement
 		return filterExpired(tokens);
 	}
 
+	@Transactional
+	@Override
+	public List<Token> getInactiveTokens(String type, int limit)
+	{
+		return dbTokens.getInactiveBatch(type, limit);
+	}
+
 
 	private List<Token> filterExpired(List<Token> tokens)
 	{
@@ -169,28 +204,38 @@ public class TokensManagementImpl implements TokensManagement
 	
 	private synchronized void removeExpired()
 	{
-		tx.runInTransaction(() -> {
-			transactionalRemoveExpired();
-		});
+		log.debug("Removing expired tokens");
+		int removed = 0;
+		int removedInBatch;
+		do
+		{
+			removedInBatch = removeExpiredBatch();
+			removed += removedInBatch;
+		} while (removedInBatch == EXPIRED_REMOVAL_BATCH);
+		log.debug("Removed " + removed + " tokens in this round");
 	}
 
-	private void transactionalRemoveExpired()
+	/**
+	 * Removes a batch of expired tokens in a single transaction. If it fails, the tokens are removed one by one,
+	 * so a single problematic token doesn't block removal of others. Tokens which can not be removed 
+	 * are left for the next round.
+	 */
+	private int removeExpiredBatch()
 	{
-		log.debug("Removing expired tokens");
+		try
+		{
+			return tx.runInTransactionRet(() -> transactionalRemoveExpiredBatch());
+		} catch (Exception e)
+		{
+			log.warn("Removing a batch of expired tokens failed, will remove them one by one", e);
+		}
+		List<Token> tokens = tx.runInTransactionRet(() -> dbTokens.getExpiredBatch(EXPIRED_REMOVAL_BATCH));
 		int removed = 0;
-		
-		List<Token> tokens = dbTokens.getExpired();
 		for (Token t: tokens)
 		{
-			List<TokenExpirationListener> l = listeners.get(t.getType());
-			if (l != null)
-			{
-				for (TokenExpirationListener listener: l)
-					listener.tokenExpired(t);
-			}
 			try
 			{
-				dbTokens.delete(t.getType(), t.getValue());
+				tx.runInTransaction(() -> transactionalRemoveExpired(t));
 				removed++;
 			} catch (Exception e)
 			{
@@ -198,6 +243,34 @@ public class TokensManagementImpl implements TokensManagement
 						"] " + t.getValue(), e);
 			}
 		}
-		log.debug("Removed " + removed + " tokens in this round");
+		return removed;
+	}
+
+	private int transactionalRemoveExpiredBatch()
+	{
+		List<Token> tokens = dbTokens.getExpiredBatch(EXPIRED_REMOVAL_BATCH);
+		for (Token t: tokens)
+			notifyExpirationListeners(t);
+		dbTokens.deleteBatch(tokens);
+		return tokens.size();
+	}
+
+	private void transactionalRemoveExpired(Token token)
+	{
+		Token current = dbTokens.get(token.getType(), token.getValue());
+		if (!current.isExpired())
+			return;
+		notifyExpirationListeners(current);
+		dbTokens.delete(current.getType(), current.getValue());
+	}
+
+	private void notifyExpirationListeners(Token token)
+	{
+		List<TokenExpirationListener> l = listeners.get(token.getType());
+		if (l != null)
+		{
+			for (TokenExpirationListener listener: l)
+				listener.tokenExpired(token);
+		}
 	}
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.attribute;
+
+import java.util.Date;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.hash.Hashing;
+
+import pl.edu.icm.unity.attr.UnityImage;
+import pl.edu.icm.unity.base.file.FileData;
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.attributes.AttributeContentStore;
+import pl.edu.icm.unity.store.api.FileDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+
+/**
+ * Stores attribute values contents in the files store, named with SHA-256 hash of the contents.
+ * The contents are shared by all values having them, therefore are never removed with the values.
+ * <p>
+ * Registers itself as the loader of {@link UnityImage} contents, as images are deserialized also
+ * outside of the engine components.
+ */
+@Component
+public class AttributeContentStoreImpl implements AttributeContentStore
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, AttributeContentStoreImpl.class);
+	private final FileDAO fileDAO;
+	private final TransactionalRunner tx;
+
+	@Autowired
+	public AttributeContentStoreImpl(FileDAO fileDAO, TransactionalRunner tx)
+	{
+		this.fileDAO = fileDAO;
+		this.tx = tx;
+		UnityImage.setContentLoader(this::load);
+	}
+
+	@Override
+	public String store(byte[] contents)
+	{
+		String id = Hashing.sha256().hashBytes(contents).toString();
+		tx.runInTransaction(() ->
+		{
+			if (!fileDAO.exists(id))
+				createIfNotConcurrentlyCreated(id, contents);
+		});
+		return id;
+	}
+
+	/**
+	 * The same contents can be stored concurrently, then the insert fails on the unique name. 
+	 * As the name is the hash of the contents, the contents are already stored by the other party.
+	 * Some databases abort the whole transaction on such an error, then the transaction is retried 
+	 * and the contents are found.
+	 */
+	private void createIfNotConcurrentlyCreated(String id, byte[] contents)
+	{
+		try
+		{
+			fileDAO.create(new FileData(id, contents, new Date(),
+					FileDAO.ATTRIBUTE_CONTENTS_OWNER_TYPE, null));
+		} catch (IllegalArgumentException e)
+		{
+			log.debug("Attribute contents {} were stored concurrently", id);
+		}
+	}
+
+	@Override
+	public byte[] load(String contentId)
+	{
+		return tx.runInTransactionRet(() -> fileDAO.get(contentId).getContents());
+	}
+}
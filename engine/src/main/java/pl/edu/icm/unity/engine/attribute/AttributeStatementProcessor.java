@@ -7,7 +7,6 @@ package pl.edu.icm.unity.engine.attribute;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -19,6 +18,9 @@ import org.mvel2.MVEL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.attributes.AttributeClassHelper;
@@ -57,6 +59,9 @@ public class AttributeStatementProcessor
 	
 	private AttributeTypeHelper atHelper;
 	private AttributeValueConverter attrConverter;
+	private final Cache<Group, GroupStatementsPlan> plansCache = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build();
 
 	
 	@Autowired
@@ -100,11 +105,11 @@ public class AttributeStatementProcessor
 		collectUpOrDownAttributes(Direction.upwards, group, null, identities, upwardsAttributes, 
 				directAttributesByGroup, allGroups, knownClasses, groupInfoProvider, attrTypeProvider);
 
-		AttributeStatement[] statements = getGroupStatements(group, groupInfoProvider);
+		GroupStatementsPlan plan = getGroupStatementsPlan(group, groupInfoProvider);
 		
 		Map<String, AttributeExt> fromStatemants = processAttributeStatements(Direction.undirected, directAttributesByGroup, 
 				upwardsAttributes, downwardsAttributes, group, 
-				queriedAttribute, identities, statements, allGroups, knownClasses, attrTypeProvider);
+				queriedAttribute, identities, plan, allGroups, knownClasses, attrTypeProvider);
 		
 		return "/".equals(group) ? fromStatemants 
 				: addGlobal(fromStatemants, directAttributesByGroup, attrTypeProvider, queriedAttribute);
@@ -131,11 +136,20 @@ public class AttributeStatementProcessor
 	}
 
 	/**
-	 * Resolves group path and returns group's attribute statements
+	 * Resolves group path and returns plan of group's attribute statements. Plans are cached per group object,
+	 * so in bulk operations, where the same group objects are used for many entities, the plan is reused. 
 	 */
-	private AttributeStatement[] getGroupStatements(String groupPath, Function<String, Group> groupInfoProvider) 
+	private GroupStatementsPlan getGroupStatementsPlan(String groupPath, Function<String, Group> groupInfoProvider) 
 	{
-		return groupInfoProvider.apply(groupPath).getAttributeStatements();
+		Group group = groupInfoProvider.apply(groupPath);
+		AttributeStatement[] statements = group.getAttributeStatements();
+		GroupStatementsPlan plan = plansCache.getIfPresent(group);
+		if (plan == null || !plan.isBuiltFrom(statements))
+		{
+			plan = new GroupStatementsPlan(groupPath, statements);
+			plansCache.put(group, plan);
+		}
+		return plan;
 	}
 	
 	/**
@@ -157,19 +171,9 @@ public class AttributeStatementProcessor
 			Function<String, Group> groupInfoProvider,
 			Function<String, AttributeType> attrTypeProvider) 
 	{
-		AttributeStatement[] statements = getGroupStatements(groupPath, groupInfoProvider);
+		GroupStatementsPlan plan = getGroupStatementsPlan(groupPath, groupInfoProvider);
 		
-		Set<String> interestingGroups = new HashSet<String>();
-		for (AttributeStatement as: statements)
-		{
-			if (as.isSuitableForDirectedEvaluation(mode, groupPath) 
-					&& isForInterestingAttribute(queriedAttribute, as))
-			{
-				String groupPath2 = as.getExtraAttributesGroup();
-				if (groupPath2 != null)
-					interestingGroups.add(groupPath2);
-			}
-		}
+		Set<String> interestingGroups = plan.getExtraAttributesGroups(mode, groupPath, queriedAttribute);
 		for (String interestingGroup: interestingGroups)
 		{
 			if (!allGroups.contains(interestingGroup))
@@ -181,57 +185,62 @@ public class AttributeStatementProcessor
 		
 		Map<String, AttributeExt> ret = (mode == Direction.upwards) ? 
 				processAttributeStatements(mode, allAttributesByGroup, upOrDownAttributes, null,
-						groupPath, null, identities, statements, allGroups, knownClasses, attrTypeProvider):
+						groupPath, null, identities, plan, allGroups, knownClasses, attrTypeProvider):
 				processAttributeStatements(mode, allAttributesByGroup, null, upOrDownAttributes, 
-						groupPath, null, identities, statements, allGroups, knownClasses, attrTypeProvider);
+						groupPath, null, identities, plan, allGroups, knownClasses, attrTypeProvider);
 		upOrDownAttributes.put(groupPath, ret);
 	}
 	
-	private boolean isForInterestingAttribute(String attribute, AttributeStatement as)
-	{
-		if (attribute == null)
-			return true;
-		String assigned = as.getAssignedAttributeName();
-		if (assigned == null || assigned.equals(attribute))
-			return true;
-		return false;
-	}
-	
+	/**
+	 * Attributes collected in directed mode are only used as an input for evaluation of statements, 
+	 * therefore regular attributes are not copied in such case. Copy is made only when such attribute 
+	 * is modified.
+	 */
 	private Map<String, AttributeExt> processAttributeStatements(Direction direction,
 			Map<String, Map<String, AttributeExt>> allRegularAttributesByGroup,
 			Map<String, Map<String, AttributeExt>> upwardsAttributesByGroup,
 			Map<String, Map<String, AttributeExt>> downwardsAttributesByGroup,
-			String group, String queriedAttribute, List<Identity> identities, AttributeStatement[] statements, 
+			String group, String queriedAttribute, List<Identity> identities, GroupStatementsPlan plan, 
 			Set<String> allGroups, Map<String, AttributesClass> knownClasses,
 			Function<String, AttributeType> attrTypeProvider) 
 	{
+		boolean copyRegular = direction == Direction.undirected;
 		Map<String, AttributeExt> collectedAttributes = new HashMap<String, AttributeExt>();
 		Map<String, AttributeExt> regularAttributesInGroup = allRegularAttributesByGroup.get(group);
 		if (regularAttributesInGroup == null)
-			regularAttributesInGroup = new HashMap<String, AttributeExt>();
-		AttributeExt acAttribute = null;
-		if (regularAttributesInGroup != null)
+			regularAttributesInGroup = Collections.emptyMap();
+		if (queriedAttribute == null)
 		{
-			if (queriedAttribute == null)
-			{
-				for (Map.Entry<String, AttributeExt> a: regularAttributesInGroup.entrySet())
-					collectedAttributes.put(a.getKey(), new AttributeExt(a.getValue()));
-			} else
-			{
-				AttributeExt at = regularAttributesInGroup.get(queriedAttribute);
-				if (at != null)
-					collectedAttributes.put(queriedAttribute, new AttributeExt(at));
-			}
-			acAttribute = regularAttributesInGroup.get(
-					AttributeClassUtil.ATTRIBUTE_CLASSES_ATTRIBUTE);
+			for (Map.Entry<String, AttributeExt> a: regularAttributesInGroup.entrySet())
+				collectedAttributes.put(a.getKey(), copyRegular ? new AttributeExt(a.getValue()) : a.getValue());
+		} else
+		{
+			AttributeExt at = regularAttributesInGroup.get(queriedAttribute);
+			if (at != null)
+				collectedAttributes.put(queriedAttribute, copyRegular ? new AttributeExt(at) : at);
 		}
-
+		if (plan.isEmpty())
+			return collectedAttributes;
+		
+		AttributeExt acAttribute = regularAttributesInGroup.get(AttributeClassUtil.ATTRIBUTE_CLASSES_ATTRIBUTE);
 		AttributeClassHelper acHelper = acAttribute == null ? new AttributeClassHelper() :
 			new AttributeClassHelper(knownClasses, acAttribute.getValues());
+		if (!acHelper.isAllowed(queriedAttribute))
+			return collectedAttributes;
 		
-		int i=1;
-		for (AttributeStatement as: statements)
+		StatementsEvaluationContext context = new StatementsEvaluationContext(allGroups, group, identities, 
+				regularAttributesInGroup);
+		AttributeStatement[] statements = plan.statements;
+		for (int i=0; i<statements.length; i++)
 		{
+			AttributeStatement as = statements[i];
+			//we are in the recursive process of establishing downwards or upwards attributes and the
+			// statement is oppositely directed. 
+			if (direction != Direction.undirected && !as.isSuitableForDirectedEvaluation(direction, group))
+				continue;
+			if (!GroupStatementsPlan.isForInterestingAttribute(queriedAttribute, as))
+				continue;
+			
 			Map<String, AttributeExt> extraAttributes = null;
 			String extraAttributesGroup = as.getExtraAttributesGroup();
 			if (extraAttributesGroup != null)
@@ -242,13 +251,12 @@ public class AttributeStatementProcessor
 					extraAttributes = upwardsAttributesByGroup.get(extraAttributesGroup);
 			}
 			
-			ThreadContext.push("[AttrStmnt " + i + " in " + group + " for entity " + 
+			ThreadContext.push("[AttrStmnt " + (i+1) + " in " + group + " for entity " + 
 				identities.get(0).getEntityId() + "]");
 			try
 			{
-				processAttributeStatement(direction, group, as, queriedAttribute, identities, 
-						collectedAttributes, regularAttributesInGroup, extraAttributes, 
-						allGroups, acHelper, attrTypeProvider);
+				processAttributeStatement(group, as, collectedAttributes, regularAttributesInGroup, 
+						extraAttributes, context, attrTypeProvider);
 			} catch (Exception e) 
 			{
 				log.error("Error processing statement " + 
@@ -268,34 +276,22 @@ public class AttributeStatementProcessor
 	 * account.
 	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void processAttributeStatement(Direction direction, String group, AttributeStatement statement, 
-			String attribute, List<Identity> identities,
+	private void processAttributeStatement(String group, AttributeStatement statement, 
 			Map<String, AttributeExt> collectedAttributes,
 			Map<String, AttributeExt> regularGroupAttributes,
 			Map<String, AttributeExt> extraGroupAttributes,
-			Set<String> allGroups, AttributeClassHelper acHelper,
+			StatementsEvaluationContext context,
 			Function<String, AttributeType> attrTypeProvider) 
 	{
-		//we are in the recursive process of establishing downwards or upwards attributes and the
-		// statement is oppositely directed. 
-		if (direction != Direction.undirected && !statement.isSuitableForDirectedEvaluation(direction, group))
-			return;
-
-		if (!acHelper.isAllowed(attribute))
-			return;
-
-		if (!isForInterestingAttribute(attribute, statement))
-			return;
-		
-		Map<String, Object> context = createMvelContext(allGroups, group, identities, 
-				regularGroupAttributes, extraGroupAttributes);
-		
-		boolean condition = evaluateStatementCondition(statement, context);
-		if (!condition)
-			return;
+		if (!GroupStatementsPlan.isUnconditional(statement))
+		{
+			boolean condition = evaluateStatementCondition(statement, context.get(extraGroupAttributes));
+			if (!condition)
+				return;
+		}
 		
 		Attribute ret = statement.dynamicAttributeMode() ? 
-				evaluateStatementValue(statement, group, context, attrTypeProvider) : 
+				evaluateStatementValue(statement, group, context.get(extraGroupAttributes), attrTypeProvider) : 
 				statement.getFixedAttribute();
 		
 		if (ret == null)
@@ -325,6 +321,11 @@ public class AttributeStatementProcessor
 				AttributeType at = attrTypeProvider.apply(ret.getName());
 				if (at.getMaxElements() == Integer.MAX_VALUE)
 				{
+					if (existing == regularGroupAttributes.get(ret.getName()))
+					{
+						existing = new AttributeExt(existing);
+						collectedAttributes.put(ret.getName(), existing);
+					}
 					((List)existing.getValues()).addAll(ret.getValues());
 					log.trace("Merge of values was performed");					
 				} else
@@ -436,9 +437,58 @@ public class AttributeStatementProcessor
 		return ret;
 	}
 
+	/**
+	 * MVEL context of statements evaluation of a single entity in a single group. Created lazily, only 
+	 * if any of the statements needs it, and reused by all statements. Only extra attributes are 
+	 * replaced between statements.
+	 */
+	private class StatementsEvaluationContext
+	{
+		private final Set<String> allGroups;
+		private final String groupName;
+		private final List<Identity> identities;
+		private final Map<String, AttributeExt> directAttributes;
+		private Map<String, Object> context;
+		private Map<String, AttributeExt> contextExtraAttributes;
+		
+		StatementsEvaluationContext(Set<String> allGroups, String groupName, List<Identity> identities,
+				Map<String, AttributeExt> directAttributes)
+		{
+			this.allGroups = allGroups;
+			this.groupName = groupName;
+			this.identities = identities;
+			this.directAttributes = directAttributes;
+		}
+
+		Map<String, Object> get(Map<String, AttributeExt> extraAttributes)
+		{
+			if (context == null)
+			{
+				context = createMvelContext(allGroups, groupName, identities, directAttributes);
+				setExtraAttributes(extraAttributes);
+			} else if (contextExtraAttributes != extraAttributes)
+			{
+				setExtraAttributes(extraAttributes);
+			}
+			return context;
+		}
+		
+		private void setExtraAttributes(Map<String, AttributeExt> extraAttributes)
+		{
+			contextExtraAttributes = extraAttributes;
+			if (extraAttributes != null)
+			{
+				addAttributesToContext(extraAttributes, ContextKey.eattrs, ContextKey.eattr, context);
+			} else
+			{
+				context.put(ContextKey.eattrs.name(), null);
+				context.put(ContextKey.eattr.name(), null);
+			}
+		}
+	}
+	
 	private Map<String, Object> createMvelContext(Set<String> allGroups, String groupName, 
-			List<Identity> identities,
-			Map<String, AttributeExt> directAttributes, Map<String, AttributeExt> extraAttributes)
+			List<Identity> identities, Map<String, AttributeExt> directAttributes)
 	{
 		Map<String, Object> ret = new HashMap<>();
 		
@@ -460,15 +510,6 @@ public class AttributeStatementProcessor
 		ret.put(ContextKey.idsByType.name(), idsByType);
 		
 		addAttributesToContext(directAttributes, ContextKey.attrs, ContextKey.attr, ret);
-		if (extraAttributes != null)
-		{
-			addAttributesToContext(extraAttributes, ContextKey.eattrs, ContextKey.eattr, ret);
-		} else
-		{
-			ret.put(ContextKey.eattrs.name(), null);
-			ret.put(ContextKey.eattr.name(), null);
-		}
-		
 		return ret;
 	}
 	
@@ -81,6 +81,20 @@ public class AttributeValueConverterImpl implements AttributeValueConverter
 		return ret;
 	}
 	
+	/**
+	 * Converts a list of values as persisted, which may hold only references to contents stored
+	 * out of line, to the self contained internal representation. 
+	 */
+	@Override
+	public List<String> storedValuesToInternal(String attributeName, List<String> storedValues)
+	{
+		AttributeValueSyntax<?> syntax = atHelper.getUnconfiguredSyntaxForAttributeName(attributeName);
+		List<String> ret = new ArrayList<>(storedValues.size());
+		for (String o: storedValues)
+			ret.add(syntax.fromStorageForm(o));
+		return ret;
+	}
+	
 	/**
 	* Converts a list of internal values to the object value
 	 */
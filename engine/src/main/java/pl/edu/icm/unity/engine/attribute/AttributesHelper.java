@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableMap;
 
 import pl.edu.icm.unity.base.capacityLimit.CapacityLimitName;
 import pl.edu.icm.unity.engine.api.attributes.AttributeClassHelper;
+import pl.edu.icm.unity.engine.api.attributes.AttributeContentStore;
 import pl.edu.icm.unity.engine.api.attributes.AttributeMetadataProvider;
 import pl.edu.icm.unity.engine.api.attributes.AttributeMetadataProvidersRegistry;
 import pl.edu.icm.unity.engine.api.attributes.AttributeValueSyntax;
@@ -87,6 +88,7 @@ public class AttributesHelper
 	private final AuditPublisher audit;
 	private final InternalCapacityLimitVerificator capacityLimitVerificator;
 	private final PublicAttributeRegistry attrRegistry;
+	private final AttributeContentStore contentStore;
 	
 	@Autowired
 	public AttributesHelper(AttributeMetadataProvidersRegistry atMetaProvidersRegistry,
@@ -96,7 +98,8 @@ public class AttributesHelper
 			MembershipDAO membershipDAO, AttributeStatementProcessor statementsHelper,
 			AttributeTypeHelper atHelper, AttributeClassUtil acUtil,
 			GroupDAO groupDAO, AuditPublisher audit,
-			InternalCapacityLimitVerificator capacityLimitVerificator)
+			InternalCapacityLimitVerificator capacityLimitVerificator,
+			AttributeContentStore contentStore)
 	{
 		this.atMetaProvidersRegistry = atMetaProvidersRegistry;
 		this.acDB = acDB;
@@ -113,6 +116,7 @@ public class AttributesHelper
 		this.audit = audit;
 		this.capacityLimitVerificator = capacityLimitVerificator;
 		this.attrRegistry = new PublicAttributeRegistry(attributeDAO, atHelper);
+		this.contentStore = contentStore;
 	}
 
 	/**
@@ -380,8 +384,6 @@ public class AttributesHelper
 		enforceCorrectConfirmationState(entityId, update, attribute, honorInitialConfirmation);
 		validate(attribute, at);
 		
-		AttributeExt aExt = new AttributeExt(attribute, true);
-		StoredAttribute param = new StoredAttribute(aExt, entityId);
 		List<AttributeExt> existing = attributeDAO.getEntityAttributes(entityId, attribute.getName(), 
 				attribute.getGroupPath());
 			
@@ -390,22 +392,36 @@ public class AttributesHelper
 			if (!membershipDAO.isMember(entityId, attribute.getGroupPath()))
 				throw new IllegalGroupValueException("The entity is not a member "
 						+ "of the group specified in the attribute");
-			checkAttributeCapacityLimit(at, aExt);	
-			long createdAttrId = attributeDAO.create(param);
-			attrRegistry.registerAttributeInfo(attribute, createdAttrId);
+			checkAttributeCapacityLimit(at, attribute);
+			Attribute toStore = toStorageForm(attribute, at);
+			long createdAttrId = attributeDAO.create(
+					new StoredAttribute(new AttributeExt(toStore, true), entityId));
+			attrRegistry.registerAttributeInfo(toStore, createdAttrId);
 			audit.log(getAttrAudit(entityId, attribute, AuditEventAction.ADD));
 		} else
 		{
 			if (!update)
 				throw new IllegalAttributeValueException("The attribute already exists");
+			checkAttributeCapacityLimit(at, attribute);
+			StoredAttribute param = new StoredAttribute(
+					new AttributeExt(toStorageForm(attribute, at), true), entityId);
 			AttributeExt updated = existing.get(0);
 			param.getAttribute().setCreationTs(updated.getCreationTs());
-			checkAttributeCapacityLimit(at, aExt);
 			attributeDAO.updateAttribute(param);
 			audit.log(getAttrAudit(entityId, attribute, AuditEventAction.UPDATE));
 		}
 	}
 
+	private Attribute toStorageForm(Attribute attribute, AttributeType at)
+	{
+		AttributeValueSyntax<?> syntax = atHelper.getSyntax(at);
+		Attribute toStore = new Attribute(attribute);
+		toStore.setValues(attribute.getValues().stream()
+				.map(value -> syntax.toStorageForm(value, contentStore))
+				.collect(toList()));
+		return toStore;
+	}
+	
 	private void checkAttributeCapacityLimit(AttributeType at, Attribute attr) throws CapacityLimitReachedException
 	{
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.attribute;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import pl.edu.icm.unity.types.basic.AttributeStatement;
+import pl.edu.icm.unity.types.basic.AttributeStatement.Direction;
+
+/**
+ * Attribute statements of a group, pre-processed for repeated evaluation for many entities. 
+ * Plan is bound to the statements array it was created from: group update or change of its statements 
+ * always produces a new array, and then a new plan must be created.
+ */
+class GroupStatementsPlan
+{
+	private static final String TRUE_CONDITION = "true";
+	
+	final AttributeStatement[] statements;
+	private final Set<String> upwardsExtraGroups;
+	private final Set<String> downwardsExtraGroups;
+	
+	GroupStatementsPlan(String groupPath, AttributeStatement[] statements)
+	{
+		this.statements = statements;
+		this.upwardsExtraGroups = establishExtraGroups(Direction.upwards, groupPath, null);
+		this.downwardsExtraGroups = establishExtraGroups(Direction.downwards, groupPath, null);
+	}
+
+	boolean isBuiltFrom(AttributeStatement[] statements)
+	{
+		return this.statements == statements;
+	}
+	
+	boolean isEmpty()
+	{
+		return statements.length == 0;
+	}
+	
+	/**
+	 * @return true if the condition of the statement is always true and needs no evaluation
+	 */
+	static boolean isUnconditional(AttributeStatement statement)
+	{
+		return statement.getCondition() != null && TRUE_CONDITION.equals(statement.getCondition().trim());
+	}
+	
+	/**
+	 * @return groups of extra attributes used by statements of the given direction
+	 */
+	Set<String> getExtraAttributesGroups(Direction mode, String groupPath, String queriedAttribute)
+	{
+		if (queriedAttribute != null)
+			return establishExtraGroups(mode, groupPath, queriedAttribute);
+		return mode == Direction.upwards ? upwardsExtraGroups : downwardsExtraGroups;
+	}
+	
+	private Set<String> establishExtraGroups(Direction mode, String groupPath, String queriedAttribute)
+	{
+		Set<String> interestingGroups = new HashSet<>();
+		for (AttributeStatement as: statements)
+		{
+			if (as.isSuitableForDirectedEvaluation(mode, groupPath) 
+					&& isForInterestingAttribute(queriedAttribute, as))
+			{
+				String groupPath2 = as.getExtraAttributesGroup();
+				if (groupPath2 != null)
+					interestingGroups.add(groupPath2);
+			}
+		}
+		return interestingGroups.isEmpty() ? Collections.emptySet() : interestingGroups;
+	}
+	
+	static boolean isForInterestingAttribute(String attribute, AttributeStatement as)
+	{
+		if (attribute == null)
+			return true;
+		String assigned = as.getAssignedAttributeName();
+		if (assigned == null || assigned.equals(attribute))
+			return true;
+		return false;
+	}
+}
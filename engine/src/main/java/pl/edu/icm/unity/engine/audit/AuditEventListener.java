@@ -4,14 +4,34 @@
  */
 package pl.edu.icm.unity.engine.audit;
 
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
+
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.attributes.AttributeSupport;
 import pl.edu.icm.unity.engine.api.event.EventListener;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
 import pl.edu.icm.unity.engine.attribute.AttributeTypeChangedEvent;
 import pl.edu.icm.unity.engine.notifications.email.EmailFacility;
+import pl.edu.icm.unity.engine.utils.LifecycleBase;
 import pl.edu.icm.unity.exceptions.IllegalIdentityValueException;
 import pl.edu.icm.unity.exceptions.UnknownIdentityException;
 import pl.edu.icm.unity.stdext.utils.EntityNameMetadataProvider;
@@ -24,11 +44,16 @@ import pl.edu.icm.unity.types.basic.AttributeType;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.basic.audit.AuditEntity;
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
-
-import java.util.List;
+import pl.edu.icm.unity.types.basic.audit.AuditEventType;
 
 /**
  * Listens to AuditEvents and stores them in database.
+ * <p>
+ * Events are put to a bounded queue, which is drained in background by a single writer, storing events in batches.
+ * When the queue is full, event handling blocks for a while and then the event is dropped. Audit entities
+ * (name and email of subject and initiator) are resolved for the whole batch, through a short living cache,
+ * from which an entity is removed when its attributes or identities are changed. Events remaining in the queue
+ * are stored on shutdown.
  *
  * @author R. Ledzinski
  */
@@ -37,6 +62,11 @@ public class AuditEventListener implements EventListener
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_AUDIT, AuditEventListener.class);
 	public static final String ID = AuditEventListener.class.getName();
+	static final int QUEUE_CAPACITY = 10000;
+	static final int WRITE_BATCH_SIZE = 100;
+	private static final long WRITE_DELAY_MS = 100;
+	private static final long ENQUEUE_TIMEOUT_MS = 1000;
+	private static final long AUDIT_ENTITY_CACHE_TTL_S = 30;
 
 	String entityNameAttribute;
 
@@ -47,16 +77,27 @@ public class AuditEventListener implements EventListener
 	private TransactionalRunner tx;
 	volatile boolean enabled;
 
+	private final BlockingQueue<AuditEventTrigger> pending = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+	private final Cache<Long, AuditEntity> auditEntityCache = CacheBuilder.newBuilder()
+			.expireAfterWrite(AUDIT_ENTITY_CACHE_TTL_S, TimeUnit.SECONDS)
+			.maximumSize(QUEUE_CAPACITY)
+			.build();
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
 	@Autowired
 	public AuditEventListener(final AttributeDAO attributeDAO, final EmailFacility emailFacility,
 				final AttributeSupport attributeSupport, final AuditEventDAO dao,
-				final TransactionalRunner tx)
+				final TransactionalRunner tx, final ExecutorsService executorsService)
 	{
 		this.attributeDAO = attributeDAO;
 		this.emailFacility = emailFacility;
 		this.dao = dao;
 		this.tx = tx;
 		this.attributeSupport = attributeSupport;
+		executorsService.getService().scheduleWithFixedDelay(new WriteAuditEvents(), 
+				WRITE_DELAY_MS, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
 	}
 
 	@Override
@@ -81,6 +122,7 @@ public class AuditEventListener implements EventListener
 			log.error("Failed to get attributeType", e);
 		}
 		entityNameAttribute = attr != null ? attr.getName() : null;
+		auditEntityCache.invalidateAll();
 		log.debug("Entity name attribute set to: '" + entityNameAttribute + "'");
 	}
 
@@ -90,6 +132,12 @@ public class AuditEventListener implements EventListener
 		return true;
 	}
 
+	@Override
+	public Set<String> getCategories()
+	{
+		return Sets.newHashSet(AuditEventTrigger.class.getName(), AttributeTypeChangedEvent.class.getName());
+	}
+
 	@Override
 	public boolean isWanted(Event event)
 	{
@@ -120,24 +168,129 @@ public class AuditEventListener implements EventListener
 
 	private boolean handleAuditEventTrigger(AuditEventTrigger event) 
 	{
-		AuditEvent auditEvent = AuditEvent.builder()
+		invalidateChangedAuditEntity(event);
+		try
+		{
+			if (pending.offer(event, ENQUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+				return true;
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		long droppedCount = dropped.incrementAndGet();
+		log.warn("Audit events queue is full, dropping {} event {} of {}, {} events dropped so far", 
+				event.getAction(), event.getName(), event.getType(), droppedCount);
+		return true;
+	}
+
+	private void invalidateChangedAuditEntity(AuditEventTrigger event)
+	{
+		if (event.getType() != AuditEventType.ATTRIBUTE && event.getType() != AuditEventType.IDENTITY)
+			return;
+		Long subject = event.getSubjectEntity().map(AuditEntity::getEntityId)
+				.orElse(event.getSubjectEntityID());
+		if (subject != null)
+			auditEntityCache.invalidate(subject);
+	}
+
+	/**
+	 * @return current state of the queue of audit events waiting to be stored.
+	 */
+	public AuditEventsQueueStatistics getQueueStatistics()
+	{
+		return new AuditEventsQueueStatistics(pending.size(), QUEUE_CAPACITY, written.get(), dropped.get(), 
+				failed.get());
+	}
+
+	private void writeBatch(List<AuditEventTrigger> batch)
+	{
+		try
+		{
+			Map<Long, AuditEntity> auditEntities = resolveAuditEntities(batch);
+			List<AuditEvent> events = batch.stream()
+					.map(trigger -> toAuditEvent(trigger, auditEntities::get))
+					.collect(toList());
+			tx.runInTransaction(() -> dao.createBatch(events));
+			written.addAndGet(events.size());
+		} catch (Exception e)
+		{
+			log.warn("Storing batch of " + batch.size() + " audit events failed, will store them one by one", e);
+			batch.forEach(this::writeSingle);
+		}
+	}
+
+	private void writeSingle(AuditEventTrigger trigger)
+	{
+		try
+		{
+			AuditEvent event = toAuditEvent(trigger, this::createAuditEntity);
+			tx.runInTransaction(() -> dao.create(event));
+			written.incrementAndGet();
+		} catch (Exception e)
+		{
+			failed.incrementAndGet();
+			log.error("Storing audit event " + trigger.getName() + " failed", e);
+		}
+	}
+
+	private AuditEvent toAuditEvent(AuditEventTrigger event, Function<Long, AuditEntity> auditEntityResolver)
+	{
+		return AuditEvent.builder()
 				.type(event.getType())
 				.action(event.getAction())
 				.timestamp(event.getTimestamp())
 				.name(event.getName())
-				.subject(event.getSubjectEntity().orElseGet(() -> createAuditEntity(event.getSubjectEntityID())))
-				.initiator(event.getInitiatorEntity().orElseGet(() -> createAuditEntity(event.getInitiatorEntityID())))
+				.subject(event.getSubjectEntity().orElseGet(() -> 
+						resolveIfSet(event.getSubjectEntityID(), auditEntityResolver)))
+				.initiator(event.getInitiatorEntity().orElseGet(() -> 
+						resolveIfSet(event.getInitiatorEntityID(), auditEntityResolver)))
 				.details(event.getDetails())
 				.tags(event.getTags())
 				.build();
+	}
+
+	private static AuditEntity resolveIfSet(Long entityId, Function<Long, AuditEntity> auditEntityResolver)
+	{
+		return entityId == null ? null : auditEntityResolver.apply(entityId);
+	}
 
-		// Make sure only one event is stored in the same time - AuditEntities and Tags are shared resources.
-		// Transaction retry is also addressing this problem - synchronized block is for code optimization.
-		synchronized (this)
+	/**
+	 * Resolves all entities referenced by ids in the batch. Entities not cached are loaded in a single transaction.
+	 */
+	private Map<Long, AuditEntity> resolveAuditEntities(List<AuditEventTrigger> batch)
+	{
+		Map<Long, AuditEntity> ret = new HashMap<>();
+		List<Long> missing = new ArrayList<>();
+		for (AuditEventTrigger trigger: batch)
 		{
-			tx.runInTransaction(() -> dao.create(auditEvent));
+			if (!trigger.getSubjectEntity().isPresent())
+				addResolvedOrMissing(trigger.getSubjectEntityID(), ret, missing);
+			if (!trigger.getInitiatorEntity().isPresent())
+				addResolvedOrMissing(trigger.getInitiatorEntityID(), ret, missing);
 		}
-		return true;
+		if (missing.isEmpty())
+			return ret;
+		Map<Long, AuditEntity> loaded = tx.runInTransactionRet(() -> 
+		{
+			Map<Long, AuditEntity> loadedInTx = new HashMap<>();
+			for (Long entityId: missing)
+				loadedInTx.put(entityId, loadAuditEntity(entityId));
+			return loadedInTx;
+		});
+		auditEntityCache.putAll(loaded);
+		ret.putAll(loaded);
+		return ret;
+	}
+
+	private void addResolvedOrMissing(Long entityId, Map<Long, AuditEntity> resolved, List<Long> missing)
+	{
+		if (entityId == null || resolved.containsKey(entityId) || missing.contains(entityId))
+			return;
+		AuditEntity cached = auditEntityCache.getIfPresent(entityId);
+		if (cached != null)
+			resolved.put(entityId, cached);
+		else
+			missing.add(entityId);
 	}
 
 	private boolean handleAttributeTypeChangeEvent(AttributeTypeChangedEvent event) 
@@ -178,31 +331,93 @@ public class AuditEventListener implements EventListener
 	{
 		if (entityId == null)
 			return null;
-		return tx.runInTransactionRet(() -> 
+		return tx.runInTransactionRet(() -> loadAuditEntity(entityId));
+	}
+
+	private AuditEntity loadAuditEntity(long entityId)
+	{
+		String email = null;
+		try
 		{
-			String email = null;
-			try
-			{
-				email = emailFacility.getAddressForEntity(new EntityParam(entityId), null, false);
-			} catch (IllegalIdentityValueException e)
-			{
-				log.debug("No email address for entityId={}", entityId);
-			} catch (UnknownIdentityException e)
-			{
-				log.debug("entityId={} was already removed from system", entityId);
-			} catch (Exception e)
-			{
-				log.error("Error getting email for entityId=" + entityId + ", exception:", e);
-			}
+			email = emailFacility.getAddressForEntity(new EntityParam(entityId), null, false);
+		} catch (IllegalIdentityValueException e)
+		{
+			log.debug("No email address for entityId={}", entityId);
+		} catch (UnknownIdentityException e)
+		{
+			log.debug("entityId={} was already removed from system", entityId);
+		} catch (Exception e)
+		{
+			log.error("Error getting email for entityId=" + entityId + ", exception:", e);
+		}
+
+		String name = null;
+		if (entityNameAttribute != null) 
+		{
+			List<StoredAttribute> attrs = attributeDAO.getAttributes(entityNameAttribute, entityId, null);
+			name = attrs.size() > 0 ? attrs.get(0).getAttribute().getValues().get(0) : null;
+		}
+
+		return new AuditEntity(entityId, name, email);
+	}
 
-			String name = null;
-			if (entityNameAttribute != null) 
+	/**
+	 * Drains the queue of events, storing them in batches. Synchronized so that shared AuditEntities and Tags 
+	 * are not created concurrently by this node.
+	 */
+	private synchronized void writePending()
+	{
+		try
+		{
+			List<AuditEventTrigger> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+			while (pending.drainTo(batch, WRITE_BATCH_SIZE) > 0)
 			{
-				List<StoredAttribute> attrs = attributeDAO.getAttributes(entityNameAttribute, entityId, null);
-				name = attrs.size() > 0 ? attrs.get(0).getAttribute().getValues().get(0) : null;
+				writeBatch(batch);
+				batch.clear();
 			}
+		} catch (Exception e)
+		{
+			log.error("Storing audit events failed", e);
+		}
+	}
 
-			return new AuditEntity(entityId, name, email);
-		});
+	private class WriteAuditEvents implements Runnable
+	{
+		@Override
+		public void run()
+		{
+			writePending();
+		}
+	}
+
+	/**
+	 * Stores events remaining in the queue on shutdown, after endpoints were stopped. 
+	 */
+	@Component
+	public static class AuditEventsShutdownWriter extends LifecycleBase
+	{
+		private final AuditEventListener listener;
+
+		@Autowired
+		public AuditEventsShutdownWriter(AuditEventListener listener)
+		{
+			this.listener = listener;
+		}
+
+		@Override
+		public void stop()
+		{
+			int remaining = listener.pending.size();
+			if (remaining > 0)
+				log.info("Storing {} queued audit events before shutdown", remaining);
+			listener.writePending();
+			super.stop();
+		}
+
+		@Override
+		public int getPhase()
+		{
+			return Integer.MIN_VALUE + 1;
+		}
 	}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.audit;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.config.UnityServerConfiguration;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
+import pl.edu.icm.unity.store.api.AuditEventDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+
+/**
+ * Periodically removes audit events older then the configured retention period. Events are removed
+ * in batches, each in a separate transaction, so that the removal of a large backlog of events
+ * doesn't lock the audit log for a long time.
+ * <p>
+ * Audit entities are not removed, as those are few and are referenced by subsequent events.
+ */
+@Component
+public class AuditEventsCleaner
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_AUDIT, AuditEventsCleaner.class);
+	static final int DELETE_BATCH_SIZE = 1000;
+	private static final long CLEANUP_INTERVAL_MIN = 60;
+	private static final long FIRST_CLEANUP_DELAY_MIN = 5;
+
+	private final AuditEventDAO dao;
+	private final TransactionalRunner tx;
+	private final int retentionDays;
+
+	@Autowired
+	public AuditEventsCleaner(AuditEventDAO dao, TransactionalRunner tx, ExecutorsService executorsService,
+			UnityServerConfiguration mainConfig)
+	{
+		this.dao = dao;
+		this.tx = tx;
+		this.retentionDays = mainConfig.getIntValue(UnityServerConfiguration.AUDITEVENTLOGS_RETENTION_DAYS);
+		if (retentionDays > 0)
+		{
+			log.info("AuditEvents older then {} days will be removed", retentionDays);
+			executorsService.getService().scheduleWithFixedDelay(new RemoveExpiredAuditEvents(),
+					FIRST_CLEANUP_DELAY_MIN, CLEANUP_INTERVAL_MIN, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * @return number of removed events
+	 */
+	int removeEventsOlderThan(Date olderThan)
+	{
+		int total = 0;
+		int removed;
+		do
+		{
+			removed = tx.runInTransactionRet(() -> dao.deleteOlderThan(olderThan, DELETE_BATCH_SIZE));
+			total += removed;
+		} while (removed == DELETE_BATCH_SIZE);
+		if (total > 0)
+			log.info("Removed {} AuditEvents older then {}", total, olderThan);
+		return total;
+	}
+
+	private class RemoveExpiredAuditEvents implements Runnable
+	{
+		@Override
+		public void run()
+		{
+			try
+			{
+				removeEventsOlderThan(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays)));
+			} catch (Exception e)
+			{
+				log.error("Removing expired audit events failed", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.audit;
+
+/**
+ * Snapshot of the state of audit events queue on the local server. Counters are cumulative since
+ * the server start, queue depth is current.
+ */
+public class AuditEventsQueueStatistics
+{
+	public final int queueDepth;
+	public final int queueCapacity;
+	public final long writtenEvents;
+	public final long droppedEvents;
+	public final long failedEvents;
+
+	AuditEventsQueueStatistics(int queueDepth, int queueCapacity, long writtenEvents, long droppedEvents,
+			long failedEvents)
+	{
+		this.queueDepth = queueDepth;
+		this.queueCapacity = queueCapacity;
+		this.writtenEvents = writtenEvents;
+		this.droppedEvents = droppedEvents;
+		this.failedEvents = failedEvents;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "AuditEventsQueueStatistics [queueDepth=" + queueDepth + ", queueCapacity=" + queueCapacity
+				+ ", writtenEvents=" + writtenEvents + ", droppedEvents=" + droppedEvents
+				+ ", failedEvents=" + failedEvents + "]";
+	}
+}
@@ -20,6 +20,7 @@ import pl.edu.icm.unity.engine.authz.InternalAuthorizationManager;
 import pl.edu.icm.unity.store.api.AuditEventDAO;
 import pl.edu.icm.unity.store.api.tx.Transactional;
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 
 /**
  * Read access and management of audit log.
@@ -66,6 +67,14 @@ public class AuditManager implements AuditEventManagement
 		return dao.getOrderedLogs(from, until, limit, order, direction);
 	}
 
+	@Override
+	public AuditEventsPage getAuditEventsPage(final Date from, final Date until, final AuditEventsPage.PageKey after,
+			final int pageSize, final int direction)
+	{
+		authz.checkAuthorizationRT("/", AuthzCapability.maintenance);
+		return dao.getLogsPage(from, until, after, pageSize, direction);
+	}
+
 	@Override
 	public Set<String> getAllTags()
 	{
@@ -32,6 +32,7 @@ import pl.edu.icm.unity.engine.api.translation.in.MappedAttribute;
 import pl.edu.icm.unity.engine.api.translation.in.MappedGroup;
 import pl.edu.icm.unity.engine.api.translation.in.MappedIdentity;
 import pl.edu.icm.unity.engine.api.translation.in.MappingResult;
+import pl.edu.icm.unity.engine.translation.TranslationProfileInstanceCache;
 import pl.edu.icm.unity.engine.translation.in.InputTranslationProfile;
 import pl.edu.icm.unity.engine.translation.in.InputTranslationProfileRepository;
 import pl.edu.icm.unity.exceptions.EngineException;
@@ -55,18 +56,21 @@ public class RemoteAuthnResultProcessorImpl implements RemoteAuthnResultProcesso
 	private IdentityResolver identityResolver;
 	private InputTranslationEngine trEngine;
 	private InputTranslationActionsRegistry actionsRegistry;
+	private TranslationProfileInstanceCache profileInstanceCache;
 	
 	
 	@Autowired
 	public RemoteAuthnResultProcessorImpl(IdentityResolver identityResolver,	
 			InputTranslationProfileRepository profileRepo,
 			InputTranslationEngine trEngine,
-			InputTranslationActionsRegistry actionsRegistry)
+			InputTranslationActionsRegistry actionsRegistry,
+			TranslationProfileInstanceCache profileInstanceCache)
 	{
 		this.identityResolver = identityResolver;
 		this.inputProfileRepo = profileRepo;
 		this.trEngine = trEngine;
 		this.actionsRegistry = actionsRegistry;
+		this.profileInstanceCache = profileInstanceCache;
 	}
 
 	/**
@@ -198,8 +202,10 @@ public class RemoteAuthnResultProcessorImpl implements RemoteAuthnResultProcesso
 			throw new ConfigurationException("The translation profile can not be empty");
 		}
 		
-		InputTranslationProfile profileInstance = new InputTranslationProfile(
-				translationProfile, inputProfileRepo, actionsRegistry);
+		InputTranslationProfile profileInstance = profileInstanceCache.getInstance(InputTranslationProfile.class,
+				translationProfile.getName(), translationProfile,
+				() -> new InputTranslationProfile(translationProfile, inputProfileRepo, actionsRegistry, 
+						profileInstanceCache));
 		
 		MappingResult result = profileInstance.translate(input);
 		log.info("Result of remote data mapping:\n{}", result);
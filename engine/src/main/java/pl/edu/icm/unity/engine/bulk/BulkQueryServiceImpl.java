@@ -5,16 +5,25 @@
 package pl.edu.icm.unity.engine.bulk;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +33,7 @@ import org.springframework.stereotype.Component;
 import com.google.common.base.Stopwatch;
 
 import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.authn.local.LocalCredentialsRegistry;
 import pl.edu.icm.unity.engine.api.bulk.BulkGroupQueryService;
 import pl.edu.icm.unity.engine.api.bulk.EntityGroupAttributes;
@@ -63,6 +73,7 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 	private final CompositeEntitiesInfoProvider dataProvider;
 	private final InternalAuthorizationManager authz;
 	private final TransactionalRunner tx;
+	private final AttributeValueConverter attrConverter;
 	private final ForkJoinPool pool = ForkJoinPool.commonPool();
 	
 	@Autowired
@@ -71,7 +82,8 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 			LocalCredentialsRegistry localCredReg,
 			CompositeEntitiesInfoProvider dataProvider,
 			InternalAuthorizationManager authz,
-			TransactionalRunner tx)
+			TransactionalRunner tx,
+			AttributeValueConverter attrConverter)
 	{
 		this.statementsHelper = statementsHelper;
 		this.credentialsHelper = credentialsHelper;
@@ -79,6 +91,7 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 		this.dataProvider = dataProvider;
 		this.authz = authz;
 		this.tx = tx;
+		this.attrConverter = attrConverter;
 	}
 
 
@@ -97,12 +110,13 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 
 	private MultiGroupMembershipData getMultiGroupMembershipData(String rootGroup, Set<String> groupFilter)
 	{
+		Optional<DataVersions> versions = dataProvider.getDataVersions();
 		try
 		{
 			return tx.runInTransactionRetThrowing(() -> 
 			{
 				authz.checkAuthorization(AuthzCapability.readHidden, AuthzCapability.read);
-				return dataProvider.getCompositeMultiGroupContents(rootGroup, groupFilter);
+				return dataProvider.getCompositeMultiGroupContents(rootGroup, groupFilter, versions);
 			});
 		} catch (EngineException e)
 		{
@@ -158,20 +172,30 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 		return groupEntityAttributes;
 	}
 	
-	@Transactional
+	/**
+	 * Versions of data are obtained before a transaction is started, therefore transaction is started 
+	 * programmatically in the bulk data loading methods.
+	 */
 	@Override
 	public GroupMembershipData getBulkMembershipData(String group, Set<Long> filter) throws EngineException
 	{
-		authz.checkAuthorization(AuthzCapability.readHidden, AuthzCapability.read);
-		return dataProvider.getCompositeGroupContents(group, Optional.ofNullable(filter));
+		Optional<DataVersions> versions = dataProvider.getDataVersions();
+		return tx.runInTransactionRetThrowing(() -> 
+		{
+			authz.checkAuthorization(AuthzCapability.readHidden, AuthzCapability.read);
+			return dataProvider.getCompositeGroupContents(group, Optional.ofNullable(filter), versions);
+		});
 	}
 	
-	@Transactional
 	@Override
 	public GroupMembershipData getBulkMembershipData(String group) throws EngineException
 	{
-		authz.checkAuthorization(AuthzCapability.readHidden, AuthzCapability.read);
-		return dataProvider.getCompositeGroupContents(group, Optional.empty());
+		Optional<DataVersions> versions = dataProvider.getDataVersions();
+		return tx.runInTransactionRetThrowing(() -> 
+		{
+			authz.checkAuthorization(AuthzCapability.readHidden, AuthzCapability.read);
+			return dataProvider.getCompositeGroupContents(group, Optional.empty(), versions);
+		});
 	}
 	
 	@Transactional
@@ -237,6 +261,85 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 		return ret;
 	}
 
+	@Override
+	public Stream<EntityInGroupData> getMembershipInfoStream(String group, int pageSize) throws EngineException
+	{
+		return streamGroupMembersPages(group, pageSize, page -> new TreeMap<>(getMembershipInfo(page)).values());
+	}
+
+	@Override
+	public Stream<EntityGroupAttributes> getGroupUsersAttributesStream(String group, int pageSize) 
+			throws EngineException
+	{
+		return streamGroupMembersPages(group, pageSize, page -> 
+			new TreeMap<>(getGroupUsersAttributes(group, page.entitiesData, page.globalSystemData)).entrySet().stream()
+				.map(entry -> new EntityGroupAttributes(entry.getKey(), entry.getValue()))
+				.collect(Collectors.toList()));
+	}
+	
+	private <T> Stream<T> streamGroupMembersPages(String group, int pageSize, 
+			Function<GroupMembershipDataImpl, Collection<T>> pageConverter) throws EngineException
+	{
+		if (pageSize <= 0)
+			throw new IllegalArgumentException("Page size must be positive");
+		Optional<DataVersions> versions = dataProvider.getDataVersions();
+		GlobalSystemData globalData = tx.runInTransactionRetThrowing(() -> 
+		{
+			authz.checkAuthorization(AuthzCapability.readHidden, AuthzCapability.read);
+			return dataProvider.getGlobalData(versions);
+		});
+		Iterator<GroupMembershipDataImpl> pages = new GroupMembersPagesIterator(group, pageSize, globalData);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, 
+					Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.flatMap(page -> pageConverter.apply(page).stream());
+	}
+	
+	private class GroupMembersPagesIterator implements Iterator<GroupMembershipDataImpl>
+	{
+		private final String group;
+		private final int pageSize;
+		private final GlobalSystemData globalData;
+		private long lastEntityId = Long.MIN_VALUE;
+		private GroupMembershipDataImpl nextPage;
+		private boolean finished;
+		
+		GroupMembersPagesIterator(String group, int pageSize, GlobalSystemData globalData)
+		{
+			this.group = group;
+			this.pageSize = pageSize;
+			this.globalData = globalData;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (nextPage == null && !finished)
+			{
+				Optional<GroupMembershipDataPage> page = tx.runInTransactionRet(() -> 
+					dataProvider.getCompositeGroupContentsPage(group, globalData, lastEntityId, pageSize));
+				if (page.isPresent())
+				{
+					nextPage = page.get().data;
+					lastEntityId = page.get().lastEntityId;
+				} else
+				{
+					finished = true;
+				}
+			}
+			return nextPage != null;
+		}
+
+		@Override
+		public GroupMembershipDataImpl next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			GroupMembershipDataImpl ret = nextPage;
+			nextPage = null;
+			return ret;
+		}
+	}
+	
 	private Set<String> getEnquiryForms(Long e, GroupMembershipDataImpl data, CredentialInfo credentialInfo)
 	{
 		Set<String> forms = new HashSet<>();
@@ -248,7 +351,8 @@ class BulkQueryServiceImpl implements BulkGroupQueryService
 							data.entitiesData.getEntityInfo().get(e).getEntityState().toString(),
 							credentialInfo,
 							data.entitiesData.getMemberships().get(e),
-							data.entitiesData.getDirectAttributes().get(e).get("/").values()))
+							data.entitiesData.getDirectAttributes().get(e).get("/").values(),
+							attrConverter))
 				forms.add(enqForm.getName());
 		}
 		return forms;
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -20,6 +21,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 
 import pl.edu.icm.unity.base.utils.Log;
@@ -30,12 +33,14 @@ import pl.edu.icm.unity.engine.credential.CredentialReqRepository;
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.store.api.AttributeDAO;
 import pl.edu.icm.unity.store.api.AttributeTypeDAO;
+import pl.edu.icm.unity.store.api.DirectoryModificationsTracker;
 import pl.edu.icm.unity.store.api.EntityDAO;
 import pl.edu.icm.unity.store.api.GroupDAO;
 import pl.edu.icm.unity.store.api.IdentityDAO;
 import pl.edu.icm.unity.store.api.MembershipDAO;
 import pl.edu.icm.unity.store.api.generic.AttributeClassDB;
 import pl.edu.icm.unity.store.api.generic.EnquiryFormDB;
+import pl.edu.icm.unity.store.api.tx.TxManager;
 import pl.edu.icm.unity.store.types.StoredAttribute;
 import pl.edu.icm.unity.store.types.StoredIdentity;
 import pl.edu.icm.unity.types.authn.CredentialRequirements;
@@ -45,10 +50,21 @@ import pl.edu.icm.unity.types.basic.Group;
 import pl.edu.icm.unity.types.basic.GroupMembership;
 import pl.edu.icm.unity.types.basic.Identity;
 
+/**
+ * Loads data used in bulk operations. Loaded data can be kept as in-memory snapshots: global system data 
+ * and data of entities of the most recently queried groups. Snapshots are validated with versions of the
+ * stored data, and entities modified since the snapshot was taken are reloaded individually.
+ * <p>
+ * Snapshots are used only when data versions were obtained outside of a transaction,
+ * otherwise data is always loaded from the database.
+ */
 @Component
 class CompositeEntitiesInfoProvider
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_BULK_OPS, CompositeEntitiesInfoProvider.class);
+	private static final int MAX_CACHED_GROUPS = 32;
+	private static final int MAX_CACHED_GROUP_IDLE_MINUTES = 60;
+	private static final int MAX_INCREMENTALLY_REFRESHED_ENTITIES = 1000;
 	@Autowired
 	private AttributeTypeDAO attributeTypeDAO;
 	@Autowired
@@ -69,38 +85,78 @@ class CompositeEntitiesInfoProvider
 	private CredentialReqRepository credentialReqRepository;
 	@Autowired
 	private EnquiryFormDB enquiryDB;
+	@Autowired
+	private DirectoryModificationsTracker modificationsTracker;
+	@Autowired
+	private TxManager txManager;
+	
+	private final Object globalDataLock = new Object();
+	private VersionedSnapshot<GlobalSystemData> globalDataSnapshot;
+	private final Cache<String, VersionedSnapshot<EntitiesData>> groupEntitiesSnapshots = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_GROUPS)
+			.expireAfterAccess(MAX_CACHED_GROUP_IDLE_MINUTES, TimeUnit.MINUTES)
+			.build();
 	
-	public GroupMembershipData getCompositeGroupContents(String group, Optional<Set<Long>> filter) throws EngineException
+	/**
+	 * Must be called before the transaction in which data is loaded is started.
+	 * @return versions of the stored data or empty if snapshots can not be used.
+	 */
+	Optional<DataVersions> getDataVersions()
+	{
+		if (!modificationsTracker.isTrackingModifications() || txManager.isTransactionActive())
+			return Optional.empty();
+		return Optional.of(new DataVersions(modificationsTracker.getGlobalDataVersion(), 
+				modificationsTracker.getEntitiesDataVersion()));
+	}
+	
+	public GroupMembershipData getCompositeGroupContents(String group, Optional<Set<Long>> filter, 
+			Optional<DataVersions> versions) throws EngineException
 	{
 		Stopwatch watch = Stopwatch.createStarted();
-		Set<Long> filterSet = (filter == null || !filter.isPresent() ? null : filter.get());
-		Set<Long> members = (filterSet == null ? getMembers(group)
-				: getMembers(group).stream().filter(i -> filterSet.contains(i))
-						.collect(Collectors.toSet()));
-
-		GlobalSystemData globalData = loadGlobalData();
-		EntitiesData entitiesData = getEntitiesDataOFSingleGroup(group, gm -> members.contains(gm.getEntityId()));
+		GlobalSystemData globalData = getGlobalData(versions);
+		EntitiesData groupEntitiesData = getGroupEntitiesData(group, versions);
+		EntitiesData entitiesData = filter == null || !filter.isPresent() ? 
+				groupEntitiesData : filterMemberships(groupEntitiesData, filter.get());
 		
 		GroupMembershipDataImpl ret = new GroupMembershipDataImpl(group, globalData, entitiesData);
 		log.debug("Bulk group membership data retrieval: {}", watch.toString());
 		return ret;
 	}
 
-	private EntitiesData getEntitiesDataOFSingleGroup(String group, Predicate<GroupMembership> groupMembershipFilter)
+	private EntitiesData filterMemberships(EntitiesData entitiesData, Set<Long> filter)
 	{
+		Map<Long, Set<String>> memberships = entitiesData.getMemberships().entrySet().stream()
+				.filter(entry -> filter.contains(entry.getKey()))
+				.collect(Collectors.toMap(entry -> entry.getKey(), entry -> entry.getValue()));
+		return EntitiesData.builder()
+				.withMemberships(memberships)
+				.withEntityInfo(entitiesData.getEntityInfo())
+				.withIdentities(entitiesData.getIdentities())
+				.withDirectAttributes(entitiesData.getDirectAttributes())
+				.build();
+	}
+	
+	private EntitiesData getEntitiesDataOFSingleGroup(String group)
+	{
+		Set<Long> members = getMembers(group);
 		return EntitiesData.builder()
-				.withMemberships(getFilteredMemberships(groupMembershipFilter))
+				.withMemberships(getFilteredMemberships(gm -> members.contains(gm.getEntityId())))
 				.withEntityInfo(getEntityInfo(group))
 				.withIdentities(getIdentities(group))
 				.withDirectAttributes(getAttributes(group))				
 				.build();
 	}
 	
-	public MultiGroupMembershipData getCompositeMultiGroupContents(String rootGroup, Set<String> groupFilter) throws EngineException
+	/**
+	 * As members of a group are also members of its parent groups, data of the root group members 
+	 * covers all members of the selected groups.
+	 */
+	public MultiGroupMembershipData getCompositeMultiGroupContents(String rootGroup, Set<String> groupFilter, 
+			Optional<DataVersions> versions) throws EngineException
 	{
 		Stopwatch watch = Stopwatch.createStarted();
 
-		GlobalSystemData globalData = loadGlobalData();
+		GlobalSystemData globalData = getGlobalData(versions);
 		
 		Predicate<String> groupTester = groupFilter.isEmpty() ? 
 				grp -> Group.isChildOrSame(grp, rootGroup) :
@@ -109,26 +165,29 @@ class CompositeEntitiesInfoProvider
 				.filter(groupTester)
 				.collect(Collectors.toSet());
 		
-		Map<Long, Set<String>> allMemberships = getFilteredMemberships(a -> true);
-		Set<Long> relevantMembers = allMemberships.entrySet().stream()
+		EntitiesData rootGroupData = getGroupEntitiesData(rootGroup, versions);
+		Set<Long> relevantMembers = rootGroupData.getMemberships().entrySet().stream()
 			.filter(entry -> !Sets.intersection(entry.getValue(), acceptedGroups).isEmpty())
 			.map(entry -> entry.getKey())
 			.collect(Collectors.toSet());
-		Predicate<Long> entityTester = entityId -> relevantMembers.contains(entityId);
-		Map<Long, Set<String>> memberships = allMemberships.entrySet().stream()
-				.filter(entry -> entityTester.test(entry.getKey()))
-				.collect(Collectors.toMap(entry -> entry.getKey(), entry -> entry.getValue()));
 		EntitiesData entitiesData = EntitiesData.builder()
-				.withMemberships(memberships)
-				.withEntityInfo(getEntityInfo(entityTester))
-				.withIdentities(getIdentities(entityTester))
-				.withDirectAttributes(getAllAttributes(entityTester))				
+				.withMemberships(filterByEntity(rootGroupData.getMemberships(), relevantMembers))
+				.withEntityInfo(filterByEntity(rootGroupData.getEntityInfo(), relevantMembers))
+				.withIdentities(filterByEntity(rootGroupData.getIdentities(), relevantMembers))
+				.withDirectAttributes(filterByEntity(rootGroupData.getDirectAttributes(), relevantMembers))
 				.build();
 		MultiGroupMembershipData ret = new MultiGroupMembershipData(acceptedGroups, globalData, entitiesData);
 		log.debug("Bulk multi-group membership data retrieval: {}", watch.toString());
 		return ret;
 	}
 	
+	private <T> Map<Long, T> filterByEntity(Map<Long, T> map, Set<Long> entities)
+	{
+		return map.entrySet().stream()
+				.filter(entry -> entities.contains(entry.getKey()))
+				.collect(Collectors.toMap(entry -> entry.getKey(), entry -> entry.getValue()));
+	}
+	
 	public GroupStructuralData getGroupStructuralContents(String group) throws EngineException
 	{
 		Stopwatch watch = Stopwatch.createStarted();
@@ -140,6 +199,115 @@ class CompositeEntitiesInfoProvider
 		return ret;
 	}
 	
+	/**
+	 * Loads data of a single page of group members: at most pageSize members with entity ids greater than 
+	 * afterEntityId, in entity id order. 
+	 * @return empty if there are no more members
+	 */
+	Optional<GroupMembershipDataPage> getCompositeGroupContentsPage(String group, GlobalSystemData globalData, 
+			long afterEntityId, int pageSize)
+	{
+		Stopwatch watch = Stopwatch.createStarted();
+		List<GroupMembership> members = membershipDAO.getMembersPage(group, afterEntityId, pageSize);
+		if (members.isEmpty())
+			return Optional.empty();
+		long fromEntityId = members.get(0).getEntityId();
+		long toEntityId = members.get(members.size() - 1).getEntityId();
+		EntitiesData entitiesData = EntitiesData.builder()
+				.withMemberships(mapMembershipsByEntity(
+						membershipDAO.getMembershipsOfGroupMembers(group, fromEntityId, toEntityId).stream()))
+				.withEntityInfo(entityDAO.getByGroupInRange(group, fromEntityId, toEntityId).stream()
+						.collect(Collectors.toMap(entity -> entity.getId(), entity -> entity)))
+				.withIdentities(mapIdentitiesByEntity(
+						identityDAO.getByGroupInRange(group, fromEntityId, toEntityId).stream()))
+				.withDirectAttributes(mapAttributesByEntities(
+						attributeDAO.getAttributesOfGroupMembersInRange(group, fromEntityId, toEntityId).stream()))
+				.build();
+		log.debug("Bulk group membership data page of {} members retrieval: {}", members.size(), watch.toString());
+		return Optional.of(new GroupMembershipDataPage(new GroupMembershipDataImpl(group, globalData, entitiesData), 
+				toEntityId));
+	}
+	
+	GlobalSystemData getGlobalData(Optional<DataVersions> versions) throws EngineException
+	{
+		if (!versions.isPresent())
+			return loadGlobalData();
+		long version = versions.get().globalDataVersion;
+		synchronized (globalDataLock)
+		{
+			if (globalDataSnapshot != null && globalDataSnapshot.version == version)
+				return globalDataSnapshot.data;
+		}
+		GlobalSystemData loaded = loadGlobalData();
+		synchronized (globalDataLock)
+		{
+			if (globalDataSnapshot == null || globalDataSnapshot.version < version)
+				globalDataSnapshot = new VersionedSnapshot<>(version, loaded);
+		}
+		return loaded;
+	}
+	
+	private EntitiesData getGroupEntitiesData(String group, Optional<DataVersions> versions)
+	{
+		if (!versions.isPresent())
+			return getEntitiesDataOFSingleGroup(group);
+		long version = versions.get().entitiesDataVersion;
+		VersionedSnapshot<EntitiesData> cached = groupEntitiesSnapshots.getIfPresent(group);
+		if (cached != null && cached.version == version)
+			return cached.data;
+		
+		EntitiesData current = null;
+		if (cached != null && cached.version < version)
+		{
+			Optional<Set<Long>> modified = modificationsTracker.getEntitiesModifiedSince(cached.version);
+			if (modified.isPresent() && modified.get().size() <= MAX_INCREMENTALLY_REFRESHED_ENTITIES)
+				current = refreshEntities(group, cached.data, modified.get());
+		}
+		if (current == null)
+			current = getEntitiesDataOFSingleGroup(group);
+		
+		VersionedSnapshot<EntitiesData> updated = new VersionedSnapshot<>(version, current);
+		groupEntitiesSnapshots.asMap().merge(group, updated, 
+				(existing, candidate) -> existing.version < candidate.version ? candidate : existing);
+		return current;
+	}
+	
+	private EntitiesData refreshEntities(String group, EntitiesData snapshot, Set<Long> modifiedEntities)
+	{
+		Stopwatch w = Stopwatch.createStarted();
+		Map<Long, Set<String>> memberships = new HashMap<>(snapshot.getMemberships());
+		Map<Long, EntityInformation> entityInfo = new HashMap<>(snapshot.getEntityInfo());
+		Map<Long, List<Identity>> identities = new HashMap<>(snapshot.getIdentities());
+		Map<Long, Map<String, Map<String, AttributeExt>>> attributes = new HashMap<>(snapshot.getDirectAttributes());
+		for (Long entityId: modifiedEntities)
+		{
+			memberships.remove(entityId);
+			entityInfo.remove(entityId);
+			identities.remove(entityId);
+			attributes.remove(entityId);
+			
+			Set<String> entityGroups = membershipDAO.getEntityMembership(entityId).stream()
+					.map(GroupMembership::getGroup)
+					.collect(Collectors.toSet());
+			if (!entityGroups.contains(group))
+				continue;
+			memberships.put(entityId, entityGroups);
+			entityInfo.put(entityId, entityDAO.getByKey(entityId));
+			List<Identity> entityIdentities = identityDAO.getByEntity(entityId);
+			if (!entityIdentities.isEmpty())
+				identities.put(entityId, entityIdentities);
+			attributes.putAll(mapAttributesByEntities(
+					attributeDAO.getAttributes(null, entityId, null).stream()));
+		}
+		log.debug("Refreshed {} modified entities of {} snapshot: {}", modifiedEntities.size(), group, w.toString());
+		return EntitiesData.builder()
+				.withMemberships(memberships)
+				.withEntityInfo(entityInfo)
+				.withIdentities(identities)
+				.withDirectAttributes(attributes)
+				.build();
+	}
+	
 	private GlobalSystemData loadGlobalData() throws EngineException
 	{
 		Stopwatch watch = Stopwatch.createStarted();
@@ -169,16 +337,6 @@ class CompositeEntitiesInfoProvider
 		return mapAttributesByEntities(all.stream());
 	}
 
-	private Map<Long, Map<String, Map<String, AttributeExt>>> getAllAttributes(Predicate<Long> entityTester)
-	{
-		Stopwatch w = Stopwatch.createStarted();
-		Stream<StoredAttribute> all = attributeDAO.getAll().stream()
-				.filter(sa -> entityTester.test(sa.getEntityId()));
-		log.debug("getAllAttrs {}", w.toString());
-		return mapAttributesByEntities(all);
-	}
-	
-	
 	private Map<Long, Map<String, Map<String, AttributeExt>>> mapAttributesByEntities(Stream<StoredAttribute> all)
 	{
 		Map<Long, Map<String, Map<String, AttributeExt>>> ret = new HashMap<>();
@@ -203,13 +361,6 @@ class CompositeEntitiesInfoProvider
 			.collect(Collectors.toMap(entity -> entity.getId(), entity->entity));
 	}
 
-	private Map<Long, EntityInformation> getEntityInfo(Predicate<Long> entityTester)
-	{
-		return entityDAO.getAll().stream()
-				.filter(ei -> entityTester.test(ei.getId()))
-				.collect(Collectors.toMap(entity -> entity.getId(), entity->entity));
-	}
-	
 	private Map<Long, List<Identity>> getIdentities(String group)
 	{
 		Stopwatch w = Stopwatch.createStarted();
@@ -218,14 +369,6 @@ class CompositeEntitiesInfoProvider
 		return mapIdentitiesByEntity(all.stream());
 	}
 
-	private Map<Long, List<Identity>> getIdentities(Predicate<Long> entityTester)
-	{
-		Stopwatch w = Stopwatch.createStarted();
-		Stream<StoredIdentity> all = identityDAO.getAll().stream().filter(si -> entityTester.test(si.getEntityId()));
-		log.debug("getAllIdentities {}", w.toString());
-		return mapIdentitiesByEntity(all);
-	}
-	
 	private Map<Long, List<Identity>> mapIdentitiesByEntity(Stream<StoredIdentity> all)
 	{
 		Map<Long, List<Identity>> ret = new HashMap<>();
@@ -251,13 +394,27 @@ class CompositeEntitiesInfoProvider
 		Stopwatch w = Stopwatch.createStarted();
 		List<GroupMembership> all = membershipDAO.getAll();
 		log.debug("getMemberships {}", w.toString());
+		return mapMembershipsByEntity(all.stream().filter(filter));
+	}
+
+	private Map<Long, Set<String>> mapMembershipsByEntity(Stream<GroupMembership> all)
+	{
 		Map<Long, Set<String>> ret = new HashMap<>();
-		all.stream()
-			.filter(filter)
-			.forEach(membership -> ret
-					.computeIfAbsent(membership.getEntityId(), key -> new HashSet<>())
+		all.forEach(membership -> 
+				ret.computeIfAbsent(membership.getEntityId(), key -> new HashSet<>())
 					.add(membership.getGroup()));
 		return ret;
 	}
+	
+	private static class VersionedSnapshot<T>
+	{
+		private final long version;
+		private final T data;
 
+		VersionedSnapshot(long version, T data)
+		{
+			this.version = version;
+			this.data = data;
+		}
+	}
 }
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.bulk;
+
+/**
+ * Versions of the stored data, obtained before the data is loaded. Used to validate cached snapshots of the data.
+ */
+class DataVersions
+{
+	final long globalDataVersion;
+	final long entitiesDataVersion;
+
+	DataVersions(long globalDataVersion, long entitiesDataVersion)
+	{
+		this.globalDataVersion = globalDataVersion;
+		this.entitiesDataVersion = entitiesDataVersion;
+	}
+}
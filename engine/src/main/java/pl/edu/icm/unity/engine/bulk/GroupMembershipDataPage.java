@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.bulk;
+
+/**
+ * Data of a single page of group members, with the id of the last member of the page, 
+ * used to request the next page.
+ */
+class GroupMembershipDataPage
+{
+	final GroupMembershipDataImpl data;
+	final long lastEntityId;
+
+	GroupMembershipDataPage(GroupMembershipDataImpl data, long lastEntityId)
+	{
+		this.data = data;
+		this.lastEntityId = lastEntityId;
+	}
+}
@@ -5,8 +5,22 @@
 package pl.edu.icm.unity.engine.bulkops;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
 
 import org.apache.log4j.NDC;
 import org.apache.logging.log4j.Logger;
@@ -14,84 +28,306 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
 import pl.edu.icm.unity.base.utils.Log;
-import pl.edu.icm.unity.engine.api.EntityManagement;
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.bulk.BulkGroupQueryService;
-import pl.edu.icm.unity.engine.api.bulk.GroupMembershipData;
 import pl.edu.icm.unity.engine.api.bulk.EntityInGroupData;
 import pl.edu.icm.unity.engine.api.bulkops.EntityAction;
+import pl.edu.icm.unity.engine.api.config.UnityServerConfiguration;
 import pl.edu.icm.unity.engine.translation.TranslationRuleInstance;
-import pl.edu.icm.unity.types.basic.Entity;
-import pl.edu.icm.unity.types.basic.EntityParam;
+import pl.edu.icm.unity.exceptions.RuntimeEngineException;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.types.bulkops.BulkProcessingStatus;
 
 /**
- * Responsible for execution of rules. It is an internal engine, it does not 
+ * Responsible for execution of rules. It is an internal engine, it does not
  * touch scheduling, persistence etc.
+ * <p>
+ * Entities are streamed from the bulk query service in chunks, which are processed in parallel by a
+ * bounded number of threads. Only a limited number of chunks is loaded and waiting for processing at a time.
+ * Actions of a chunk are invoked in a single transaction. If it fails the chunk is processed again,
+ * entity by entity in separate transactions, so that a single failing entity does not affect others.
+ * Conditions are evaluated before the chunk's transaction, so that they are not repeated in such case.
  * @author K. Benedyczak
  */
 @Component
 public class BulkProcessingExecutor
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_BULK_OPS, BulkProcessingExecutor.class);
-	
-	@Autowired
-	@Qualifier("insecure")
-	private EntityManagement idManagement;
-	
+	private static final int REMEMBERED_EXECUTIONS = 20;
+	private static final int REMEMBERED_CHUNK_FAILURES = 100;
+
+	private final BulkGroupQueryService bulkService;
+	private final TransactionalRunner tx;
+	private final AttributeValueConverter attrConverter;
+	private final ExecutorService workers;
+	private final int parallelism;
+	private final int chunkSize;
+	private final Deque<ExecutionProgress> executions = new ArrayDeque<>();
+
 	@Autowired
-	@Qualifier("insecure")
-	private BulkGroupQueryService bulkService;
-	
-	public void execute(TranslationRuleInstance<EntityAction> rule)
+	public BulkProcessingExecutor(@Qualifier("insecure") BulkGroupQueryService bulkService,
+			TransactionalRunner tx, UnityServerConfiguration cfg, AttributeValueConverter attrConverter)
+	{
+		this.bulkService = bulkService;
+		this.tx = tx;
+		this.attrConverter = attrConverter;
+		this.parallelism = cfg.getIntValue(UnityServerConfiguration.BULK_PROCESSING_THREADS);
+		this.chunkSize = cfg.getIntValue(UnityServerConfiguration.BULK_PROCESSING_CHUNK_SIZE);
+		this.workers = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+				.setNameFormat("bulk-processing-%d")
+				.setDaemon(true)
+				.build());
+	}
+
+	@PreDestroy
+	void shutdown()
+	{
+		workers.shutdownNow();
+	}
+
+	public void execute(String ruleId, TranslationRuleInstance<EntityAction> rule)
 	{
-		NDC.push("[EntityAction " + rule.getAction().getName() + "]");
+		String context = "[EntityAction " + rule.getAction().getName() + "]";
+		NDC.push(context);
+		ExecutionProgress progress = startExecution(ruleId, rule);
+		List<Future<?>> chunkResults = new ArrayList<>();
+		AtomicBoolean aborted = new AtomicBoolean(false);
 		try
 		{
 			log.info("Starting bulk entities processing rule");
-			Instant start = Instant.now();
-			GroupMembershipData bulkMembershipData = bulkService.getBulkMembershipData("/");
-			Map<Long, EntityInGroupData> membershipInfo = bulkService.getMembershipInfo(bulkMembershipData);
-		
-			for (EntityInGroupData membership: membershipInfo.values())
-				handleMember(rule, membership);
-			Instant end = Instant.now();
-			
-			log.info("Finished bulk entities processing, took " + 
-					start.until(end, ChronoUnit.MILLIS) + "ms");
+			Semaphore chunksInProcessing = new Semaphore(parallelism * 2);
+			try (Stream<EntityInGroupData> members = bulkService.getMembershipInfoStream("/", chunkSize))
+			{
+				Iterator<List<EntityInGroupData>> chunks = Iterators.partition(members.iterator(), chunkSize);
+				while (chunks.hasNext())
+				{
+					List<EntityInGroupData> chunk = chunks.next();
+					chunksInProcessing.acquire();
+					chunkResults.add(workers.submit(() ->
+					{
+						NDC.push(context);
+						try
+						{
+							if (!aborted.get())
+								handleChunk(rule, chunk, progress);
+						} finally
+						{
+							NDC.pop();
+							chunksInProcessing.release();
+						}
+					}));
+				}
+			}
+			for (Future<?> chunkResult: chunkResults)
+				chunkResult.get();
+			progress.finish();
+			log.info("Finished bulk entities processing: {}", progress.getStatus());
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			log.error("Processing bulk entity actions was interrupted", e);
+		} catch (ExecutionException e)
+		{
+			log.error("Processing bulk entity actions failed", e.getCause());
 		} catch (Exception e)
 		{
 			log.error("Processing bulk entity actions failed", e);
 		} finally
 		{
+			aborted.set(true);
+			awaitChunks(chunkResults);
+			progress.finish();
 			NDC.pop();
 		}
 	}
-	
-	private void handleMember(TranslationRuleInstance<EntityAction> rule, EntityInGroupData membership)
+
+	/**
+	 * Waits until all submitted chunks are done, so that the execution is not reported as finished
+	 * while some of its chunks are still being processed. Chunks which were not started yet
+	 * are skipped as the execution is aborted.
+	 */
+	private void awaitChunks(List<Future<?>> chunkResults)
 	{
-		try
+		for (Future<?> chunkResult: chunkResults)
+		{
+			try
+			{
+				Uninterruptibles.getUninterruptibly(chunkResult);
+			} catch (ExecutionException e)
+			{
+				log.debug("Chunk of bulk entity actions failed", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * @return status of the currently running and of recently finished executions, the most recent first
+	 */
+	public synchronized List<BulkProcessingStatus> getStatus()
+	{
+		List<BulkProcessingStatus> ret = new ArrayList<>(executions.size());
+		for (ExecutionProgress execution: executions)
+			ret.add(execution.getStatus());
+		return ret;
+	}
+
+	private synchronized ExecutionProgress startExecution(String ruleId,
+			TranslationRuleInstance<EntityAction> rule)
+	{
+		ExecutionProgress progress = new ExecutionProgress(ruleId, rule.getAction().getName());
+		executions.addFirst(progress);
+		if (executions.size() > REMEMBERED_EXECUTIONS)
+			executions.removeLast();
+		return progress;
+	}
+
+	private void handleChunk(TranslationRuleInstance<EntityAction> rule, List<EntityInGroupData> chunk,
+			ExecutionProgress progress)
+	{
+		List<EntityInGroupData> matching = new ArrayList<>();
+		for (EntityInGroupData membership: chunk)
 		{
-			Entity entity = idManagement.getEntity(new EntityParam(membership.entity.getId()));
-			Map<String, Object> context = EntityMVELContextBuilder.getContext(membership);
+			try
+			{
+				if (isMatching(rule, membership))
+					matching.add(membership);
+			} catch (Exception e)
+			{
+				log.error("Evaluating condition for entity " + membership.entity.getId() + " failed", e);
+				progress.entityFailed();
+			}
+		}
 
-			if (log.isDebugEnabled())
-				log.debug("Entity processing context for {}:\n{}", 
-						entity.getEntityInformation().getId(),
-						EntityMVELContextBuilder.ctx2ReadableString(context, ""));
-			
-			if (rule.getConditionInstance().evaluate(context, log))
+		List<Long> failedActions = new ArrayList<>();
+		try
+		{
+			tx.runInTransaction(() ->
 			{
-				log.info("Executing action on entity with id {}", entity.getEntityInformation().getId());
-				rule.getActionInstance().invoke(entity);
-			} else
+				failedActions.clear();
+				for (EntityInGroupData membership: matching)
+				{
+					try
+					{
+						invokeAction(rule, membership);
+					} catch (RuntimeEngineException e)
+					{
+						log.error("Processing entity action for entity " + membership.entity.getId()
+								+ " failed", e);
+						failedActions.add(membership.entity.getId());
+					}
+				}
+			});
+			if (!failedActions.isEmpty())
 			{
-				log.debug("Skipping entity with id {} not matching the condition",
-							 entity.getEntityInformation().getId());
+				progress.entitiesFailed(failedActions.size());
+				progress.chunkFailed(getChunkRange(chunk) + ": action failed for entities " + failedActions);
 			}
 		} catch (Exception e)
+		{
+			String range = getChunkRange(chunk);
+			log.warn("Processing chunk of entities " + range + " failed, "
+					+ "will process its entities one by one", e);
+			progress.chunkFailed(range + ": " + e.getMessage());
+			for (EntityInGroupData membership: matching)
+				invokeActionInSeparateTransaction(rule, membership, progress);
+		}
+		progress.chunkProcessed(chunk.size(), matching.size());
+	}
+
+	private String getChunkRange(List<EntityInGroupData> chunk)
+	{
+		return chunk.get(0).entity.getId() + "-" + chunk.get(chunk.size() - 1).entity.getId();
+	}
+
+	private boolean isMatching(TranslationRuleInstance<EntityAction> rule, EntityInGroupData membership)
+			throws Exception
+	{
+		Map<String, Object> context = EntityMVELContextBuilder.getContext(membership, attrConverter);
+
+		if (log.isDebugEnabled())
+			log.debug("Entity processing context for {}:\n{}",
+					membership.entity.getId(),
+					EntityMVELContextBuilder.ctx2ReadableString(context, ""));
+
+		if (rule.getConditionInstance().evaluate(context, log))
+			return true;
+		log.debug("Skipping entity with id {} not matching the condition", membership.entity.getId());
+		return false;
+	}
+
+	private void invokeAction(TranslationRuleInstance<EntityAction> rule, EntityInGroupData membership)
+	{
+		log.info("Executing action on entity with id {}", membership.entity.getId());
+		rule.getActionInstance().invoke(membership.entity);
+	}
+
+	private void invokeActionInSeparateTransaction(TranslationRuleInstance<EntityAction> rule,
+			EntityInGroupData membership, ExecutionProgress progress)
+	{
+		try
+		{
+			tx.runInTransaction(() -> invokeAction(rule, membership));
+		} catch (Exception e)
 		{
 			log.error("Processing entity action failed", e);
+			progress.entityFailed();
+		}
+	}
+
+	private static class ExecutionProgress
+	{
+		private final String ruleId;
+		private final String actionName;
+		private final Instant started = Instant.now();
+		private final AtomicLong processed = new AtomicLong();
+		private final AtomicLong matched = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final List<String> chunkFailures = new ArrayList<>();
+		private volatile Instant finished;
+
+		ExecutionProgress(String ruleId, String actionName)
+		{
+			this.ruleId = ruleId;
+			this.actionName = actionName;
+		}
+
+		void chunkProcessed(int entities, int matchingEntities)
+		{
+			processed.addAndGet(entities);
+			matched.addAndGet(matchingEntities);
+		}
+
+		void entityFailed()
+		{
+			failed.incrementAndGet();
+		}
+
+		void entitiesFailed(int entities)
+		{
+			failed.addAndGet(entities);
+		}
+
+		synchronized void chunkFailed(String description)
+		{
+			if (chunkFailures.size() < REMEMBERED_CHUNK_FAILURES)
+				chunkFailures.add(description);
+		}
+
+		void finish()
+		{
+			if (finished == null)
+				finished = Instant.now();
+		}
+
+		synchronized BulkProcessingStatus getStatus()
+		{
+			return new BulkProcessingStatus(ruleId, actionName, started, finished, processed.get(),
+					matched.get(), failed.get(), new ArrayList<>(chunkFailures));
 		}
 	}
-	
 }
@@ -18,6 +18,7 @@ import pl.edu.icm.unity.exceptions.AuthorizationException;
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.store.api.generic.ProcessingRuleDB;
 import pl.edu.icm.unity.store.api.tx.Transactional;
+import pl.edu.icm.unity.types.bulkops.BulkProcessingStatus;
 import pl.edu.icm.unity.types.bulkops.ScheduledProcessingRule;
 import pl.edu.icm.unity.types.bulkops.ScheduledProcessingRuleParam;
 import pl.edu.icm.unity.types.translation.TranslationRule;
@@ -34,15 +35,18 @@ public class BulkProcessingManagementImpl implements BulkProcessingManagement, B
 	private InternalAuthorizationManager authz;
 	private BulkProcessingSupport bulkProcessingSupport;
 	private BulkOperationsUpdater updater;
+	private BulkProcessingExecutor executor;
 
 	@Autowired
 	public BulkProcessingManagementImpl(ProcessingRuleDB db, InternalAuthorizationManager authz,
-			BulkProcessingSupport bulkProcessingSupport, BulkOperationsUpdater updater)
+			BulkProcessingSupport bulkProcessingSupport, BulkOperationsUpdater updater,
+			BulkProcessingExecutor executor)
 	{
 		this.db = db;
 		this.authz = authz;
 		this.bulkProcessingSupport = bulkProcessingSupport;
 		this.updater = updater;
+		this.executor = executor;
 	}
 
 	@Override
@@ -118,5 +122,12 @@ public class BulkProcessingManagementImpl implements BulkProcessingManagement, B
 		authz.checkAuthorization(AuthzCapability.maintenance);
 		return db.get(id);
 	}
+	
+	@Override
+	public List<BulkProcessingStatus> getProcessingStatus() throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.maintenance);
+		return executor.getStatus();
+	}
 
 }
@@ -237,7 +237,7 @@ public class BulkProcessingSupport
 			JobDataMap jobDataMap = context.getJobDetail().getJobDataMap();
 			EntityTranslationRule rule = (EntityTranslationRule) jobDataMap.get(RULE_KEY);
 			BulkProcessingExecutor executor = (BulkProcessingExecutor) jobDataMap.get(EXECUTOR_KEY);
-			executor.execute(rule);
+			executor.execute(context.getJobDetail().getKey().getName(), rule);
 		}
 	}
 	
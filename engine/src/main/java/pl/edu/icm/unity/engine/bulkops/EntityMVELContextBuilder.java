@@ -15,6 +15,7 @@ import java.util.Set;
 
 import com.google.common.collect.Sets;
 
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.bulk.EntityInGroupData;
 import pl.edu.icm.unity.types.authn.CredentialInfo;
 import pl.edu.icm.unity.types.authn.CredentialPublicInformation;
@@ -61,15 +62,21 @@ public class EntityMVELContextBuilder
 		return false;
 	}
 
-	public static Map<String, Object> getContext(EntityInGroupData membershipInfo)
+	public static Map<String, Object> getContext(EntityInGroupData membershipInfo,
+			AttributeValueConverter attrConverter)
 	{
 		return getContext(membershipInfo.entity.getIdentities(), membershipInfo.entity.getState().toString(),
 				membershipInfo.entity.getCredentialInfo(), membershipInfo.groups,
-				membershipInfo.groupAttributesByName.values());
+				membershipInfo.groupAttributesByName.values(), attrConverter);
 	}
 
+	/**
+	 * Attribute values of the context are self contained: values as stored, which may only reference 
+	 * contents kept out of line, are converted with the given converter.
+	 */
 	public static Map<String, Object> getContext(List<Identity> identities, String entityStatus,
-			CredentialInfo credentialInfo, Set<String> groups, Collection<AttributeExt> attributes)
+			CredentialInfo credentialInfo, Set<String> groups, Collection<AttributeExt> attributes,
+			AttributeValueConverter attrConverter)
 	{
 		Map<String, Object> ctx = new HashMap<>();
 
@@ -99,9 +106,11 @@ public class EntityMVELContextBuilder
 
 		for (AttributeExt attribute : attributes)
 		{
-			Object v = attribute.getValues().isEmpty() ? "" : attribute.getValues().get(0);
+			List<String> values = attrConverter.storedValuesToInternal(attribute.getName(), 
+					attribute.getValues());
+			Object v = values.isEmpty() ? "" : values.get(0);
 			attr.put(attribute.getName(), v);
-			attrs.put(attribute.getName(), attribute.getValues());
+			attrs.put(attribute.getName(), values);
 		}
 		ctx.put(ContextKey.attr.name(), attr);
 		ctx.put(ContextKey.attrs.name(), attrs);
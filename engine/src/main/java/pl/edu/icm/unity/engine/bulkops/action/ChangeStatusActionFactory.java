@@ -13,6 +13,8 @@ import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.EntityManagement;
 import pl.edu.icm.unity.engine.api.bulkops.EntityAction;
 import pl.edu.icm.unity.engine.translation.form.action.SetEntityStateActionFactory.EntityStateLimited;
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.exceptions.RuntimeEngineException;
 import pl.edu.icm.unity.types.basic.Entity;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.basic.EntityState;
@@ -73,9 +75,9 @@ public class ChangeStatusActionFactory extends AbstractEntityActionFactory
 			try
 			{
 				idsMan.setEntityStatus(new EntityParam(entity.getId()), state);
-			} catch (Exception e)
+			} catch (EngineException e)
 			{
-				log.error("Changing entity status failed", e);
+				throw new RuntimeEngineException("Changing entity status failed", e);
 			}
 		}
 		
@@ -12,6 +12,8 @@ import org.springframework.stereotype.Component;
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.EntityManagement;
 import pl.edu.icm.unity.engine.api.bulkops.EntityAction;
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.exceptions.RuntimeEngineException;
 import pl.edu.icm.unity.types.basic.Entity;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.translation.ActionParameterDefinition;
@@ -61,9 +63,9 @@ public class RemoveEntityActionFactory extends AbstractEntityActionFactory
 			try
 			{
 				idsMan.removeEntity(new EntityParam(entity.getId()));
-			} catch (Exception e)
+			} catch (EngineException e)
 			{
-				log.error("Removing entity failed", e);
+				throw new RuntimeEngineException("Removing entity failed", e);
 			}
 		}
 	}
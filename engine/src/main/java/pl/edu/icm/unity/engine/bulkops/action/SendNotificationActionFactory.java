@@ -18,6 +18,8 @@ import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.EntityManagement;
 import pl.edu.icm.unity.engine.api.bulkops.EntityAction;
 import pl.edu.icm.unity.engine.api.notification.NotificationProducer;
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.exceptions.RuntimeEngineException;
 import pl.edu.icm.unity.types.basic.Entity;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.translation.ActionParameterDefinition;
@@ -98,9 +100,9 @@ public class SendNotificationActionFactory extends AbstractEntityActionFactory
 						msg.getDefaultLocaleCode(), 
 						null, 
 						false);
-			} catch (Exception e)
+			} catch (EngineException e)
 			{
-				log.error("Sending notification to entity failed", e);
+				throw new RuntimeEngineException("Sending notification to entity failed", e);
 			}
 		}
 		
@@ -5,8 +5,10 @@
 
 package pl.edu.icm.unity.engine.capacityLimits;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -18,15 +20,26 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.NamedCache;
 import pl.edu.icm.unity.base.capacityLimit.CapacityLimit;
 import pl.edu.icm.unity.base.capacityLimit.CapacityLimitName;
 import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.utils.CacheProvider;
 import pl.edu.icm.unity.exceptions.CapacityLimitReachedException;
 import pl.edu.icm.unity.store.api.generic.CapacityLimitDB;
 
 /**
  * Capacity limit verificator. Use caching to increase the speed of capacity
  * limit checks. For internal use only.
+ * <p>
+ * Limits of the number of stored elements are verified against an estimated number of elements: 
+ * the number established from the database increased by the elements added since then. As removals 
+ * are not tracked, the estimate can only be higher than the actual number. Estimates are kept in a 
+ * shared cache and updated atomically, so in a cluster elements added by all nodes are counted. 
+ * The number is re-established from the database when the estimate is older than 
+ * {@link #COUNT_RECONCILIATION_INTERVAL_MS} or gets close to the limit, so elements are never 
+ * rejected basing on the estimate only.
  * 
  * @author P.Piernik
  *
@@ -36,12 +49,21 @@ public class InternalCapacityLimitVerificator
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, InternalCapacityLimitVerificator.class);
 
+	static final long COUNT_RECONCILIATION_INTERVAL_MS = 60000;
+	static final double EXACT_COUNT_THRESHOLD = 0.9;
+	private static final String ESTIMATES_CACHE_ID = "capacityLimitCountEstimates";
+	private static final CacheSettings ESTIMATES_CACHE_SETTINGS = new CacheSettings(
+			CapacityLimitName.values().length, Duration.ofMillis(COUNT_RECONCILIATION_INTERVAL_MS), 
+			Duration.ZERO);
+	
 	private LoadingCache<String, Map<String, Integer>> limitCache;
+	private final NamedCache<String, CountEstimate> countEstimates;
 
 	@Autowired
-	public InternalCapacityLimitVerificator(CapacityLimitDB limitDB)
+	public InternalCapacityLimitVerificator(CapacityLimitDB limitDB, CacheProvider cacheProvider)
 	{
 		limitCache = initCache(limitDB);
+		countEstimates = cacheProvider.getCache(ESTIMATES_CACHE_ID, ESTIMATES_CACHE_SETTINGS);
 	}
 
 	private LoadingCache<String, Map<String, Integer>> initCache(CapacityLimitDB limitDB)
@@ -59,35 +81,98 @@ public class InternalCapacityLimitVerificator
 				});
 	}
 
-	public void assertInSystemLimitForSingleAdd(CapacityLimitName name, Supplier<Long> value)
+	public void assertInSystemLimitForSingleAdd(CapacityLimitName name, Supplier<Long> currentCount)
 			throws CapacityLimitReachedException
 	{
-		assertInSystemLimit(name, () -> value.get() + 1);
+		assertInSystemLimitForAdd(name, 1, currentCount);
 	}
 
-	public void assertInSystemLimit(CapacityLimitName name, Supplier<Long> value) throws CapacityLimitReachedException
+	/**
+	 * Verifies a limit of the number of stored elements.
+	 * @param added number of elements to be added
+	 * @param currentCount provides the number of stored elements, invoked only if the estimated 
+	 * number can not be used.
+	 */
+	public void assertInSystemLimitForAdd(CapacityLimitName name, int added, Supplier<Long> currentCount)
+			throws CapacityLimitReachedException
 	{
-		Map<String, Integer> limits = limitCache.getUnchecked("");
-		int limit = -1;
-		if (limits.containsKey(name.toString()))
+		int limit = getLimit(name);
+		if (limit < 0)
+			return;
+
+		long now = System.currentTimeMillis();
+		AtomicBoolean estimateUsed = new AtomicBoolean();
+		CountEstimate updated = countEstimates.compute(name.toString(), (key, estimate) -> 
+		{
+			if (estimate == null || now - estimate.establishedAt >= COUNT_RECONCILIATION_INTERVAL_MS
+					|| estimate.count + added > limit * EXACT_COUNT_THRESHOLD)
+				return estimate;
+			estimateUsed.set(true);
+			return new CountEstimate(estimate.count + added, estimate.establishedAt);
+		});
+		if (estimateUsed.get())
 		{
-			limit = limits.get(name.toString());
+			log.trace("Checked capacity limit for {} limit={} estimated value={}", name, limit, updated.count);
+			return;
 		}
-
+		
+		long value = currentCount.get() + added;
+		log.trace("Checks capacity limit for {} limit={} value={}", name, limit, value);
+		assertInLimit(name, limit, value);
+		countEstimates.put(name.toString(), new CountEstimate(value, now));
+	}
+	
+	public void assertInSystemLimit(CapacityLimitName name, Supplier<Long> value) throws CapacityLimitReachedException
+	{
+		int limit = getLimit(name);
 		log.trace("Checks capacity limit for {} limit={}  value={}", name.toString(), limit, value);
 		if (limit < 0)
 			return;
+		assertInLimit(name, limit, value.get());
+	}
 
-		if (limit < value.get())
+	private int getLimit(CapacityLimitName name)
+	{
+		Map<String, Integer> limits = limitCache.getUnchecked("");
+		Integer limit = limits.get(name.toString());
+		return limit == null ? -1 : limit;
+	}
+	
+	private void assertInLimit(CapacityLimitName name, int limit, long value) throws CapacityLimitReachedException
+	{
+		if (limit < value)
 		{
 			log.info("Capacity limit {} reached (limit={}, value={})", name.toString(), limit, value);
 			throw new CapacityLimitReachedException("Capacity limit reached");
 		}
-
 	}
 
 	public void clearCache()
 	{
 		limitCache.invalidateAll();
+		for (CapacityLimitName name: CapacityLimitName.values())
+			countEstimates.remove(name.toString());
+	}
+	
+	/**
+	 * Not modified after creation, as it is stored in a cache which may be shared between nodes.
+	 */
+	static class CountEstimate
+	{
+		private long count;
+		private long establishedAt;
+
+		/**
+		 * For serialization
+		 */
+		CountEstimate()
+		{
+		}
+
+		CountEstimate(long count, long establishedAt)
+		{
+			this.count = count;
+			this.establishedAt = establishedAt;
+		}
 	}
 }
@@ -6,6 +6,7 @@ package pl.edu.icm.unity.engine.confirmation;
 
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
@@ -21,15 +22,9 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.Element;
-import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.PersistenceConfiguration;
-import net.sf.ehcache.config.Searchable;
-import net.sf.ehcache.search.Query;
-import net.sf.ehcache.search.Results;
 import pl.edu.icm.unity.MessageSource;
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.NamedCache;
 import pl.edu.icm.unity.base.msgtemplates.confirm.EmailConfirmationTemplateDef;
 import pl.edu.icm.unity.base.token.Token;
 import pl.edu.icm.unity.base.utils.Log;
@@ -74,7 +69,9 @@ import pl.edu.icm.unity.types.confirmation.VerifiableElement;
 public class EmailConfirmationManagerImpl implements EmailConfirmationManager
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CONFIRMATION, EmailConfirmationManagerImpl.class);
-	private static final String CACHE_ID = "EmailConfirmationCache";
+	private static final String CACHE_ID = "EmailConfirmationRequestsCounter";
+	private static final CacheSettings CACHE_SETTINGS = new CacheSettings(100000, 
+			Duration.ofHours(24), Duration.ofHours(24));
 	
 	private IdentityTypeHelper idTypeHelper;
 	private AttributeTypeHelper atTypeHelper;
@@ -85,7 +82,7 @@ public class EmailConfirmationManagerImpl implements EmailConfirmationManager
 	private URL advertisedAddress;
 	private MessageSource msg;
 	private EntityResolver idResolver;
-	private Ehcache confirmationReqCache;
+	private NamedCache<String, Integer> confirmationReqCache;
 	private int requestLimit;
 	private String defaultRedirectURL;
 	private TransactionalRunner tx;
@@ -115,17 +112,7 @@ public class EmailConfirmationManagerImpl implements EmailConfirmationManager
 		this.idResolver = idResolver;
 		this.tx = tx;
 		
-		CacheConfiguration cacheConfig = new CacheConfiguration(CACHE_ID, 0);
-		Searchable searchable = new Searchable();
-		searchable.values(true);
-		cacheConfig.addSearchable(searchable);		
-		cacheConfig.setTimeToIdleSeconds(24 * 3600);
-		cacheConfig.setTimeToLiveSeconds(24 * 3600);
-		cacheConfig.setEternal(false);
-		PersistenceConfiguration persistCfg = new PersistenceConfiguration();
-		persistCfg.setStrategy("none");
-		cacheConfig.persistence(persistCfg);		
-		confirmationReqCache = cacheProvider.getManager().addCacheIfAbsent(new Cache(cacheConfig));
+		confirmationReqCache = cacheProvider.getCache(CACHE_ID, CACHE_SETTINGS);
 		requestLimit = mainConf.getEmailConfirmationRequestLimit();
 		defaultRedirectURL = mainConf.getValue(UnityServerConfiguration.CONFIRMATION_DEFAULT_RETURN_URL);
 	}
@@ -196,10 +183,8 @@ public class EmailConfirmationManagerImpl implements EmailConfirmationManager
 
 	private boolean checkSendingLimit(String address)
 	{
-		confirmationReqCache.evictExpiredElements();
-		Results results = confirmationReqCache.createQuery().includeValues().addCriteria(
-				Query.VALUE.ilike(address)).execute();
-		if (results.size() >= requestLimit)
+		Integer sent = confirmationReqCache.get(getCounterKey(address));
+		if (sent != null && sent >= requestLimit)
 		{		
 			log.warn("Limit of sent confirmation requests to email " + address + 
 					" was reached. (Limit=" +requestLimit + "/24H)");
@@ -208,6 +193,11 @@ public class EmailConfirmationManagerImpl implements EmailConfirmationManager
 		return true;
 	}
 	
+	private String getCounterKey(String address)
+	{
+		return address.toLowerCase();
+	}
+	
 	private String insertConfirmationToken(String state, int confirmationValidity) throws EngineException
 	{
 		Date createDate = new Date();
@@ -261,7 +251,7 @@ public class EmailConfirmationManagerImpl implements EmailConfirmationManager
 		log.info("Send confirmation request to " + recipientAddress + " with token = "
 				+ token);
 
-		confirmationReqCache.put(new Element(token, recipientAddress));
+		confirmationReqCache.compute(getCounterKey(recipientAddress), (key, sent) -> sent == null ? 1 : sent + 1);
 		
 		notificationProducer.sendNotification(recipientAddress, templateId,
 				params, locale);
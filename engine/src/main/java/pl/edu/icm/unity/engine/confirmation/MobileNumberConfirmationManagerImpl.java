@@ -5,6 +5,7 @@
 
 package pl.edu.icm.unity.engine.confirmation;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Optional;
 
@@ -12,15 +13,9 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.Element;
-import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.PersistenceConfiguration;
-import net.sf.ehcache.config.Searchable;
-import net.sf.ehcache.search.Query;
-import net.sf.ehcache.search.Results;
 import pl.edu.icm.unity.MessageSource;
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.NamedCache;
 import pl.edu.icm.unity.base.msgtemplates.confirm.MobileNumberConfirmationTemplateDef;
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.attributes.AttributeValueSyntax;
@@ -45,12 +40,14 @@ import pl.edu.icm.unity.types.confirmation.MobileNumberConfirmationConfiguration
 public class MobileNumberConfirmationManagerImpl implements MobileNumberConfirmationManager
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CONFIRMATION, MobileNumberConfirmationManagerImpl.class);
-	private static final String CACHE_ID = "MobileConfirmationCache";
+	private static final String CACHE_ID = "MobileConfirmationRequestsCounter";
+	private static final CacheSettings CACHE_SETTINGS = new CacheSettings(100000, 
+			Duration.ofHours(24), Duration.ofHours(24));
 	
 	private NotificationProducer notificationProducer;
 	private MessageSource msg;
 	private AttributeTypeHelper attrTypeHelper;
-	private Ehcache confirmationReqCache;
+	private NamedCache<String, Integer> confirmationReqCache;
 	private int requestLimit;
 	
 	@Autowired
@@ -62,18 +59,7 @@ public class MobileNumberConfirmationManagerImpl implements MobileNumberConfirma
 		this.msg = msg;
 		this.attrTypeHelper = attrTypeHelper;
 
-		CacheConfiguration cacheConfig = new CacheConfiguration(CACHE_ID, 0);
-		Searchable searchable = new Searchable();
-		searchable.values(true);
-		cacheConfig.addSearchable(searchable);
-		cacheConfig.setTimeToIdleSeconds(24 * 3600);
-		cacheConfig.setTimeToLiveSeconds(24 * 3600);
-		cacheConfig.setEternal(false);
-		PersistenceConfiguration persistCfg = new PersistenceConfiguration();
-		persistCfg.setStrategy("none");
-		cacheConfig.persistence(persistCfg);
-		confirmationReqCache = cacheProvider.getManager()
-				.addCacheIfAbsent(new Cache(cacheConfig));
+		confirmationReqCache = cacheProvider.getCache(CACHE_ID, CACHE_SETTINGS);
 		requestLimit = mainConf
 				.getIntValue(UnityServerConfiguration.MOBILE_CONFIRMATION_REQUEST_LIMIT);
 
@@ -108,7 +94,7 @@ public class MobileNumberConfirmationManagerImpl implements MobileNumberConfirma
 						+ (configEntry.getValidityTime() * 60 * 1000),
 				code, mobileToConfirm);
 		
-		confirmationReqCache.put(new Element(ret, mobileToConfirm));
+		confirmationReqCache.compute(getCounterKey(mobileToConfirm), (key, sent) -> sent == null ? 1 : sent + 1);
 		
 		return ret;
 	}
@@ -139,10 +125,8 @@ public class MobileNumberConfirmationManagerImpl implements MobileNumberConfirma
 	
 	private boolean checkSendingLimit(String mobileToConfirm)
 	{
-		confirmationReqCache.evictExpiredElements();
-		Results results = confirmationReqCache.createQuery().includeValues().addCriteria(
-				Query.VALUE.ilike(mobileToConfirm)).execute();
-		if (results.size() >= requestLimit)
+		Integer sent = confirmationReqCache.get(getCounterKey(mobileToConfirm));
+		if (sent != null && sent >= requestLimit)
 		{		
 			log.warn("Limit of sent confirmation requests to mobile " + mobileToConfirm + 
 					" was reached. (Limit=" +requestLimit + "/24H)");
@@ -151,4 +135,9 @@ public class MobileNumberConfirmationManagerImpl implements MobileNumberConfirma
 		return true;
 	}
 	
+	private String getCounterKey(String mobileToConfirm)
+	{
+		return mobileToConfirm.toLowerCase();
+	}
+	
 }
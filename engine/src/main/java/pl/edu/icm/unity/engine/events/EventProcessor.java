@@ -19,6 +19,7 @@ import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
 import pl.edu.icm.unity.types.Event;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,11 +28,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Takes events from producers and dispatches them to all registered {@link EventListener}s.
+ * Listeners are indexed by the categories they are subscribed to. The index is immutable and replaced 
+ * whenever listeners are changed, so dispatching requires no locking and an event without subscribers 
+ * costs a single lookup.
  * This class is thread safe.
  * @author K. Benedyczak
  */
@@ -39,9 +41,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class EventProcessor implements EventPublisher, EventListenersManagement
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_EVENT, EventProcessor.class);
-	private Set<EventListener> listeners = new HashSet<EventListener>();
-	private Map<String, EventListener> listenersById = new HashMap<String, EventListener>();
-	private ReadWriteLock lock = new ReentrantReadWriteLock();
+	private volatile DispatchTable dispatchTable = new DispatchTable(Collections.emptySet());
 	
 	private ScheduledExecutorService executorService;
 	private EventDAO dbEvents;
@@ -63,7 +63,7 @@ public class EventProcessor implements EventPublisher, EventListenersManagement
 	public void fireEvent(Event event)
 	{
 		List<EventListener> interestedListeners = getInterestedListeners(event);
-		if (interestedListeners == null)
+		if (interestedListeners.isEmpty())
 			return;
 		
 		if (log.isDebugEnabled())
@@ -74,12 +74,34 @@ public class EventProcessor implements EventPublisher, EventListenersManagement
 					new VolatileListenerInvoker(listener, event) :
 					new ReliableListenerInvoker(listener, event);
 			if (listener.isAsync(event))
+			{
+				resolveLazyContents(event);
 				executorService.submit(task);
-			else
+			} else
+			{
 				executeNow(listener, event, task);
+			}
 		}
 	}
 	
+	/**
+	 * @return true if there is at least one listener subscribed to the given category of events. 
+	 * Allows producers to skip preparation of events which would be ignored.
+	 */
+	public boolean hasListeners(String category)
+	{
+		return !dispatchTable.getListeners(category).isEmpty();
+	}
+	
+	/**
+	 * Lazily created contents must be created before the event is passed to another thread.
+	 */
+	private void resolveLazyContents(Event event)
+	{
+		if (event instanceof PersistableEvent)
+			((PersistableEvent) event).getContents();
+	}
+	
 	private void executeNow(EventListener listener, Event event, Callable<Void> task)
 	{
 		log.trace("Handling event in sync mode {}", event);
@@ -93,37 +115,27 @@ public class EventProcessor implements EventPublisher, EventListenersManagement
 		}
 	}
 
-	public void addEventListener(EventListener eventListener)
+	@Override
+	public synchronized void addEventListener(EventListener eventListener)
 	{
-		lock.writeLock().lock();
 		eventListener.init();
-		try
-		{
-			listeners.add(eventListener);
-			listenersById.put(eventListener.getId(), eventListener);
-		} finally
-		{
-			lock.writeLock().unlock();
-		}
+		Set<EventListener> updated = new HashSet<>(dispatchTable.listeners);
+		updated.add(eventListener);
+		dispatchTable = new DispatchTable(updated);
 	}
 	
+	@Override
 	public synchronized void removeEventListener(EventListener eventListener)
 	{
-		lock.writeLock().lock();
-		try
-		{
-			listeners.remove(eventListener);
-			listenersById.remove(eventListener.getId());
-		} finally
-		{
-			lock.writeLock().unlock();
-		}
+		Set<EventListener> updated = new HashSet<>(dispatchTable.listeners);
+		updated.remove(eventListener);
+		dispatchTable = new DispatchTable(updated);
 	}
 	
 	@Override
 	public Set<EventListener> getListeners()
 	{
-		return listeners;
+		return dispatchTable.listeners;
 	}
 	
 	public int getPendingEventsNumber()
@@ -134,32 +146,61 @@ public class EventProcessor implements EventPublisher, EventListenersManagement
 	
 	EventListener getListenerById(String id)
 	{
-		lock.readLock().lock();
-		try
-		{
-			return listenersById.get(id);
-		} finally
+		return dispatchTable.listenersById.get(id);
+	}
+	
+	private List<EventListener> getInterestedListeners(Event event)
+	{
+		List<EventListener> subscribed = dispatchTable.getListeners(event.getCategory());
+		if (subscribed.isEmpty())
+			return subscribed;
+		List<EventListener> interestedListeners = new ArrayList<>(subscribed.size());
+		for (EventListener listener: subscribed)
 		{
-			lock.readLock().unlock();
+			if (listener.isWanted(event))
+				interestedListeners.add(listener);
 		}
+		return interestedListeners;
 	}
 	
-	private List<EventListener> getInterestedListeners(Event event)
+	/**
+	 * Immutable index of listeners by categories.
+	 */
+	private static class DispatchTable
 	{
-		List<EventListener> interestedListeners;
-		lock.readLock().lock();
-		try
+		private final Set<EventListener> listeners;
+		private final Map<String, EventListener> listenersById;
+		private final Map<String, List<EventListener>> listenersByCategory;
+		private final List<EventListener> allCategoriesListeners;
+		
+		DispatchTable(Set<EventListener> listeners)
 		{
-			interestedListeners = new ArrayList<EventListener>(listeners.size());
+			this.listeners = Collections.unmodifiableSet(listeners);
+			Map<String, EventListener> byId = new HashMap<>();
+			List<EventListener> allCategories = new ArrayList<>();
 			for (EventListener listener: listeners)
 			{
-				if (listener.isWanted(event))
-					interestedListeners.add(listener);
+				byId.put(listener.getId(), listener);
+				if (listener.getCategories().contains(EventListener.ALL_CATEGORIES))
+					allCategories.add(listener);
 			}
-			return interestedListeners;
-		} finally
+			Map<String, List<EventListener>> byCategory = new HashMap<>();
+			for (EventListener listener: listeners)
+			{
+				if (allCategories.contains(listener))
+					continue;
+				for (String category: listener.getCategories())
+					byCategory.computeIfAbsent(category, c -> new ArrayList<>(allCategories))
+						.add(listener);
+			}
+			this.listenersById = byId;
+			this.listenersByCategory = byCategory;
+			this.allCategoriesListeners = allCategories;
+		}
+		
+		List<EventListener> getListeners(String category)
 		{
-			lock.readLock().unlock();
+			return listenersByCategory.getOrDefault(category, allCategoriesListeners);
 		}
 	}
 	
@@ -82,29 +82,33 @@ public class EventProducingAspect
 	
 	private void publishOKEvent(JoinPoint jp, InvocationEventProducer eventProducer)
 	{
-		if (!InvocationContext.hasCurrent())
-			return;
-		LoginSession ae = InvocationContext.getCurrent().getLoginSession();
-		Long invoker = ae == null ? null : ae.getEntityId();
-		MethodSignature signature = (MethodSignature) jp.getSignature();
-		PersistableEvent event = new PersistableEvent(CATEGORY_INVOCATION + "." + signature.getMethod().getName(),
-				invoker, new Date());
-		event.setContents(getMethodDescription(signature.getMethod(), null, 
-				signature.getDeclaringType().getSimpleName(), jp.getArgs()));
-		eventProcessor.fireEvent(event);
+		publishEvent(jp, null);
 	}
 
 	private void publishExceptionEvent(JoinPoint jp, Exception e, InvocationEventProducer eventProducer)
+	{
+		publishEvent(jp, e.toString());
+	}
+	
+	/**
+	 * Event is created only if there is a listener of its category. Its contents, with the serialized 
+	 * method arguments, are created only when retrieved by a listener.
+	 */
+	private void publishEvent(JoinPoint jp, String exception)
 	{
 		if (!InvocationContext.hasCurrent())
 			return;
+		MethodSignature signature = (MethodSignature) jp.getSignature();
+		String category = CATEGORY_INVOCATION + "." + signature.getMethod().getName();
+		if (!eventProcessor.hasListeners(category))
+			return;
 		LoginSession ae = InvocationContext.getCurrent().getLoginSession();
 		Long invoker = ae == null ? null : ae.getEntityId();
-		MethodSignature signature = (MethodSignature) jp.getSignature();
-		PersistableEvent event = new PersistableEvent(CATEGORY_INVOCATION + "." + signature.getMethod().getName(),
-				invoker, new Date());
-		event.setContents(getMethodDescription(signature.getMethod(), e.toString(), 
-				signature.getDeclaringType().getSimpleName(), jp.getArgs()));
+		PersistableEvent event = new PersistableEvent(category, invoker, new Date());
+		Method method = signature.getMethod();
+		String interfaceName = signature.getDeclaringType().getSimpleName();
+		Object[] args = jp.getArgs();
+		event.setContents(() -> getMethodDescription(method, exception, interfaceName, args));
 		eventProcessor.fireEvent(event);
 	}
 	
@@ -35,6 +35,7 @@ import pl.edu.icm.unity.exceptions.SchemaConsistencyException;
 import pl.edu.icm.unity.exceptions.WrongArgumentException;
 import pl.edu.icm.unity.store.api.generic.InvitationDB;
 import pl.edu.icm.unity.store.api.generic.NamedCRUDDAOWithTS;
+import pl.edu.icm.unity.store.api.generic.UserRequestDB;
 import pl.edu.icm.unity.types.basic.Attribute;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.basic.Group;
@@ -281,41 +282,35 @@ public class BaseSharedRegistrationSupport
 	}
 	
 	public <T extends UserRequestState<?>> void removeForm(String formId, 
-			boolean dropRequests, NamedCRUDDAOWithTS<T> requestDB, 
+			boolean dropRequests, UserRequestDB<T> requestDB, 
 			NamedCRUDDAOWithTS<? extends BaseForm> formDB) throws EngineException
 	{
-		List<T> requests = requestDB.getAll();
+		List<T> requests = requestDB.getByForm(formId, null);
 		if (dropRequests)
 		{
 			for (T req: requests)
-				if (formId.equals(req.getRequest().getFormId()))
-					requestDB.delete(req.getRequestId());
-		} else
+				requestDB.delete(req.getRequestId());
+		} else if (!requests.isEmpty())
 		{
-			for (T req: requests)
-				if (formId.equals(req.getRequest().getFormId()))
-					throw new SchemaConsistencyException("There are requests bound " +
-							"to this form, and it was not chosen to drop them.");
+			throw new SchemaConsistencyException("There are requests bound " +
+					"to this form, and it was not chosen to drop them.");
 		}
 
 		formDB.delete(formId);
 	}
 	
 	public <T extends UserRequestState<?>> void validateIfHasPendingRequests(String formId, 
-			NamedCRUDDAOWithTS<T> requestDB) throws EngineException
+			UserRequestDB<T> requestDB) throws EngineException
 	{
-		List<T> requests = requestDB.getAll();
-		for (T req: requests)
-			if (formId.equals(req.getRequest().getFormId()) && 
-					req.getStatus() == RegistrationRequestStatus.pending)
-				throw new SchemaConsistencyException("There are requests bound to " +
-						"this form, and it was not chosen to ignore them.");
+		if (!requestDB.getByForm(formId, RegistrationRequestStatus.pending).isEmpty())
+			throw new SchemaConsistencyException("There are requests bound to " +
+					"this form, and it was not chosen to ignore them.");
 	}
 	
 	public void validateIfHasInvitations(String formId, InvitationType type) throws EngineException
 	{
-		if (invitationDB.getAll().stream().filter(i -> i.getInvitation().getType().equals(type)
-				&& i.getInvitation().getFormId().equals(formId)).count() > 0)
+		if (invitationDB.getByForm(formId).stream()
+				.anyMatch(i -> i.getInvitation().getType().equals(type)))
 			throw new SchemaConsistencyException("There are invitations created for "
 					+ "this form, and it was not chosen to ignore them.");
 	}
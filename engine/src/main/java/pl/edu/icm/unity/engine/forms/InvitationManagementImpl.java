@@ -138,6 +138,20 @@ public class InvitationManagementImpl implements InvitationManagement
 		return invitationDB.getAll();
 	}
 
+	@Override
+	public List<InvitationWithCode> getInvitations(int offset, int limit) throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.maintenance);
+		return invitationDB.getPage(offset, limit);
+	}
+
+	@Override
+	public List<InvitationWithCode> getInvitations(String formId) throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.maintenance);
+		return invitationDB.getByForm(formId);
+	}
+
 	@Override
 	public InvitationWithCode getInvitation(String code) throws EngineException
 	{
@@ -23,6 +23,7 @@ import pl.edu.icm.unity.engine.api.registration.FormAutomationSupport;
 import pl.edu.icm.unity.engine.api.translation.form.RegistrationActionsRegistry;
 import pl.edu.icm.unity.engine.attribute.AttributeTypeHelper;
 import pl.edu.icm.unity.engine.group.GroupHelper;
+import pl.edu.icm.unity.engine.translation.TranslationProfileInstanceCache;
 import pl.edu.icm.unity.engine.translation.form.EnquiryTranslationProfile;
 import pl.edu.icm.unity.engine.translation.form.FormAutomationSupportExt;
 import pl.edu.icm.unity.engine.translation.form.RegistrationTranslationProfile;
@@ -74,6 +75,8 @@ public class RegistrationConfirmationSupport
 	private ObjectFactory<FormAutomationSupportExt> formAutomationSupportFactory;
 	@Autowired
 	private GroupHelper groupHelper;
+	@Autowired
+	private TranslationProfileInstanceCache profileInstanceCache;
 	
 	public void sendAttributeConfirmationRequest(RegistrationRequestState requestState,
 			Long entityId, RegistrationForm form, Phase phase) throws InternalException, EngineException
@@ -182,11 +185,12 @@ public class RegistrationConfirmationSupport
 		}
 	}
 
-	private RegistrationTranslationProfile getRegistrationProfile(RegistrationForm form)
+	public RegistrationTranslationProfile getRegistrationProfile(RegistrationForm form)
 	{
 		TranslationProfile translationProfile = form.getTranslationProfile();
-		return new RegistrationTranslationProfile(translationProfile, registrationTranslationActionsRegistry,
-				atHelper, form);
+		return profileInstanceCache.getInstance(RegistrationTranslationProfile.class, form.getName(), form, 
+				() -> new RegistrationTranslationProfile(translationProfile, 
+						registrationTranslationActionsRegistry, atHelper, form));
 	}	
 
 	public FormAutomationSupport getRegistrationFormAutomationSupport(RegistrationForm form)
@@ -203,10 +207,11 @@ public class RegistrationConfirmationSupport
 		return automationSupport;
 	}
 	
-	private EnquiryTranslationProfile getEnquiryProfile(EnquiryForm form)
+	public EnquiryTranslationProfile getEnquiryProfile(EnquiryForm form)
 	{
 		TranslationProfile translationProfile = form.getTranslationProfile();
-		return new EnquiryTranslationProfile(translationProfile, registrationTranslationActionsRegistry,
-				atHelper, form);
+		return profileInstanceCache.getInstance(EnquiryTranslationProfile.class, form.getName(), form, 
+				() -> new EnquiryTranslationProfile(translationProfile, 
+						registrationTranslationActionsRegistry, atHelper, form));
 	}	
 }
@@ -13,7 +13,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
-import org.mockito.internal.util.collections.Sets;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
@@ -90,6 +89,7 @@ public class EnquiryManagementImpl implements EnquiryManagement
 	private AttributesHelper dbAttributes;
 	private BulkGroupQueryService bulkService;
 	private InternalCapacityLimitVerificator capacityLimitVerificator;
+	private SingleEntityEnquiryEvaluator enquiryEvaluator;
 	
 	@Autowired
 	public EnquiryManagementImpl(EnquiryFormDB enquiryFormDB, EnquiryResponseDB requestDB,
@@ -103,7 +103,8 @@ public class EnquiryManagementImpl implements EnquiryManagement
 			AttributesHelper dbAttributes,
 			@Qualifier("insecure")
 			BulkGroupQueryService bulkService,
-			InternalCapacityLimitVerificator capacityLimitVerificator)
+			InternalCapacityLimitVerificator capacityLimitVerificator,
+			SingleEntityEnquiryEvaluator enquiryEvaluator)
 	{
 		this.enquiryFormDB = enquiryFormDB;
 		this.requestDB = requestDB;
@@ -120,6 +121,7 @@ public class EnquiryManagementImpl implements EnquiryManagement
 		this.dbAttributes = dbAttributes;
 		this.bulkService = bulkService;
 		this.capacityLimitVerificator = capacityLimitVerificator;
+		this.enquiryEvaluator = enquiryEvaluator;
 	}
 
 	@Transactional
@@ -397,6 +399,23 @@ public class EnquiryManagementImpl implements EnquiryManagement
 		return requestDB.getAll();
 	}
 
+	@Transactional
+	@Override
+	public List<EnquiryResponseState> getEnquiryResponses(int offset, int limit) throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.read);
+		return requestDB.getPage(offset, limit);
+	}
+
+	@Transactional
+	@Override
+	public List<EnquiryResponseState> getEnquiryResponses(String formId, RegistrationRequestStatus status) 
+			throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.read);
+		return requestDB.getByForm(formId, status);
+	}
+
 	@Transactional
 	@Override
 	public EnquiryResponseState getEnquiryResponse(String requestId)
@@ -405,66 +424,41 @@ public class EnquiryManagementImpl implements EnquiryManagement
 		return requestDB.get(requestId);
 	}
 	
-	@Transactional
 	@Override
 	public List<EnquiryForm> getPendingEnquires(EntityParam entity) throws EngineException
 	{
-		long entityId = identitiesResolver.getEntityId(entity);
-		authz.checkAuthorization(authz.isSelf(entityId), AuthzCapability.readInfo);
+		long entityId = getEntityIdAuthorizingSelf(entity);
 		
-		List<EnquiryForm> allForms = enquiryFormDB.getAll();
-		
-		Set<String> ignored = getEnquiresFromAttribute(entityId, 
-				EnquiryAttributeTypesProvider.FILLED_ENQUIRES);
-		ignored.addAll(getEnquiresFromAttribute(entityId, EnquiryAttributeTypesProvider.IGNORED_ENQUIRES));
-	
-		EntityInGroupData entityInfo = getMemebershipInfo(entityId);
-	
-		List<EnquiryForm> ret = new ArrayList<>();
-		if (entityInfo == null)
-			return ret;
-		for (EnquiryForm form : allForms)
+		Set<String> ignored = tx.runInTransactionRetThrowing(() -> 
 		{
-			if (ignored.contains(form.getName()))
-				continue;
-			if (form.getType().equals(EnquiryType.STICKY))
-				continue;
-			if (form.isByInvitationOnly())
-				continue;
-			if (entityInfo.relevantEnquiryForms.contains(form.getName()))
-				ret.add(form);
-		}
-		return ret;
+			Set<String> ret = getEnquiresFromAttribute(entityId, EnquiryAttributeTypesProvider.FILLED_ENQUIRES);
+			ret.addAll(getEnquiresFromAttribute(entityId, EnquiryAttributeTypesProvider.IGNORED_ENQUIRES));
+			return ret;
+		});
+		
+		return enquiryEvaluator.getFormsTargetingEntity(entityId, form -> 
+				!ignored.contains(form.getName()) 
+				&& !form.getType().equals(EnquiryType.STICKY)
+				&& !form.isByInvitationOnly());
 	}
 	
-	@Transactional
 	@Override
 	public List<EnquiryForm> getAvailableStickyEnquires(EntityParam entity) throws EngineException
 	{
-		long entityId = identitiesResolver.getEntityId(entity);
-		authz.checkAuthorization(authz.isSelf(entityId), AuthzCapability.readInfo);
-		List<EnquiryForm> allForms = enquiryFormDB.getAll();
-		EntityInGroupData entityInfo = getMemebershipInfo(entityId);
-		List<EnquiryForm> ret = new ArrayList<>();
-		if (entityInfo == null)
-			return ret;
-		for (EnquiryForm form : allForms)
-		{
-			if (form.isByInvitationOnly())
-				continue;
-			
-			if (form.getType().equals(EnquiryType.STICKY) &&
-					entityInfo.relevantEnquiryForms.contains(form.getName()))
-				ret.add(form);
-		}
-		return ret;
+		long entityId = getEntityIdAuthorizingSelf(entity);
+		return enquiryEvaluator.getFormsTargetingEntity(entityId, form -> 
+				form.getType().equals(EnquiryType.STICKY)
+				&& !form.isByInvitationOnly());
 	}
-		
-	private EntityInGroupData getMemebershipInfo(Long entity) throws EngineException
+	
+	private long getEntityIdAuthorizingSelf(EntityParam entity) throws EngineException
 	{
-		GroupMembershipData bulkMembershipData = bulkService.getBulkMembershipData("/", Sets.newSet(entity));
-		Map<Long, EntityInGroupData> membershipInfo = bulkService.getMembershipInfo(bulkMembershipData);	
-		return membershipInfo.get(entity);	
+		return tx.runInTransactionRetThrowing(() -> 
+		{
+			long entityId = identitiesResolver.getEntityId(entity);
+			authz.checkAuthorization(authz.isSelf(entityId), AuthzCapability.readInfo);
+			return entityId;
+		});
 	}
 	
 	private Set<String> getEnquiresFromAttribute(long entityId, String attributeName) 
@@ -490,16 +484,8 @@ public class EnquiryManagementImpl implements EnquiryManagement
 	
 	private void removeAllPendingRequestsOfForm(String enquiryId, EntityParam entity)
 	{
-		for (EnquiryResponseState en : requestDB.getAll())
-		{
-			if (!en.getStatus().equals(RegistrationRequestStatus.pending))
-				continue;
-			EnquiryResponse res = en.getRequest();
-			if (res.getFormId().equals(enquiryId))
-			{
-				requestDB.delete(en.getRequestId());
-			}
-		}
+		for (EnquiryResponseState en : requestDB.getByForm(enquiryId, RegistrationRequestStatus.pending))
+			requestDB.delete(en.getRequestId());
 	}
 	
 	@Transactional
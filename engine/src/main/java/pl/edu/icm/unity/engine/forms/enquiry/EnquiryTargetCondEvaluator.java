@@ -15,6 +15,7 @@ import java.util.Set;
 import org.apache.logging.log4j.Logger;
 
 import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.translation.TranslationCondition;
 import pl.edu.icm.unity.engine.bulkops.EntityMVELContextBuilder;
 import pl.edu.icm.unity.exceptions.EngineException;
@@ -33,18 +34,32 @@ public class EnquiryTargetCondEvaluator
 	private static final Logger log = Log.getLogger(Log.U_SERVER_FORMS, EnquiryTargetCondEvaluator.class);
 	
 	public static boolean evaluateTargetCondition(EnquiryForm form, List<Identity> identities, String entityStatus,
-			CredentialInfo credentialInfo, Set<String> groups, Collection<AttributeExt> attributes)
+			CredentialInfo credentialInfo, Set<String> groups, Collection<AttributeExt> attributes,
+			AttributeValueConverter attrConverter)
 	{
-		if (!groups.stream().anyMatch(Arrays.asList(form.getTargetGroups())::contains))
+		if (!isInTargetGroups(form, groups))
 			return false;
 		
 		if (form.getTargetCondition() == null || form.getTargetCondition().isEmpty())
 			return true;
 		
 		Map<String, Object> context = EntityMVELContextBuilder.getContext(identities, entityStatus,
-				credentialInfo, groups, attributes);
+				credentialInfo, groups, attributes, attrConverter);
 
-		TranslationCondition condition = new TranslationCondition(form.getTargetCondition());
+		return evaluateTargetCondition(form, new TranslationCondition(form.getTargetCondition()), context);
+	}
+
+	static boolean isInTargetGroups(EnquiryForm form, Set<String> groups)
+	{
+		return groups.stream().anyMatch(Arrays.asList(form.getTargetGroups())::contains);
+	}
+	
+	/**
+	 * Evaluates an already compiled target condition of the form in the given MVEL context.
+	 */
+	static boolean evaluateTargetCondition(EnquiryForm form, TranslationCondition condition, 
+			Map<String, Object> context)
+	{
 		try
 		{
 			boolean ret = condition.evaluate(context);
@@ -29,10 +29,8 @@ import pl.edu.icm.unity.engine.api.registration.GroupDiffUtils;
 import pl.edu.icm.unity.engine.api.registration.RequestSubmitStatus;
 import pl.edu.icm.unity.engine.api.registration.RequestedGroupDiff;
 import pl.edu.icm.unity.engine.api.translation.form.GroupParam;
-import pl.edu.icm.unity.engine.api.translation.form.RegistrationActionsRegistry;
 import pl.edu.icm.unity.engine.api.translation.form.TranslatedRegistrationRequest;
 import pl.edu.icm.unity.engine.api.translation.form.TranslatedRegistrationRequest.AutomaticRequestAction;
-import pl.edu.icm.unity.engine.attribute.AttributeTypeHelper;
 import pl.edu.icm.unity.engine.attribute.AttributesHelper;
 import pl.edu.icm.unity.engine.credential.EntityCredentialsHelper;
 import pl.edu.icm.unity.engine.forms.BaseSharedRegistrationSupport;
@@ -77,11 +75,9 @@ public class SharedEnquiryManagment extends BaseSharedRegistrationSupport
 	private IdentityHelper dbIdentities;
 	private RegistrationConfirmationRewriteSupport confirmationsRewriteSupport;
 	private RegistrationConfirmationSupport confirmationsSupport;
-	private RegistrationActionsRegistry registrationTranslationActionsRegistry;
 	private EnquiryResponsePreprocessor responseValidator;
 	private GroupDAO groupDB;
 	
-	private AttributeTypeHelper atHelper;
 
 	@Autowired
 	public SharedEnquiryManagment(MessageSource msg, NotificationProducer notificationProducer,
@@ -89,8 +85,7 @@ public class SharedEnquiryManagment extends BaseSharedRegistrationSupport
 			EntityCredentialsHelper entityCredentialsHelper, EnquiryResponseDB enquiryResponseDB,
 			IdentityHelper dbIdentities, RegistrationConfirmationRewriteSupport confirmationsRewriteSupport,
 			InternalFacilitiesManagement facilitiesManagement,
-			RegistrationActionsRegistry registrationTranslationActionsRegistry,
-			EnquiryResponsePreprocessor responseValidator, AttributeTypeHelper atHelper,
+			EnquiryResponsePreprocessor responseValidator,
 			RegistrationConfirmationSupport confirmationsSupport, InvitationDB invitationDB, GroupDAO groupDB,
 			PolicyAgreementManagement policyAgreementManagement,
 			SecondFactorOptInService secondFactorOptInService)
@@ -100,9 +95,7 @@ public class SharedEnquiryManagment extends BaseSharedRegistrationSupport
 		this.enquiryResponseDB = enquiryResponseDB;
 		this.dbIdentities = dbIdentities;
 		this.confirmationsRewriteSupport = confirmationsRewriteSupport;
-		this.registrationTranslationActionsRegistry = registrationTranslationActionsRegistry;
 		this.responseValidator = responseValidator;
-		this.atHelper = atHelper;
 		this.confirmationsSupport = confirmationsSupport;
 		this.groupDB = groupDB;
 	}
@@ -118,8 +111,7 @@ public class SharedEnquiryManagment extends BaseSharedRegistrationSupport
 	{
 		currentRequest.setStatus(RegistrationRequestStatus.accepted);
 
-		EnquiryTranslationProfile translationProfile = new EnquiryTranslationProfile(
-				form.getTranslationProfile(), registrationTranslationActionsRegistry, atHelper, form);
+		EnquiryTranslationProfile translationProfile = confirmationsSupport.getEnquiryProfile(form);
 		TranslatedRegistrationRequest translatedRequest = translationProfile.translate(currentRequest);
 
 		responseValidator.validateTranslatedRequest(form, currentRequest.getRequest(), translatedRequest);
@@ -287,8 +279,7 @@ public class SharedEnquiryManagment extends BaseSharedRegistrationSupport
 	public boolean autoProcessEnquiry(EnquiryForm form, EnquiryResponseState fullResponse,
 			String logMessageTemplate) throws EngineException
 	{
-		EnquiryTranslationProfile translationProfile = new EnquiryTranslationProfile(
-				form.getTranslationProfile(), registrationTranslationActionsRegistry, atHelper, form);
+		EnquiryTranslationProfile translationProfile = confirmationsSupport.getEnquiryProfile(form);
 
 		AutomaticRequestAction autoProcessAction = translationProfile.getAutoProcessAction(fullResponse,
 				RequestSubmitStatus.submitted);
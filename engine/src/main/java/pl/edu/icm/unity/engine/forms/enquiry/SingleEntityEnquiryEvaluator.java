@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.forms.enquiry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
+import pl.edu.icm.unity.engine.api.translation.TranslationCondition;
+import pl.edu.icm.unity.engine.bulkops.EntityMVELContextBuilder;
+import pl.edu.icm.unity.engine.credential.CredentialRequirementsHolder;
+import pl.edu.icm.unity.engine.credential.EntityCredentialsHelper;
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.store.api.AttributeDAO;
+import pl.edu.icm.unity.store.api.DirectoryModificationsTracker;
+import pl.edu.icm.unity.store.api.EntityDAO;
+import pl.edu.icm.unity.store.api.IdentityDAO;
+import pl.edu.icm.unity.store.api.MembershipDAO;
+import pl.edu.icm.unity.store.api.generic.EnquiryFormDB;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.store.api.tx.TxManager;
+import pl.edu.icm.unity.store.types.StoredAttribute;
+import pl.edu.icm.unity.types.authn.CredentialInfo;
+import pl.edu.icm.unity.types.basic.AttributeExt;
+import pl.edu.icm.unity.types.registration.EnquiryForm;
+
+/**
+ * Finds enquiry forms targeting a single entity. Contrary to the bulk membership queries only the data of
+ * the given entity is read, and only when needed: the entity's groups are always loaded, while the remaining
+ * data (identities, status, credentials and attributes in the root group) only if some of the target
+ * conditions has to be evaluated.
+ * <p>
+ * Enquiry forms with compiled target conditions are kept in a snapshot, which is reloaded only after enquiry
+ * forms (or other global directory data) were modified. When the storage engine doesn't track modifications
+ * or when called in a transaction (which might have modified forms), the forms are loaded from the database.
+ */
+@Component
+public class SingleEntityEnquiryEvaluator
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_FORMS, SingleEntityEnquiryEvaluator.class);
+
+	private final EnquiryFormDB enquiryFormDB;
+	private final MembershipDAO membershipDAO;
+	private final IdentityDAO identityDAO;
+	private final EntityDAO entityDAO;
+	private final AttributeDAO attributeDAO;
+	private final EntityCredentialsHelper credentialsHelper;
+	private final DirectoryModificationsTracker modificationsTracker;
+	private final TxManager txManager;
+	private final TransactionalRunner tx;
+	private final AttributeValueConverter attrConverter;
+	private final Object refreshLock = new Object();
+	private volatile TargetsSnapshot snapshot;
+
+	@Autowired
+	public SingleEntityEnquiryEvaluator(EnquiryFormDB enquiryFormDB, MembershipDAO membershipDAO,
+			IdentityDAO identityDAO, EntityDAO entityDAO, AttributeDAO attributeDAO,
+			EntityCredentialsHelper credentialsHelper, DirectoryModificationsTracker modificationsTracker,
+			TxManager txManager, TransactionalRunner tx, AttributeValueConverter attrConverter)
+	{
+		this.enquiryFormDB = enquiryFormDB;
+		this.membershipDAO = membershipDAO;
+		this.identityDAO = identityDAO;
+		this.entityDAO = entityDAO;
+		this.attributeDAO = attributeDAO;
+		this.credentialsHelper = credentialsHelper;
+		this.modificationsTracker = modificationsTracker;
+		this.txManager = txManager;
+		this.tx = tx;
+		this.attrConverter = attrConverter;
+	}
+
+	/**
+	 * @param formsFilter selects forms which should be checked. It is applied before the forms' targets
+	 * are evaluated, so the filtered out forms doesn't cost anything.
+	 * @return enquiry forms accepted by the filter and targeting the given entity
+	 */
+	public List<EnquiryForm> getFormsTargetingEntity(long entityId, Predicate<EnquiryForm> formsFilter)
+			throws EngineException
+	{
+		List<FormTarget> targets = getTargets().stream()
+				.filter(target -> formsFilter.test(target.form))
+				.collect(Collectors.toList());
+		if (targets.isEmpty())
+			return Collections.emptyList();
+
+		return tx.runInTransactionRetThrowing(() ->
+		{
+			EntityData entityData = new EntityData(entityId);
+			List<EnquiryForm> ret = new ArrayList<>();
+			for (FormTarget target: targets)
+			{
+				if (target.isTargeting(entityData))
+					ret.add(enquiryFormDB.get(target.form.getName()));
+			}
+			return ret;
+		});
+	}
+
+	private List<FormTarget> getTargets()
+	{
+		if (!modificationsTracker.isTrackingModifications() || txManager.isTransactionActive())
+			return tx.runInTransactionRet(this::loadTargets);
+
+		long version = modificationsTracker.getGlobalDataVersion();
+		TargetsSnapshot current = snapshot;
+		if (current != null && current.version >= version)
+			return current.targets;
+		synchronized (refreshLock)
+		{
+			current = snapshot;
+			if (current != null && current.version >= version)
+				return current.targets;
+			Stopwatch watch = Stopwatch.createStarted();
+			List<FormTarget> targets = tx.runInTransactionRet(this::loadTargets);
+			snapshot = new TargetsSnapshot(version, targets);
+			log.debug("Loaded targets of {} enquiry forms at version {}: {}", targets.size(), version, watch);
+			return targets;
+		}
+	}
+
+	private List<FormTarget> loadTargets()
+	{
+		return ImmutableList.copyOf(enquiryFormDB.getAll().stream()
+				.map(FormTarget::new)
+				.collect(Collectors.toList()));
+	}
+
+	private static class TargetsSnapshot
+	{
+		private final long version;
+		private final List<FormTarget> targets;
+
+		TargetsSnapshot(long version, List<FormTarget> targets)
+		{
+			this.version = version;
+			this.targets = targets;
+		}
+	}
+
+	private static class FormTarget
+	{
+		private final EnquiryForm form;
+		private final TranslationCondition condition;
+
+		FormTarget(EnquiryForm form)
+		{
+			this.form = form;
+			this.condition = form.getTargetCondition() == null || form.getTargetCondition().isEmpty() ?
+					null : new TranslationCondition(form.getTargetCondition());
+		}
+
+		boolean isTargeting(EntityData entityData) throws EngineException
+		{
+			if (!EnquiryTargetCondEvaluator.isInTargetGroups(form, entityData.getGroups()))
+				return false;
+			if (condition == null)
+				return true;
+			return EnquiryTargetCondEvaluator.evaluateTargetCondition(form, condition,
+					entityData.getMVELContext());
+		}
+	}
+
+	/**
+	 * Lazily loaded data of the entity, must be used in a transaction.
+	 */
+	private class EntityData
+	{
+		private final long entityId;
+		private Set<String> groups;
+		private Map<String, Object> context;
+
+		EntityData(long entityId)
+		{
+			this.entityId = entityId;
+		}
+
+		Set<String> getGroups()
+		{
+			if (groups == null)
+				groups = membershipDAO.getEntityMembershipSimple(entityId);
+			return groups;
+		}
+
+		Map<String, Object> getMVELContext() throws EngineException
+		{
+			if (context == null)
+			{
+				Map<String, AttributeExt> rootAttributes = new HashMap<>();
+				for (StoredAttribute attribute: attributeDAO.getAttributes(null, entityId, "/"))
+					rootAttributes.put(attribute.getAttribute().getName(), attribute.getAttribute());
+				context = EntityMVELContextBuilder.getContext(identityDAO.getByEntity(entityId),
+						entityDAO.getByKey(entityId).getEntityState().toString(),
+						getCredentialInfo(rootAttributes), getGroups(), rootAttributes.values(),
+						attrConverter);
+			}
+			return context;
+		}
+
+		private CredentialInfo getCredentialInfo(Map<String, AttributeExt> rootAttributes)
+				throws EngineException
+		{
+			String credentialRequirementId = credentialsHelper.getCredentialReqFromAttribute(rootAttributes);
+			CredentialRequirementsHolder credReq =
+					credentialsHelper.getCredentialRequirements(credentialRequirementId);
+			return credentialsHelper.getCredentialInfoNoQuery(entityId, rootAttributes, credReq,
+					credentialRequirementId);
+		}
+	}
+}
@@ -34,6 +34,7 @@ import pl.edu.icm.unity.engine.notifications.InternalFacilitiesManagement;
 import pl.edu.icm.unity.engine.notifications.NotificationFacility;
 import pl.edu.icm.unity.engine.translation.form.action.AutoProcessInvitationsActionFactory.AutoProcessInvitationsAction;
 import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.store.api.generic.InvitationDB;
 import pl.edu.icm.unity.store.api.generic.RegistrationFormDB;
 import pl.edu.icm.unity.types.basic.Attribute;
 import pl.edu.icm.unity.types.registration.AdminComment;
@@ -59,16 +60,19 @@ class AutomaticInvitationProcessingSupport
 	
 	private InvitationManagement invitationManagement;
 	private RegistrationFormDB formsDB;
+	private InvitationDB invitationDB;
 	private InternalFacilitiesManagement facilitiesManagement;
 	
 	
 	@Autowired
 	public AutomaticInvitationProcessingSupport(@Qualifier("insecure") InvitationManagement invitationManagement, 
 			RegistrationFormDB formsDB,
+			InvitationDB invitationDB,
 			InternalFacilitiesManagement facilitiesManagement)
 	{
 		this.invitationManagement = invitationManagement;
 		this.formsDB = formsDB;
+		this.invitationDB = invitationDB;
 		this.facilitiesManagement = facilitiesManagement;
 	}
 
@@ -134,9 +138,8 @@ class AutomaticInvitationProcessingSupport
 		Set<String> formsToProcess = translatedRequest.getInvitationProcessingParams().stream()
 				.map(AutomaticInvitationProcessingParam::getFormName)
 				.collect(toCollection(HashSet::new));
-		List<InvitationWithCode> invitationsToProcess = invitationManagement.getInvitations().stream()
+		List<InvitationWithCode> invitationsToProcess = invitationDB.getByContactAddress(contactAddress).stream()
 			.filter(byGivenFormOrAllIfEmpty(formsToProcess))
-			.filter(invitation -> contactAddress.equals(invitation.getInvitation().getContactAddress()))
 			.collect(Collectors.toList());
 		Map<String, RegistrationForm> registrationFormById = Maps.newHashMap();
 		
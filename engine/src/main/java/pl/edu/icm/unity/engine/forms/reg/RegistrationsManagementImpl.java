@@ -257,6 +257,23 @@ public class RegistrationsManagementImpl implements RegistrationsManagement
 		return requestDB.getAll();
 	}
 
+	@Override
+	@Transactional
+	public List<RegistrationRequestState> getRegistrationRequests(int offset, int limit) throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.read);
+		return requestDB.getPage(offset, limit);
+	}
+
+	@Override
+	@Transactional
+	public List<RegistrationRequestState> getRegistrationRequests(String formId, 
+			RegistrationRequestStatus status) throws EngineException
+	{
+		authz.checkAuthorization(AuthzCapability.read);
+		return requestDB.getByForm(formId, status);
+	}
+
 
 	@Override
 	@Transactional
@@ -30,10 +30,8 @@ import pl.edu.icm.unity.engine.api.registration.GroupDiffUtils;
 import pl.edu.icm.unity.engine.api.registration.RequestSubmitStatus;
 import pl.edu.icm.unity.engine.api.registration.RequestedGroupDiff;
 import pl.edu.icm.unity.engine.api.translation.form.GroupParam;
-import pl.edu.icm.unity.engine.api.translation.form.RegistrationActionsRegistry;
 import pl.edu.icm.unity.engine.api.translation.form.TranslatedRegistrationRequest;
 import pl.edu.icm.unity.engine.api.translation.form.TranslatedRegistrationRequest.AutomaticRequestAction;
-import pl.edu.icm.unity.engine.attribute.AttributeTypeHelper;
 import pl.edu.icm.unity.engine.attribute.AttributesHelper;
 import pl.edu.icm.unity.engine.credential.EntityCredentialsHelper;
 import pl.edu.icm.unity.engine.forms.BaseSharedRegistrationSupport;
@@ -76,9 +74,7 @@ public class SharedRegistrationManagment extends BaseSharedRegistrationSupport
 	private RegistrationConfirmationRewriteSupport confirmationsRewriteSupport;
 	
 	private RegistrationRequestPreprocessor registrationRequestValidator;
-	private RegistrationActionsRegistry registrationTranslationActionsRegistry;
 	private IdentityHelper identityHelper;
-	private AttributeTypeHelper atHelper;
 	private RegistrationConfirmationSupport confirmationsSupport;
 	private AutomaticInvitationProcessingSupport autoInvitationProcessingSupport;
 	private GroupDAO groupDB;
@@ -93,9 +89,7 @@ public class SharedRegistrationManagment extends BaseSharedRegistrationSupport
 			RegistrationConfirmationRewriteSupport confirmationsRewriteSupport,
 			InternalFacilitiesManagement facilitiesManagement,
 			RegistrationRequestPreprocessor registrationRequestValidator,
-			RegistrationActionsRegistry registrationTranslationActionsRegistry,
 			IdentityHelper identityHelper,
-			AttributeTypeHelper atHelper,
 			RegistrationConfirmationSupport confirmationsSupport,
 			AutomaticInvitationProcessingSupport autoInvitationProcessingSupport,
 			InvitationDB invitationDB,
@@ -109,9 +103,7 @@ public class SharedRegistrationManagment extends BaseSharedRegistrationSupport
 		this.requestDB = requestDB;
 		this.confirmationsRewriteSupport = confirmationsRewriteSupport;
 		this.registrationRequestValidator = registrationRequestValidator;
-		this.registrationTranslationActionsRegistry = registrationTranslationActionsRegistry;
 		this.identityHelper = identityHelper;
-		this.atHelper = atHelper;
 		this.confirmationsSupport = confirmationsSupport;
 		this.autoInvitationProcessingSupport = autoInvitationProcessingSupport;
 		this.groupDB = groupDB;
@@ -127,8 +119,7 @@ public class SharedRegistrationManagment extends BaseSharedRegistrationSupport
 	{
 		currentRequest.setStatus(RegistrationRequestStatus.accepted);
 
-		RegistrationTranslationProfile translationProfile = new RegistrationTranslationProfile(
-				form.getTranslationProfile(), registrationTranslationActionsRegistry, atHelper, form);
+		RegistrationTranslationProfile translationProfile = confirmationsSupport.getRegistrationProfile(form);
 		TranslatedRegistrationRequest translatedRequest = translationProfile.translate(currentRequest);
 		
 		registrationRequestValidator.validateTranslatedRequest(form, currentRequest.getRequest(), 
@@ -219,8 +210,7 @@ public class SharedRegistrationManagment extends BaseSharedRegistrationSupport
 	public Long autoProcess(RegistrationForm form, RegistrationRequestState requestFull, 
 			String logMessageTemplate) throws EngineException
 	{
-		RegistrationTranslationProfile translationProfile = new RegistrationTranslationProfile(
-				form.getTranslationProfile(), registrationTranslationActionsRegistry, atHelper, form);
+		RegistrationTranslationProfile translationProfile = confirmationsSupport.getRegistrationProfile(form);
 		
 		AutomaticRequestAction autoProcessAction = translationProfile.getAutoProcessAction(
 				requestFull, RequestSubmitStatus.submitted);
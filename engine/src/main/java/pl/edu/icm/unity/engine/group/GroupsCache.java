@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.group;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.store.api.DirectoryModificationsTracker;
+import pl.edu.icm.unity.store.api.GroupDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.store.api.tx.TxManager;
+import pl.edu.icm.unity.types.basic.Group;
+
+/**
+ * Provides groups by their paths from an immutable snapshot of all groups, indexed by path. The snapshot
+ * is reloaded only after groups (or other global directory data) were modified, so resolving
+ * a handful of groups doesn't require copying the whole groups tree.
+ * <p>
+ * When the storage engine doesn't track modifications or when called in a transaction (which might have
+ * modified groups), the requested groups are read from the database one by one.
+ */
+@Component
+public class GroupsCache
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, GroupsCache.class);
+
+	private final GroupDAO groupDAO;
+	private final DirectoryModificationsTracker modificationsTracker;
+	private final TxManager txManager;
+	private final TransactionalRunner tx;
+	private final Object refreshLock = new Object();
+	private volatile GroupsSnapshot snapshot;
+
+	@Autowired
+	public GroupsCache(GroupDAO groupDAO, DirectoryModificationsTracker modificationsTracker,
+			TxManager txManager, TransactionalRunner tx)
+	{
+		this.groupDAO = groupDAO;
+		this.modificationsTracker = modificationsTracker;
+		this.txManager = txManager;
+		this.tx = tx;
+	}
+
+	/**
+	 * @return copies of the groups with the given paths. Paths of not existing groups are skipped.
+	 */
+	public List<Group> getGroups(Collection<String> paths)
+	{
+		if (!modificationsTracker.isTrackingModifications() || txManager.isTransactionActive())
+			return tx.runInTransactionRet(() -> loadGroups(paths));
+
+		Map<String, Group> groups = getSnapshot(modificationsTracker.getGlobalDataVersion()).groups;
+		List<Group> ret = new ArrayList<>(paths.size());
+		for (String path: paths)
+		{
+			Group group = groups.get(path);
+			if (group != null)
+				ret.add(group.clone());
+		}
+		return ret;
+	}
+
+	private List<Group> loadGroups(Collection<String> paths)
+	{
+		List<Group> ret = new ArrayList<>(paths.size());
+		for (String path: paths)
+		{
+			if (groupDAO.exists(path))
+				ret.add(groupDAO.get(path));
+		}
+		return ret;
+	}
+
+	private GroupsSnapshot getSnapshot(long version)
+	{
+		GroupsSnapshot current = snapshot;
+		if (current != null && current.version >= version)
+			return current;
+		synchronized (refreshLock)
+		{
+			current = snapshot;
+			if (current != null && current.version >= version)
+				return current;
+			Stopwatch watch = Stopwatch.createStarted();
+			Map<String, Group> groups = tx.runInTransactionRet(() -> groupDAO.getAllAsMap());
+			GroupsSnapshot loaded = new GroupsSnapshot(version, ImmutableMap.copyOf(groups));
+			snapshot = loaded;
+			log.debug("Loaded snapshot of {} groups at version {}: {}", groups.size(), version, watch);
+			return loaded;
+		}
+	}
+
+	private static class GroupsSnapshot
+	{
+		private final long version;
+		private final Map<String, Group> groups;
+
+		GroupsSnapshot(long version, Map<String, Group> groups)
+		{
+			this.version = version;
+			this.groups = groups;
+		}
+	}
+}
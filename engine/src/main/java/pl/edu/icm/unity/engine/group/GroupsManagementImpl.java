@@ -153,8 +153,8 @@ public class GroupsManagementImpl implements GroupsManagement
 		{
 			authz.checkAuthorization(parent.getParentPath(), AuthzCapability.groupModify);
 		}
-		capacityLimitVerificator.assertInSystemLimit(CapacityLimitName.GroupsCount,
-				() -> dbGroups.getCount() + toAdd.size());
+		capacityLimitVerificator.assertInSystemLimitForAdd(CapacityLimitName.GroupsCount, toAdd.size(),
+				() -> dbGroups.getCount());
 		List<Group> groupsSortedByPath = toAdd.stream().sorted()
 				.collect(Collectors.toList());
 
@@ -5,6 +5,12 @@
 package pl.edu.icm.unity.engine.identity;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,75 +20,195 @@ import pl.edu.icm.unity.base.event.PersistableEvent;
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.config.UnityServerConfiguration;
 import pl.edu.icm.unity.engine.api.event.EventPublisher;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
 import pl.edu.icm.unity.engine.events.EventProducingAspect;
 import pl.edu.icm.unity.engine.events.InvocationEventContents;
 import pl.edu.icm.unity.store.api.EntityDAO;
-import pl.edu.icm.unity.store.api.tx.Transactional;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
 import pl.edu.icm.unity.types.basic.EntityInformation;
 import pl.edu.icm.unity.types.basic.EntityScheduledOperation;
 import pl.edu.icm.unity.types.basic.EntityState;
 
 /**
  * Applies scheduled operations on entities: removes them or disables.
+ * <p>
+ * Only entities with operations due are loaded and they are processed in chunks, each in a separate transaction.
+ * If a chunk fails its entities are processed one by one, so that a single broken entity
+ * doesn't block the others. After processing the next run is scheduled at the time of the earliest
+ * scheduled operation, but not later than after the {@link UnityServerConfiguration#UPDATE_INTERVAL},
+ * what covers operations scheduled on other cluster nodes. Operations scheduled locally
+ * advance the next run if needed.
  * @author K. Benedyczak
  */
 @Component
 public class EntitiesScheduledUpdater
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, EntitiesScheduledUpdater.class);
+	private static final int CHUNK_SIZE = 100;
 	private UnityServerConfiguration config;
 	private EntityDAO entityDAO;
 	private EventPublisher eventPublisher;
-	
+	private TransactionalRunner tx;
+	private ExecutorsService executors;
+
+	private final Object schedulingLock = new Object();
+	private boolean started;
+	private ScheduledFuture<?> nextRun;
+	private long nextRunTime;
+	private long runGeneration;
+
 	@Autowired
-	public EntitiesScheduledUpdater(UnityServerConfiguration config, EntityDAO entityDAO, EventPublisher eventProcessor)
+	public EntitiesScheduledUpdater(UnityServerConfiguration config, EntityDAO entityDAO,
+			EventPublisher eventProcessor, TransactionalRunner tx, ExecutorsService executors)
 	{
 		this.config = config;
 		this.entityDAO = entityDAO;
 		this.eventPublisher = eventProcessor;
+		this.tx = tx;
+		this.executors = executors;
 	}
-	
-	@Transactional
+
+	/**
+	 * Starts background processing of scheduled operations.
+	 * @param initialDelay delay of the first run in milliseconds
+	 */
+	public void start(long initialDelay)
+	{
+		synchronized (schedulingLock)
+		{
+			started = true;
+			scheduleRunNotLaterThan(System.currentTimeMillis() + initialDelay);
+		}
+	}
+
+	/**
+	 * Should be called after a new operation was scheduled. If the operation is due before the next
+	 * planned run, the run is advanced.
+	 */
+	public void operationScheduled(Date when)
+	{
+		synchronized (schedulingLock)
+		{
+			if (started)
+				scheduleRunNotLaterThan(when.getTime());
+		}
+	}
+
 	public synchronized Date updateEntities()
 	{
 		log.debug("Performing scheduled operations on entities");
-		Date ret = performScheduledEntityOperations();
-		
+		Date now = new Date();
+		performScheduledEntityOperations(now);
+		Date ret = tx.runInTransactionRet(() -> entityDAO.getNextScheduledOperationTime())
+				.orElse(new Date(Long.MAX_VALUE));
+
 		long maxAsyncWait = config.getIntValue(UnityServerConfiguration.UPDATE_INTERVAL) * 1000;
 		Date maxWait = new Date(System.currentTimeMillis() + maxAsyncWait);
-		Date finalRet = ret.after(maxWait) ? maxWait : ret;
+		//operations which are still due have failed, those are retried after the max wait time
+		Date finalRet = ret.after(maxWait) || !ret.after(now) ? maxWait : ret;
 		log.debug("Scheduled operations on entities executed, next round scheduled at " + finalRet);
 		return finalRet;
 	}
-	
-	
+
+	private void scheduleRunNotLaterThan(long time)
+	{
+		if (nextRun != null && nextRunTime <= time)
+			return;
+		if (nextRun != null)
+			nextRun.cancel(false);
+		long generation = ++runGeneration;
+		nextRunTime = time;
+		nextRun = executors.getService().schedule(() -> runScheduled(generation),
+				Math.max(0, time - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+	}
+
+	private void runScheduled(long generation)
+	{
+		synchronized (schedulingLock)
+		{
+			if (generation != runGeneration)
+				return;
+			nextRun = null;
+		}
+		long next = System.currentTimeMillis() +
+				config.getIntValue(UnityServerConfiguration.UPDATE_INTERVAL) * 1000;
+		try
+		{
+			next = updateEntities().getTime();
+		} catch (Exception e)
+		{
+			log.error("Can't perform the scheduled entity operations", e);
+		} finally
+		{
+			synchronized (schedulingLock)
+			{
+				scheduleRunNotLaterThan(next);
+			}
+		}
+	}
+
 	/**
 	 * Performs all scheduled operations due by now
-	 * @return the time when the earliest scheduled operation should take place. If there is no such operation 
-	 * returned time is very far in future.
 	 */
-	private Date performScheduledEntityOperations()
+	private void performScheduledEntityOperations(Date now)
 	{
-		Date now = new Date();
-		Date ret = new Date(Long.MAX_VALUE);
-		for (EntityInformation entityInfo: entityDAO.getAll())
+		Set<Long> failed = new HashSet<>();
+		List<Long> chunk;
+		while (!(chunk = getDueChunk(now, failed)).isEmpty())
 		{
-			if (isSetAndAfter(now, entityInfo.getScheduledOperationTime()))
+			List<Long> entities = chunk;
+			try
 			{
-				EntityScheduledOperation op = entityInfo.getScheduledOperation();
-				performScheduledOperationAndProduceEvent(op, entityInfo);
-			} else if (isSetAndAfter(now, entityInfo.getRemovalByUserTime()))
+				tx.runInTransaction(() -> {
+					for (Long entityId: entities)
+						performDueOperation(entityId, now);
+				});
+			} catch (Exception e)
 			{
-				performScheduledOperationAndProduceEvent(EntityScheduledOperation.REMOVE, entityInfo);
+				log.warn("Performing scheduled operations on a chunk of entities failed, "
+						+ "will process its entities one by one", e);
+				for (Long entityId: entities)
+					performDueOperationInSeparateTransaction(entityId, now, failed);
 			}
-			
-			Date nextOp = entityInfo.getScheduledOperationTime();
-			if (nextOp != null && nextOp.before(ret))
-				ret = nextOp;
 		}
-		return ret;
 	}
-	
+
+	private List<Long> getDueChunk(Date now, Set<Long> failed)
+	{
+		List<EntityInformation> due = tx.runInTransactionRet(() ->
+				entityDAO.getWithScheduledOperationDue(now, CHUNK_SIZE + failed.size()));
+		return due.stream()
+				.map(EntityInformation::getId)
+				.filter(id -> !failed.contains(id))
+				.limit(CHUNK_SIZE)
+				.collect(Collectors.toList());
+	}
+
+	private void performDueOperationInSeparateTransaction(Long entityId, Date now, Set<Long> failed)
+	{
+		try
+		{
+			tx.runInTransaction(() -> performDueOperation(entityId, now));
+		} catch (Exception e)
+		{
+			log.error("Can't perform the scheduled operation on entity " + entityId, e);
+			failed.add(entityId);
+		}
+	}
+
+	private void performDueOperation(long entityId, Date now)
+	{
+		EntityInformation entityInfo = entityDAO.getByKey(entityId);
+		if (isSetAndAfter(now, entityInfo.getScheduledOperationTime()))
+		{
+			EntityScheduledOperation op = entityInfo.getScheduledOperation();
+			performScheduledOperationAndProduceEvent(op, entityInfo);
+		} else if (isSetAndAfter(now, entityInfo.getRemovalByUserTime()))
+		{
+			performScheduledOperationAndProduceEvent(EntityScheduledOperation.REMOVE, entityInfo);
+		}
+	}
+
 	private void performScheduledOperationAndProduceEvent(EntityScheduledOperation op,
 			EntityInformation entityInfo)
 	{
@@ -98,7 +224,7 @@ public class EntitiesScheduledUpdater
 			throw ex;
 		}
 	}
-	
+
 	private void performScheduledOperationInternal(EntityScheduledOperation op, EntityInformation entityInfo)
 	{
 		switch (op)
@@ -111,19 +237,19 @@ public class EntitiesScheduledUpdater
 			log.info("Performing scheduled removal of entity " + entityInfo.getId());
 			entityDAO.deleteByKey(entityInfo.getId());
 			break;
-		}	
+		}
 	}
-	
+
 	private void produceEvent(String methodName, String e, EntityScheduledOperation op, EntityInformation entityInfo)
 	{
 		PersistableEvent event = new PersistableEvent(EventProducingAspect.CATEGORY_INVOCATION + "." + methodName,
 				null, new Date());
-		InvocationEventContents desc = new InvocationEventContents(methodName, 
+		InvocationEventContents desc = new InvocationEventContents(methodName,
 				null, new Object[] {op, entityInfo}, e);
 		event.setContents(desc.toJson());
-		eventPublisher.fireEvent(event);	
+		eventPublisher.fireEvent(event);
 	}
-	
+
 	private void disableInternal(EntityInformation entityInfo)
 	{
 		entityInfo.setState(EntityState.disabled);
@@ -132,7 +258,7 @@ public class EntitiesScheduledUpdater
 		entityInfo.setRemovalByUserTime(null);
 		entityDAO.updateByKey(entityInfo.getId(), entityInfo);
 	}
-	
+
 	private boolean isSetAndAfter(Date now, Date date)
 	{
 		return date != null && !now.before(date);
@@ -4,57 +4,99 @@
  */
 package pl.edu.icm.unity.engine.identity;
 
-import java.util.Map;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Lists;
+
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.identity.IdentityTypeDefinition;
 import pl.edu.icm.unity.store.api.IdentityDAO;
 import pl.edu.icm.unity.store.api.IdentityTypeDAO;
-import pl.edu.icm.unity.store.api.tx.Transactional;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
 import pl.edu.icm.unity.store.types.StoredIdentity;
-import pl.edu.icm.unity.types.basic.Identity;
 import pl.edu.icm.unity.types.basic.IdentityType;
 
 /**
- * Removes expired identities. 
+ * Removes expired identities. Only identities of types which can expire are checked.
+ * Expired identities are removed in chunks, each in a separate transaction. If a chunk fails its identities
+ * are removed one by one, so that a single broken identity doesn't block removal of the others.
  * @author K. Benedyczak
  */
 @Component
 public class IdentityCleaner
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, IdentityCleaner.class);
+	private static final int REMOVAL_CHUNK_SIZE = 100;
 	private IdentityDAO identityDAO;
 	private IdentityTypeHelper idTypeHelper;
 	private IdentityTypeDAO idTypeDAO;
+	private TransactionalRunner tx;
 
 	@Autowired
 	public IdentityCleaner(IdentityDAO identityDAO, IdentityTypeHelper idTypeHelper,
-			IdentityTypeDAO idTypeDAO)
+			IdentityTypeDAO idTypeDAO, TransactionalRunner tx)
 	{
 		this.identityDAO = identityDAO;
 		this.idTypeHelper = idTypeHelper;
 		this.idTypeDAO = idTypeDAO;
+		this.tx = tx;
 	}
 
-	@Transactional
 	public void removeExpiredIdentities()
 	{
-		Map<String, IdentityType> types = idTypeDAO.getAllAsMap();
-		for (StoredIdentity sidentity: identityDAO.getAll())
+		List<IdentityType> expirableTypes = tx.runInTransactionRet(() -> idTypeDAO.getAll().stream()
+				.filter(type -> idTypeHelper.getTypeDefinition(type).isExpirable())
+				.collect(Collectors.toList()));
+		for (IdentityType identityType: expirableTypes)
+			removeExpiredIdentities(identityType);
+	}
+
+	private void removeExpiredIdentities(IdentityType identityType)
+	{
+		IdentityTypeDefinition typeDefinition = idTypeHelper.getTypeDefinition(identityType);
+		List<StoredIdentity> expired = tx.runInTransactionRet(() ->
+				identityDAO.getByType(identityType.getName()).stream()
+					.filter(sidentity -> typeDefinition.isExpired(sidentity.getIdentity()))
+					.collect(Collectors.toList()));
+		for (List<StoredIdentity> chunk: Lists.partition(expired, REMOVAL_CHUNK_SIZE))
 		{
-			Identity identity = sidentity.getIdentity();
-			IdentityType identityType = types.get(identity.getTypeId());
-			IdentityTypeDefinition typeDefinition = idTypeHelper.getTypeDefinition(identityType);
-			if (typeDefinition.isExpired(identity))
+			try
 			{
-				log.info("Removing expired identity " + identity);
-				identityDAO.delete(StoredIdentity.toInDBIdentityValue(identityType.getName(), 
-						identity.getComparableValue()));
+				tx.runInTransaction(() -> {
+					for (StoredIdentity sidentity: chunk)
+						removeIfExists(sidentity);
+				});
+			} catch (Exception e)
+			{
+				log.warn("Removing a chunk of expired identities failed, "
+						+ "will remove its identities one by one", e);
+				for (StoredIdentity sidentity: chunk)
+					removeInSeparateTransaction(sidentity);
 			}
 		}
 	}
+
+	private void removeInSeparateTransaction(StoredIdentity sidentity)
+	{
+		try
+		{
+			tx.runInTransaction(() -> removeIfExists(sidentity));
+		} catch (Exception e)
+		{
+			log.error("Can't remove expired identity " + sidentity.getIdentity(), e);
+		}
+	}
+
+	private void removeIfExists(StoredIdentity sidentity)
+	{
+		if (!identityDAO.exists(sidentity.getName()))
+			return;
+		log.info("Removing expired identity " + sidentity.getIdentity());
+		identityDAO.delete(sidentity.getName());
+	}
 }
@@ -5,7 +5,6 @@
 package pl.edu.icm.unity.engine.identity;
 
 import java.util.Date;
-import java.util.List;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +14,7 @@ import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.exceptions.IllegalIdentityValueException;
 import pl.edu.icm.unity.exceptions.IllegalTypeException;
 import pl.edu.icm.unity.store.api.EntityDAO;
+import pl.edu.icm.unity.store.api.tx.TxManager;
 import pl.edu.icm.unity.types.basic.EntityInformation;
 import pl.edu.icm.unity.types.basic.EntityScheduledOperation;
 import pl.edu.icm.unity.types.basic.EntityState;
@@ -28,12 +28,15 @@ public class SheduledOperationHelper
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, SheduledOperationHelper.class);
 	private EntityDAO entityDAO;
-	
+	private EntitiesScheduledUpdater entitiesUpdater;
+	private TxManager txMan;
 	
 	@Autowired
-	public SheduledOperationHelper(EntityDAO entityDAO)
+	public SheduledOperationHelper(EntityDAO entityDAO, EntitiesScheduledUpdater entitiesUpdater, TxManager txMan)
 	{
 		this.entityDAO = entityDAO;
+		this.entitiesUpdater = entitiesUpdater;
+		this.txMan = txMan;
 	}
 
 	/**
@@ -76,6 +79,7 @@ public class SheduledOperationHelper
 		}
 
 		entityDAO.updateByKey(entityId, info);
+		notifyUpdaterAfterCommit(operation == null ? null : when);
 	}
 
 	public void setScheduledRemovalByUser(long entityId, Date when) 
@@ -93,36 +97,13 @@ public class SheduledOperationHelper
 		}
 
 		entityDAO.updateByKey(entityId, info);
+		notifyUpdaterAfterCommit(when);
 	}
 	
-	
-	/**
-	 * Performs all scheduled operations due by now
-	 * @param sqlMap
-	 * @return the time when the earliest scheduled operation should take place. If there is no such operation 
-	 * returned time is very far in future.
-	 */
-	public Date performScheduledEntityOperations()
+	private void notifyUpdaterAfterCommit(Date when)
 	{
-		List<EntityInformation> all = entityDAO.getAll();
-		Date now = new Date();
-		Date ret = new Date(Long.MAX_VALUE);
-		for (EntityInformation entityInfo: all)
-		{
-			if (isSetAndAfter(now, entityInfo.getScheduledOperationTime()))
-			{
-				EntityScheduledOperation op = entityInfo.getScheduledOperation();
-				performScheduledOperationInternal(op, entityInfo);
-			} else if (isSetAndAfter(now, entityInfo.getRemovalByUserTime()))
-			{
-				performScheduledOperationInternal(EntityScheduledOperation.REMOVE, entityInfo);
-			}
-			
-			Date nextOp = entityInfo.getScheduledOperationTime();
-			if (nextOp != null && nextOp.before(ret))
-				ret = nextOp;
-		}
-		return ret;
+		if (when != null)
+			txMan.addPostCommitAction(() -> entitiesUpdater.operationScheduled(when));
 	}
 
 	public void performScheduledOperation(long entityId, EntityScheduledOperation op)
@@ -154,9 +135,4 @@ public class SheduledOperationHelper
 		entityInfo.setRemovalByUserTime(null);
 		entityDAO.updateByKey(entityInfo.getId(), entityInfo);
 	}
-	
-	private boolean isSetAndAfter(Date now, Date date)
-	{
-		return date != null && !now.before(date);
-	}
 }
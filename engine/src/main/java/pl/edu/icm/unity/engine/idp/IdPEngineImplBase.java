@@ -20,7 +20,6 @@ import eu.unicore.util.configuration.PropertiesHelper;
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.AttributesManagement;
 import pl.edu.icm.unity.engine.api.EntityManagement;
-import pl.edu.icm.unity.engine.api.GroupsManagement;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationResult.Status;
 import pl.edu.icm.unity.engine.api.idp.CommonIdPProperties;
 import pl.edu.icm.unity.engine.api.idp.EntityInGroup;
@@ -30,6 +29,7 @@ import pl.edu.icm.unity.engine.api.translation.out.TranslationResult;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSerivce;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSerivce.ImportResult;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSpec;
+import pl.edu.icm.unity.engine.group.GroupsCache;
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.types.basic.AttributeExt;
 import pl.edu.icm.unity.types.basic.Entity;
@@ -56,21 +56,21 @@ class IdPEngineImplBase implements IdPEngine
 	private UserImportSerivce userImportService;
 	private OutputProfileExecutor outputProfileExecutor;
 	private AttributesManagement alwaysInsecureAttributesMan;
-	private GroupsManagement groupManagement;
+	private GroupsCache groupsCache;
 	
 	IdPEngineImplBase(AttributesManagement attributesMan,
 			AttributesManagement alwaysInsecureAttributesMan, 
 			EntityManagement identitiesMan,
 			UserImportSerivce userImportService,
 			OutputProfileExecutor outputProfileExecutor,
-			GroupsManagement groupManagement)
+			GroupsCache groupsCache)
 	{
 		this.attributesMan = attributesMan;
 		this.identitiesMan = identitiesMan;
 		this.userImportService = userImportService;
 		this.outputProfileExecutor = outputProfileExecutor;
 		this.alwaysInsecureAttributesMan = alwaysInsecureAttributesMan;
-		this.groupManagement = groupManagement;
+		this.groupsCache = groupsCache;
 	}
 
 	@Override
@@ -132,9 +132,7 @@ class IdPEngineImplBase implements IdPEngine
 			Map<String, Status> importStatus) throws EngineException
 	{
 		Set<String> allGroups = identitiesMan.getGroups(entity).keySet();
-		List<Group> resolvedGroups = groupManagement.getGroupsByWildcard("/**").stream()
-				.filter(grp -> allGroups.contains(grp.getName()))
-				.collect(Collectors.toList());
+		List<Group> resolvedGroups = groupsCache.getGroups(allGroups);
 		Collection<AttributeExt> allAttributes = attributesMan.getAttributes(
 				entity, group, null);
 		if (log.isTraceEnabled())
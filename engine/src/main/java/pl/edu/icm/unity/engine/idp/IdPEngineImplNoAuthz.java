@@ -12,9 +12,10 @@ import pl.edu.icm.unity.MessageSource;
 import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.AttributesManagement;
 import pl.edu.icm.unity.engine.api.EntityManagement;
-import pl.edu.icm.unity.engine.api.GroupsManagement;
 import pl.edu.icm.unity.engine.api.translation.out.OutputTranslationActionsRegistry;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSerivce;
+import pl.edu.icm.unity.engine.group.GroupsCache;
+import pl.edu.icm.unity.engine.translation.TranslationProfileInstanceCache;
 import pl.edu.icm.unity.engine.translation.out.OutputTranslationEngine;
 import pl.edu.icm.unity.engine.translation.out.OutputTranslationProfileRepository;
 
@@ -35,17 +36,18 @@ public class IdPEngineImplNoAuthz extends IdPEngineImplBase
 	@Autowired
 	public IdPEngineImplNoAuthz(@Qualifier("insecure") AttributesManagement attributesMan, 
 			@Qualifier("insecure") EntityManagement identitiesMan,
-			@Qualifier("insecure") GroupsManagement groupMan,
+			GroupsCache groupsCache,
 			OutputTranslationProfileRepository outputProfileRepo,
 			OutputTranslationEngine translationEngine,
 			UserImportSerivce userImportService,
 			OutputTranslationActionsRegistry actionsRegistry,
 			AttributeValueConverter attrValueConverter,
-			MessageSource msg)
+			MessageSource msg,
+			TranslationProfileInstanceCache profileInstanceCache)
 	{
 		super(attributesMan, attributesMan, identitiesMan, userImportService, 
 				new OutputProfileExecutor(outputProfileRepo, 
 						translationEngine, actionsRegistry, 
-						attrValueConverter, msg), groupMan);
+						attrValueConverter, msg, profileInstanceCache), groupsCache);
 	}
 }
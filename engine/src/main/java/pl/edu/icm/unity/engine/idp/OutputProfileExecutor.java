@@ -12,6 +12,7 @@ import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.translation.out.OutputTranslationActionsRegistry;
 import pl.edu.icm.unity.engine.api.translation.out.TranslationInput;
 import pl.edu.icm.unity.engine.api.translation.out.TranslationResult;
+import pl.edu.icm.unity.engine.translation.TranslationProfileInstanceCache;
 import pl.edu.icm.unity.engine.translation.out.OutputTranslationEngine;
 import pl.edu.icm.unity.engine.translation.out.OutputTranslationProfile;
 import pl.edu.icm.unity.engine.translation.out.OutputTranslationProfileRepository;
@@ -36,6 +37,7 @@ class OutputProfileExecutor
 	private final OutputTranslationActionsRegistry actionsRegistry;
 	private final MessageSource msg;
 	private final AttributeValueConverter attrValueConverter; 
+	private final TranslationProfileInstanceCache profileInstanceCache;
 	private final OutputTranslationProfile defaultProfile;
 
 	
@@ -43,13 +45,15 @@ class OutputProfileExecutor
 			OutputTranslationEngine translationEngine,
 			OutputTranslationActionsRegistry actionsRegistry,
 			AttributeValueConverter attrValueConverter,
-			MessageSource msg)
+			MessageSource msg,
+			TranslationProfileInstanceCache profileInstanceCache)
 	{
 		this.translationEngine = translationEngine;
 		this.outputProfileRepo = outputProfileRepo;
 		this.actionsRegistry = actionsRegistry;
 		this.attrValueConverter = attrValueConverter;
 		this.msg = msg;
+		this.profileInstanceCache = profileInstanceCache;
 
 		this.defaultProfile = createDefaultOutputProfile();
 	}
@@ -59,8 +63,10 @@ class OutputProfileExecutor
 		OutputTranslationProfile profileInstance;
 		if (profile != null)
 		{
-			profileInstance = new OutputTranslationProfile(profile, outputProfileRepo, 
-					actionsRegistry, attrValueConverter);
+			profileInstance = profileInstanceCache.getInstance(OutputTranslationProfile.class, 
+					profile.getName(), profile, 
+					() -> new OutputTranslationProfile(profile, outputProfileRepo, 
+							actionsRegistry, attrValueConverter, profileInstanceCache));
 		} else
 		{
 			profileInstance = defaultProfile;
@@ -83,6 +89,7 @@ class OutputProfileExecutor
 		rules.add(new TranslationRule("true", action2));
 		TranslationProfile profile = new TranslationProfile("DEFAULT OUTPUT PROFILE", "", ProfileType.OUTPUT,
 				rules);
-		return new OutputTranslationProfile(profile, outputProfileRepo, actionsRegistry, attrValueConverter);
+		return new OutputTranslationProfile(profile, outputProfileRepo, actionsRegistry, attrValueConverter,
+				profileInstanceCache);
 	}
 }
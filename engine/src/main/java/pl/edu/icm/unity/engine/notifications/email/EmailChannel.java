@@ -10,13 +10,13 @@ import java.security.GeneralSecurityException;
 import java.util.Date;
 import java.util.Properties;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import javax.mail.Authenticator;
 import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.PasswordAuthentication;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.MimeMessage;
 import javax.net.ssl.SSLSocketFactory;
 
@@ -35,13 +35,21 @@ import pl.edu.icm.unity.types.basic.MessageTemplate;
 
 class EmailChannel implements NotificationChannelInstance
 {
-	private final Session session;
+	private final Supplier<SMTPConnectionPool> reservedPoolProvider;
 	private final ExecutorsService executorsService;
 	
 	
-	EmailChannel(String configuration, ExecutorsService executorsService, PKIManagement pkiManagement)
+	/**
+	 * @param reservedPoolProvider returns an already reserved pool, which is unreserved after sending
+	 */
+	EmailChannel(Supplier<SMTPConnectionPool> reservedPoolProvider, ExecutorsService executorsService)
 	{
+		this.reservedPoolProvider = reservedPoolProvider;
 		this.executorsService = executorsService;
+	}
+	
+	static Properties loadProperties(String configuration)
+	{
 		Properties props = new Properties();
 		try
 		{
@@ -52,6 +60,11 @@ class EmailChannel implements NotificationChannelInstance
 			throw new IllegalStateException("Bug: can't load email properties " +
 					"for the channel instance", e);
 		}
+		return props;
+	}
+	
+	static Session createSession(Properties props, PKIManagement pkiManagement)
+	{
 		String smtpUser = props.getProperty(EmailFacility.CFG_USER);
 		String smtpPassword = props.getProperty(EmailFacility.CFG_PASSWD);
 		Authenticator smtpAuthn = (smtpUser != null && smtpPassword != null) ? 
@@ -77,7 +90,7 @@ class EmailChannel implements NotificationChannelInstance
 					new HostnameMismatchCallbackImpl(ServerHostnameCheckingMode.FAIL)).getSocketFactory();
 			props.put("mail.smtp.ssl.socketFactory", factory);
 		}
-		session = Session.getInstance(props, smtpAuthn);
+		return Session.getInstance(props, smtpAuthn);
 	}
 	
 	@Override
@@ -101,13 +114,20 @@ class EmailChannel implements NotificationChannelInstance
 	private void sendEmail(MessageTemplate.Message message, String to) throws MessagingException
 	{
 		EmailFacility.log.info("Sending e-mail message to '" + to +"' with subject: " + message.getSubject());
-		MimeMessage msg = new MimeMessage(session);
-		msg.setFrom();
-		msg.setRecipients(Message.RecipientType.TO, to);
-		msg.setSubject(message.getSubject());
-		msg.setSentDate(new Date());
-		msg.setContent(message.getBody(), getContentType(message));
-		Transport.send(msg);
+		SMTPConnectionPool connectionPool = reservedPoolProvider.get();
+		try
+		{
+			MimeMessage msg = new MimeMessage(connectionPool.getSession());
+			msg.setFrom();
+			msg.setRecipients(Message.RecipientType.TO, to);
+			msg.setSubject(message.getSubject());
+			msg.setSentDate(new Date());
+			msg.setContent(message.getBody(), getContentType(message));
+			connectionPool.send(msg);
+		} finally
+		{
+			connectionPool.unreserve();
+		}
 	}
 
 	private String getContentType(MessageTemplate.Message message)
@@ -8,7 +8,11 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +56,11 @@ public class EmailFacility implements NotificationFacility
 	static final String CFG_USER = "mailx.smtp.auth.username"; 
 	static final String CFG_PASSWD = "mailx.smtp.auth.password";
 	static final String CFG_TRUST_ALL = "mailx.smtp.trustAll";
+	static final String CFG_POOL_MAX_CONNECTIONS = "mailx.smtp.pool.maxConnections";
+	static final String CFG_POOL_IDLE_TIMEOUT = "mailx.smtp.pool.idleTimeout";
+	private static final int DEFAULT_POOL_MAX_CONNECTIONS = 4;
+	private static final long DEFAULT_POOL_IDLE_TIMEOUT_S = 60;
+	private static final long POOL_MAINTENANCE_INTERVAL_S = 30;
 	
 	private ExecutorsService executorsService;
 	private PKIManagement pkiManagement;
@@ -59,6 +68,14 @@ public class EmailFacility implements NotificationFacility
 	private IdentityDAO dbIdentities;
 	private EntityResolver idResolver;
 	private AttributeTypeHelper atHelper;
+	/**
+	 * SMTP connection pools, indexed with channel configuration. Channel instances are recreated often,
+	 * so the connections are pooled here.
+	 */
+	private final ConcurrentMap<String, SMTPConnectionPool> connectionPools = new ConcurrentHashMap<>();
+	private EmailSendingStatistics retiredPoolsStatistics = new EmailSendingStatistics(0, 0, 0, 0, 0, 0);
+	private long previousSentMessages;
+	private double sentPerMinute;
 	
 	
 	@Autowired
@@ -72,6 +89,8 @@ public class EmailFacility implements NotificationFacility
 		this.idResolver = idResolver;
 		this.dbIdentities = dbIdentities;
 		this.atHelper = atSyntaxRegistry;
+		executorsService.getService().scheduleWithFixedDelay(this::maintainConnectionPools, 
+				POOL_MAINTENANCE_INTERVAL_S, POOL_MAINTENANCE_INTERVAL_S, TimeUnit.SECONDS);
 	}
 
 	@Override
@@ -104,12 +123,88 @@ public class EmailFacility implements NotificationFacility
 			throw new WrongArgumentException("Email configuration is invalid: " +
 					"not a valid properties syntax was used", e);
 		}
+		validateNumber(props, CFG_POOL_MAX_CONNECTIONS);
+		validateNumber(props, CFG_POOL_IDLE_TIMEOUT);
+	}
+
+	private void validateNumber(Properties props, String key) throws WrongArgumentException
+	{
+		String value = props.getProperty(key);
+		if (value == null)
+			return;
+		try
+		{
+			if (Long.parseLong(value.trim()) <= 0)
+				throw new WrongArgumentException("Email configuration is invalid: " + 
+						key + " must be positive");
+		} catch (NumberFormatException e)
+		{
+			throw new WrongArgumentException("Email configuration is invalid: " + 
+					key + " must be a number", e);
+		}
 	}
 
 	@Override
 	public NotificationChannelInstance getChannel(String configuration)
 	{
-		return new EmailChannel(configuration, executorsService, pkiManagement);
+		return new EmailChannel(() -> reservePool(configuration), executorsService);
+	}
+
+	/**
+	 * Channels obtain the pool for each message, so the pool which was retired in the meantime is 
+	 * never used and a fresh one is created instead.
+	 */
+	private SMTPConnectionPool reservePool(String configuration)
+	{
+		while (true)
+		{
+			SMTPConnectionPool pool = connectionPools.computeIfAbsent(configuration, 
+					this::createConnectionPool);
+			if (pool.reserve())
+				return pool;
+			connectionPools.remove(configuration, pool);
+		}
+	}
+
+	/**
+	 * @return statistics of emails sent by all channels since server start
+	 */
+	public synchronized EmailSendingStatistics getStatistics()
+	{
+		EmailSendingStatistics ret = retiredPoolsStatistics;
+		for (SMTPConnectionPool pool: connectionPools.values())
+			ret = ret.add(pool.getStatistics());
+		return ret.withSentPerMinute(sentPerMinute);
+	}
+	
+	private SMTPConnectionPool createConnectionPool(String configuration)
+	{
+		Properties props = EmailChannel.loadProperties(configuration);
+		int maxConnections = Integer.parseInt(props.getProperty(CFG_POOL_MAX_CONNECTIONS, 
+				String.valueOf(DEFAULT_POOL_MAX_CONNECTIONS)).trim());
+		long idleTimeout = Long.parseLong(props.getProperty(CFG_POOL_IDLE_TIMEOUT, 
+				String.valueOf(DEFAULT_POOL_IDLE_TIMEOUT_S)).trim());
+		return new SMTPConnectionPool(EmailChannel.createSession(props, pkiManagement), 
+				maxConnections, TimeUnit.SECONDS.toMillis(idleTimeout));
+	}
+	
+	private synchronized void maintainConnectionPools()
+	{
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, SMTPConnectionPool> entry: connectionPools.entrySet())
+		{
+			SMTPConnectionPool pool = entry.getValue();
+			if (pool.retireIfUnused(now))
+			{
+				connectionPools.remove(entry.getKey(), pool);
+				retiredPoolsStatistics = retiredPoolsStatistics.add(pool.getStatistics());
+			}
+		}
+		EmailSendingStatistics statistics = getStatistics();
+		sentPerMinute = (statistics.sentMessages - previousSentMessages) * 60.0 / POOL_MAINTENANCE_INTERVAL_S;
+		previousSentMessages = statistics.sentMessages;
+		if (statistics.sentMessages > 0)
+			log.debug("Email sending statistics: {}", statistics);
 	}
 
 	/**
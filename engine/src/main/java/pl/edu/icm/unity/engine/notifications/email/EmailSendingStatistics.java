@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.notifications.email;
+
+/**
+ * Snapshot of the statistics of email sending, as seen by the local server. Counters are cumulative since
+ * the server start, connection related values are current.
+ */
+public class EmailSendingStatistics
+{
+	public final long sentMessages;
+	public final long failedMessages;
+	public final long openedConnections;
+	public final int activeConnections;
+	public final int idleConnections;
+	public final int waitingForConnection;
+	public final double sentPerMinute;
+
+	EmailSendingStatistics(long sentMessages, long failedMessages, long openedConnections,
+			int activeConnections, int idleConnections, int waitingForConnection)
+	{
+		this(sentMessages, failedMessages, openedConnections, activeConnections, idleConnections,
+				waitingForConnection, 0);
+	}
+
+	EmailSendingStatistics(long sentMessages, long failedMessages, long openedConnections,
+			int activeConnections, int idleConnections, int waitingForConnection, double sentPerMinute)
+	{
+		this.sentMessages = sentMessages;
+		this.failedMessages = failedMessages;
+		this.openedConnections = openedConnections;
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+		this.waitingForConnection = waitingForConnection;
+		this.sentPerMinute = sentPerMinute;
+	}
+
+	EmailSendingStatistics add(EmailSendingStatistics other)
+	{
+		return new EmailSendingStatistics(sentMessages + other.sentMessages,
+				failedMessages + other.failedMessages,
+				openedConnections + other.openedConnections,
+				activeConnections + other.activeConnections,
+				idleConnections + other.idleConnections,
+				waitingForConnection + other.waitingForConnection,
+				sentPerMinute);
+	}
+
+	EmailSendingStatistics withSentPerMinute(double sentPerMinute)
+	{
+		return new EmailSendingStatistics(sentMessages, failedMessages, openedConnections, activeConnections,
+				idleConnections, waitingForConnection, sentPerMinute);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EmailSendingStatistics [sentMessages=" + sentMessages + ", failedMessages=" + failedMessages
+				+ ", openedConnections=" + openedConnections + ", activeConnections=" + activeConnections
+				+ ", idleConnections=" + idleConnections + ", waitingForConnection=" + waitingForConnection
+				+ ", sentPerMinute=" + sentPerMinute + "]";
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.notifications.email;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Bounded pool of connected (and authenticated if configured) SMTP transports, created for a single
+ * email channel configuration. Connections are reused by subsequent messages, what saves a TCP connection,
+ * TLS handshake and SMTP authentication per message. Connections which were not used for
+ * the configured time are closed by {@link #closeIdle(long)}.
+ * <p>
+ * Users of the pool have to {@link #reserve()} it for the time of sending, so that the pool owner can
+ * retire it only when it is not in use.
+ * <p>
+ * Thread safe.
+ */
+class SMTPConnectionPool
+{
+	private final Session session;
+	private final long idleTimeoutMs;
+	private final Semaphore connectionPermits;
+	private final ConcurrentLinkedDeque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong opened = new AtomicLong();
+	private volatile long lastUsed = System.currentTimeMillis();
+	private int reservations;
+	private boolean retired;
+
+	SMTPConnectionPool(Session session, int maxConnections, long idleTimeoutMs)
+	{
+		this.session = session;
+		this.idleTimeoutMs = idleTimeoutMs;
+		this.connectionPermits = new Semaphore(maxConnections, true);
+	}
+
+	Session getSession()
+	{
+		return session;
+	}
+
+	/**
+	 * Sends the message using a pooled connection. If the pooled connection turns out to be broken
+	 * (e.g. closed by server after a timeout) the message is resent once using a fresh connection.
+	 */
+	void send(MimeMessage message) throws MessagingException
+	{
+		message.saveChanges();
+		acquirePermit();
+		try
+		{
+			sendWithPermit(message);
+			sent.incrementAndGet();
+		} catch (MessagingException | RuntimeException e)
+		{
+			failed.incrementAndGet();
+			throw e;
+		} finally
+		{
+			lastUsed = System.currentTimeMillis();
+			active.decrementAndGet();
+			connectionPermits.release();
+		}
+	}
+
+	private void sendWithPermit(MimeMessage message) throws MessagingException
+	{
+		PooledTransport reused = takeIdle();
+		if (reused != null)
+		{
+			try
+			{
+				reused.transport.sendMessage(message, message.getAllRecipients());
+				release(reused);
+				return;
+			} catch (MessagingException e)
+			{
+				boolean broken = !reused.transport.isConnected();
+				close(reused);
+				if (!broken)
+					throw e;
+				EmailFacility.log.debug("Pooled SMTP connection is broken, will retry with a new one", e);
+			}
+		}
+		PooledTransport fresh = open();
+		try
+		{
+			fresh.transport.sendMessage(message, message.getAllRecipients());
+		} catch (MessagingException e)
+		{
+			close(fresh);
+			throw e;
+		}
+		release(fresh);
+	}
+
+	private void acquirePermit() throws MessagingException
+	{
+		waiting.incrementAndGet();
+		try
+		{
+			connectionPermits.acquire();
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while waiting for a free SMTP connection", e);
+		} finally
+		{
+			waiting.decrementAndGet();
+		}
+		active.incrementAndGet();
+	}
+
+	private PooledTransport takeIdle()
+	{
+		PooledTransport pooled;
+		while ((pooled = idle.pollFirst()) != null)
+		{
+			if (pooled.transport.isConnected())
+				return pooled;
+			close(pooled);
+		}
+		return null;
+	}
+
+	private PooledTransport open() throws MessagingException
+	{
+		Transport transport = session.getTransport();
+		transport.connect();
+		opened.incrementAndGet();
+		return new PooledTransport(transport);
+	}
+
+	private void release(PooledTransport pooled)
+	{
+		pooled.lastUsed = System.currentTimeMillis();
+		idle.offerFirst(pooled);
+	}
+
+	private void close(PooledTransport pooled)
+	{
+		try
+		{
+			pooled.transport.close();
+		} catch (MessagingException e)
+		{
+			EmailFacility.log.debug("Closing SMTP connection failed", e);
+		}
+	}
+
+	/**
+	 * Closes connections which were not used for longer then the idle timeout.
+	 * @return true if the whole pool was not used for longer then idle timeout and has no connections
+	 */
+	boolean closeIdle(long now)
+	{
+		Iterator<PooledTransport> iterator = idle.descendingIterator();
+		while (iterator.hasNext())
+		{
+			PooledTransport pooled = iterator.next();
+			if (now - pooled.lastUsed > idleTimeoutMs && idle.removeLastOccurrence(pooled))
+				close(pooled);
+		}
+		return idle.isEmpty() && active.get() == 0 && waiting.get() == 0 && now - lastUsed > idleTimeoutMs;
+	}
+
+	/**
+	 * @return false if the pool was already retired and must not be used.
+	 */
+	synchronized boolean reserve()
+	{
+		if (retired)
+			return false;
+		reservations++;
+		return true;
+	}
+
+	synchronized void unreserve()
+	{
+		reservations--;
+	}
+
+	/**
+	 * Closes idle connections and if the pool is not reserved and was not used for longer then 
+	 * the idle timeout, closes it for good.
+	 * @return true if the pool was retired by this call
+	 */
+	synchronized boolean retireIfUnused(long now)
+	{
+		if (retired || !closeIdle(now) || reservations > 0)
+			return false;
+		retired = true;
+		closeAll();
+		return true;
+	}
+
+	void closeAll()
+	{
+		PooledTransport pooled;
+		while ((pooled = idle.pollFirst()) != null)
+			close(pooled);
+	}
+
+	EmailSendingStatistics getStatistics()
+	{
+		return new EmailSendingStatistics(sent.get(), failed.get(), opened.get(),
+				active.get(), idle.size(), waiting.get());
+	}
+
+	private static class PooledTransport
+	{
+		private final Transport transport;
+		private volatile long lastUsed;
+
+		PooledTransport(Transport transport)
+		{
+			this.transport = transport;
+			this.lastUsed = System.currentTimeMillis();
+		}
+	}
+}
@@ -12,7 +12,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -185,25 +184,23 @@ public class ProjectInvitationsManagementImpl implements ProjectInvitationsManag
 			return Collections.emptyList();
 		}
 
-		List<InvitationWithCode> allInv = invitationMan.getInvitations();
 		List<ProjectInvitation> ret = new ArrayList<>();
-		filterInvitations(allInv, registrationForm, InvitationType.REGISTRATION).stream().forEach(
+		getInvitationsOfForm(registrationForm, InvitationType.REGISTRATION).stream().forEach(
 				i -> ret.add(createProjectRegistrationInvitation(projectPath, i, registrationForm)));
-		filterInvitations(allInv, enquiryForm, InvitationType.ENQUIRY).stream()
+		getInvitationsOfForm(enquiryForm, InvitationType.ENQUIRY).stream()
 				.forEach(i -> ret.add(createProjectEnquiryInvitation(projectPath, i, enquiryForm)));
 
 		return ret;
 	}
 
-	private List<InvitationWithCode> filterInvitations(List<InvitationWithCode> allInv, BaseForm form,
-			InvitationType type)
+	private List<InvitationWithCode> getInvitationsOfForm(BaseForm form, InvitationType type) 
+			throws EngineException
 	{
 		if (form == null)
 			return Collections.emptyList();
 
-		return allInv.stream()
-				.filter(f -> f.getInvitation().getType().equals(type)
-						&& f.getInvitation().getFormId().equals(form.getName()))
+		return invitationMan.getInvitations(form.getName()).stream()
+				.filter(f -> f.getInvitation().getType().equals(type))
 				.collect(Collectors.toList());
 	}
 
@@ -316,12 +313,7 @@ public class ProjectInvitationsManagementImpl implements ProjectInvitationsManag
 	{
 		GroupDelegationConfiguration config = getDelegationConfiguration(projectPath);
 
-		Optional<InvitationWithCode> invO = invitationMan.getInvitations().stream()
-				.filter(i -> i.getRegistrationCode().equals(code)).findFirst();
-		if (!invO.isPresent())
-			throw new IllegalInvitationException(code);
-
-		InvitationWithCode orgInvitationWithCode = invO.get();
+		InvitationWithCode orgInvitationWithCode = getInvitation(code);
 		InvitationParam invParam = orgInvitationWithCode.getInvitation();
 
 		if (invParam == null || !(invParam.getFormId().equals(config.registrationForm)
@@ -332,4 +324,19 @@ public class ProjectInvitationsManagementImpl implements ProjectInvitationsManag
 
 		return orgInvitationWithCode;
 	}
+
+	private InvitationWithCode getInvitation(String code) throws EngineException
+	{
+		InvitationWithCode invitation;
+		try
+		{
+			invitation = invitationMan.getInvitation(code);
+		} catch (IllegalArgumentException e)
+		{
+			throw new IllegalInvitationException(code);
+		}
+		if (invitation == null)
+			throw new IllegalInvitationException(code);
+		return invitation;
+	}
 }
@@ -251,17 +251,15 @@ public class ProjectRequestManagementImpl implements ProjectRequestManagement
 		if (enquiryId == null)
 			return requests;
 
-		List<EnquiryResponseState> enquires = enquiryMan.getEnquiryResponses();
+		List<EnquiryResponseState> enquires = enquiryMan.getEnquiryResponses(enquiryId, 
+				RegistrationRequestStatus.pending);
 
-		for (EnquiryResponseState state : enquires.stream()
-				.filter(e -> e.getStatus().equals(RegistrationRequestStatus.pending))
-				.collect(Collectors.toList()))
+		for (EnquiryResponseState state : enquires)
 		{
 			EnquiryResponse request = state.getRequest();
 			if (request == null)
 				continue;
-			if (request.getFormId().equals(enquiryId))
-				requests.add(mapToProjectRequest(projectPath, state, request, operation, type));
+			requests.add(mapToProjectRequest(projectPath, state, request, operation, type));
 		}
 		return requests;
 	}
@@ -301,16 +299,14 @@ public class ProjectRequestManagementImpl implements ProjectRequestManagement
 		if (registrationForm == null)
 			return requests;
 
-		List<RegistrationRequestState> registrationRequests = registrationMan.getRegistrationRequests();
-		for (RegistrationRequestState state : registrationRequests.stream()
-				.filter(s -> s.getStatus().equals(RegistrationRequestStatus.pending))
-				.collect(Collectors.toList()))
+		List<RegistrationRequestState> registrationRequests = registrationMan.getRegistrationRequests(
+				registrationForm, RegistrationRequestStatus.pending);
+		for (RegistrationRequestState state : registrationRequests)
 		{
 			RegistrationRequest request = state.getRequest();
 			if (request == null)
 				continue;
-			if (request.getFormId().equals(registrationForm))
-				requests.add(mapToProjectRequest(projectPath, state, request));
+			requests.add(mapToProjectRequest(projectPath, state, request));
 		}
 		return requests;
 	}
@@ -6,6 +6,7 @@ package pl.edu.icm.unity.engine.scripts;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +50,12 @@ public class ScriptTriggeringEventListener implements EventListener
 		return true;
 	}
 
+	@Override
+	public Set<String> getCategories()
+	{
+		return scriptsByEvent.keySet();
+	}
+
 	@Override
 	public boolean isWanted(Event event)
 	{
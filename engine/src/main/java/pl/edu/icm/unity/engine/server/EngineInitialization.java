@@ -19,7 +19,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -322,9 +321,7 @@ public class EngineInitialization extends LifecycleBase
 				log.debug("Clearing expired identities");
 				try
 				{
-					tx.runInTransaction(() -> {
-						identityCleaner.removeExpiredIdentities();
-					});
+					identityCleaner.removeExpiredIdentities();
 				} catch (Exception e)
 				{
 					log.error("Can't clean expired identities", e);
@@ -334,24 +331,7 @@ public class EngineInitialization extends LifecycleBase
 		executors.getService().scheduleWithFixedDelay(expiredIdentitiesCleaner, interval * 100, interval * 100,
 				TimeUnit.SECONDS);
 
-		Runnable entitiesUpdaterTask = new Runnable()
-		{
-			@Override
-			public void run()
-			{
-				try
-				{
-					Date nextUpdate = entitiesUpdater.updateEntities();
-					executors.getService().schedule(this,
-							nextUpdate.getTime() - System.currentTimeMillis(),
-							TimeUnit.MILLISECONDS);
-				} catch (Exception e)
-				{
-					log.error("Can't perform the scheduled entity operations", e);
-				}
-			}
-		};
-		executors.getService().schedule(entitiesUpdaterTask, (int) (interval * 0.5), TimeUnit.SECONDS);
+		entitiesUpdater.start(interval * 500L);
 
 		// wait to ensure that we return only when endpoint updates will
 		// be caught
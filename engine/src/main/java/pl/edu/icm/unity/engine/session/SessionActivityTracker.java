@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.session;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the last activity timestamps of login sessions used on this node. Activity is recorded in memory
+ * and is periodically written to DB in batches, so that subsequent touches of a session in between flushes
+ * are coalesced and do not rewrite the session token.
+ * <p>
+ * Thread safe.
+ */
+class SessionActivityTracker
+{
+	enum TouchResult {TOUCHED, EXPIRED, UNKNOWN}
+
+	private final ConcurrentMap<String, TrackedActivity> activities = new ConcurrentHashMap<>();
+
+	/**
+	 * Records activity of a session, if it is already tracked and is not expired.
+	 */
+	TouchResult touch(String sessionId, long now)
+	{
+		TouchResult[] result = {TouchResult.UNKNOWN};
+		activities.computeIfPresent(sessionId, (id, activity) ->
+		{
+			if (activity.isExpiredAt(now))
+			{
+				result[0] = TouchResult.EXPIRED;
+				return activity;
+			}
+			result[0] = TouchResult.TOUCHED;
+			return new TrackedActivity(Math.max(now, activity.lastUsed), activity.maxInactivity, true);
+		});
+		return result[0];
+	}
+
+	/**
+	 * Starts tracking of a session which was verified to be valid, recording its activity at the given time.
+	 */
+	void track(String sessionId, long lastUsed, long maxInactivity)
+	{
+		activities.merge(sessionId, new TrackedActivity(lastUsed, maxInactivity, true),
+				(existing, added) -> new TrackedActivity(Math.max(existing.lastUsed, added.lastUsed),
+						added.maxInactivity, true));
+	}
+
+	/**
+	 * @return the last activity time of a session known to this tracker or null if session is not tracked.
+	 */
+	Long getLastUsed(String sessionId)
+	{
+		TrackedActivity activity = activities.get(sessionId);
+		return activity == null ? null : activity.lastUsed;
+	}
+
+	/**
+	 * @return last activity times of all sessions which were touched since the previous invocation.
+	 * Returned sessions are marked as not requiring a flush.
+	 */
+	Map<String, Long> takePending()
+	{
+		Map<String, Long> ret = new HashMap<>();
+		for (String sessionId: activities.keySet())
+		{
+			activities.computeIfPresent(sessionId, (id, activity) ->
+			{
+				if (!activity.pending)
+					return activity;
+				ret.put(id, activity.lastUsed);
+				return new TrackedActivity(activity.lastUsed, activity.maxInactivity, false);
+			});
+		}
+		return ret;
+	}
+
+	/**
+	 * Marks the given activities as still requiring a flush, used when a flush has failed.
+	 */
+	void restorePending(Map<String, Long> notFlushed)
+	{
+		notFlushed.forEach((sessionId, lastUsed) -> activities.computeIfPresent(sessionId,
+				(id, activity) -> new TrackedActivity(Math.max(activity.lastUsed, lastUsed),
+						activity.maxInactivity, true)));
+	}
+
+	void forget(String sessionId)
+	{
+		activities.remove(sessionId);
+	}
+
+	/**
+	 * Stops tracking of sessions which are expired according to the activity known to this tracker.
+	 */
+	void forgetExpired(long now)
+	{
+		activities.entrySet().removeIf(entry -> entry.getValue().isExpiredAt(now) && !entry.getValue().pending);
+	}
+
+	private static class TrackedActivity
+	{
+		private final long lastUsed;
+		private final long maxInactivity;
+		private final boolean pending;
+
+		TrackedActivity(long lastUsed, long maxInactivity, boolean pending)
+		{
+			this.lastUsed = lastUsed;
+			this.maxInactivity = maxInactivity;
+			this.pending = pending;
+		}
+
+		boolean isExpiredAt(long timestamp)
+		{
+			return timestamp - lastUsed > maxInactivity;
+		}
+	}
+}
@@ -10,14 +10,17 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,6 +67,8 @@ public class SessionManagementImpl implements SessionManagement
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_AUTHN, SessionManagementImpl.class);
 	public static final long DB_ACTIVITY_WRITE_DELAY = 3000;
+	private static final int ACTIVITY_FLUSH_BATCH = 100;
+	private static final int INACTIVE_SESSIONS_BATCH = 100;
 	public static final String SESSION_TOKEN_TYPE = "session";
 	private TokensManagement tokensManagement;
 	private LoginToHttpSessionBinder sessionBinder;
@@ -73,10 +78,7 @@ public class SessionManagementImpl implements SessionManagement
 	private final AuditPublisher auditPublisher;
 	private final TransactionalRunner tx;
 	
-	/**
-	 * map of timestamps indexed by session ids, when the last activity update was written to DB.
-	 */
-	private Map<String, Long> recentUsageUpdates = new WeakHashMap<>();
+	private final SessionActivityTracker activityTracker = new SessionActivityTracker();
 	
 	@Autowired
 	public SessionManagementImpl(TokensManagement tokensManagement, ExecutorsService execService,
@@ -94,6 +96,8 @@ public class SessionManagementImpl implements SessionManagement
 		this.tx = tx;
 		execService.getService().scheduleWithFixedDelay(new TerminateInactiveSessions(), 
 				20, 30, TimeUnit.SECONDS);
+		execService.getService().scheduleWithFixedDelay(new FlushSessionActivity(), 
+				DB_ACTIVITY_WRITE_DELAY, DB_ACTIVITY_WRITE_DELAY, TimeUnit.MILLISECONDS);
 	}
 
 	@Override
@@ -119,7 +123,7 @@ public class SessionManagementImpl implements SessionManagement
 					ret.setLogin2ndFactor(new AuthNInfo(secondFactorOptionId, now));
 					byte[] contents = ret.getTokenContents();
 					tokensManagement.updateToken(SESSION_TOKEN_TYPE,
-							ret.getId(), null, contents);
+							ret.getId(), null, ret.getInactivityDeadline(), contents);
 
 					if (log.isDebugEnabled())
 						log.info("Using existing session " + ret.getId()
@@ -180,7 +184,8 @@ public class SessionManagementImpl implements SessionManagement
 		try
 		{
 			tokensManagement.addToken(SESSION_TOKEN_TYPE, id, new EntityParam(loggedEntity), 
-					ls.getTokenContents(), ls.getStarted(), ls.getExpires());
+					ls.getTokenContents(), ls.getStarted(), ls.getExpires(), 
+					ls.getInactivityDeadline());
 			updateLoginAttributes(loggedEntity, ls.getStarted());
 			auditLogSession(ls, loggedEntity, firstFactorOptionId, secondFactorOptionId, realm);
 		} catch (Exception e)
@@ -234,6 +239,7 @@ public class SessionManagementImpl implements SessionManagement
 	private void removeSessionTransactional(String id, boolean soft)
 	{
 		sessionBinder.removeLoginSession(id, soft);
+		activityTracker.forget(id);
 		try
 		{
 			Token tokenToRemove = tokensManagement.getTokenById(SESSION_TOKEN_TYPE, id);
@@ -289,22 +295,27 @@ public class SessionManagementImpl implements SessionManagement
 		return ret;
 	}
 	
+	/**
+	 * Activity is only recorded in memory, and written to DB in batches by {@link FlushSessionActivity}.
+	 * DB is read only when the session is not yet tracked on this node.
+	 */
 	@Override
-	@Transactional
 	public void updateSessionActivity(String id)
 	{
-		Long lastWrite = recentUsageUpdates.get(id);
-		if (lastWrite != null)
+		long now = System.currentTimeMillis();
+		SessionActivityTracker.TouchResult touchResult = activityTracker.touch(id, now);
+		if (touchResult == SessionActivityTracker.TouchResult.EXPIRED)
+			throw new SessionExpiredException();
+		if (touchResult == SessionActivityTracker.TouchResult.UNKNOWN)
 		{
-			if (System.currentTimeMillis() < lastWrite + DB_ACTIVITY_WRITE_DELAY)
-				return;
+			Token token = tokensManagement.getTokenById(SESSION_TOKEN_TYPE, id);
+			LoginSession session = token2session(token);
+			if (session.isExpiredAt(now))
+				throw new SessionExpiredException();
+			activityTracker.track(id, now, session.getMaxInactivity());
 		}
-		
-		if (!updateSession(id, session -> session.setLastUsed(new Date())))
-			throw new SessionExpiredException();
-
-		log.trace("Updated in db session activity timestamp for " + id);
-		recentUsageUpdates.put(id, System.currentTimeMillis());
+		updateCurrentSessionActivityIfMatching(id, now);
+		log.trace("Recorded session activity timestamp for {}", id);
 	}
 	
 	@Override
@@ -336,10 +347,19 @@ public class SessionManagementImpl implements SessionManagement
 		updateCurrentSessionIfMatching(session);
 		
 		byte[] contents = session.getTokenContents();
-		tokensManagement.updateToken(SESSION_TOKEN_TYPE, id, null, contents);
+		tokensManagement.updateToken(SESSION_TOKEN_TYPE, id, null, session.getInactivityDeadline(), contents);
 		return true;
 	}
 	
+	private void updateCurrentSessionActivityIfMatching(String id, long lastUsed)
+	{
+		if (!InvocationContext.hasCurrent())
+			return;
+		LoginSession current = InvocationContext.getCurrent().getLoginSession();
+		if (current != null && id.equals(current.getId()))
+			current.setLastUsed(new Date(lastUsed));
+	}
+	
 	private void updateCurrentSessionIfMatching(LoginSession changed)
 	{
 		if (!InvocationContext.hasCurrent())
@@ -353,10 +373,16 @@ public class SessionManagementImpl implements SessionManagement
 		InvocationContext.getCurrent().setLoginSession(changed);
 	}
 	
+	/**
+	 * Activity recorded on this node, but not yet flushed to DB is applied to the returned session.
+	 */
 	private LoginSession token2session(Token token)
 	{
 		LoginSession session = new LoginSession();
 		session.deserialize(token);
+		Long trackedLastUsed = activityTracker.getLastUsed(session.getId());
+		if (trackedLastUsed != null && trackedLastUsed > session.getLastUsed().getTime())
+			session.setLastUsed(new Date(trackedLastUsed));
 		return session;
 	}
 	
@@ -370,31 +396,48 @@ public class SessionManagementImpl implements SessionManagement
 		attributeHelper.addSystemAttribute(entityId, lastAuthn, true);
 	}
 	
+	/**
+	 * Only sessions which inactivity deadline stored in DB has passed are loaded. Those which turn out to be 
+	 * still active (e.g. due to activity which was not yet flushed) get their deadline moved forward.
+	 */
 	private class TerminateInactiveSessions implements Runnable
 	{
 		@Override
 		public void run()
 		{
+			Set<String> failed = new HashSet<>();
 			List<Token> tokens;
+			while (!(tokens = getInactiveChunk(failed)).isEmpty())
+			{
+				long now = System.currentTimeMillis();
+				for (Token t: tokens)
+				{
+					try
+					{
+						removeSessionIfExpired(now, t);
+					} catch (Exception e)
+					{
+						log.warn("Removing expired session " + t.getValue() + " failed", e);
+						failed.add(t.getValue());
+					}
+				}
+			}
+		}
+		
+		private List<Token> getInactiveChunk(Set<String> failed)
+		{
 			try
 			{
-				tokens = tokensManagement.getAllTokens(SESSION_TOKEN_TYPE);
+				return tokensManagement.getInactiveTokens(SESSION_TOKEN_TYPE, 
+						INACTIVE_SESSIONS_BATCH + failed.size()).stream()
+						.filter(t -> !failed.contains(t.getValue()))
+						.limit(INACTIVE_SESSIONS_BATCH)
+						.collect(Collectors.toList());
 			} catch (Exception e)
 			{
 				log.warn("Encounterd an error when trying to obtain session tokens from DB. "
 						+ "Cleanup will be tried again in the next round.", e);
-				return;
-			}
-			long now = System.currentTimeMillis();
-			for (Token t: tokens)
-			{
-				try
-				{
-					removeSessionIfExpired(now, t);
-				} catch (Exception e)
-				{
-					log.warn("Removing expired session " + t.getValue() + " failed", e);
-				}
+				return new ArrayList<>();
 			}
 		}
 		
@@ -406,14 +449,60 @@ public class SessionManagementImpl implements SessionManagement
 			{
 				log.info("Expiring login session " + session + " inactive for: " + 
 						inactiveFor);
+				tx.runInTransaction(() -> removeSessionTransactional(session.getId(), false));
+			} else
+			{
+				tokensManagement.updateToken(SESSION_TOKEN_TYPE, session.getId(), null, 
+						session.getInactivityDeadline(), null);
+			}
+		}
+	}
+	
+	private class FlushSessionActivity implements Runnable
+	{
+		@Override
+		public void run()
+		{
+			Map<String, Long> pending = activityTracker.takePending();
+			List<String> sessionIds = new ArrayList<>(pending.keySet());
+			for (int i = 0; i < sessionIds.size(); i += ACTIVITY_FLUSH_BATCH)
+			{
+				List<String> batch = sessionIds.subList(i, 
+						Math.min(i + ACTIVITY_FLUSH_BATCH, sessionIds.size()));
 				try
 				{
-					tx.runInTransaction(() -> removeSessionTransactional(session.getId(), false));
+					tx.runInTransaction(() -> batch.forEach(id -> flushActivity(id, pending.get(id))));
 				} catch (Exception e)
 				{
-					log.error("Can't expire the session " + session, e);
+					log.warn("Writing sessions activity to DB failed, will be retried in the next round", e);
+					Map<String, Long> notFlushed = new HashMap<>();
+					batch.forEach(id -> notFlushed.put(id, pending.get(id)));
+					activityTracker.restorePending(notFlushed);
 				}
 			}
+			activityTracker.forgetExpired(System.currentTimeMillis());
+			if (!pending.isEmpty())
+				log.debug("Written activity of {} sessions to DB", pending.size());
+		}
+
+		private void flushActivity(String id, long lastUsed)
+		{
+			Token token;
+			try
+			{
+				token = tokensManagement.getTokenById(SESSION_TOKEN_TYPE, id);
+			} catch (IllegalArgumentException e)
+			{
+				activityTracker.forget(id);
+				return;
+			}
+			LoginSession session = new LoginSession();
+			session.deserialize(token);
+			if (session.getLastUsed().getTime() >= lastUsed)
+				return;
+			session.setLastUsed(new Date(lastUsed));
+			tokensManagement.updateToken(SESSION_TOKEN_TYPE, id, null, session.getInactivityDeadline(), 
+					session.getTokenContents());
 		}
 	}
 	
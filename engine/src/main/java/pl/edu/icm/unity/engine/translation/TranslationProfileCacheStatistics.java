@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.translation;
+
+/**
+ * Snapshot of the statistics of translation profile instances cache. Counters are cumulative since
+ * the server start.
+ */
+public class TranslationProfileCacheStatistics
+{
+	public final long hits;
+	public final long misses;
+	public final int cachedInstances;
+
+	TranslationProfileCacheStatistics(long hits, long misses, int cachedInstances)
+	{
+		this.hits = hits;
+		this.misses = misses;
+		this.cachedInstances = cachedInstances;
+	}
+
+	public double getHitRatio()
+	{
+		long all = hits + misses;
+		return all == 0 ? 0 : (double) hits / all;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "TranslationProfileCacheStatistics [hits=" + hits + ", misses=" + misses
+				+ ", cachedInstances=" + cachedInstances + ", hitRatio=" + getHitRatio() + "]";
+	}
+}
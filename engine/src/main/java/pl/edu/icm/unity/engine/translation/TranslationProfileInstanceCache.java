@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.translation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.store.api.DirectoryModificationsTracker;
+
+/**
+ * Keeps runtime instances of translation profiles, so that actions are not instantiated and MVEL expressions
+ * are not compiled again on each profile execution. Instances are indexed by their type and profile name.
+ * A cached instance is used only if it was created from the same definition (profile or form) as the
+ * requested one and if the global directory data (e.g. attribute types, which are resolved by actions)
+ * was not modified meanwhile.
+ * <p>
+ * Instances with actions which failed to load are never cached, so they are retried on each use.
+ * When the storage engine doesn't track modifications, instances are always created.
+ */
+@Component
+public class TranslationProfileInstanceCache
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_TRANSLATION, TranslationProfileInstanceCache.class);
+
+	private final DirectoryModificationsTracker modificationsTracker;
+	private final Map<CacheKey, CachedInstance> instances = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	@Autowired
+	public TranslationProfileInstanceCache(DirectoryModificationsTracker modificationsTracker)
+	{
+		this.modificationsTracker = modificationsTracker;
+	}
+
+	/**
+	 * @param type type of the instance
+	 * @param name name of the profile (or form for form profiles)
+	 * @param definition object from which the instance is created. Must be equal to the one from which
+	 * the cached instance was created for the cached instance to be returned.
+	 * @param factory creates a new instance if there is no valid cached one
+	 */
+	public <T extends TranslationProfileInstance<?, ?>> T getInstance(Class<T> type, String name,
+			Object definition, Supplier<T> factory)
+	{
+		if (!modificationsTracker.isTrackingModifications())
+		{
+			misses.incrementAndGet();
+			return factory.get();
+		}
+		long dataVersion = modificationsTracker.getGlobalDataVersion();
+		CacheKey key = new CacheKey(type, name);
+		CachedInstance cached = instances.get(key);
+		if (cached != null && cached.dataVersion == dataVersion && cached.definition.equals(definition))
+		{
+			hits.incrementAndGet();
+			return type.cast(cached.instance);
+		}
+
+		misses.incrementAndGet();
+		T instance = factory.get();
+		if (instance.hasInvalidActions())
+			instances.remove(key);
+		else
+			instances.put(key, new CachedInstance(definition, dataVersion, instance));
+		log.debug("Created runtime instance of {} {}, {}", type.getSimpleName(), name, getStatistics());
+		return instance;
+	}
+
+	/**
+	 * Drops instances of all types created for the given name. Not needed for correctness (modified definitions
+	 * are detected on use), but frees instances of removed profiles.
+	 */
+	public void invalidate(String name)
+	{
+		instances.keySet().removeIf(key -> key.name.equals(name));
+	}
+
+	public TranslationProfileCacheStatistics getStatistics()
+	{
+		return new TranslationProfileCacheStatistics(hits.get(), misses.get(), instances.size());
+	}
+
+	private static class CacheKey
+	{
+		private final Class<?> type;
+		private final String name;
+
+		CacheKey(Class<?> type, String name)
+		{
+			this.type = type;
+			this.name = name;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(type, name);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			CacheKey other = (CacheKey) obj;
+			return Objects.equals(type, other.type) && Objects.equals(name, other.name);
+		}
+	}
+
+	private static class CachedInstance
+	{
+		private final Object definition;
+		private final long dataVersion;
+		private final TranslationProfileInstance<?, ?> instance;
+
+		CachedInstance(Object definition, long dataVersion, TranslationProfileInstance<?, ?> instance)
+		{
+			this.definition = definition;
+			this.dataVersion = dataVersion;
+			this.instance = instance;
+		}
+	}
+}
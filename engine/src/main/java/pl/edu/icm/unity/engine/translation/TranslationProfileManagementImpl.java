@@ -43,6 +43,7 @@ public class TranslationProfileManagementImpl implements TranslationProfileManag
 	private InputTranslationProfileRepository inputRepo;
 	private OutputTranslationProfileRepository outputRepo;
 	private TranslationProfileChecker profileHelper;
+	private TranslationProfileInstanceCache instanceCache;
 	
 	
 	@Autowired
@@ -50,7 +51,8 @@ public class TranslationProfileManagementImpl implements TranslationProfileManag
 			InputTranslationProfileDB itpDB, OutputTranslationProfileDB otpDB,
 			InputTranslationProfileRepository inputRepo,
 			OutputTranslationProfileRepository outputRepo,
-			TranslationProfileChecker profileHelper)
+			TranslationProfileChecker profileHelper,
+			TranslationProfileInstanceCache instanceCache)
 	{
 		this.authz = authz;
 		this.itpDB = itpDB;
@@ -58,6 +60,7 @@ public class TranslationProfileManagementImpl implements TranslationProfileManag
 		this.inputRepo = inputRepo;
 		this.outputRepo = outputRepo;
 		this.profileHelper = profileHelper;
+		this.instanceCache = instanceCache;
 	}
 
 	private NamedCRUDDAOWithTS<TranslationProfile> getDAO(TranslationProfile profile)
@@ -92,6 +95,7 @@ public class TranslationProfileManagementImpl implements TranslationProfileManag
 		authz.checkAuthorization(AuthzCapability.maintenance);
 		assertIsNotSystemProfile(type, name);
 		getDAO(type).delete(name);
+		instanceCache.invalidate(name);
 	}
 
 	@Override
@@ -102,6 +106,7 @@ public class TranslationProfileManagementImpl implements TranslationProfileManag
 		assertIsNotSystemProfile(updated);
 		profileHelper.checkBaseProfileContent(updated);
 		getDAO(updated).update(updated);
+		instanceCache.invalidate(updated.getName());
 	}
 
 	@Override
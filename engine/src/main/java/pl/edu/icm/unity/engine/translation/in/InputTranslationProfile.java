@@ -18,6 +18,7 @@ import pl.edu.icm.unity.engine.api.translation.in.InputTranslationContextFactory
 import pl.edu.icm.unity.engine.api.translation.in.MappingResult;
 import pl.edu.icm.unity.engine.translation.ExecutionBreakException;
 import pl.edu.icm.unity.engine.translation.TranslationProfileInstance;
+import pl.edu.icm.unity.engine.translation.TranslationProfileInstanceCache;
 import pl.edu.icm.unity.engine.translation.TranslationRuleInvocationContext;
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.exceptions.InternalException;
@@ -32,14 +33,27 @@ public class InputTranslationProfile extends TranslationProfileInstance<InputTra
 	private static final Logger log = Log.getLogger(Log.U_SERVER_TRANSLATION, InputTranslationProfile.class);
 	private InputTranslationActionsRegistry registry;
 	private InputTranslationProfileRepository profileRepo;
+	private TranslationProfileInstanceCache instanceCache;
 	
 	public InputTranslationProfile(TranslationProfile profile,
 			InputTranslationProfileRepository profileRepo,
 			InputTranslationActionsRegistry registry)
+	{
+		this(profile, profileRepo, registry, null);
+	}	
+
+	/**
+	 * @param instanceCache if not null, instances of included profiles are taken from it
+	 */
+	public InputTranslationProfile(TranslationProfile profile,
+			InputTranslationProfileRepository profileRepo,
+			InputTranslationActionsRegistry registry,
+			TranslationProfileInstanceCache instanceCache)
 	{
 		super(profile, registry);
 		this.registry = registry;
 		this.profileRepo = profileRepo;
+		this.instanceCache = instanceCache;
 	}	
 	
 	public MappingResult translate(RemotelyAuthenticatedInput input) throws EngineException
@@ -103,8 +117,11 @@ public class InputTranslationProfile extends TranslationProfileInstance<InputTra
 		if (translationProfile == null)
 			throw new ConfigurationException("The input translation profile '" + profile + 
 					"' included in another profile does not exist");
-		InputTranslationProfile profileInstance = new InputTranslationProfile(translationProfile, profileRepo,
-				registry);
+		InputTranslationProfile profileInstance = instanceCache == null ?
+				new InputTranslationProfile(translationProfile, profileRepo, registry) :
+				instanceCache.getInstance(InputTranslationProfile.class, profile, translationProfile, 
+						() -> new InputTranslationProfile(translationProfile, profileRepo, registry, 
+								instanceCache));
 		MappingResult result = profileInstance.translate(input);
 		return result;
 	}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.translation.out;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * MVEL context which computes values of variables on their first access. Once computed, a value
+ * is reused by all subsequent expressions evaluated with the context. Profiles typically refer
+ * only to few of the available variables, so the remaining ones are never computed.
+ * <p>
+ * Not thread safe: a context is created for each profile execution.
+ */
+class LazyMvelContext extends AbstractMap<String, Object>
+{
+	private final Map<String, Supplier<?>> variables = new HashMap<>();
+	private final Map<String, Object> values = new HashMap<>();
+
+	void addVariable(String name, Supplier<?> valueSupplier)
+	{
+		variables.put(name, valueSupplier);
+	}
+
+	@Override
+	public Object get(Object key)
+	{
+		if (values.containsKey(key))
+			return values.get(key);
+		Supplier<?> supplier = variables.get(key);
+		if (supplier == null)
+			return null;
+		Object value = supplier.get();
+		values.put((String) key, value);
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return values.containsKey(key) || variables.containsKey(key);
+	}
+
+	@Override
+	public Object put(String key, Object value)
+	{
+		Object previous = get(key);
+		values.put(key, value);
+		return previous;
+	}
+
+	/**
+	 * @return true if the variable was already computed
+	 */
+	boolean isResolved(String name)
+	{
+		return values.containsKey(name);
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet()
+	{
+		Set<String> names = new HashSet<>(variables.keySet());
+		names.addAll(values.keySet());
+		Map<String, Object> all = new HashMap<>();
+		for (String name: names)
+			all.put(name, get(name));
+		return all.entrySet();
+	}
+}
@@ -10,7 +10,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.NDC;
@@ -29,6 +28,7 @@ import pl.edu.icm.unity.engine.api.translation.out.TranslationInput;
 import pl.edu.icm.unity.engine.api.translation.out.TranslationResult;
 import pl.edu.icm.unity.engine.translation.ExecutionBreakException;
 import pl.edu.icm.unity.engine.translation.TranslationProfileInstance;
+import pl.edu.icm.unity.engine.translation.TranslationProfileInstanceCache;
 import pl.edu.icm.unity.engine.translation.TranslationRuleInvocationContext;
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.exceptions.IllegalAttributeValueException;
@@ -53,14 +53,26 @@ public class OutputTranslationProfile
 	private OutputTranslationActionsRegistry registry;
 	private OutputTranslationProfileRepository profileRepo;
 	private AttributeValueConverter attrConverter;
+	private TranslationProfileInstanceCache instanceCache;
 	
 	public OutputTranslationProfile(TranslationProfile profile, OutputTranslationProfileRepository profileRepo,
 			OutputTranslationActionsRegistry registry, AttributeValueConverter attrConverter)
+	{
+		this(profile, profileRepo, registry, attrConverter, null);
+	}
+
+	/**
+	 * @param instanceCache if not null, instances of included profiles are taken from it
+	 */
+	public OutputTranslationProfile(TranslationProfile profile, OutputTranslationProfileRepository profileRepo,
+			OutputTranslationActionsRegistry registry, AttributeValueConverter attrConverter,
+			TranslationProfileInstanceCache instanceCache)
 	{
 		super(profile, registry);
 		this.registry = registry;
 		this.profileRepo = profileRepo;
 		this.attrConverter = attrConverter;
+		this.instanceCache = instanceCache;
 	}
 	
 	public TranslationResult translate(TranslationInput input) throws EngineException
@@ -125,99 +137,115 @@ public class OutputTranslationProfile
 		return ret;
 	}
 
+	/**
+	 * Creates MVEL context of the profile. Values of variables are computed only when used by 
+	 * a rule of the profile.
+	 */
 	static Map<String, Object> createMvelContext(TranslationInput input, 
-			AttributeValueConverter attrConverter) throws IllegalAttributeValueException
+			AttributeValueConverter attrConverter)
 	{
-		Map<String, Object> ret = new HashMap<>();
+		LazyMvelContext ret = new LazyMvelContext();
 
-		ret.put("protocol", input.getProtocol());
-		ret.put("protocolSubtype", input.getProtocolSubType());
-		ret.put("requester", input.getRequester());
+		ret.addVariable("protocol", input::getProtocol);
+		ret.addVariable("protocolSubtype", input::getProtocolSubType);
+		ret.addVariable("requester", input::getRequester);
 		
 		addAttributesToContext("attr", ret, input.getAttributes(), attrConverter);
 		addAttributesToContext("requesterAttr", ret, input.getRequesterAttributes(), 
 				attrConverter);
 
-		Map<String, List<String>> idsByType = new HashMap<>();
-		for (Identity id : input.getEntity().getIdentities())
+		ret.addVariable("idsByType", () -> 
 		{
-			List<String> vals = idsByType.get(id.getTypeId());
-			if (vals == null)
-			{
-				vals = new ArrayList<>();
-				idsByType.put(id.getTypeId(), vals);
-			}
-			vals.add(id.getValue());
-		}
-		ret.put("idsByType", idsByType);
+			Map<String, List<String>> idsByType = new HashMap<>();
+			for (Identity id : input.getEntity().getIdentities())
+				idsByType.computeIfAbsent(id.getTypeId(), type -> new ArrayList<>()).add(id.getValue());
+			return idsByType;
+		});
 
-		ret.put("importStatus", input.getImportStatus().entrySet().stream()
+		ret.addVariable("importStatus", () -> input.getImportStatus().entrySet().stream()
 		                  .collect(Collectors.toMap(Entry::getKey, e -> String.valueOf(e.getValue()))));
 		
-		List<String> groupNames = input.getGroups().stream()
+		ret.addVariable("groups", () -> input.getGroups().stream()
 				.map(group -> group.getName())
-				.collect(Collectors.toList());
-		
-		ret.put("groups", groupNames);
+				.collect(Collectors.toList()));
 
-		ret.put("usedGroup", input.getChosenGroup());
+		ret.addVariable("usedGroup", input::getChosenGroup);
 
-		Group main = new Group(input.getChosenGroup());
-		List<String> subgroups = new ArrayList<String>();
-		for (String group : groupNames)
+		ret.addVariable("subGroups", () -> 
 		{
-			Group g = new Group(group);
-			if (g.isChild(main))
-				subgroups.add(group);
-		}
-		ret.put("subGroups", subgroups);
-
+			Group main = new Group(input.getChosenGroup());
+			List<String> subgroups = new ArrayList<String>();
+			for (Group group : input.getGroups())
+			{
+				if (group.isChild(main))
+					subgroups.add(group.getName());
+			}
+			return subgroups;
+		});
 		
-		Map<String, Group> groupsObj = input.getGroups().stream()
+		ret.addVariable("groupsObj", () -> input.getGroups().stream()
 				.collect(Collectors.toMap(group -> group.getName(), 
-						group -> group));
-		ret.put("groupsObj", groupsObj);
+						group -> group)));
 		
-		if (InvocationContext.hasCurrent())
+		LoginSession loginSession = InvocationContext.hasCurrent() ? 
+				InvocationContext.getCurrent().getLoginSession() : null;
+		if (loginSession != null)
 		{
-			LoginSession loginSession = InvocationContext.getCurrent()
-					.getLoginSession();
-			Set<String> authenticatedIdentities = loginSession
-					.getAuthenticatedIdentities();
-			ret.put("authenticatedWith",
-					new ArrayList<String>(authenticatedIdentities));
-			ret.put("idp", loginSession.getRemoteIdP() == null ? "_LOCAL"
+			ret.addVariable("authenticatedWith", 
+					() -> new ArrayList<String>(loginSession.getAuthenticatedIdentities()));
+			ret.addVariable("idp", () -> loginSession.getRemoteIdP() == null ? "_LOCAL"
 					: loginSession.getRemoteIdP());
 		} else
 		{
-			ret.put("authenticatedWith", new ArrayList<String>());
-			ret.put("idp", null);
+			ret.addVariable("authenticatedWith", () -> new ArrayList<String>());
+			ret.addVariable("idp", () -> null);
 		}
 		return ret;
 	}
 
-	private static void addAttributesToContext(String prefix, Map<String, Object> ret, 
+	/**
+	 * The single and all values variables share one conversion of the attribute values to 
+	 * the external form.
+	 */
+	private static void addAttributesToContext(String prefix, LazyMvelContext ret, 
 			Collection<Attribute> attributes, AttributeValueConverter attrConverter) 
-					throws IllegalAttributeValueException
 	{
-		Map<String, Object> attr = new HashMap<>();
-		Map<String, Object> attrObj = new HashMap<>();
-		Map<String, List<? extends Object>> attrs = new HashMap<>();
-		
-		for (Attribute ra: attributes)
+		String allValuesVariable = prefix + "s";
+		ret.addVariable(allValuesVariable, () -> 
 		{
-			List<String> values = attrConverter.internalValuesToExternal(ra.getName(),
-					ra.getValues());
-			String v = values.isEmpty() ? "" : values.get(0);
-			attr.put(ra.getName(), v);
-			attrs.put(ra.getName(), values);
-			attrObj.put(ra.getName(), values.isEmpty() ? ""
-					: attrConverter.internalValuesToObjectValues(ra.getName(),
-							ra.getValues()));
-		}
-		ret.put(prefix, attr);
-		ret.put(prefix+"Obj", attrObj);
-		ret.put(prefix+"s", attrs);
+			Map<String, List<String>> attrs = new HashMap<>();
+			for (Attribute ra: attributes)
+				attrs.put(ra.getName(), attrConverter.internalValuesToExternal(ra.getName(), 
+						ra.getValues()));
+			return attrs;
+		});
+		ret.addVariable(prefix, () -> 
+		{
+			@SuppressWarnings("unchecked")
+			Map<String, List<String>> attrs = (Map<String, List<String>>) ret.get(allValuesVariable);
+			Map<String, Object> attr = new HashMap<>();
+			for (Entry<String, List<String>> values: attrs.entrySet())
+				attr.put(values.getKey(), values.getValue().isEmpty() ? "" : values.getValue().get(0));
+			return attr;
+		});
+		ret.addVariable(prefix + "Obj", () -> 
+		{
+			Map<String, Object> attrObj = new HashMap<>();
+			for (Attribute ra: attributes)
+			{
+				try
+				{
+					attrObj.put(ra.getName(), ra.getValues().isEmpty() ? ""
+							: attrConverter.internalValuesToObjectValues(ra.getName(),
+									ra.getValues()));
+				} catch (IllegalAttributeValueException e)
+				{
+					throw new InternalException("Can not convert values of attribute " 
+							+ ra.getName(), e);
+				}
+			}
+			return attrObj;
+		});
 	}
 	
 	@Override
@@ -243,8 +271,11 @@ public class OutputTranslationProfile
 		if (translationProfile == null)
 			throw new ConfigurationException("The output translation profile '"
 					+ profile + "' included in another profile does not exist");
-		OutputTranslationProfile profileInstance = new OutputTranslationProfile( 
-				translationProfile, profileRepo, registry, attrConverter);
+		OutputTranslationProfile profileInstance = instanceCache == null ? 
+				new OutputTranslationProfile(translationProfile, profileRepo, registry, attrConverter) :
+				instanceCache.getInstance(OutputTranslationProfile.class, profile, translationProfile, 
+						() -> new OutputTranslationProfile(translationProfile, profileRepo, registry, 
+								attrConverter, instanceCache));
 		TranslationResult result = profileInstance.translate(input, translationState);
 		return result;
 	}
@@ -4,16 +4,22 @@
  */
 package pl.edu.icm.unity.engine.userimport;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.logging.log4j.Logger;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.Element;
-import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.PersistenceConfiguration;
-import net.sf.ehcache.config.Searchable;
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.NamedCache;
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationException;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationResult;
@@ -25,6 +31,16 @@ import pl.edu.icm.unity.types.basic.IdentityTaV;
 
 /**
  * Manages imports using a single configured import facility.
+ * <p>
+ * Data of the user is fetched from the facility asynchronously, so that the caller can start imports
+ * with several handlers at once. Concurrent imports of the same user share a single fetch.
+ * The number of concurrent fetches is limited, and the caller waits for the fetch only up to
+ * the configured timeout. The fetched data is processed with the translation profile in the
+ * caller's thread.
+ * <p>
+ * Optionally a previous successful import result can be returned after it expires, while the user data
+ * is fetched again in background. The re-fetched data is processed by the next import of the user.
+ *
  * @author K. Benedyczak
  */
 public class SingleUserImportHandler
@@ -32,86 +48,272 @@ public class SingleUserImportHandler
 	private static final Logger log = Log.getLogger(Log.U_SERVER_USER_IMPORT,
 			SingleUserImportHandler.class);
 	private static final String CACHE_PFX = "userImportCache_";
+	private static final int CACHE_MAX_ENTRIES = 100000;
 	private UserImportSPI facility;
-	private Ehcache negativeCache;
-	private Ehcache positiveCache;
+	private NamedCache<String, Boolean> negativeCache;
+	private NamedCache<String, CachedImport> positiveCache;
 	private RemoteAuthnResultProcessor remoteUtil;
 	private String translationProfile;
-	
-	public SingleUserImportHandler(RemoteAuthnResultProcessor remoteUtil, UserImportSPI facility, 
+	private String key;
+	private Executor executor;
+	private Semaphore importsLimit;
+	private long importTimeout;
+	private long positiveCacheTTL;
+	private ConcurrentHashMap<String, CompletableFuture<RemotelyAuthenticatedInput>> inFlightFetches =
+			new ConcurrentHashMap<>();
+	private ConcurrentHashMap<String, BackgroundRefresh> backgroundRefreshes = new ConcurrentHashMap<>();
+	private Clock clock;
+
+	public SingleUserImportHandler(RemoteAuthnResultProcessor remoteUtil, UserImportSPI facility,
+			UserImportProperties cfg,
+			CacheProvider cacheProvider, String key, Executor executor)
+	{
+		this(remoteUtil, facility, cfg, cacheProvider, key, executor, Clock.systemUTC());
+	}
+
+	SingleUserImportHandler(RemoteAuthnResultProcessor remoteUtil, UserImportSPI facility,
 			UserImportProperties cfg,
-			CacheProvider cacheProvider, String key)
+			CacheProvider cacheProvider, String key, Executor executor, Clock clock)
 	{
+		this.clock = clock;
 		this.remoteUtil = remoteUtil;
 		this.facility = facility;
+		this.key = key;
+		this.executor = executor;
 		this.translationProfile = cfg.getValue(UserImportProperties.TRANSLATION_PROFILE);
-		this.negativeCache = getCache(cacheProvider, 
-				cfg.getIntValue(UserImportProperties.NEGATIVE_CACHE), 
-				CACHE_PFX + "neg_" + key);
-		this.positiveCache = getCache(cacheProvider, 
-				cfg.getIntValue(UserImportProperties.POSITIVE_CACHE), 
-				CACHE_PFX + "pos_" + key);
-	}
-
-	private Ehcache getCache(CacheProvider cacheProvider, long ttl, String name)
-	{
-		CacheConfiguration cacheConfig = new CacheConfiguration(name, 0);
-		Searchable searchable = new Searchable();
-		searchable.values(true);
-		cacheConfig.addSearchable(searchable);		
-		cacheConfig.setTimeToIdleSeconds(ttl);
-		cacheConfig.setTimeToLiveSeconds(ttl);
-		cacheConfig.setEternal(false);
-		PersistenceConfiguration persistCfg = new PersistenceConfiguration();
-		persistCfg.setStrategy("none");
-		cacheConfig.persistence(persistCfg);		
-		return cacheProvider.getManager().addCacheIfAbsent(new Cache(cacheConfig));
-	}
-
-	
-	
-	public AuthenticationResult importUser(String identity, String type, 
+		this.importsLimit = new Semaphore(cfg.getIntValue(UserImportProperties.MAX_CONCURRENT_IMPORTS));
+		this.importTimeout = cfg.getLongValue(UserImportProperties.IMPORT_TIMEOUT);
+		this.positiveCacheTTL = TimeUnit.SECONDS.toMillis(cfg.getIntValue(UserImportProperties.POSITIVE_CACHE));
+		this.negativeCache = cacheProvider.getCache(CACHE_PFX + "neg_" + key, 
+				getCacheSettings(cfg.getIntValue(UserImportProperties.NEGATIVE_CACHE)));
+		//import results are not serializable, so are cached on each node separately
+		this.positiveCache = cacheProvider.getLocalCache(CACHE_PFX + "pos_" + key, 
+				getCacheSettings(cfg.getIntValue(UserImportProperties.POSITIVE_CACHE)
+					+ cfg.getIntValue(UserImportProperties.SERVE_STALE)));
+	}
+
+	private CacheSettings getCacheSettings(long ttl)
+	{
+		Duration expiration = Duration.ofSeconds(ttl);
+		return new CacheSettings(CACHE_MAX_ENTRIES, expiration, expiration);
+	}
+
+	public AuthenticationResult importUser(String identity, String type,
 			Optional<IdentityTaV> existingUser) throws AuthenticationException
 	{
-		String key = getCacheKey(identity, type);
-		Element negCache = negativeCache.get(key);
-		Element posCache = positiveCache.get(key);
-		if (posCache != null && !posCache.isExpired())
+		return startImport(identity, type, existingUser).getResult();
+	}
+
+	/**
+	 * Starts the import, the returned object should be used to obtain its result.
+	 */
+	PendingImport startImport(String identity, String type, Optional<IdentityTaV> existingUser)
+	{
+		String cacheKey = getCacheKey(identity, type);
+		CachedImport posCache = positiveCache.get(cacheKey);
+		if (posCache != null)
 		{
-			log.debug("Returning cached positive import result for {}", identity);
-			return (AuthenticationResult) posCache.getObjectValue();
+			if (isFresh(posCache))
+			{
+				log.debug("Returning cached positive import result for {}", identity);
+			} else
+			{
+				PendingImport refreshed = takeBackgroundRefresh(cacheKey, identity, existingUser);
+				if (refreshed != null)
+					return refreshed;
+				log.debug("Returning stale positive import result for {}, re-importing it in background",
+						identity);
+				refreshInBackground(cacheKey, identity, type);
+			}
+			return () -> posCache.result;
 		}
-		if (negCache != null && !negCache.isExpired())
+		backgroundRefreshes.remove(cacheKey);
+		if (negativeCache.get(cacheKey) != null)
 		{
 			log.debug("Returning cached negative import result for {}", identity);
-			return null;
+			return () -> null;
 		}
-		
-		return doImport(key, identity, type, existingUser);
+
+		long startedAt = clock.millis();
+		CompletableFuture<RemotelyAuthenticatedInput> fetch = fetch(cacheKey, identity, type);
+		return () -> processImported(cacheKey, identity, waitForFetch(fetch, identity), existingUser,
+				startedAt);
 	}
-	
+
 	private String getCacheKey(String identity, String type)
 	{
 		return type == null ? "NO_TYPE||" + identity : type + "||" + identity;
 	}
-	
-	
-	private AuthenticationResult doImport(String cacheKey, String identity, String type, 
-			Optional<IdentityTaV> existingUser) 
+
+	private boolean isFresh(CachedImport cached)
+	{
+		return clock.millis() - cached.importedAt < positiveCacheTTL;
+	}
+
+	private CompletableFuture<RemotelyAuthenticatedInput> fetch(String cacheKey, String identity, String type)
+	{
+		CompletableFuture<RemotelyAuthenticatedInput> fetch = new CompletableFuture<>();
+		CompletableFuture<RemotelyAuthenticatedInput> inFlight = inFlightFetches.putIfAbsent(cacheKey, fetch);
+		if (inFlight != null)
+		{
+			log.debug("Joining import of {} by {} which is in progress", identity, key);
+			return inFlight;
+		}
+		if (!importsLimit.tryAcquire())
+		{
+			inFlightFetches.remove(cacheKey, fetch);
+			fetch.completeExceptionally(new AuthenticationException("Limit of concurrent imports by "
+					+ key + " was reached"));
+			return fetch;
+		}
+		try
+		{
+			executor.execute(() -> doFetch(cacheKey, identity, type, fetch));
+		} catch (RejectedExecutionException e)
+		{
+			importsLimit.release();
+			inFlightFetches.remove(cacheKey, fetch);
+			fetch.completeExceptionally(e);
+		}
+		return fetch;
+	}
+
+	private void doFetch(String cacheKey, String identity, String type,
+			CompletableFuture<RemotelyAuthenticatedInput> fetch)
+	{
+		try
+		{
+			fetch.complete(facility.importUser(identity, type));
+		} catch (Exception e)
+		{
+			fetch.completeExceptionally(e);
+		} finally
+		{
+			importsLimit.release();
+			inFlightFetches.remove(cacheKey, fetch);
+		}
+	}
+
+	private RemotelyAuthenticatedInput waitForFetch(CompletableFuture<RemotelyAuthenticatedInput> fetch,
+			String identity) throws AuthenticationException
+	{
+		try
+		{
+			return importTimeout > 0 ? fetch.get(importTimeout, TimeUnit.SECONDS) : fetch.get();
+		} catch (TimeoutException e)
+		{
+			log.warn("Import of {} by {} was not completed in {}s, skipping it", identity, key, importTimeout);
+			throw new AuthenticationException("Import of " + identity + " by " + key + " timed out");
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new AuthenticationException("Interrupted while waiting for import of " + identity, e);
+		} catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof AuthenticationException)
+				throw (AuthenticationException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new AuthenticationException("Import of " + identity + " by " + key + " failed", e);
+		}
+	}
+
+	private AuthenticationResult processImported(String cacheKey, String identity,
+			RemotelyAuthenticatedInput importedUser, Optional<IdentityTaV> existingUser, long startedAt)
 			throws AuthenticationException
 	{
-		RemotelyAuthenticatedInput importedUser = facility.importUser(identity, type);
 		if (importedUser == null)
 		{
 			log.debug("Caching negative import result for {}", identity);
-			negativeCache.put(new Element(cacheKey, true));
+			negativeCache.put(cacheKey, true);
+			positiveCache.remove(cacheKey);
 			return null;
 		}
+		CachedImport processedConcurrently = positiveCache.get(cacheKey);
+		if (processedConcurrently != null && processedConcurrently.importedAt >= startedAt)
+		{
+			log.debug("Import of {} was processed by a concurrent request, reusing its result", identity);
+			return processedConcurrently.result;
+		}
 		log.debug("Caching positive import result for {}", identity);
-		AuthenticationResult result = remoteUtil.getResult(importedUser, 
+		AuthenticationResult result = remoteUtil.getResult(importedUser,
 				translationProfile, false, existingUser);
-		positiveCache.put(new Element(cacheKey, result));
+		positiveCache.put(cacheKey, new CachedImport(result, clock.millis()));
 		return result;
 	}
-}
 
+	/**
+	 * Only the fetch is performed in background: the translation profile is run in the thread of the caller 
+	 * which takes the fetched data.
+	 */
+	private void refreshInBackground(String cacheKey, String identity, String type)
+	{
+		BackgroundRefresh refresh = new BackgroundRefresh(clock.millis());
+		if (backgroundRefreshes.putIfAbsent(cacheKey, refresh) != null)
+			return;
+		fetch(cacheKey, identity, type).whenComplete((importedUser, error) ->
+		{
+			if (error != null)
+			{
+				log.debug("Background re-import of {} by {} failed", identity, key, error);
+				refresh.fetch.completeExceptionally(error);
+			} else
+			{
+				refresh.fetch.complete(importedUser);
+			}
+		});
+	}
+
+	/**
+	 * @return import processing data fetched in background, or null if there is no completed 
+	 * background fetch of the user. 
+	 */
+	private PendingImport takeBackgroundRefresh(String cacheKey, String identity, 
+			Optional<IdentityTaV> existingUser)
+	{
+		BackgroundRefresh refresh = backgroundRefreshes.get(cacheKey);
+		if (refresh == null || !refresh.fetch.isDone() || !backgroundRefreshes.remove(cacheKey, refresh))
+			return null;
+		if (refresh.fetch.isCompletedExceptionally())
+			return null;
+		log.debug("Processing data of {} re-imported in background", identity);
+		RemotelyAuthenticatedInput importedUser = refresh.fetch.join();
+		return () -> processImported(cacheKey, identity, importedUser, existingUser, refresh.startedAt);
+	}
+
+	/**
+	 * Import started with {@link SingleUserImportHandler#startImport(String, String, Optional)}.
+	 */
+	interface PendingImport
+	{
+		/**
+		 * Waits for the import and returns its result.
+		 * @return import result or null if the user was not found by the importer
+		 */
+		AuthenticationResult getResult() throws AuthenticationException;
+	}
+
+	private static class BackgroundRefresh
+	{
+		private final CompletableFuture<RemotelyAuthenticatedInput> fetch = new CompletableFuture<>();
+		private final long startedAt;
+
+		BackgroundRefresh(long startedAt)
+		{
+			this.startedAt = startedAt;
+		}
+	}
+
+	private static class CachedImport
+	{
+		private final AuthenticationResult result;
+		private final long importedAt;
+
+		CachedImport(AuthenticationResult result, long importedAt)
+		{
+			this.result = result;
+			this.importedAt = importedAt;
+		}
+	}
+}
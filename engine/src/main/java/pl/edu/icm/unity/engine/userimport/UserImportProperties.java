@@ -34,6 +34,9 @@ public class UserImportProperties extends PropertiesHelper
 	public static final String TRANSLATION_PROFILE = "inputTranslationProfile";
 	public static final String POSITIVE_CACHE = "cacheAfterSuccessfulImport";
 	public static final String NEGATIVE_CACHE = "cacheAfterFailedImport";
+	public static final String SERVE_STALE = "serveStaleAfterSuccessfulImport";
+	public static final String IMPORT_TIMEOUT = "importTimeout";
+	public static final String MAX_CONCURRENT_IMPORTS = "maxConcurrentImports";
 	
 	
 	@DocumentationReferenceMeta
@@ -61,6 +64,18 @@ public class UserImportProperties extends PropertiesHelper
 				setDescription("The user import won't be retried for this time (in s), "
 						+ "after a failed import. Don't set this to a too small value"
 						+ " as the import is a heavyweight operation."));
+		META.put(SERVE_STALE, new PropertyMD("0").setNonNegative().
+				setDescription("If positive, then after the time set in " + POSITIVE_CACHE 
+						+ " elapses, the result of the previous successful import is still used "
+						+ "for this time (in s), while the user is re-imported in background. "
+						+ "Then the login doesn't wait for the importer."));
+		META.put(IMPORT_TIMEOUT, new PropertyMD("30").setNonNegative().
+				setDescription("Maximum time (in s) to wait for the importer. If the import "
+						+ "takes longer it is treated as failed. 0 means no limit."));
+		META.put(MAX_CONCURRENT_IMPORTS, new PropertyMD("10").setPositive().
+				setDescription("Maximum number of users imported concurrently with this importer. "
+						+ "Imports above this limit fail immediately. Concurrent imports of "
+						+ "the same user are counted once."));
 	}
 	
 	public UserImportProperties(Properties properties) throws ConfigurationException
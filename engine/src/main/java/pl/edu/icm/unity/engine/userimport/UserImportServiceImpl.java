@@ -6,16 +6,23 @@ package pl.edu.icm.unity.engine.userimport;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import eu.unicore.util.configuration.ConfigurationException;
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationException;
@@ -29,12 +36,14 @@ import pl.edu.icm.unity.engine.api.userimport.UserImportSPIFactory;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSerivce;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSpec;
 import pl.edu.icm.unity.engine.api.utils.CacheProvider;
+import pl.edu.icm.unity.engine.userimport.SingleUserImportHandler.PendingImport;
 import pl.edu.icm.unity.types.basic.IdentityTaV;
 
 
 /**
  * Implementation of user import service. Loads configured importers, configures them and run when requested.
- * Maintains timers to skip too frequent imports.
+ * Maintains timers to skip too frequent imports. When several importers are used, all of them are started 
+ * at once, so the import takes as long as the slowest importer, not as all of them together.
  * 
  * @author K. Benedyczak
  */
@@ -43,6 +52,7 @@ public class UserImportServiceImpl implements UserImportSerivce
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_USER_IMPORT, UserImportServiceImpl.class);
 	private Map<String, SingleUserImportHandler> handlersByKey;
+	private ExecutorService executor;
 	
 	@Autowired
 	public UserImportServiceImpl(UnityServerConfiguration mainCfg, Optional<List<UserImportSPIFactory>> importersF,
@@ -61,6 +71,10 @@ public class UserImportServiceImpl implements UserImportSerivce
 		List<String> definedImporters = mainCfg.getSortedListKeys(
 				UnityServerConfiguration.IMPORT_PFX);
 		handlersByKey = new HashMap<>();
+		executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+				.setNameFormat("user-import-%d")
+				.setDaemon(true)
+				.build());
 		for (String key: definedImporters)
 		{
 			String importerCfg = mainCfg.getValue(UnityServerConfiguration.IMPORT_PFX + key);
@@ -69,6 +83,12 @@ public class UserImportServiceImpl implements UserImportSerivce
 		}
 	}
 	
+	@PreDestroy
+	void shutdown()
+	{
+		executor.shutdownNow();
+	}
+	
 	private SingleUserImportHandler loadHandler(String importerCfg, Map<String, UserImportSPIFactory> importersFM,
 			CacheProvider cacheProvider, RemoteAuthnResultProcessor verificatorUtil, 
 			ConfigurationLoader cfgLoader, String key)
@@ -83,7 +103,7 @@ public class UserImportServiceImpl implements UserImportSerivce
 					". Known types are: " + importersFM.keySet());
 		String remoteIdp = cfg.getValue(UserImportProperties.REMOTE_IDP_NAME);
 		UserImportSPI instance = userImportSPIFactory.getInstance(properties, remoteIdp);
-		return new SingleUserImportHandler(verificatorUtil, instance, cfg, cacheProvider, key);
+		return new SingleUserImportHandler(verificatorUtil, instance, cfg, cacheProvider, key, executor);
 	}
 
 	@Override
@@ -106,7 +126,7 @@ public class UserImportServiceImpl implements UserImportSerivce
 			imports = getAllImportersFor(imports.get(0).identityValue, 
 					imports.get(0).identityType);
 
-		List<ImportResult> ret = new ArrayList<>();
+		Map<UserImportSpec, PendingImport> pendingImports = new LinkedHashMap<>();
 		for (UserImportSpec userImport: imports)
 		{
 			log.debug("Trying to import user {} from {}", userImport.identityValue,
@@ -118,12 +138,18 @@ public class UserImportServiceImpl implements UserImportSerivce
 						userImport.importerKey);
 				continue;
 			}
-			
+			pendingImports.put(userImport, handler.startImport(userImport.identityValue, 
+					userImport.identityType, existingIdentity));
+		}
+
+		List<ImportResult> ret = new ArrayList<>();
+		for (Map.Entry<UserImportSpec, PendingImport> pendingImport: pendingImports.entrySet())
+		{
+			UserImportSpec userImport = pendingImport.getKey();
 			AuthenticationResult result;
 			try
 			{
-				result = handler.importUser(userImport.identityValue, 
-						userImport.identityType, existingIdentity);
+				result = pendingImport.getValue().getResult();
 			} catch (AuthenticationException e)
 			{
 				log.debug("User import has thrown an authentication exception, skipping it", e);
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.base.cache.CacheStatistics;
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.utils.CacheProvider;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
+
+/**
+ * Periodically logs hit and miss counts of the named caches of {@link CacheProvider}. Counts are reported
+ * for the last interval, caches which were not used in the interval are skipped.
+ */
+@Component
+public class CacheStatisticsReporter
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_CORE, CacheStatisticsReporter.class);
+	static final long REPORTING_INTERVAL_S = 300;
+	private final CacheProvider cacheProvider;
+	private final Map<String, CacheStatistics> previousStatistics = new HashMap<>();
+
+	@Autowired
+	public CacheStatisticsReporter(CacheProvider cacheProvider, ExecutorsService executorsService)
+	{
+		this.cacheProvider = cacheProvider;
+		executorsService.getService().scheduleWithFixedDelay(this::logStatistics,
+				REPORTING_INTERVAL_S, REPORTING_INTERVAL_S, TimeUnit.SECONDS);
+	}
+
+	private void logStatistics()
+	{
+		try
+		{
+			reportStatistics().forEach((name, statistics) ->
+				log.info("Cache {} statistics of the last {}s: {}", name, REPORTING_INTERVAL_S, statistics));
+		} catch (Exception e)
+		{
+			log.warn("Can not collect cache statistics", e);
+		}
+	}
+
+	/**
+	 * @return statistics of caches used since the previous report, with hits and misses counted since then
+	 */
+	synchronized Map<String, CacheStatistics> reportStatistics()
+	{
+		Map<String, CacheStatistics> ret = new TreeMap<>();
+		cacheProvider.getStatistics().forEach((name, current) ->
+		{
+			CacheStatistics previous = previousStatistics.put(name, current);
+			long hits = current.hits - (previous == null ? 0 : previous.hits);
+			long misses = current.misses - (previous == null ? 0 : previous.misses);
+			if (hits > 0 || misses > 0)
+				ret.put(name, new CacheStatistics(hits, misses, current.entries));
+		});
+		return ret;
+	}
+}
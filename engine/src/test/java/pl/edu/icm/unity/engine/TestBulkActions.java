@@ -14,16 +14,25 @@ import java.util.function.Supplier;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import pl.edu.icm.unity.base.msgtemplates.UserNotificationTemplateDef;
 import pl.edu.icm.unity.engine.api.BulkProcessingManagement;
 import pl.edu.icm.unity.engine.bulkops.action.ChangeStatusActionFactory;
 import pl.edu.icm.unity.engine.bulkops.action.RemoveEntityActionFactory;
+import pl.edu.icm.unity.engine.bulkops.action.SendNotificationActionFactory;
+import pl.edu.icm.unity.engine.notifications.email.EmailFacility;
 import pl.edu.icm.unity.engine.server.EngineInitialization;
 import pl.edu.icm.unity.engine.translation.form.action.SetEntityStateActionFactory.EntityStateLimited;
 import pl.edu.icm.unity.stdext.identity.UsernameIdentity;
+import pl.edu.icm.unity.types.I18nMessage;
+import pl.edu.icm.unity.types.I18nString;
 import pl.edu.icm.unity.types.basic.Entity;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.basic.EntityState;
 import pl.edu.icm.unity.types.basic.IdentityParam;
+import pl.edu.icm.unity.types.basic.MessageTemplate;
+import pl.edu.icm.unity.types.basic.MessageType;
+import pl.edu.icm.unity.types.basic.NotificationChannel;
+import pl.edu.icm.unity.types.bulkops.BulkProcessingStatus;
 import pl.edu.icm.unity.types.bulkops.ScheduledProcessingRule;
 import pl.edu.icm.unity.types.bulkops.ScheduledProcessingRuleParam;
 import pl.edu.icm.unity.types.translation.TranslationAction;
@@ -63,6 +72,50 @@ public class TestBulkActions extends DBIntegrationTestBase
 		});
 	}
 	
+	@Test
+	public void executionProgressIsReported() throws Exception
+	{
+		for (int i=0; i<3; i++)
+			idsMan.addEntity(new IdentityParam(UsernameIdentity.ID, "test-user" + i), 
+					EngineInitialization.DEFAULT_CREDENTIAL_REQUIREMENT, EntityState.valid);
+		TranslationRule rule = new TranslationRule("idsByType['userName'] contains 'test-user1'", 
+				new TranslationAction(ChangeStatusActionFactory.NAME, 
+						EntityStateLimited.disabled.toString()));
+		
+		bulkMan.applyRuleSync(rule, 20);
+
+		BulkProcessingStatus status = bulkMan.getProcessingStatus().get(0);
+		assertThat(status.isRunning(), is(false));
+		assertThat(status.getActionName(), is(ChangeStatusActionFactory.NAME));
+		assertThat(status.getMatchedEntities(), is(1l));
+		assertThat(status.getFailedEntities(), is(0l));
+		assertThat(status.getChunkFailures().isEmpty(), is(true));
+		assertThat(status.getProcessedEntities() >= 3, is(true));
+	}
+	
+	@Test
+	public void failedActionIsReported() throws Exception
+	{
+		for (int i=0; i<3; i++)
+			idsMan.addEntity(new IdentityParam(UsernameIdentity.ID, "test-user" + i), 
+					EngineInitialization.DEFAULT_CREDENTIAL_REQUIREMENT, EntityState.valid);
+		notMan.addNotificationChannel(new NotificationChannel("ch1", "", 
+				"mail.from=unity@example.com\nmail.smtp.host=localhost", EmailFacility.NAME));
+		messageTemplateMan.addTemplate(new MessageTemplate("userMessage", "", 
+				new I18nMessage(new I18nString("x"), new I18nString("x")), UserNotificationTemplateDef.NAME,
+				MessageType.PLAIN, "ch1"));
+		TranslationRule rule = new TranslationRule("idsByType['userName'] contains 'test-user1'", 
+				new TranslationAction(SendNotificationActionFactory.NAME, "userMessage"));
+		
+		bulkMan.applyRuleSync(rule, 20);
+
+		BulkProcessingStatus status = bulkMan.getProcessingStatus().get(0);
+		assertThat(status.isRunning(), is(false));
+		assertThat(status.getMatchedEntities(), is(1l));
+		assertThat(status.getFailedEntities(), is(1l));
+		assertThat(status.getChunkFailures().size(), is(1));
+	}
+	
 	private static void waitFor(long initWait, long delay, int maxTries, Supplier<Boolean> supplier) 
 			throws Exception
 	{
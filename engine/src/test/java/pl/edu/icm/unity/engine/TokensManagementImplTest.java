@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.google.common.collect.Lists;
+
+import pl.edu.icm.unity.base.token.Token;
+import pl.edu.icm.unity.engine.api.identity.EntityResolver;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.store.api.TokenDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TokensManagementImplTest
+{
+	@Mock
+	private EntityResolver idResolver;
+	@Mock
+	private TokenDAO dbTokens;
+	@Mock
+	private ExecutorsService executorsService;
+	@Mock
+	private ScheduledExecutorService scheduler;
+
+	private TokensManagementImpl tokensMan;
+	private Runnable cleaner;
+
+	@Before
+	public void init()
+	{
+		when(executorsService.getService()).thenReturn(scheduler);
+		tokensMan = new TokensManagementImpl(idResolver, new DirectTxRunner(), dbTokens, executorsService);
+		ArgumentCaptor<Runnable> cleanerCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduler).scheduleWithFixedDelay(cleanerCaptor.capture(), eq(30L), eq(60L),
+				eq(TimeUnit.SECONDS));
+		cleaner = cleanerCaptor.getValue();
+	}
+
+	@Test
+	public void shouldRemoveOtherExpiredTokensWhenListenerFailsForOne()
+	{
+		Token bad = expiredToken("bad");
+		Token good = expiredToken("good");
+		when(dbTokens.getExpiredBatch(anyInt())).thenReturn(Lists.newArrayList(bad, good));
+		when(dbTokens.get("t", "bad")).thenReturn(bad);
+		when(dbTokens.get("t", "good")).thenReturn(good);
+		tokensMan.addTokenExpirationListener(token ->
+		{
+			if (token.getValue().equals("bad"))
+				throw new IllegalStateException("listener failure");
+		}, "t");
+
+		cleaner.run();
+
+		verify(dbTokens, never()).deleteBatch(any());
+		verify(dbTokens).delete("t", "good");
+		verify(dbTokens, never()).delete("t", "bad");
+	}
+
+	@Test
+	public void shouldRemoveOtherExpiredTokensWhenBatchRemovalFails()
+	{
+		Token bad = expiredToken("bad");
+		Token good = expiredToken("good");
+		when(dbTokens.getExpiredBatch(anyInt())).thenReturn(Lists.newArrayList(bad, good));
+		when(dbTokens.get("t", "bad")).thenReturn(bad);
+		when(dbTokens.get("t", "good")).thenReturn(good);
+		doThrow(new IllegalStateException("batch failure")).when(dbTokens).deleteBatch(any());
+		doThrow(new IllegalStateException("token failure")).when(dbTokens).delete("t", "bad");
+
+		cleaner.run();
+
+		verify(dbTokens).delete("t", "good");
+	}
+
+	@Test
+	public void shouldNotPropagateCleanupFailureToScheduler()
+	{
+		when(dbTokens.getExpiredBatch(anyInt())).thenThrow(new IllegalStateException("DB failure"));
+
+		Throwable error = catchThrowable(() -> cleaner.run());
+
+		assertThat(error).isNull();
+	}
+
+	private Token expiredToken(String value)
+	{
+		Token token = new Token("t", value, null);
+		token.setExpires(new Date(System.currentTimeMillis() - 1000));
+		return token;
+	}
+
+	private static class DirectTxRunner implements TransactionalRunner
+	{
+		@Override
+		public <T> T runInTransactionRet(TxRunnableRet<T> code)
+		{
+			return code.run();
+		}
+
+		@Override
+		public void runInTransaction(TxRunnable code)
+		{
+			code.run();
+		}
+
+		@Override
+		public void runInTransactionNoAutoCommit(TxRunnable code)
+		{
+			code.run();
+		}
+
+		@Override
+		public <T> T runInTransactionNoAutoCommitRet(TxRunnableRet<T> code)
+		{
+			return code.run();
+		}
+
+		@Override
+		public void runInTransactionThrowing(TxRunnableThrowing code) throws EngineException
+		{
+			code.run();
+		}
+
+		@Override
+		public <T> T runInTransactionRetThrowing(TxRunnableThrowingRet<T> code) throws EngineException
+		{
+			return code.run();
+		}
+	}
+}
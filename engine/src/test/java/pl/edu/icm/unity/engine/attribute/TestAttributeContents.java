@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.attribute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import pl.edu.icm.unity.attr.ImageType;
+import pl.edu.icm.unity.attr.UnityImage;
+import pl.edu.icm.unity.base.file.FileData;
+import pl.edu.icm.unity.engine.DBIntegrationTestBase;
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
+import pl.edu.icm.unity.stdext.attr.ImageAttribute;
+import pl.edu.icm.unity.stdext.attr.ImageAttributeSyntax;
+import pl.edu.icm.unity.stdext.identity.X500Identity;
+import pl.edu.icm.unity.store.api.FileDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.types.basic.AttributeExt;
+import pl.edu.icm.unity.types.basic.AttributeType;
+import pl.edu.icm.unity.types.basic.EntityParam;
+import pl.edu.icm.unity.types.basic.EntityState;
+import pl.edu.icm.unity.types.basic.Identity;
+import pl.edu.icm.unity.types.basic.IdentityParam;
+
+public class TestAttributeContents extends DBIntegrationTestBase
+{
+	@Autowired
+	private FileDAO fileDAO;
+	@Autowired
+	private TransactionalRunner tx;
+	@Autowired
+	private AttributeValueConverter valueConverter;
+
+	private EntityParam entity1;
+	private EntityParam entity2;
+	private UnityImage image;
+
+	@Before
+	public void setup() throws Exception
+	{
+		setupMockAuthn();
+		Identity id1 = idsMan.addEntity(new IdentityParam(X500Identity.ID, "cn=golbi1"), "crMock",
+				EntityState.valid);
+		Identity id2 = idsMan.addEntity(new IdentityParam(X500Identity.ID, "cn=golbi2"), "crMock",
+				EntityState.valid);
+		entity1 = new EntityParam(id1.getEntityId());
+		entity2 = new EntityParam(id2.getEntityId());
+		aTypeMan.addAttributeType(new AttributeType("photo", ImageAttributeSyntax.ID));
+		image = new UnityImage(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), ImageType.PNG);
+	}
+
+	@Test
+	public void sameImageContentsAreStoredOnce() throws Exception
+	{
+		attrsMan.setAttribute(entity1, ImageAttribute.of("photo", "/", image));
+		attrsMan.setAttribute(entity2, ImageAttribute.of("photo", "/", image));
+
+		List<FileData> stored = getStoredContents();
+		assertThat(stored).hasSize(1);
+		assertThat(stored.get(0).getContents()).isEqualTo(image.getImage());
+	}
+
+	@Test
+	public void storedValueReferencesContentsWhichAreLoadedLazily() throws Exception
+	{
+		attrsMan.setAttribute(entity1, ImageAttribute.of("photo", "/", image));
+
+		String storedValue = getStoredValue();
+		UnityImage loaded = new ImageAttributeSyntax().convertFromString(storedValue);
+
+		assertThat(storedValue).doesNotContain(Base64.getEncoder().encodeToString(image.getImage()));
+		assertThat(loaded.getContentId()).isEqualTo(getStoredContents().get(0).getName());
+		assertThat(loaded.getSize()).isEqualTo(image.getImage().length);
+		assertThat(loaded.getImage()).isEqualTo(image.getImage());
+	}
+
+	@Test
+	public void externalizedValuesCarryImageContents() throws Exception
+	{
+		attrsMan.setAttribute(entity1, ImageAttribute.of("photo", "/", image));
+
+		List<String> storedValues = attrsMan.getAttributes(entity1, "/", "photo").iterator().next().getValues();
+
+		assertThat(valueConverter.internalValuesToExternal("photo", storedValues))
+			.containsExactly(image.serialize());
+		assertThat(valueConverter.storedValuesToInternal("photo", storedValues))
+			.containsExactly(image.serialize());
+	}
+
+	@Test
+	public void updatedImageKeepsContentsOfBoth() throws Exception
+	{
+		UnityImage other = new UnityImage(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), ImageType.PNG);
+		attrsMan.setAttribute(entity1, ImageAttribute.of("photo", "/", image));
+
+		attrsMan.setAttribute(entity1, ImageAttribute.of("photo", "/", other));
+
+		assertThat(getStoredContents()).hasSize(2);
+		assertThat(new ImageAttributeSyntax().convertFromString(getStoredValue()).getImage())
+			.isEqualTo(other.getImage());
+	}
+
+	private String getStoredValue() throws Exception
+	{
+		AttributeExt attribute = attrsMan.getAttributes(entity1, "/", "photo").iterator().next();
+		return attribute.getValues().get(0);
+	}
+
+	private List<FileData> getStoredContents()
+	{
+		return tx.runInTransactionRet(() -> fileDAO.getAll().stream()
+				.filter(file -> FileDAO.ATTRIBUTE_CONTENTS_OWNER_TYPE.equals(file.getOwnerType()))
+				.collect(Collectors.toList()));
+	}
+}
@@ -85,6 +85,27 @@ public class TestAttributeStatements extends DBIntegrationTestBase
 				0, 1, 0, 0,  0, 0); //a2
 	}
 	
+	@Test
+	public void changedStatementIsAppliedAfterPreviousEvaluation() throws Exception
+	{
+		setupStateForConditions();
+		groupA.setAttributeStatements(new AttributeStatement[] {
+				AttributeStatement.getFixedEverybodyStatement(
+				StringAttribute.of("a2", "/A", "va1"))});
+		groupsMan.updateGroup("/A", groupA);
+		testCorrectness(0, 1, 1, 0,  0, 0,  //a1
+				0, 1, 0, 0,  0, 0); //a2
+
+		groupA.setAttributeStatements(new AttributeStatement[] {
+				AttributeStatement.getFixedStatement(
+				StringAttribute.of("a2", "/A", "va1"), null, "false")});
+		groupsMan.updateGroup("/A", groupA);
+
+		//              /  A  AB ABC AD AZ
+		testCorrectness(0, 1, 1, 0,  0, 0,  //a1
+				0, 0, 0, 0,  0, 0); //a2
+	}
+	
 	@Test
 	public void dynamicAttributeIsAssigned() throws Exception
 	{
@@ -22,9 +22,16 @@ import pl.edu.icm.unity.engine.DBIntegrationTestBase;
 import pl.edu.icm.unity.engine.api.AttributeTypeManagement;
 import pl.edu.icm.unity.engine.api.AuditEventManagement;
 import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.stdext.attr.StringAttribute;
+import pl.edu.icm.unity.stdext.identity.X500Identity;
 import pl.edu.icm.unity.stdext.utils.EntityNameMetadataProvider;
 import pl.edu.icm.unity.types.I18nString;
 import pl.edu.icm.unity.types.basic.AttributeType;
+import pl.edu.icm.unity.types.basic.EntityParam;
+import pl.edu.icm.unity.types.basic.EntityState;
+import pl.edu.icm.unity.types.basic.Identity;
+import pl.edu.icm.unity.types.basic.IdentityParam;
+import pl.edu.icm.unity.types.basic.audit.AuditEventType;
 
 public class AuditEventListenerTest extends DBIntegrationTestBase
 {
@@ -158,6 +165,34 @@ public class AuditEventListenerTest extends DBIntegrationTestBase
 			.until(() -> type.getName().equalsIgnoreCase(auditListener.entityNameAttribute));
 	}
 
+	@Test
+	public void shouldResolveChangedEntityNameInSubsequentEvents() throws Exception 
+	{
+		//given
+		setupMockAuthn();
+		initializeAttributeTypeWithEntityName();
+		Identity identity = idsMan.addEntity(new IdentityParam(X500Identity.ID, "CN=golbi"), "crMock", 
+				EntityState.valid);
+		EntityParam entity = new EntityParam(identity.getEntityId());
+		attrsMan.createAttribute(entity, StringAttribute.of(typeWithEntityName.getName(), "/", "first"));
+		Awaitility.with().pollInSameThread().await().atMost(DEFAULT_WAIT_TIME)
+			.until(() -> hasAttributeEventWithSubjectName("first"));
+
+		//when
+		attrsMan.setAttribute(entity, StringAttribute.of(typeWithEntityName.getName(), "/", "second"));
+
+		//then
+		Awaitility.with().pollInSameThread().await().atMost(DEFAULT_WAIT_TIME)
+			.until(() -> hasAttributeEventWithSubjectName("second"));
+	}
+
+	private boolean hasAttributeEventWithSubjectName(String name)
+	{
+		return auditManager.getAllEvents().stream()
+				.anyMatch(event -> event.getType() == AuditEventType.ATTRIBUTE && event.getSubject() != null
+						&& name.equals(event.getSubject().getName()));
+	}
+
 	private void initializeAttributeTypeWithEntityName() throws EngineException 
 	{
 		attributeTypeMan.addAttributeType(typeWithEntityName);
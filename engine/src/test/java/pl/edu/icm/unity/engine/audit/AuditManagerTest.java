@@ -17,14 +17,17 @@ import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
 import pl.edu.icm.unity.types.basic.audit.AuditEventAction;
 import pl.edu.icm.unity.types.basic.audit.AuditEventType;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static pl.edu.icm.unity.types.basic.audit.AuditEventTag.USERS;
 
@@ -36,6 +39,10 @@ public class AuditManagerTest extends DBIntegrationTestBase
 	private AuditPublisher auditPublisher;
 	@Autowired
 	private TransactionalRunner tx;
+	@Autowired
+	private AuditEventListener auditListener;
+	@Autowired
+	private AuditEventsCleaner auditEventsCleaner;
 
 	@Before
 	@Override
@@ -173,4 +180,115 @@ public class AuditManagerTest extends DBIntegrationTestBase
 		assertEquals(3, auditManager.getAuditEvents(nowPlusHour, null, 3, "timestamp", -1).size());
 		assertEquals(1, auditManager.getAuditEvents(nowPlusHour, null, 1, "timestamp", -1).size());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void shouldStoreAllEventsPublishedInBurst()
+	{
+		// given
+		long writtenBefore = auditListener.getQueueStatistics().writtenEvents;
+		int count = AuditEventListener.WRITE_BATCH_SIZE * 2 + 1;
+
+		// when
+		tx.runInTransaction(() -> {
+			for (int i = 0; i < count; i++)
+				auditPublisher.log(AuditEventTrigger.builder()
+						.type(AuditEventType.ENTITY)
+						.action(AuditEventAction.UPDATE)
+						.name("event" + i)
+						.subject((long) (i % 3))
+						.tags(USERS));
+		});
+
+		//than
+		Awaitility.with().pollInSameThread().await().atMost(10, TimeUnit.SECONDS)
+			.until(() -> (auditManager.getAllEvents().size() == count));
+		AuditEventsQueueStatistics statistics = auditListener.getQueueStatistics();
+		assertEquals(count, statistics.writtenEvents - writtenBefore);
+		assertEquals(0, statistics.droppedEvents);
+		assertTrue(auditManager.getAllEvents().stream().allMatch(event -> event.getTags().contains("Users")));
+	}
+
+	@Test
+	public void shouldStoreQueuedEventsOnShutdown()
+	{
+		// given
+		auditListener.handleEvent(AuditEventTrigger.builder()
+				.type(AuditEventType.ENTITY)
+				.action(AuditEventAction.UPDATE)
+				.name("queued")
+				.subject(1L)
+				.tags(USERS)
+				.build());
+
+		// when
+		new AuditEventListener.AuditEventsShutdownWriter(auditListener).stop();
+
+		//than
+		List<AuditEvent> allEvents = auditManager.getAllEvents();
+		assertEquals(1, allEvents.size());
+		assertEquals("queued", allEvents.get(0).getName());
+	}
+
+	@Test
+	public void shouldBrowseEventsWithPages()
+	{
+		// given
+		tx.runInTransaction(() -> {
+			for (int i = 0; i < 5; i++)
+				auditPublisher.log(AuditEventTrigger.builder()
+						.type(AuditEventType.ENTITY)
+						.action(AuditEventAction.UPDATE)
+						.timestamp(new Date(System.currentTimeMillis() + i * 1000))
+						.name("event" + i)
+						.subject(1L)
+						.tags(USERS));
+		});
+		Awaitility.with().pollInSameThread().await().atMost(10, TimeUnit.SECONDS)
+			.until(() -> (auditManager.getAllEvents().size() == 5));
+
+		// when
+		AuditEventsPage page1 = auditManager.getAuditEventsPage(null, null, null, 3, -1);
+		AuditEventsPage page2 = auditManager.getAuditEventsPage(null, null, page1.getNextPageKey(), 3, -1);
+
+		//than
+		assertEquals(Arrays.asList("event4", "event3", "event2"),
+				page1.getEvents().stream().map(AuditEvent::getName).collect(Collectors.toList()));
+		assertEquals(Arrays.asList("event1", "event0"),
+				page2.getEvents().stream().map(AuditEvent::getName).collect(Collectors.toList()));
+		assertFalse(page2.hasNextPage());
+	}
+
+	@Test
+	public void shouldRemoveEventsOlderThanRetentionPeriod()
+	{
+		// given
+		Date now = new Date();
+		tx.runInTransaction(() -> {
+			auditPublisher.log(AuditEventTrigger.builder()
+					.type(AuditEventType.ENTITY)
+					.action(AuditEventAction.UPDATE)
+					.timestamp(new Date(now.getTime() - TimeUnit.DAYS.toMillis(10)))
+					.name("old")
+					.subject(1L)
+					.tags(USERS));
+			auditPublisher.log(AuditEventTrigger.builder()
+					.type(AuditEventType.ENTITY)
+					.action(AuditEventAction.UPDATE)
+					.timestamp(now)
+					.name("recent")
+					.subject(1L)
+					.tags(USERS));
+		});
+		Awaitility.with().pollInSameThread().await().atMost(10, TimeUnit.SECONDS)
+			.until(() -> (auditManager.getAllEvents().size() == 2));
+
+		// when
+		int removed = auditEventsCleaner.removeEventsOlderThan(new Date(now.getTime() - TimeUnit.DAYS.toMillis(1)));
+
+		//than
+		assertEquals(1, removed);
+		List<AuditEvent> remaining = auditManager.getAllEvents();
+		assertEquals(1, remaining.size());
+		assertEquals("recent", remaining.get(0).getName());
+	}
+}
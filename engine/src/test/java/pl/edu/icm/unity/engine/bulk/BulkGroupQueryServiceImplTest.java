@@ -13,7 +13,9 @@ import static org.junit.Assert.assertThat;
 import static pl.edu.icm.unity.engine.authz.RoleAttributeTypeProvider.AUTHORIZATION_ROLE;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +25,8 @@ import com.google.common.collect.Sets;
 
 import pl.edu.icm.unity.engine.DBIntegrationTestBase;
 import pl.edu.icm.unity.engine.api.bulk.BulkGroupQueryService;
+import pl.edu.icm.unity.engine.api.bulk.EntityGroupAttributes;
+import pl.edu.icm.unity.engine.api.bulk.EntityInGroupData;
 import pl.edu.icm.unity.engine.api.bulk.GroupMembershipData;
 import pl.edu.icm.unity.engine.api.bulk.GroupStructuralData;
 import pl.edu.icm.unity.engine.api.bulk.GroupsWithMembers;
@@ -296,4 +300,72 @@ public class BulkGroupQueryServiceImplTest extends DBIntegrationTestBase
 
 		assertThat(error).isNotNull().isInstanceOf(IllegalArgumentException.class);
 	}
+	
+	@Test
+	public void shouldReflectMembershipChangesAfterPreviousQuery() throws EngineException
+	{
+		groupsMan.addGroup(new Group("/A"));
+		Identity added = idsMan.addEntity(new IdentityParam(IdentifierIdentity.ID, "1"), 
+				EntityState.valid);
+		EntityParam entity = new EntityParam(added.getEntityId());
+		Identity added2 = idsMan.addEntity(new IdentityParam(IdentifierIdentity.ID, "2"), 
+				EntityState.valid);
+		groupsMan.addMemberFromParent("/A", entity);
+		bulkService.getGroupEntitiesNoContextWithTargeted(bulkService.getBulkMembershipData("/A"));
+		
+		groupsMan.removeMember("/A", entity);
+		groupsMan.addMemberFromParent("/A", new EntityParam(added2.getEntityId()));
+		
+		GroupMembershipData bulkData = bulkService.getBulkMembershipData("/A");
+		Map<Long, Entity> result = bulkService.getGroupEntitiesNoContextWithTargeted(bulkData);
+		assertThat(result.size(), is(1));
+		assertThat(result.get(added2.getEntityId()), is(notNullValue()));
+	}
+	
+	@Test
+	public void shouldReflectAttributeChangesAfterPreviousQuery() throws EngineException
+	{
+		groupsMan.addGroup(new Group("/A"));
+		Identity added = idsMan.addEntity(new IdentityParam(IdentifierIdentity.ID, "1"), 
+				EntityState.valid);
+		EntityParam entity = new EntityParam(added.getEntityId());
+		groupsMan.addMemberFromParent("/A", entity);
+		attrsMan.createAttribute(entity, EnumAttribute.of(AUTHORIZATION_ROLE, 
+				"/A", Lists.newArrayList("Inspector")));
+		bulkService.getGroupUsersAttributes("/A", bulkService.getBulkMembershipData("/A"));
+		
+		attrsMan.setAttribute(entity, EnumAttribute.of(AUTHORIZATION_ROLE, 
+				"/A", Lists.newArrayList("Anonymous User")));
+		
+		GroupMembershipData bulkData = bulkService.getBulkMembershipData("/A");
+		Map<Long, Map<String, AttributeExt>> resultInA = bulkService.getGroupUsersAttributes("/A", bulkData);
+		assertThat(resultInA.get(added.getEntityId()).get(AUTHORIZATION_ROLE).getValues().get(0), 
+				is("Anonymous User"));
+	}
+	
+	@Test
+	public void shouldStreamMembersInPages() throws EngineException
+	{
+		groupsMan.addGroup(new Group("/A"));
+		for (int i=0; i<5; i++)
+		{
+			Identity added = idsMan.addEntity(new IdentityParam(IdentifierIdentity.ID, "id" + i), 
+					EntityState.valid);
+			EntityParam entity = new EntityParam(added.getEntityId());
+			groupsMan.addMemberFromParent("/A", entity);
+			attrsMan.createAttribute(entity, EnumAttribute.of(AUTHORIZATION_ROLE, 
+					"/A", Lists.newArrayList("Inspector")));
+		}
+		
+		List<EntityInGroupData> members = bulkService.getMembershipInfoStream("/A", 2)
+				.collect(Collectors.toList());
+		List<EntityGroupAttributes> attributes = bulkService.getGroupUsersAttributesStream("/A", 2)
+				.collect(Collectors.toList());
+		
+		assertThat(members.size(), is(5));
+		assertThat(members.stream().map(member -> member.entity.getId()).distinct().count(), is(5l));
+		assertThat(members.get(0).groups, hasItem("/A"));
+		assertThat(attributes.size(), is(5));
+		assertThat(attributes.get(0).attribtues.get(AUTHORIZATION_ROLE).getValues().get(0), is("Inspector"));
+	}
 }
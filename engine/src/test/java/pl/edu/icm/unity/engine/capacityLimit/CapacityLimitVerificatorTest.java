@@ -5,6 +5,11 @@
 
 package pl.edu.icm.unity.engine.capacityLimit;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -38,4 +43,48 @@ public class CapacityLimitVerificatorTest extends DBIntegrationTestBase
 			capacityLimitVerificator.assertInSystemLimitForSingleAdd(CapacityLimitName.GroupsCount, () -> 2L);
 		});
 	}
+
+	@Test
+	public void shouldNotCountElementsFarFromLimit() throws EngineException
+	{
+		txRunner.runInTransactionThrowing(() -> {
+			limitDB.create(new CapacityLimit(CapacityLimitName.GroupsCount, 100));
+		});
+		AtomicInteger countQueries = new AtomicInteger();
+
+		txRunner.runInTransactionThrowing(() -> {
+			for (int i = 0; i < 10; i++)
+				capacityLimitVerificator.assertInSystemLimitForSingleAdd(CapacityLimitName.GroupsCount, 
+						() -> countAndReturn(countQueries, 10L));
+		});
+
+		assertThat(countQueries.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldCountElementsCloseToLimit() throws EngineException
+	{
+		txRunner.runInTransactionThrowing(() -> {
+			limitDB.create(new CapacityLimit(CapacityLimitName.GroupsCount, 10));
+		});
+		AtomicInteger countQueries = new AtomicInteger();
+		txRunner.runInTransactionThrowing(() -> {
+			capacityLimitVerificator.assertInSystemLimitForSingleAdd(CapacityLimitName.GroupsCount, 
+					() -> countAndReturn(countQueries, 2L));
+		});
+
+		Throwable error = catchThrowable(() -> txRunner.runInTransactionThrowing(() -> {
+			capacityLimitVerificator.assertInSystemLimitForAdd(CapacityLimitName.GroupsCount, 7, 
+					() -> countAndReturn(countQueries, 4L));
+		}));
+
+		assertThat(countQueries.get()).isEqualTo(2);
+		assertThat(error).isInstanceOf(CapacityLimitReachedException.class);
+	}
+
+	private static long countAndReturn(AtomicInteger countQueries, long count)
+	{
+		countQueries.incrementAndGet();
+		return count;
+	}
 }
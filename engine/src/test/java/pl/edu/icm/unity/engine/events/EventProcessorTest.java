@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pl.edu.icm.unity.base.event.PersistableEvent;
+import pl.edu.icm.unity.engine.api.event.EventListener;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
+import pl.edu.icm.unity.store.api.EventDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.types.Event;
+
+public class EventProcessorTest
+{
+	private EventProcessor processor;
+
+	@Before
+	public void init()
+	{
+		ExecutorsService executorsService = mock(ExecutorsService.class);
+		when(executorsService.getService()).thenReturn(mock(ScheduledExecutorService.class));
+		processor = new EventProcessor(executorsService, mock(EventDAO.class), mock(TransactionalRunner.class));
+	}
+
+	@Test
+	public void shouldDispatchOnlyToListenersOfEventCategory()
+	{
+		RecordingListener subscribed = new RecordingListener("1", Collections.singleton("cat1"));
+		RecordingListener other = new RecordingListener("2", Collections.singleton("cat2"));
+		processor.addEventListener(subscribed);
+		processor.addEventListener(other);
+
+		processor.fireEvent(new PersistableEvent("cat1"));
+
+		assertThat(subscribed.handled).hasSize(1);
+		assertThat(other.handled).isEmpty();
+		assertThat(other.wantedChecks.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void shouldDispatchToListenersOfAllCategories()
+	{
+		RecordingListener all = new RecordingListener("1", Collections.singleton(EventListener.ALL_CATEGORIES));
+		RecordingListener subscribed = new RecordingListener("2", Collections.singleton("cat1"));
+		processor.addEventListener(all);
+		processor.addEventListener(subscribed);
+
+		processor.fireEvent(new PersistableEvent("cat1"));
+		processor.fireEvent(new PersistableEvent("cat2"));
+
+		assertThat(all.handled).hasSize(2);
+		assertThat(subscribed.handled).hasSize(1);
+	}
+
+	@Test
+	public void shouldNotCreateLazyContentsWithoutListeners()
+	{
+		RecordingListener other = new RecordingListener("1", Collections.singleton("cat2"));
+		processor.addEventListener(other);
+		AtomicInteger contentsCreations = new AtomicInteger();
+		PersistableEvent event = new PersistableEvent("cat1");
+		event.setContents(() -> "contents" + contentsCreations.incrementAndGet());
+
+		processor.fireEvent(event);
+
+		assertThat(processor.hasListeners("cat1")).isFalse();
+		assertThat(contentsCreations.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void shouldNotDispatchToRemovedListener()
+	{
+		RecordingListener subscribed = new RecordingListener("1", Collections.singleton("cat1"));
+		processor.addEventListener(subscribed);
+
+		processor.removeEventListener(subscribed);
+		processor.fireEvent(new PersistableEvent("cat1"));
+
+		assertThat(subscribed.handled).isEmpty();
+		assertThat(processor.getListeners()).isEmpty();
+		assertThat(processor.hasListeners("cat1")).isFalse();
+	}
+
+	private static class RecordingListener implements EventListener
+	{
+		private final String id;
+		private final Set<String> categories;
+		private final List<Event> handled = new ArrayList<>();
+		private final AtomicInteger wantedChecks = new AtomicInteger();
+
+		RecordingListener(String id, Set<String> categories)
+		{
+			this.id = id;
+			this.categories = categories;
+		}
+
+		@Override
+		public boolean isLightweight()
+		{
+			return true;
+		}
+
+		@Override
+		public Set<String> getCategories()
+		{
+			return categories;
+		}
+
+		@Override
+		public boolean isWanted(Event event)
+		{
+			wantedChecks.incrementAndGet();
+			return true;
+		}
+
+		@Override
+		public boolean isAsync(Event event)
+		{
+			return false;
+		}
+
+		@Override
+		public boolean handleEvent(Event event)
+		{
+			handled.add(event);
+			return true;
+		}
+
+		@Override
+		public String getId()
+		{
+			return id;
+		}
+
+		@Override
+		public int getMaxFailures()
+		{
+			return 0;
+		}
+	}
+}
@@ -266,6 +266,27 @@ public class TestEnquiries extends DBIntegrationTestBase
 		assertThat(pendingEnquires.size(), is(0));	
 	}
 	
+	@Test
+	public void updatedTargetConditionIsUsedForPendingEnquiry() throws Exception
+	{
+		Identity identity = createUsernameUserWithRole(InternalAuthorizationManagerImpl.USER_ROLE);
+		EntityParam entityParam = new EntityParam(identity);
+		EnquiryForm form = new EnquiryFormBuilder().withTargetGroups(new String[] { "/" })
+				.withTargetCondition("status == \"disabled\"")
+				.withType(EnquiryType.REQUESTED_OPTIONAL).withName("tenquiry").build();
+		enquiryManagement.addEnquiry(form);
+		assertThat(enquiryManagement.getPendingEnquires(entityParam).size(), is(0));
+		
+		EnquiryForm updated = new EnquiryFormBuilder().withTargetGroups(new String[] { "/" })
+				.withTargetCondition("status == \"valid\"")
+				.withType(EnquiryType.REQUESTED_OPTIONAL).withName("tenquiry").build();
+		enquiryManagement.updateEnquiry(updated, false);
+		
+		List<EnquiryForm> pendingEnquires = enquiryManagement.getPendingEnquires(entityParam);
+		assertThat(pendingEnquires.size(), is(1));
+		assertThat(pendingEnquires.get(0), is(updated));
+	}
+	
 	@Test
 	public void byInvitationEnquiryIsNotReturned() throws Exception
 	{
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.group;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import pl.edu.icm.unity.engine.DBIntegrationTestBase;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.types.I18nString;
+import pl.edu.icm.unity.types.basic.Group;
+
+public class GroupsCacheTest extends DBIntegrationTestBase
+{
+	@Autowired
+	private GroupsCache groupsCache;
+	@Autowired
+	private TransactionalRunner tx;
+
+	@Test
+	public void shouldReturnOnlyRequestedExistingGroups() throws Exception
+	{
+		groupsMan.addGroup(new Group("/A"));
+		groupsMan.addGroup(new Group("/A/B"));
+		groupsMan.addGroup(new Group("/C"));
+
+		List<Group> groups = groupsCache.getGroups(Arrays.asList("/", "/A/B", "/missing"));
+
+		assertThat(groups.stream().map(Group::getPathEncoded).collect(Collectors.toList()))
+			.containsExactly("/", "/A/B");
+	}
+
+	@Test
+	public void shouldReturnModifiedGroup() throws Exception
+	{
+		groupsMan.addGroup(new Group("/A"));
+		groupsCache.getGroups(Collections.singleton("/A"));
+		Group updated = new Group("/A");
+		updated.setDisplayedName(new I18nString("Updated"));
+
+		groupsMan.updateGroup("/A", updated);
+
+		List<Group> groups = groupsCache.getGroups(Collections.singleton("/A"));
+		assertThat(groups).hasSize(1);
+		assertThat(groups.get(0).getDisplayedName().getDefaultValue()).isEqualTo("Updated");
+	}
+
+	@Test
+	public void shouldReturnGroupAddedInCurrentTransaction() throws Exception
+	{
+		groupsCache.getGroups(Collections.singleton("/"));
+
+		List<Group> groups = tx.runInTransactionRetThrowing(() ->
+		{
+			groupsMan.addGroup(new Group("/A"));
+			return groupsCache.getGroups(Collections.singleton("/A"));
+		});
+
+		assertThat(groups).hasSize(1);
+	}
+
+	@Test
+	public void shouldReturnCopiesOfCachedGroups() throws Exception
+	{
+		groupsMan.addGroup(new Group("/A"));
+		Group returned = groupsCache.getGroups(Collections.singleton("/A")).get(0);
+
+		returned.setDisplayedName(new I18nString("Changed"));
+
+		Group again = groupsCache.getGroups(Collections.singleton("/A")).get(0);
+		assertThat(again.getDisplayedName().getDefaultValue()).isNotEqualTo("Changed");
+	}
+}
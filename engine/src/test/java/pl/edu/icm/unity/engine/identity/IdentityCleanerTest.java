@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.identity;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.google.common.collect.Lists;
+
+import pl.edu.icm.unity.engine.api.identity.IdentityTypeDefinition;
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.store.api.IdentityDAO;
+import pl.edu.icm.unity.store.api.IdentityTypeDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.store.types.StoredIdentity;
+import pl.edu.icm.unity.types.basic.Identity;
+import pl.edu.icm.unity.types.basic.IdentityType;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdentityCleanerTest
+{
+	@Mock
+	private IdentityDAO identityDAO;
+	@Mock
+	private IdentityTypeHelper idTypeHelper;
+	@Mock
+	private IdentityTypeDAO idTypeDAO;
+	@Mock
+	private IdentityTypeDefinition typeDefinition;
+
+	private IdentityCleaner cleaner;
+
+	@Before
+	public void init()
+	{
+		when(idTypeDAO.getAll()).thenReturn(Lists.newArrayList(new IdentityType("t")));
+		when(idTypeHelper.getTypeDefinition(any(IdentityType.class))).thenReturn(typeDefinition);
+		when(typeDefinition.isExpirable()).thenReturn(true);
+		when(typeDefinition.isExpired(any())).thenReturn(true);
+		cleaner = new IdentityCleaner(identityDAO, idTypeHelper, idTypeDAO, new DirectTxRunner());
+	}
+
+	@Test
+	public void shouldRemoveOtherIdentitiesOfChunkWhenRemovalOfOneFails()
+	{
+		StoredIdentity bad = new StoredIdentity(new Identity("t", "bad", 1, "bad"));
+		StoredIdentity good = new StoredIdentity(new Identity("t", "good", 2, "good"));
+		when(identityDAO.getByType("t")).thenReturn(Lists.newArrayList(bad, good));
+		when(identityDAO.exists(any())).thenReturn(true);
+		doThrow(new IllegalStateException("removal failure")).when(identityDAO).delete(bad.getName());
+
+		cleaner.removeExpiredIdentities();
+
+		verify(identityDAO).delete(good.getName());
+	}
+
+	private static class DirectTxRunner implements TransactionalRunner
+	{
+		@Override
+		public <T> T runInTransactionRet(TxRunnableRet<T> code)
+		{
+			return code.run();
+		}
+
+		@Override
+		public void runInTransaction(TxRunnable code)
+		{
+			code.run();
+		}
+
+		@Override
+		public void runInTransactionNoAutoCommit(TxRunnable code)
+		{
+			code.run();
+		}
+
+		@Override
+		public <T> T runInTransactionNoAutoCommitRet(TxRunnableRet<T> code)
+		{
+			return code.run();
+		}
+
+		@Override
+		public void runInTransactionThrowing(TxRunnableThrowing code) throws EngineException
+		{
+			code.run();
+		}
+
+		@Override
+		public <T> T runInTransactionRetThrowing(TxRunnableThrowingRet<T> code) throws EngineException
+		{
+			return code.run();
+		}
+	}
+}
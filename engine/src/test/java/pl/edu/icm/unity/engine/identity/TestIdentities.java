@@ -20,11 +20,17 @@ import static org.junit.Assert.fail;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.awaitility.Awaitility;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import pl.edu.icm.unity.Constants;
 import pl.edu.icm.unity.engine.DBIntegrationTestBase;
 import pl.edu.icm.unity.exceptions.IllegalGroupValueException;
 import pl.edu.icm.unity.exceptions.SchemaConsistencyException;
@@ -36,6 +42,9 @@ import pl.edu.icm.unity.stdext.identity.TargetedPersistentIdentity;
 import pl.edu.icm.unity.stdext.identity.TransientIdentity;
 import pl.edu.icm.unity.stdext.identity.UsernameIdentity;
 import pl.edu.icm.unity.stdext.identity.X500Identity;
+import pl.edu.icm.unity.store.api.IdentityDAO;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.store.types.StoredIdentity;
 import pl.edu.icm.unity.types.basic.AttributeType;
 import pl.edu.icm.unity.types.basic.Entity;
 import pl.edu.icm.unity.types.basic.EntityParam;
@@ -52,6 +61,12 @@ public class TestIdentities extends DBIntegrationTestBase
 {
 	@Autowired
 	private EntitiesScheduledUpdater entitiesUpdater;
+	@Autowired
+	private IdentityCleaner identityCleaner;
+	@Autowired
+	private IdentityDAO identityDAO;
+	@Autowired
+	private TransactionalRunner tx;
 	
 	@Before
 	public void prepare() throws Exception
@@ -143,6 +158,61 @@ public class TestIdentities extends DBIntegrationTestBase
 		}
 	}
 
+	@Test
+	public void scheduledOperationsArePerformedByRescheduledUpdater() throws Exception
+	{
+		Identity id1 = idsMan.addEntity(new IdentityParam(X500Identity.ID, "CN=golbi1"), 
+				"crMock", EntityState.valid);
+		Identity id2 = idsMan.addEntity(new IdentityParam(X500Identity.ID, "CN=golbi2"), 
+				"crMock", EntityState.valid);
+		EntityParam ep1 = new EntityParam(id1.getEntityId());
+		EntityParam ep2 = new EntityParam(id2.getEntityId());
+		
+		idsMan.scheduleEntityChange(ep1, new Date(System.currentTimeMillis() + 300), 
+				EntityScheduledOperation.DISABLE);
+		idsMan.scheduleEntityChange(ep2, new Date(System.currentTimeMillis() + 1500), 
+				EntityScheduledOperation.DISABLE);
+
+		Awaitility.with().pollInSameThread().await().atMost(10, TimeUnit.SECONDS)
+				.until(() -> idsMan.getEntity(ep1).getState() == EntityState.disabled 
+					&& idsMan.getEntity(ep2).getState() == EntityState.disabled);
+	}
+
+	@Test
+	public void expiredIdentitiesAreRemovedInChunks() throws Exception
+	{
+		Identity id = idsMan.addEntity(new IdentityParam(X500Identity.ID, "CN=golbi"), 
+				"crMock", EntityState.valid);
+		long now = System.currentTimeMillis();
+		tx.runInTransaction(() -> {
+			for (int i=0; i<250; i++)
+				identityDAO.create(new StoredIdentity(createTransient(id.getEntityId(), 
+						"expired" + i, 1, 1, 1)));
+			identityDAO.create(new StoredIdentity(createTransient(id.getEntityId(), 
+					"valid", now + 3600000, 3600000, now)));
+		});
+
+		identityCleaner.removeExpiredIdentities();
+
+		List<StoredIdentity> transientIds = tx.runInTransactionRet(() -> 
+				identityDAO.getByType(TransientIdentity.ID));
+		assertThat(transientIds).extracting(sid -> sid.getIdentity().getValue()).containsExactly("valid");
+		assertNotNull(getByType(idsMan.getEntity(new EntityParam(id.getEntityId())), X500Identity.ID));
+	}
+
+	private Identity createTransient(long entityId, String value, long absoluteTTL, long relativeTTL, 
+			long lastUsage)
+	{
+		Identity identity = new Identity(TransientIdentity.ID, value, entityId, value);
+		ObjectNode metadata = Constants.MAPPER.createObjectNode();
+		metadata.put("absoluteTTL", absoluteTTL);
+		metadata.put("relativeTTL", relativeTTL);
+		metadata.put("lastUsage", lastUsage);
+		metadata.put("idValue", value);
+		identity.setMetadata(metadata);
+		return identity;
+	}
+
 	@Test
 	public void typesForAllSyntaxesAreReturned() throws Exception
 	{
@@ -24,13 +24,13 @@ import com.google.common.collect.Lists;
 import eu.unicore.util.configuration.PropertiesHelper;
 import pl.edu.icm.unity.engine.api.AttributesManagement;
 import pl.edu.icm.unity.engine.api.EntityManagement;
-import pl.edu.icm.unity.engine.api.GroupsManagement;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationResult;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationResult.Status;
 import pl.edu.icm.unity.engine.api.idp.EntityInGroup;
 import pl.edu.icm.unity.engine.api.translation.TranslationProfileGenerator;
 import pl.edu.icm.unity.engine.api.translation.out.TranslationInput;
 import pl.edu.icm.unity.engine.api.userimport.UserImportSerivce;
+import pl.edu.icm.unity.engine.group.GroupsCache;
 import pl.edu.icm.unity.exceptions.EngineException;
 import pl.edu.icm.unity.stdext.attr.StringAttribute;
 import pl.edu.icm.unity.types.basic.AttributeExt;
@@ -45,7 +45,7 @@ public class IdPEngineImplBaseTest
 	public void shouldExposeImportStatusToProfile_EarlyImport() throws EngineException
 	{
 		AttributesManagement attributesMan = mock(AttributesManagement.class);
-		GroupsManagement groupMan = mock(GroupsManagement.class);
+		GroupsCache groupsCache = mock(GroupsCache.class);
 		EntityManagement identitiesMan = mock(EntityManagement.class);
 		UserImportSerivce userImportService = mock(UserImportSerivce.class);
 		OutputProfileExecutor outputProfileExecutor = mock(OutputProfileExecutor.class);
@@ -56,7 +56,7 @@ public class IdPEngineImplBaseTest
 					new UserImportSerivce.ImportResult("imp1", new AuthenticationResult(Status.success, null))));
 		
 		IdPEngineImplBase tested = new IdPEngineImplBase(attributesMan, attributesMan,
-				identitiesMan, userImportService, outputProfileExecutor, groupMan);
+				identitiesMan, userImportService, outputProfileExecutor, groupsCache);
 		
 		
 		tested.obtainUserInformationWithEarlyImport(
@@ -82,7 +82,7 @@ public class IdPEngineImplBaseTest
 	public void shouldExposeImportStatusToProfile_LateImport() throws EngineException
 	{
 		AttributesManagement attributesMan = mock(AttributesManagement.class);
-		GroupsManagement groupMan = mock(GroupsManagement.class);
+		GroupsCache groupsCache = mock(GroupsCache.class);
 		EntityManagement identitiesMan = mock(EntityManagement.class);
 		UserImportSerivce userImportService = mock(UserImportSerivce.class);
 		OutputProfileExecutor outputProfileExecutor = mock(OutputProfileExecutor.class);
@@ -95,7 +95,7 @@ public class IdPEngineImplBaseTest
 					new UserImportSerivce.ImportResult("imp1", new AuthenticationResult(Status.success, null))));
 		
 		IdPEngineImplBase tested = new IdPEngineImplBase(attributesMan, attributesMan,
-				identitiesMan, userImportService, outputProfileExecutor, groupMan);
+				identitiesMan, userImportService, outputProfileExecutor, groupsCache);
 		
 		tested.obtainUserInformationWithEnrichingImport(
 				new EntityParam(1l), 
@@ -120,7 +120,7 @@ public class IdPEngineImplBaseTest
 	public void shouldExposeRequesterAttributesToProfile_LateImport() throws EngineException
 	{
 		AttributesManagement attributesMan = mock(AttributesManagement.class);
-		GroupsManagement groupMan = mock(GroupsManagement.class);
+		GroupsCache groupsCache = mock(GroupsCache.class);
 		AttributesManagement insecureAttributesMan = mock(AttributesManagement.class);
 		EntityManagement identitiesMan = mock(EntityManagement.class);
 		UserImportSerivce userImportService = mock(UserImportSerivce.class);
@@ -142,7 +142,7 @@ public class IdPEngineImplBaseTest
 		
 		IdPEngineImplBase tested = new IdPEngineImplBase(attributesMan, 
 				insecureAttributesMan, identitiesMan, 
-				userImportService, outputProfileExecutor, groupMan);
+				userImportService, outputProfileExecutor, groupsCache);
 		
 		tested.obtainUserInformationWithEnrichingImport(
 				new EntityParam(1l), 
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.notifications.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+public class SMTPConnectionPoolTest
+{
+	private GreenMail smtpServer;
+	private SMTPConnectionPool pool;
+
+	@Before
+	public void startServer()
+	{
+		smtpServer = new GreenMail(ServerSetupTest.SMTP);
+		smtpServer.start();
+		Properties props = new Properties();
+		props.setProperty("mail.from", "unity@example.com");
+		props.setProperty("mail.smtp.host", "localhost");
+		props.setProperty("mail.smtp.port", String.valueOf(ServerSetupTest.SMTP.getPort()));
+		pool = new SMTPConnectionPool(Session.getInstance(props), 2, 60000);
+	}
+
+	@After
+	public void stopServer()
+	{
+		pool.closeAll();
+		smtpServer.stop();
+	}
+
+	@Test
+	public void subsequentMessagesReuseConnection() throws Exception
+	{
+		for (int i = 0; i < 5; i++)
+			pool.send(createMessage("user" + i + "@example.com"));
+
+		assertThat(smtpServer.waitForIncomingEmail(5000, 5)).isTrue();
+		EmailSendingStatistics statistics = pool.getStatistics();
+		assertThat(statistics.sentMessages).isEqualTo(5);
+		assertThat(statistics.openedConnections).isEqualTo(1);
+		assertThat(statistics.idleConnections).isEqualTo(1);
+		assertThat(statistics.activeConnections).isEqualTo(0);
+	}
+
+	@Test
+	public void brokenPooledConnectionIsReplaced() throws Exception
+	{
+		pool.send(createMessage("user1@example.com"));
+		smtpServer.stop();
+		smtpServer = new GreenMail(ServerSetupTest.SMTP);
+		smtpServer.start();
+
+		pool.send(createMessage("user2@example.com"));
+
+		assertThat(smtpServer.waitForIncomingEmail(5000, 1)).isTrue();
+		assertThat(pool.getStatistics().openedConnections).isEqualTo(2);
+	}
+
+	@Test
+	public void idleConnectionsAreClosed() throws Exception
+	{
+		pool.send(createMessage("user1@example.com"));
+
+		boolean unused = pool.closeIdle(System.currentTimeMillis() + 120000);
+
+		assertThat(unused).isTrue();
+		assertThat(pool.getStatistics().idleConnections).isEqualTo(0);
+	}
+
+	@Test
+	public void reservedPoolIsNotRetired() throws Exception
+	{
+		assertThat(pool.reserve()).isTrue();
+		pool.send(createMessage("user1@example.com"));
+
+		boolean retired = pool.retireIfUnused(System.currentTimeMillis() + 120000);
+
+		assertThat(retired).isFalse();
+		pool.unreserve();
+		assertThat(pool.reserve()).isTrue();
+	}
+
+	@Test
+	public void retiredPoolCanNotBeReserved() throws Exception
+	{
+		assertThat(pool.reserve()).isTrue();
+		pool.send(createMessage("user1@example.com"));
+		pool.unreserve();
+
+		boolean retired = pool.retireIfUnused(System.currentTimeMillis() + 120000);
+
+		assertThat(retired).isTrue();
+		assertThat(pool.reserve()).isFalse();
+		assertThat(pool.getStatistics().idleConnections).isEqualTo(0);
+	}
+
+	private MimeMessage createMessage(String to) throws MessagingException
+	{
+		MimeMessage msg = new MimeMessage(pool.getSession());
+		msg.setFrom();
+		msg.setRecipients(Message.RecipientType.TO, to);
+		msg.setSubject("subject");
+		msg.setContent("body", "text/plain; charset=utf-8");
+		return msg;
+	}
+}
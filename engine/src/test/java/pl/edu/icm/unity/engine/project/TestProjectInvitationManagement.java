@@ -189,8 +189,10 @@ public class TestProjectInvitationManagement extends TestProjectBase
 		EnquiryInvitationParam inv2 = EnquiryInvitationParam.builder().withForm("enqForm")
 				.withExpiration(Instant.now().plusSeconds(1000)).build();
 
-		when(mockInvitationMan.getInvitations()).thenReturn(Arrays.asList(new InvitationWithCode(inv1, "code1"),
-				new InvitationWithCode(inv2, "code2")));
+		when(mockInvitationMan.getInvitations("regForm")).thenReturn(
+				Arrays.asList(new InvitationWithCode(inv1, "code1")));
+		when(mockInvitationMan.getInvitations("enqForm")).thenReturn(
+				Arrays.asList(new InvitationWithCode(inv2, "code2")));
 
 		List<ProjectInvitation> invitations = projectInvMan.getInvitations("/project");
 
@@ -216,7 +218,7 @@ public class TestProjectInvitationManagement extends TestProjectBase
 	{
 		when(mockGroupMan.getContents(any(), anyInt())).thenReturn(getConfiguredGroupContents("/project"));
 
-		when(mockInvitationMan.getInvitations()).thenReturn(Arrays.asList(inv));
+		when(mockInvitationMan.getInvitation(code)).thenReturn(inv);
 		projectInvMan.sendInvitation("/project", code);
 
 		verify(mockInvitationMan).sendInvitation(eq(code));
@@ -240,7 +242,7 @@ public class TestProjectInvitationManagement extends TestProjectBase
 	{
 		when(mockGroupMan.getContents(any(), anyInt())).thenReturn(getConfiguredGroupContents("/project"));
 
-		when(mockInvitationMan.getInvitations()).thenReturn(Arrays.asList(inv));
+		when(mockInvitationMan.getInvitation(code)).thenReturn(inv);
 		projectInvMan.sendInvitation("/project", code);
 
 		ArgumentCaptor<InvitationParam> argument = ArgumentCaptor.forClass(InvitationParam.class);
@@ -262,8 +264,7 @@ public class TestProjectInvitationManagement extends TestProjectBase
 
 		when(mockGroupMan.getContents(any(), anyInt())).thenReturn(getConfiguredGroupContents("/project"));
 
-		when(mockInvitationMan.getInvitations()).thenReturn(
-				Arrays.asList(getRegistrationInvitation("regForm", Instant.now().plusSeconds(1000))));
+		when(mockInvitationMan.getInvitation("code")).thenThrow(new IllegalArgumentException());
 
 		Throwable exception = catchThrowable(() -> projectInvMan.sendInvitation("/project", "code"));
 		assertExceptionType(exception, IllegalInvitationException.class);
@@ -274,8 +275,8 @@ public class TestProjectInvitationManagement extends TestProjectBase
 	{
 
 		when(mockGroupMan.getContents(any(), anyInt())).thenReturn(getConfiguredGroupContents("/project"));
-		when(mockInvitationMan.getInvitations()).thenReturn(
-				Arrays.asList(getRegistrationInvitation("regForm1", Instant.now().plusSeconds(1000))));
+		when(mockInvitationMan.getInvitation("code1")).thenReturn(
+				getRegistrationInvitation("regForm1", Instant.now().plusSeconds(1000)));
 		Throwable exception = catchThrowable(() -> projectInvMan.sendInvitation("/project", "code1"));
 		assertExceptionType(exception, NotProjectInvitation.class);
 	}
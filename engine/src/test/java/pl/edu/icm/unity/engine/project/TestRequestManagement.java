@@ -81,8 +81,10 @@ public class TestRequestManagement extends TestProjectBase
 		responseFull.setRequest(response);
 		responseFull.setStatus(RegistrationRequestStatus.pending);
 
-		when(mockRegistrationMan.getRegistrationRequests()).thenReturn(Arrays.asList(requestFull));
-		when(mockEnquiryMan.getEnquiryResponses()).thenReturn(Arrays.asList(responseFull));
+		when(mockRegistrationMan.getRegistrationRequests("regForm", RegistrationRequestStatus.pending))
+				.thenReturn(Arrays.asList(requestFull));
+		when(mockEnquiryMan.getEnquiryResponses("enqForm", RegistrationRequestStatus.pending))
+				.thenReturn(Arrays.asList(responseFull));
 
 		List<ProjectRequest> requests = projectRequestMan.getRequests("/project");
 
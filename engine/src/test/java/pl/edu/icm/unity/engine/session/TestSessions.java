@@ -173,6 +173,25 @@ public class TestSessions extends DBIntegrationTestBase
 		assertThat(error).isInstanceOfAny(SessionExpiredException.class, IllegalArgumentException.class);
 	}
 	
+	@Test
+	public void recordedActivityProlongsSession() throws Exception
+	{
+		IdentityParam toAdd = new IdentityParam(UsernameIdentity.ID, "u1");
+		Identity id = idsMan.addEntity(toAdd, EngineInitialization.DEFAULT_CREDENTIAL_REQUIREMENT, 
+				EntityState.valid);
+		AuthenticationRealm realm = new AuthenticationRealm("test", "", 3, 33, RememberMePolicy.disallow , 1, 2);
+		LoginSession s = sessionMan.getCreateSession(id.getEntityId(), realm, "u1", null, null, authenticatorOnlyKey("auth1"), null);
+		
+		Thread.sleep(1200);
+		sessionMan.updateSessionActivity(s.getId());
+		sessionMan.updateSessionActivity(s.getId());
+		Thread.sleep(1200);
+		
+		LoginSession ret = sessionMan.getSession(s.getId());
+		
+		assertThat(ret.getLastUsed().after(s.getLastUsed())).isTrue();
+	}
+	
 	private void checkLastAuthnAttributeWasRecentlySet(long entityId) throws EngineException
 	{
 		Collection<AttributeExt> attrs = attrsMan.getAllAttributes(new EntityParam(entityId), false, "/", 
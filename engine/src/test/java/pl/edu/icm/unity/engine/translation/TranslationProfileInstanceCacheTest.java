@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.translation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pl.edu.icm.unity.engine.translation.in.InputTranslationProfile;
+import pl.edu.icm.unity.store.api.DirectoryModificationsTracker;
+import pl.edu.icm.unity.types.translation.ProfileType;
+import pl.edu.icm.unity.types.translation.TranslationAction;
+import pl.edu.icm.unity.types.translation.TranslationProfile;
+import pl.edu.icm.unity.types.translation.TranslationRule;
+
+public class TranslationProfileInstanceCacheTest
+{
+	private DirectoryModificationsTracker tracker;
+	private TranslationProfileInstanceCache cache;
+
+	@Before
+	public void init()
+	{
+		tracker = mock(DirectoryModificationsTracker.class);
+		when(tracker.isTrackingModifications()).thenReturn(true);
+		when(tracker.getGlobalDataVersion()).thenReturn(1L);
+		cache = new TranslationProfileInstanceCache(tracker);
+	}
+
+	@Test
+	public void shouldReuseInstanceOfUnchangedProfile()
+	{
+		InputTranslationProfile first = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+
+		InputTranslationProfile second = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+
+		assertThat(second).isSameAs(first);
+		TranslationProfileCacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.hits).isEqualTo(1);
+		assertThat(statistics.misses).isEqualTo(1);
+		assertThat(statistics.cachedInstances).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldCreateNewInstanceOfModifiedProfile()
+	{
+		InputTranslationProfile first = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+
+		InputTranslationProfile second = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "false"), instanceFactory(false));
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(cache.getStatistics().hits).isEqualTo(0);
+	}
+
+	@Test
+	public void shouldCreateNewInstanceAfterDirectoryDataModification()
+	{
+		InputTranslationProfile first = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+		when(tracker.getGlobalDataVersion()).thenReturn(2L);
+
+		InputTranslationProfile second = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+
+		assertThat(second).isNotSameAs(first);
+	}
+
+	@Test
+	public void shouldDropInstancesOfInvalidatedProfile()
+	{
+		cache.getInstance(InputTranslationProfile.class, "p1", createProfile("p1", "true"), instanceFactory(false));
+		cache.getInstance(InputTranslationProfile.class, "p2", createProfile("p2", "true"), instanceFactory(false));
+
+		cache.invalidate("p1");
+
+		assertThat(cache.getStatistics().cachedInstances).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldNotCacheInstanceWithInvalidActions()
+	{
+		InputTranslationProfile first = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(true));
+
+		InputTranslationProfile second = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(true));
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(cache.getStatistics().cachedInstances).isEqualTo(0);
+	}
+
+	@Test
+	public void shouldNotCacheWhenModificationsAreNotTracked()
+	{
+		when(tracker.isTrackingModifications()).thenReturn(false);
+		InputTranslationProfile first = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+
+		InputTranslationProfile second = cache.getInstance(InputTranslationProfile.class, "p1",
+				createProfile("p1", "true"), instanceFactory(false));
+
+		assertThat(second).isNotSameAs(first);
+	}
+
+	private Supplier<InputTranslationProfile> instanceFactory(boolean invalidActions)
+	{
+		return () ->
+		{
+			InputTranslationProfile instance = mock(InputTranslationProfile.class);
+			when(instance.hasInvalidActions()).thenReturn(invalidActions);
+			return instance;
+		};
+	}
+
+	private TranslationProfile createProfile(String name, String condition)
+	{
+		return new TranslationProfile(name, "", ProfileType.INPUT,
+				Collections.singletonList(new TranslationRule(condition,
+						new TranslationAction("mapIdentity", "identifier", "'x'", "", "CREATE_OR_MATCH"))));
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.translation.out;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mvel2.MVEL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
+import pl.edu.icm.unity.engine.api.attributes.AttributeValueSyntax;
+import pl.edu.icm.unity.engine.api.translation.out.TranslationInput;
+import pl.edu.icm.unity.types.basic.Attribute;
+import pl.edu.icm.unity.types.basic.Entity;
+import pl.edu.icm.unity.types.basic.Group;
+import pl.edu.icm.unity.types.basic.Identity;
+
+/**
+ * Compares creation of output translation MVEL context with lazily computed variables against
+ * a context with all variables computed upfront, as it was done before. Each invocation mimics a
+ * single IdP response: a context is created and a few typical expressions are evaluated.
+ * Allocation per invocation is reported by the GC profiler (gc.alloc.rate.norm).
+ * Not run as a part of the build, use the main method to run it manually.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputTranslationContextBenchmark
+{
+	private static final String[] EXPRESSIONS = {
+			"idsByType['userName'] != null",
+			"attr['email']",
+			"attrs['memberOf']"};
+
+	private TranslationInput input;
+	private AttributeValueConverter attrConverter;
+	private List<Serializable> compiledExpressions;
+
+	@Setup
+	public void setup()
+	{
+		attrConverter = new CopyingAttributeValueConverter();
+		compiledExpressions = new ArrayList<>();
+		for (String expression: EXPRESSIONS)
+			compiledExpressions.add(MVEL.compileExpression(expression));
+
+		List<Attribute> attributes = new ArrayList<>();
+		for (int i = 0; i < 30; i++)
+			attributes.add(new Attribute("attribute" + i, "string", "/",
+					Arrays.asList("value" + i, "other value" + i)));
+		attributes.add(new Attribute("email", "string", "/", Arrays.asList("user@example.com")));
+		List<String> memberOf = new ArrayList<>();
+		List<Group> groups = new ArrayList<>();
+		groups.add(new Group("/"));
+		for (int i = 0; i < 20; i++)
+		{
+			memberOf.add("/project" + i);
+			groups.add(new Group("/project" + i));
+			groups.add(new Group("/project" + i + "/users"));
+		}
+		attributes.add(new Attribute("memberOf", "string", "/", memberOf));
+
+		List<Identity> identities = Arrays.asList(
+				new Identity("userName", "user", 1L, "user"),
+				new Identity("persistent", "a8b5c21e-2c4f-4b8e-9d42-f1d4c1c2e0a7", 1L,
+						"a8b5c21e-2c4f-4b8e-9d42-f1d4c1c2e0a7"));
+		input = new TranslationInput(attributes, new Entity(identities, null, null), "/", groups,
+				"https://sp.example.com", Collections.emptyList(), "SAML2", "WEB",
+				Collections.emptyMap());
+	}
+
+	@Benchmark
+	public List<Object> lazyContext()
+	{
+		return evaluate(OutputTranslationProfile.createMvelContext(input, attrConverter));
+	}
+
+	@Benchmark
+	public List<Object> fullyComputedContext()
+	{
+		Map<String, Object> context = new HashMap<>(
+				OutputTranslationProfile.createMvelContext(input, attrConverter));
+		return evaluate(context);
+	}
+
+	private List<Object> evaluate(Map<String, Object> context)
+	{
+		List<Object> ret = new ArrayList<>(compiledExpressions.size());
+		for (Serializable expression: compiledExpressions)
+			ret.add(MVEL.executeExpression(expression, context, new HashMap<>()));
+		return ret;
+	}
+
+	private static class CopyingAttributeValueConverter implements AttributeValueConverter
+	{
+		@Override
+		public List<String> externalValuesToInternal(String attributeName, List<?> externalValues)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T> List<String> externalValuesToInternal(AttributeValueSyntax<T> syntax,
+				List<?> externalValues)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T> List<String> internalValuesToExternal(AttributeValueSyntax<T> syntax,
+				List<String> internalValues)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<String> internalValuesToExternal(String attributeName, List<String> internalValues)
+		{
+			return new ArrayList<>(internalValues);
+		}
+
+		@Override
+		public List<String> storedValuesToInternal(String attributeName, List<String> storedValues)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T> List<?> internalValuesToObjectValues(String attributeName, List<String> internalValues)
+		{
+			return new ArrayList<>(internalValues);
+		}
+
+		@Override
+		public <T> List<T> internalValuesToObjectValues(AttributeValueSyntax<T> syntax,
+				List<String> internalValues)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T> List<String> objectValuesToInternalValues(AttributeValueSyntax<T> syntax,
+				List<T> typedValues)
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(OutputTranslationContextBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
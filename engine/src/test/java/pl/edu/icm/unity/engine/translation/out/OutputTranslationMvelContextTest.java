@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.translation.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mvel2.MVEL;
+
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
+import pl.edu.icm.unity.engine.api.translation.out.TranslationInput;
+import pl.edu.icm.unity.types.basic.Attribute;
+import pl.edu.icm.unity.types.basic.Entity;
+import pl.edu.icm.unity.types.basic.Group;
+import pl.edu.icm.unity.types.basic.Identity;
+
+public class OutputTranslationMvelContextTest
+{
+	private AttributeValueConverter attrConverter;
+	private TranslationInput input;
+
+	@Before
+	public void init() throws Exception
+	{
+		attrConverter = mock(AttributeValueConverter.class);
+		when(attrConverter.internalValuesToExternal(anyString(), anyList()))
+			.thenAnswer(invocation -> invocation.getArgument(1));
+		Identity identity = new Identity("userName", "user1", 1L, "user1");
+		Entity entity = new Entity(Collections.singletonList(identity), null, null);
+		input = new TranslationInput(
+				Arrays.asList(new Attribute("email", "string", "/", Arrays.asList("a@example.com", "b@example.com")),
+						new Attribute("empty", "string", "/", Collections.emptyList())),
+				entity, "/A", Arrays.asList(new Group("/"), new Group("/A"), new Group("/A/B")),
+				"req", Collections.emptyList(), "proto", "subProto", Collections.emptyMap());
+	}
+
+	@Test
+	public void shouldComputeOnlyUsedVariables() throws Exception
+	{
+		LazyMvelContext context = (LazyMvelContext) OutputTranslationProfile.createMvelContext(input, attrConverter);
+
+		Object value = evaluate("attr['email']", context);
+
+		assertThat(value).isEqualTo("a@example.com");
+		assertThat(context.isResolved("attr")).isTrue();
+		assertThat(context.isResolved("attrObj")).isFalse();
+		assertThat(context.isResolved("idsByType")).isFalse();
+		verify(attrConverter, never()).internalValuesToObjectValues(anyString(), anyList());
+	}
+
+	@Test
+	public void shouldConvertAttributeValuesOnceForAllRules() throws Exception
+	{
+		Map<String, Object> context = OutputTranslationProfile.createMvelContext(input, attrConverter);
+
+		evaluate("attr['email']", context);
+		evaluate("attrs['email']", context);
+		evaluate("attr['empty'] == ''", context);
+
+		verify(attrConverter, times(1)).internalValuesToExternal(eq("email"), anyList());
+		verify(attrConverter, times(1)).internalValuesToExternal(eq("empty"), anyList());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldProvideAllVariables()
+	{
+		Map<String, Object> context = OutputTranslationProfile.createMvelContext(input, attrConverter);
+
+		assertThat(evaluate("attrs['email']", context)).isEqualTo(Arrays.asList("a@example.com", "b@example.com"));
+		assertThat(evaluate("attr['empty']", context)).isEqualTo("");
+		assertThat(evaluate("idsByType['userName']", context)).isEqualTo(Collections.singletonList("user1"));
+		assertThat((List<Object>) evaluate("groups", context)).containsExactlyInAnyOrder("/", "/A", "/A/B");
+		assertThat((List<Object>) evaluate("subGroups", context)).containsExactlyInAnyOrder("/A", "/A/B");
+		assertThat(evaluate("usedGroup", context)).isEqualTo("/A");
+		assertThat(evaluate("protocol + ':' + protocolSubtype", context)).isEqualTo("proto:subProto");
+		assertThat(evaluate("idp", context)).isNull();
+		assertThat(context).containsKeys("attrObj", "requesterAttr", "groupsObj", "importStatus",
+				"authenticatedWith", "requester");
+	}
+
+	private static Object evaluate(String expression, Object context)
+	{
+		Serializable compiled = MVEL.compileExpression(expression);
+		return MVEL.executeExpression(compiled, context, new HashMap<>());
+	}
+}
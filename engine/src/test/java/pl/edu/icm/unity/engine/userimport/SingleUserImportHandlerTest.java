@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.userimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.edu.icm.unity.engine.userimport.UserImportProperties.PREFIX;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pl.edu.icm.unity.engine.api.authn.AuthenticationException;
+import pl.edu.icm.unity.engine.api.authn.AuthenticationResult;
+import pl.edu.icm.unity.engine.api.authn.AuthenticationResult.Status;
+import pl.edu.icm.unity.engine.api.authn.remote.RemoteAuthnResultProcessor;
+import pl.edu.icm.unity.engine.api.authn.remote.RemotelyAuthenticatedInput;
+import pl.edu.icm.unity.engine.api.userimport.UserImportSPI;
+import pl.edu.icm.unity.engine.api.utils.CacheProvider;
+import pl.edu.icm.unity.engine.userimport.SingleUserImportHandler.PendingImport;
+
+public class SingleUserImportHandlerTest
+{
+	private ExecutorService executor;
+	private RemoteAuthnResultProcessor remoteUtil;
+	private UserImportSPI importer;
+	private CountDownLatch importerRelease;
+	private Clock clock;
+
+	@Before
+	public void init() throws Exception
+	{
+		executor = Executors.newCachedThreadPool();
+		remoteUtil = mock(RemoteAuthnResultProcessor.class);
+		when(remoteUtil.getResult(any(), eq("tp"), eq(false), any()))
+			.thenAnswer(invocation -> new AuthenticationResult(Status.success, null));
+		importer = mock(UserImportSPI.class);
+		clock = mock(Clock.class);
+		when(clock.millis()).thenReturn(1000L);
+		importerRelease = new CountDownLatch(1);
+		when(importer.importUser("id", "type")).thenAnswer(invocation -> 
+		{
+			importerRelease.await(10, TimeUnit.SECONDS);
+			return new RemotelyAuthenticatedInput("idp");
+		});
+	}
+
+	@After
+	public void shutdown()
+	{
+		importerRelease.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldShareFetchBetweenConcurrentImportsOfTheSameUser() throws Exception
+	{
+		SingleUserImportHandler handler = createHandler(getCfgProperties());
+
+		PendingImport import1 = handler.startImport("id", "type", Optional.empty());
+		PendingImport import2 = handler.startImport("id", "type", Optional.empty());
+		importerRelease.countDown();
+
+		assertThat(import1.getResult().getStatus()).isEqualTo(Status.success);
+		assertThat(import2.getResult().getStatus()).isEqualTo(Status.success);
+		verify(importer, times(1)).importUser("id", "type");
+		verify(remoteUtil, times(1)).getResult(any(), eq("tp"), eq(false), any());
+	}
+
+	@Test
+	public void shouldFailWhenImportTimesOut()
+	{
+		Properties cfg = getCfgProperties();
+		cfg.setProperty(PREFIX + UserImportProperties.IMPORT_TIMEOUT, "1");
+		SingleUserImportHandler handler = createHandler(cfg);
+
+		Throwable error = catchThrowable(() -> handler.importUser("id", "type", Optional.empty()));
+
+		assertThat(error).isInstanceOf(AuthenticationException.class);
+	}
+
+	@Test
+	public void shouldRejectImportsAboveConcurrencyLimit()
+	{
+		Properties cfg = getCfgProperties();
+		cfg.setProperty(PREFIX + UserImportProperties.MAX_CONCURRENT_IMPORTS, "1");
+		SingleUserImportHandler handler = createHandler(cfg);
+		when(importer.importUser("id2", "type")).thenReturn(new RemotelyAuthenticatedInput("idp"));
+		handler.startImport("id", "type", Optional.empty());
+
+		Throwable error = catchThrowable(() -> handler.importUser("id2", "type", Optional.empty()));
+
+		assertThat(error).isInstanceOf(AuthenticationException.class);
+	}
+
+	@Test
+	public void shouldReturnStaleResultAndReimportInBackground() throws Exception
+	{
+		Properties cfg = getCfgProperties();
+		cfg.setProperty(PREFIX + UserImportProperties.POSITIVE_CACHE, "1");
+		cfg.setProperty(PREFIX + UserImportProperties.SERVE_STALE, "60");
+		SingleUserImportHandler handler = createHandler(cfg);
+		importerRelease.countDown();
+		AuthenticationResult first = handler.importUser("id", "type", Optional.empty());
+		when(clock.millis()).thenReturn(3000L);
+
+		AuthenticationResult stale = handler.importUser("id", "type", Optional.empty());
+
+		assertThat(stale).isSameAs(first);
+		verify(importer, timeout(5000).times(2)).importUser("id", "type");
+		verify(remoteUtil, times(1)).getResult(any(), eq("tp"), eq(false), any());
+	}
+
+	@Test
+	public void shouldProcessDataReimportedInBackgroundInCallerThread() throws Exception
+	{
+		Properties cfg = getCfgProperties();
+		cfg.setProperty(PREFIX + UserImportProperties.POSITIVE_CACHE, "1");
+		cfg.setProperty(PREFIX + UserImportProperties.SERVE_STALE, "60");
+		SingleUserImportHandler handler = createHandler(cfg);
+		importerRelease.countDown();
+		AuthenticationResult first = handler.importUser("id", "type", Optional.empty());
+		when(clock.millis()).thenReturn(3000L);
+		handler.importUser("id", "type", Optional.empty());
+		verify(importer, timeout(5000).times(2)).importUser("id", "type");
+		Thread caller = Thread.currentThread();
+		when(remoteUtil.getResult(any(), eq("tp"), eq(false), any())).thenAnswer(invocation -> 
+		{
+			assertThat(Thread.currentThread()).isSameAs(caller);
+			return new AuthenticationResult(Status.success, null);
+		});
+
+		AuthenticationResult refreshed = waitForRefreshedResult(handler, first);
+
+		assertThat(refreshed.getStatus()).isEqualTo(Status.success);
+		assertThat(handler.importUser("id", "type", Optional.empty())).isSameAs(refreshed);
+	}
+
+	private AuthenticationResult waitForRefreshedResult(SingleUserImportHandler handler, 
+			AuthenticationResult stale) throws Exception
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			AuthenticationResult result = handler.importUser("id", "type", Optional.empty());
+			if (result != stale)
+				return result;
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Data re-imported in background was not processed");
+	}
+
+	private SingleUserImportHandler createHandler(Properties properties)
+	{
+		return new SingleUserImportHandler(remoteUtil, importer, new UserImportProperties(properties),
+				new CacheProvider(), "key", executor, clock);
+	}
+
+	private Properties getCfgProperties()
+	{
+		Properties ret = new Properties();
+		ret.setProperty(PREFIX + UserImportProperties.TYPE, "mockI");
+		ret.setProperty(PREFIX + UserImportProperties.REMOTE_IDP_NAME, "idp");
+		ret.setProperty(PREFIX + UserImportProperties.TRANSLATION_PROFILE, "tp");
+		return ret;
+	}
+}
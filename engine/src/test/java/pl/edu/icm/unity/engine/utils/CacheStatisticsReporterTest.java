@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.engine.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.CacheStatistics;
+import pl.edu.icm.unity.base.cache.NamedCache;
+import pl.edu.icm.unity.engine.api.utils.CacheProvider;
+import pl.edu.icm.unity.engine.api.utils.ExecutorsService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CacheStatisticsReporterTest
+{
+	private static final CacheSettings SETTINGS = new CacheSettings(10, Duration.ofMinutes(1), Duration.ZERO);
+
+	@Mock
+	private ExecutorsService executorsService;
+	@Mock
+	private ScheduledExecutorService scheduler;
+
+	private CacheProvider cacheProvider;
+	private CacheStatisticsReporter reporter;
+
+	@Before
+	public void init()
+	{
+		when(executorsService.getService()).thenReturn(scheduler);
+		cacheProvider = new CacheProvider(Optional.empty());
+		reporter = new CacheStatisticsReporter(cacheProvider, executorsService);
+	}
+
+	@Test
+	public void shouldReportHitsAndMissesOfUsedCache()
+	{
+		NamedCache<String, String> cache = cacheProvider.getCache("used", SETTINGS);
+		cacheProvider.getCache("unused", SETTINGS);
+		cache.put("k1", "v1");
+		cache.get("k1");
+		cache.get("k1");
+		cache.get("k2");
+
+		Map<String, CacheStatistics> report = reporter.reportStatistics();
+
+		assertThat(report).containsOnlyKeys("used");
+		assertThat(report.get("used").hits).isEqualTo(2);
+		assertThat(report.get("used").misses).isEqualTo(1);
+		assertThat(report.get("used").entries).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldReportOnlyUsageSincePreviousReport()
+	{
+		NamedCache<String, String> cache = cacheProvider.getCache("used", SETTINGS);
+		cache.put("k1", "v1");
+		cache.get("k1");
+		cache.get("k2");
+		reporter.reportStatistics();
+
+		cache.get("k1");
+		Map<String, CacheStatistics> report = reporter.reportStatistics();
+
+		assertThat(report.get("used").hits).isEqualTo(1);
+		assertThat(report.get("used").misses).isEqualTo(0);
+		assertThat(reporter.reportStatistics()).isEmpty();
+	}
+}
@@ -27,13 +27,18 @@ import com.unboundid.ldap.sdk.FailoverServerSet;
 import com.unboundid.ldap.sdk.Filter;
 import com.unboundid.ldap.sdk.LDAPConnection;
 import com.unboundid.ldap.sdk.LDAPConnectionOptions;
+import com.unboundid.ldap.sdk.LDAPConnectionPool;
 import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPInterface;
+import com.unboundid.ldap.sdk.PostConnectProcessor;
 import com.unboundid.ldap.sdk.ReadOnlySearchRequest;
 import com.unboundid.ldap.sdk.ResultCode;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResult;
 import com.unboundid.ldap.sdk.SearchResultEntry;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.ServerSet;
+import com.unboundid.ldap.sdk.StartTLSPostConnectProcessor;
 import com.unboundid.ldap.sdk.extensions.StartTLSExtendedRequest;
 
 import eu.emi.security.authn.x509.X509CertChainValidator;
@@ -44,6 +49,7 @@ import pl.edu.icm.unity.engine.api.authn.remote.RemoteAttribute;
 import pl.edu.icm.unity.engine.api.authn.remote.RemoteGroupMembership;
 import pl.edu.icm.unity.engine.api.authn.remote.RemoteIdentity;
 import pl.edu.icm.unity.engine.api.authn.remote.RemotelyAuthenticatedInput;
+import pl.edu.icm.unity.ldap.client.LdapConnectionPoolRegistry.ConnectionFactory;
 import pl.edu.icm.unity.ldap.client.config.GroupSpecification;
 import pl.edu.icm.unity.ldap.client.config.LdapClientConfiguration;
 import pl.edu.icm.unity.ldap.client.config.SearchSpecification;
@@ -61,10 +67,11 @@ import pl.edu.icm.unity.stdext.identity.X500Identity;
  * If this succeeds then (depending on configuration) user's attributes are retrieved and/or user's 
  * groups are assembled.
  * <p>
- * When binding as system user, the code first binds with the provided system username and password credentials.
+ * When binding as system user, the code uses a pool of connections bound with the provided system username 
+ * and password credentials, see {@link LdapConnectionPoolRegistry}.
  * The requested user is then searched. If found, the code checks the user password by attempting to
- * bind as the user. If this succeeds, the code again binds as system user, and proceeds to retrieve user
- * attributes as above. 
+ * bind as the user. If this succeeds, the connection is bound back as system user, and user
+ * attributes are retrieved as above. 
  * <p>
  * The attributes searching is pretty straightforward. The most of the code in this class is responsible for
  * flexible group retrieval. Both 'memberOf' style and 'member' means of expressing group membership are supported,
@@ -76,14 +83,17 @@ import pl.edu.icm.unity.stdext.identity.X500Identity;
 public class LdapClient
 {
 	private static final Logger log = Log.getLogger(Log.U_SERVER_LDAP, LdapClient.class);
+	private static final ConnectionFactory connectionFactory = new ServerConnectionFactory();
 
 	private String idpName;
 	private LdapGroupHelper groupHelper;
+	private LdapConnectionPoolRegistry poolRegistry;
 	
 	public LdapClient(String idpName)
 	{
 		this.idpName = idpName;
 		this.groupHelper = new LdapGroupHelper();
+		this.poolRegistry = LdapConnectionPoolRegistry.getInstance();
 	}
 
 	/**
@@ -93,34 +103,37 @@ public class LdapClient
 			LdapClientConfiguration configuration) throws LDAPException, LdapAuthenticationException, 
 			KeyManagementException, NoSuchAlgorithmException
 	{
-		LDAPConnection connection = createConnection(configuration);
-		
 		String user = LdapUtils.extractUsername(userOrig, configuration.getUserExtractPattern());
 		
-		String dn = establishUserDN(user, configuration, connection);
-		log.info("Established user's DN is: " + dn);
-		
-		bindAsUser(connection, dn, password, configuration);
-		if (configuration.isBindOnly())
+		if (configuration.getBindAs() == BindAs.system)
 		{
-			RemotelyAuthenticatedInput ret = new RemotelyAuthenticatedInput(idpName);
-			ret.addIdentity(new RemoteIdentity(dn, X500Identity.ID));
-			return ret;
+			LDAPConnectionPool pool = acquireSystemPool(configuration);
+			try
+			{
+				String dn = establishUserDN(user, configuration, pool);
+				log.info("Established user's DN is: " + dn);
+				checkUserPassword(pool, dn, password);
+				return retrieveUserData(pool, user, dn, configuration);
+			} finally
+			{
+				poolRegistry.release(pool);
+			}
 		}
 		
-		if (configuration.getBindAs() == BindAs.system)
-			bindAsSystem(connection, configuration);
-		
-		SearchResultEntry entry = findBaseEntry(configuration, dn, connection);
-		
-		RemotelyAuthenticatedInput ret = assembleBaseResult(entry);
-		findGroupsMembership(connection, entry, configuration, ret.getGroups());
-		
-		performAdditionalQueries(connection, configuration, user, ret);
-		ret.setRawAttributes(ret.getAttributes());
-		
-		connection.close();
-		return ret;
+		LDAPConnection connection = createConnection(configuration);
+		try
+		{
+			if (configuration.getSearchForUserSpec() != null)
+				bindAsSystem(connection, configuration);
+			String dn = establishUserDN(user, configuration, connection);
+			log.info("Established user's DN is: " + dn);
+			
+			bindAsUser(connection, dn, password, configuration);
+			return retrieveUserData(connection, user, dn, configuration);
+		} finally
+		{
+			connection.close();
+		}
 	}
 
 	/**
@@ -148,11 +161,37 @@ public class LdapClient
 		
 		String user = LdapUtils.extractUsername(userOrig, configuration.getUserExtractPattern());
 		
-		LDAPConnection connection = createConnection(configuration);
-		
-		String dn = establishUserDN(user, configuration, connection);
-		log.info("Established user's DN is: " + dn);
+		if (configuration.getBindAs() == BindAs.system)
+		{
+			LDAPConnectionPool pool = acquireSystemPool(configuration);
+			try
+			{
+				String dn = establishUserDN(user, configuration, pool);
+				log.info("Established user's DN is: " + dn);
+				return retrieveUserData(pool, user, dn, configuration);
+			} finally
+			{
+				poolRegistry.release(pool);
+			}
+		}
 		
+		LDAPConnection connection = createConnection(configuration);
+		try
+		{
+			if (configuration.getSearchForUserSpec() != null)
+				bindAsSystem(connection, configuration);
+			String dn = establishUserDN(user, configuration, connection);
+			log.info("Established user's DN is: " + dn);
+			return retrieveUserData(connection, user, dn, configuration);
+		} finally
+		{
+			connection.close();
+		}
+	}
+	
+	private RemotelyAuthenticatedInput retrieveUserData(LDAPInterface connection, String user, String dn,
+			LdapClientConfiguration configuration) throws LDAPException, LdapAuthenticationException
+	{
 		if (configuration.isBindOnly())
 		{
 			RemotelyAuthenticatedInput ret = new RemotelyAuthenticatedInput(idpName);
@@ -160,9 +199,6 @@ public class LdapClient
 			return ret;
 		}
 		
-		if (configuration.getBindAs() == BindAs.system)
-			bindAsSystem(connection, configuration);
-		
 		SearchResultEntry entry = findBaseEntry(configuration, dn, connection);
 		
 		RemotelyAuthenticatedInput ret = assembleBaseResult(entry);
@@ -170,15 +206,13 @@ public class LdapClient
 		
 		performAdditionalQueries(connection, configuration, user, ret);
 		ret.setRawAttributes(ret.getAttributes());
-		
-		connection.close();
 		return ret;
 	}
 	
-	
 	/**
 	 * Returns DN of the user. Depending on configuration the user's DN can be simply formed from a 
-	 * configured template or can be discovered with a custom search run as admin user. 
+	 * configured template or can be discovered with a custom search run as admin user. The connection
+	 * must be already bound as admin user in the latter case.
 	 * @param username
 	 * @param configuration
 	 * @param connection
@@ -187,13 +221,12 @@ public class LdapClient
 	 * @throws LdapAuthenticationException
 	 */
 	private String establishUserDN(String username, LdapClientConfiguration configuration, 
-			LDAPConnection connection) throws LDAPException, LdapAuthenticationException
+			LDAPInterface connection) throws LDAPException, LdapAuthenticationException
 	{
 		SearchSpecification searchForUser = configuration.getSearchForUserSpec(); 
 		if (searchForUser == null)
 			return configuration.getBindDN(username);
 
-		bindAsSystem(connection, configuration);
 		int timeLimit = configuration.getSearchTimeLimit();
 		int sizeLimit = configuration.getResultEntriesLimit();
 		DereferencePolicy derefPolicy = configuration.getDereferencePolicy();
@@ -224,38 +257,13 @@ public class LdapClient
 	private LDAPConnection createConnection(LdapClientConfiguration configuration) 
 			throws KeyManagementException, NoSuchAlgorithmException, LDAPException
 	{
-		LDAPConnectionOptions connectionOptions = new LDAPConnectionOptions();
-		connectionOptions.setConnectTimeoutMillis(configuration.getSocketTimeout());
-		connectionOptions.setFollowReferrals(configuration.isFollowReferral());
-		connectionOptions.setReferralHopLimit(configuration.getFollowReferrals());
-		connectionOptions.setResponseTimeoutMillis(configuration.getSocketReadTimeout());
-		
-		FailoverServerSet failoverSet;
-		if (configuration.getConnectionMode() == ConnectionMode.SSL)
-		{
-			X509CertChainValidator validator = configuration.getConnectionValidator();
-			ServerHostnameCheckingMode certificateCheckingMode = configuration.isTrustAllCerts() ? 
-					ServerHostnameCheckingMode.NONE : ServerHostnameCheckingMode.FAIL;
-			SSLContext ctx = SSLContextCreator.createSSLContext(null, validator, 
-					"TLS", "LDAP client", log, certificateCheckingMode);
-			failoverSet = new FailoverServerSet(configuration.getServersAddresses(), 
-					configuration.getPorts(), ctx.getSocketFactory(), connectionOptions);
-		} else
-		{
-			failoverSet = new FailoverServerSet(configuration.getServersAddresses(), 
-				configuration.getPorts(), connectionOptions);
-		}
-		
-		LDAPConnection connection = failoverSet.getConnection();
+		LDAPConnection connection = connectionFactory.createServerSet(configuration).getConnection();
 		
 		log.debug("Established connection to LDAP server");
 		if (configuration.getConnectionMode() == ConnectionMode.startTLS)
 		{
-			X509CertChainValidator validator = configuration.getConnectionValidator();
-			SSLContext ctx = SSLContextCreator.createSSLContext(null, validator, 
-					"TLSv1.2", "LDAP client", log, ServerHostnameCheckingMode.FAIL);
 			ExtendedResult extendedResult = connection.processExtendedOperation(
-					new StartTLSExtendedRequest(ctx));
+					new StartTLSExtendedRequest(createStartTLSContext(configuration)));
 
 			if (extendedResult.getResultCode() != ResultCode.SUCCESS)
 			{
@@ -268,6 +276,36 @@ public class LdapClient
 		}
 		return connection;
 	}
+	
+	/**
+	 * @return a pool of connections bound as the system user, shared with other clients using the same 
+	 * connection settings. It must be released after use.
+	 */
+	private LDAPConnectionPool acquireSystemPool(LdapClientConfiguration configuration) 
+			throws LdapAuthenticationException, LDAPException, KeyManagementException, 
+			NoSuchAlgorithmException
+	{
+		try
+		{
+			return poolRegistry.acquire(configuration, connectionFactory);
+		} catch (LDAPException e)
+		{
+			if (ResultCode.INVALID_CREDENTIALS.equals(e.getResultCode()))
+				throw new LdapAuthenticationException("Wrong username or credentials of the "
+						+ "system LDAP client "
+						+ "(system, not the ones provided by the user)", e);
+			else
+				throw e;
+		}
+	}
+
+	private static SSLContext createStartTLSContext(LdapClientConfiguration configuration) 
+			throws KeyManagementException, NoSuchAlgorithmException
+	{
+		X509CertChainValidator validator = configuration.getConnectionValidator();
+		return SSLContextCreator.createSSLContext(null, validator, 
+				"TLSv1.2", "LDAP client", log, ServerHostnameCheckingMode.FAIL);
+	}
 
 	private void bindAsUser(LDAPConnection connection, String dn, String password, 
 			LdapClientConfiguration configuration) throws LdapAuthenticationException, LDAPException
@@ -277,14 +315,35 @@ public class LdapClient
 			connection.bind(dn, password);
 		} catch (LDAPException e)
 		{
-			if (ResultCode.INVALID_CREDENTIALS.equals(e.getResultCode()))
-			{
-				log.debug("LDAP bind as user " + dn + " was not successful - invalid password");
-				throw new LdapAuthenticationException("Wrong username or credentials", e);
-			} else throw e;
+			handleUserBindError(dn, e);
+		}
+		log.info("LDAP bind as user " + dn + " was successful");
+	}
+
+	/**
+	 * Checks user's password with one of pooled connections, which is bound back as the system user afterwards.
+	 */
+	private void checkUserPassword(LDAPConnectionPool pool, String dn, String password) 
+			throws LdapAuthenticationException, LDAPException
+	{
+		try
+		{
+			pool.bindAndRevertAuthentication(dn, password);
+		} catch (LDAPException e)
+		{
+			handleUserBindError(dn, e);
 		}
 		log.info("LDAP bind as user " + dn + " was successful");
 	}
+	
+	private void handleUserBindError(String dn, LDAPException e) throws LdapAuthenticationException, LDAPException
+	{
+		if (ResultCode.INVALID_CREDENTIALS.equals(e.getResultCode()))
+		{
+			log.debug("LDAP bind as user " + dn + " was not successful - invalid password");
+			throw new LdapAuthenticationException("Wrong username or credentials", e);
+		} else throw e;
+	}
 
 	private void bindAsSystem(LDAPConnection connection, LdapClientConfiguration configuration) 
 			throws LdapAuthenticationException, LDAPException
@@ -307,7 +366,7 @@ public class LdapClient
 	}
 
 	private SearchResultEntry findBaseEntry(LdapClientConfiguration configuration, String dn,
-			LDAPConnection connection) throws LdapAuthenticationException, LDAPException
+			LDAPInterface connection) throws LdapAuthenticationException, LDAPException
 	{
 		String[] queriedAttributes = configuration.getRetrievalLdapAttributes().stream().toArray(String[]::new);
 		SearchScope searchScope = configuration.getSearchScope();
@@ -339,7 +398,7 @@ public class LdapClient
 		return ret;
 	}
 	
-	private void findGroupsMembership(LDAPConnection connection, SearchResultEntry userEntry,
+	private void findGroupsMembership(LDAPInterface connection, SearchResultEntry userEntry,
 			LdapClientConfiguration configuration, Map<String, RemoteGroupMembership> ret) 
 					throws LDAPException
 	{
@@ -358,7 +417,7 @@ public class LdapClient
 	 * @param configuration
 	 * @throws LDAPException 
 	 */
-	private void searchGroupsForMember(LDAPConnection connection, Map<String, RemoteGroupMembership> ret,
+	private void searchGroupsForMember(LDAPInterface connection, Map<String, RemoteGroupMembership> ret,
 			SearchResultEntry userEntry, LdapClientConfiguration configuration) throws LDAPException
 	{
 		String base = configuration.getGroupsBaseName();
@@ -416,7 +475,7 @@ public class LdapClient
 	}	
 
 	
-	private void performAdditionalQueries(LDAPConnection connection, LdapClientConfiguration configuration, 
+	private void performAdditionalQueries(LDAPInterface connection, LdapClientConfiguration configuration, 
 			String user, RemotelyAuthenticatedInput principalData) throws LDAPException
 	{
 		int timeLimit = configuration.getSearchTimeLimit();
@@ -432,7 +491,7 @@ public class LdapClient
 		}
 	}
 	
-	private SearchResult performSearch(LDAPConnection connection, SearchSpecification searchSpec,
+	private SearchResult performSearch(LDAPInterface connection, SearchSpecification searchSpec,
 			String username, int timeLimit, int sizeLimit, DereferencePolicy derefPolicy) throws LDAPException
 	{
 		String[] queriedAttributes = searchSpec.getSplitedAttributes();
@@ -468,7 +527,44 @@ public class LdapClient
 			principalData.addAttribute(new RemoteAttribute(e.getKey(), e.getValue().toArray()));
 		}
 	}
-}
-
 
+	/**
+	 * Creates connections to the configured servers, used both for pooled and for non pooled connections.
+	 */
+	private static class ServerConnectionFactory implements ConnectionFactory
+	{
+		@Override
+		public ServerSet createServerSet(LdapClientConfiguration configuration) 
+				throws KeyManagementException, NoSuchAlgorithmException
+		{
+			LDAPConnectionOptions connectionOptions = new LDAPConnectionOptions();
+			connectionOptions.setConnectTimeoutMillis(configuration.getSocketTimeout());
+			connectionOptions.setFollowReferrals(configuration.isFollowReferral());
+			connectionOptions.setReferralHopLimit(configuration.getFollowReferrals());
+			connectionOptions.setResponseTimeoutMillis(configuration.getSocketReadTimeout());
+			
+			if (configuration.getConnectionMode() == ConnectionMode.SSL)
+			{
+				X509CertChainValidator validator = configuration.getConnectionValidator();
+				ServerHostnameCheckingMode certificateCheckingMode = configuration.isTrustAllCerts() ? 
+						ServerHostnameCheckingMode.NONE : ServerHostnameCheckingMode.FAIL;
+				SSLContext ctx = SSLContextCreator.createSSLContext(null, validator, 
+						"TLS", "LDAP client", log, certificateCheckingMode);
+				return new FailoverServerSet(configuration.getServersAddresses(), 
+						configuration.getPorts(), ctx.getSocketFactory(), connectionOptions);
+			} else
+			{
+				return new FailoverServerSet(configuration.getServersAddresses(), 
+					configuration.getPorts(), connectionOptions);
+			}
+		}
 
+		@Override
+		public PostConnectProcessor createPostConnectProcessor(LdapClientConfiguration configuration)
+				throws KeyManagementException, NoSuchAlgorithmException
+		{
+			return configuration.getConnectionMode() == ConnectionMode.startTLS ? 
+					new StartTLSPostConnectProcessor(createStartTLSContext(configuration)) : null;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.ldap.client;
+
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+
+import com.unboundid.ldap.sdk.GetEntryLDAPConnectionPoolHealthCheck;
+import com.unboundid.ldap.sdk.LDAPConnectionPool;
+import com.unboundid.ldap.sdk.LDAPConnectionPoolStatistics;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.PostConnectProcessor;
+import com.unboundid.ldap.sdk.ServerSet;
+import com.unboundid.ldap.sdk.SimpleBindRequest;
+
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.ldap.client.config.LdapClientConfiguration;
+import pl.edu.icm.unity.ldap.client.config.LdapProperties;
+
+/**
+ * Maintains pools of LDAP connections bound as the system user. A pool is shared by all clients with the same
+ * connection settings, what also covers LDAP verificators and importers recreated after reconfiguration.
+ * As those have no explicit life cycle, pools which were not used for a longer time are closed
+ * in background.
+ * <p>
+ * Pooled connections are verified in background by reading the root DSE, and are recycled after
+ * {@link #MAX_CONNECTION_AGE_MS}.
+ */
+public class LdapConnectionPoolRegistry
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_LDAP, LdapConnectionPoolRegistry.class);
+	static final long UNUSED_POOL_CLOSE_AFTER_MS = TimeUnit.MINUTES.toMillis(10);
+	static final long MAX_CONNECTION_AGE_MS = TimeUnit.MINUTES.toMillis(5);
+	private static final long HEALTH_CHECK_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+	private static final LdapConnectionPoolRegistry INSTANCE = new LdapConnectionPoolRegistry();
+
+	private final Map<List<Object>, PoolEntry> pools = new HashMap<>();
+	private ScheduledExecutorService cleaner;
+
+	public static LdapConnectionPoolRegistry getInstance()
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * @return a pool of connections bound as the system user, created if needed. The pool must be
+	 * returned with {@link #release(LDAPConnectionPool)} after use.
+	 */
+	synchronized LDAPConnectionPool acquire(LdapClientConfiguration configuration,
+			ConnectionFactory connectionFactory) 
+					throws LDAPException, KeyManagementException, NoSuchAlgorithmException
+	{
+		List<Object> key = getPoolKey(configuration);
+		PoolEntry entry = pools.get(key);
+		if (entry == null)
+		{
+			entry = new PoolEntry(createPool(configuration, connectionFactory));
+			pools.put(key, entry);
+			startCleanerIfNeeded();
+		}
+		entry.inUse++;
+		entry.lastUsed = System.currentTimeMillis();
+		return entry.pool;
+	}
+
+	synchronized void release(LDAPConnectionPool pool)
+	{
+		for (PoolEntry entry: pools.values())
+		{
+			if (entry.pool == pool)
+			{
+				entry.inUse--;
+				entry.lastUsed = System.currentTimeMillis();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return statistics of all currently open pools, indexed with pool names.
+	 */
+	public synchronized Map<String, LDAPConnectionPoolStatistics> getStatistics()
+	{
+		Map<String, LDAPConnectionPoolStatistics> ret = new HashMap<>();
+		for (PoolEntry entry: pools.values())
+			ret.put(entry.pool.getConnectionPoolName(), entry.pool.getConnectionPoolStatistics());
+		return ret;
+	}
+
+	/**
+	 * Closes all pools, also the ones in use. Pools are recreated on subsequent use.
+	 */
+	public synchronized void closeAll()
+	{
+		for (PoolEntry entry: pools.values())
+			entry.pool.close();
+		pools.clear();
+	}
+
+	synchronized void closeUnused(long now)
+	{
+		Iterator<PoolEntry> iterator = pools.values().iterator();
+		while (iterator.hasNext())
+		{
+			PoolEntry entry = iterator.next();
+			if (entry.inUse == 0 && now - entry.lastUsed > UNUSED_POOL_CLOSE_AFTER_MS)
+			{
+				log.debug("Closing unused LDAP connection pool {}, statistics: {}",
+						entry.pool.getConnectionPoolName(), entry.pool.getConnectionPoolStatistics());
+				entry.pool.close();
+				iterator.remove();
+			}
+		}
+	}
+
+	private LDAPConnectionPool createPool(LdapClientConfiguration configuration,
+			ConnectionFactory connectionFactory) 
+					throws LDAPException, KeyManagementException, NoSuchAlgorithmException
+	{
+		SimpleBindRequest systemBind = new SimpleBindRequest(configuration.getSystemDN(),
+				configuration.getSystemPassword());
+		LDAPConnectionPool pool = new LDAPConnectionPool(connectionFactory.createServerSet(configuration),
+				systemBind, 1, configuration.getConnectionPoolSize(),
+				connectionFactory.createPostConnectProcessor(configuration));
+		pool.setConnectionPoolName(Arrays.toString(configuration.getServersAddresses()) + " as "
+				+ configuration.getSystemDN());
+		pool.setHealthCheck(new GetEntryLDAPConnectionPoolHealthCheck("", configuration.getSocketReadTimeout(),
+				false, false, false, false, true, true));
+		pool.setHealthCheckIntervalMillis(HEALTH_CHECK_INTERVAL_MS);
+		pool.setMaxConnectionAgeMillis(MAX_CONNECTION_AGE_MS);
+		pool.setRetryFailedOperationsDueToInvalidConnections(true);
+		pool.setCreateIfNecessary(false);
+		pool.setMaxWaitTimeMillis(configuration.getSocketTimeout() > 0 ? 
+				configuration.getSocketTimeout() : LdapProperties.DEFAULT_SOCKET_TIMEOUT);
+		log.info("Created LDAP connection pool {} with up to {} connections", pool.getConnectionPoolName(),
+				configuration.getConnectionPoolSize());
+		return pool;
+	}
+
+	private List<Object> getPoolKey(LdapClientConfiguration configuration)
+	{
+		return Arrays.asList(Arrays.asList(configuration.getServersAddresses()),
+				Arrays.toString(configuration.getPorts()),
+				configuration.getConnectionMode(),
+				configuration.isTrustAllCerts(),
+				configuration.getClientTrustStore(),
+				configuration.getSocketTimeout(),
+				configuration.getSocketReadTimeout(),
+				configuration.isFollowReferral(),
+				configuration.getFollowReferrals(),
+				configuration.getSystemDN(),
+				configuration.getSystemPassword(),
+				configuration.getConnectionPoolSize());
+	}
+
+	private void startCleanerIfNeeded()
+	{
+		if (cleaner != null)
+			return;
+		cleaner = Executors.newSingleThreadScheduledExecutor(runnable ->
+		{
+			Thread thread = new Thread(runnable, "LDAP connection pools cleaner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		cleaner.scheduleWithFixedDelay(this::maintainPools, 1, 1, TimeUnit.MINUTES);
+	}
+
+	private void maintainPools()
+	{
+		closeUnused(System.currentTimeMillis());
+		if (log.isDebugEnabled())
+			getStatistics().forEach((name, statistics) -> 
+				log.debug("LDAP connection pool {} statistics: {}", name, statistics));
+	}
+
+	private static class PoolEntry
+	{
+		private final LDAPConnectionPool pool;
+		private int inUse;
+		private long lastUsed;
+
+		PoolEntry(LDAPConnectionPool pool)
+		{
+			this.pool = pool;
+		}
+	}
+
+	/**
+	 * Provides connection setup, shared with the code creating non pooled connections.
+	 */
+	interface ConnectionFactory
+	{
+		ServerSet createServerSet(LdapClientConfiguration configuration) 
+				throws KeyManagementException, NoSuchAlgorithmException;
+		PostConnectProcessor createPostConnectProcessor(LdapClientConfiguration configuration) 
+				throws KeyManagementException, NoSuchAlgorithmException;
+	}
+}
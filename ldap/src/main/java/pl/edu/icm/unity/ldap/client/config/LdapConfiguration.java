@@ -68,6 +68,7 @@ public class LdapConfiguration
 	private int followReferrals;
 	private int searchTimeLimit;
 	private int socketTimeout;
+	private int connectionPoolSize;
 	private boolean trustAllCerts;
 	private String clientTrustStore;
 	private int resultEntriesLimit;
@@ -107,6 +108,7 @@ public class LdapConfiguration
 		setFollowReferrals(LdapProperties.DEFAULT_FOLLOW_REFERRALS);
 		setSearchTimeLimit(LdapProperties.DEFAULT_SEARCH_TIME_LIMIT);
 		setSocketTimeout(LdapProperties.DEFAULT_SOCKET_TIMEOUT);
+		setConnectionPoolSize(LdapProperties.DEFAULT_CONNECTION_POOL_SIZE);
 		setLdapSearchScope(SearchScope.base);
 		setDelegateGroupFiltering(LdapProperties.DEFAULT_GROUPS_SEARCH_IN_LDAP);
 		setResultEntriesLimit(LdapProperties.DEFAULT_RESULT_ENTRIES_LIMIT);
@@ -167,6 +169,10 @@ public class LdapConfiguration
 		{
 			setSocketTimeout(ldapProp.getIntValue(LdapProperties.SOCKET_TIMEOUT));
 		}
+		if (ldapProp.isSet(LdapProperties.CONNECTION_POOL_SIZE))
+		{
+			setConnectionPoolSize(ldapProp.getIntValue(LdapProperties.CONNECTION_POOL_SIZE));
+		}
 		if (ldapProp.isSet(LdapProperties.RESULT_ENTRIES_LIMIT))
 		{
 			setResultEntriesLimit(ldapProp.getIntValue(LdapProperties.RESULT_ENTRIES_LIMIT));
@@ -338,6 +344,9 @@ public class LdapConfiguration
 
 		raw.put(LdapProperties.PREFIX + LdapProperties.SOCKET_TIMEOUT, String.valueOf(getSocketTimeout()));
 
+		raw.put(LdapProperties.PREFIX + LdapProperties.CONNECTION_POOL_SIZE,
+				String.valueOf(getConnectionPoolSize()));
+
 		raw.put(LdapProperties.PREFIX + LdapProperties.TLS_TRUST_ALL, String.valueOf(isTrustAllCerts()));
 		raw.put(LdapProperties.PREFIX + LdapProperties.RESULT_ENTRIES_LIMIT,
 				String.valueOf(getResultEntriesLimit()));
@@ -760,6 +769,16 @@ public class LdapConfiguration
 		this.socketTimeout = socketTimeout;
 	}
 
+	public int getConnectionPoolSize()
+	{
+		return connectionPoolSize;
+	}
+
+	public void setConnectionPoolSize(int connectionPoolSize)
+	{
+		this.connectionPoolSize = connectionPoolSize;
+	}
+
 	public boolean isTrustAllCerts()
 	{
 		return trustAllCerts;
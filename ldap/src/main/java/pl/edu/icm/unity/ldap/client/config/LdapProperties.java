@@ -57,6 +57,7 @@ public class LdapProperties extends UnityPropertiesHelper
 	public static final String PORTS = "ports.";
 	public static final String SOCKET_TIMEOUT = "socketTimeout";
 	public static final String FOLLOW_REFERRALS = "referralHopLimit";
+	public static final String CONNECTION_POOL_SIZE = "connectionPoolSize";
 	
 	public static final String CONNECTION_MODE = "connectionMode";
 	public static final String TLS_TRUST_ALL = "trustAllServerCertificates";
@@ -102,6 +103,7 @@ public class LdapProperties extends UnityPropertiesHelper
 	public static final int DEFAULT_RESULT_ENTRIES_LIMIT = 1000;
 	public static final int DEFAULT_FOLLOW_REFERRALS = 2;
 	public static final int DEFAULT_SOCKET_TIMEOUT = 30000;
+	public static final int DEFAULT_CONNECTION_POOL_SIZE = 10;
 	public static final boolean DEFAULT_GROUPS_SEARCH_IN_LDAP = true;
 	public static final ConnectionMode DEFAULT_CONNECTION_MODE = ConnectionMode.plain;
 	
@@ -126,6 +128,9 @@ public class LdapProperties extends UnityPropertiesHelper
 				"If false - then the truststore must be configured."));
 		META.put(SOCKET_TIMEOUT, new PropertyMD(String.valueOf(DEFAULT_SOCKET_TIMEOUT)).setNonNegative().setCategory(main).setDescription("Number of milliseconds the " +
 				"network operations (connect and read) are allowed to lasts. Set to 0 to disable the limit."));
+		META.put(CONNECTION_POOL_SIZE, new PropertyMD(String.valueOf(DEFAULT_CONNECTION_POOL_SIZE)).setPositive().setCategory(main).setDescription("Used only when " +
+				BIND_AS + " is set to " + BindAs.system + ". Maximum number of connections, bound as the system user, " +
+				"which are kept open and reused by subsequent authentications."));
 		META.put(FOLLOW_REFERRALS, new PropertyMD(String.valueOf(DEFAULT_FOLLOW_REFERRALS)).setNonNegative().setCategory(main).setDescription("Number of referrals to follow. " +
 				"Set to 0 to disable following referrals."));
 		
@@ -17,6 +17,7 @@ import static pl.edu.icm.unity.ldap.client.config.LdapProperties.ATTRIBUTES;
 import static pl.edu.icm.unity.ldap.client.config.LdapProperties.BIND_AS;
 import static pl.edu.icm.unity.ldap.client.config.LdapProperties.BIND_ONLY;
 import static pl.edu.icm.unity.ldap.client.config.LdapProperties.CONNECTION_MODE;
+import static pl.edu.icm.unity.ldap.client.config.LdapProperties.CONNECTION_POOL_SIZE;
 import static pl.edu.icm.unity.ldap.client.config.LdapProperties.GROUPS_BASE_NAME;
 import static pl.edu.icm.unity.ldap.client.config.LdapProperties.GROUP_DEFINITION_MATCHBY_MEMBER_ATTR;
 import static pl.edu.icm.unity.ldap.client.config.LdapProperties.GROUP_DEFINITION_MEMBER_ATTR;
@@ -41,12 +42,14 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Pattern;
 
+import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPConnectionPoolStatistics;
 import com.unboundid.ldap.sdk.LDAPException;
 
 import eu.emi.security.authn.x509.impl.KeystoreCredential;
@@ -57,6 +60,7 @@ import pl.edu.icm.unity.engine.api.authn.remote.RemoteGroupMembership;
 import pl.edu.icm.unity.engine.api.authn.remote.RemotelyAuthenticatedInput;
 import pl.edu.icm.unity.ldap.client.LdapAuthenticationException;
 import pl.edu.icm.unity.ldap.client.LdapClient;
+import pl.edu.icm.unity.ldap.client.LdapConnectionPoolRegistry;
 import pl.edu.icm.unity.ldap.client.LdapUtils;
 import pl.edu.icm.unity.ldap.client.config.LdapClientConfiguration;
 import pl.edu.icm.unity.ldap.client.config.LdapProperties;
@@ -93,6 +97,12 @@ public class LdapTest
 		ds.shutDown(true);
 	}
 
+	@After
+	public void closeConnectionPools()
+	{
+		LdapConnectionPoolRegistry.getInstance().closeAll();
+	}
+
 	
 	@Test
 	public void shouldNotBindOnlyAsUserWithWrongPassword()
@@ -554,6 +564,58 @@ public class LdapTest
 	}
 	
 	
+	@Test
+	public void shouldReuseSystemConnectionsFromPool() throws Exception
+	{
+		LdapClientConfiguration clientConfig = getPooledSystemConfiguration();
+		LdapClient client = new LdapClient("test");
+		
+		for (int i = 0; i < 5; i++)
+		{
+			RemotelyAuthenticatedInput ret = client.bindAndSearch("user1", "user1", clientConfig);
+			assertTrue(containsAttribute(ret.getAttributes(), "sn", "User1 surname"));
+		}
+
+		LDAPConnectionPoolStatistics statistics = LdapConnectionPoolRegistry.getInstance().getStatistics()
+				.get("[" + hostname + "] as cn=user2,ou=users,dc=unity-example,dc=com");
+		assertThat(statistics.getNumSuccessfulConnectionAttempts(), is(1L));
+		assertThat(statistics.getNumSuccessfulCheckouts() >= 10, is(true));
+	}
+
+	@Test
+	public void shouldNotAuthenticateWithWrongPasswordUsingPooledConnection() throws Exception
+	{
+		LdapClientConfiguration clientConfig = getPooledSystemConfiguration();
+		LdapClient client = new LdapClient("test");
+
+		try
+		{
+			client.bindAndSearch("user1", "wrong", clientConfig);
+			fail("authenticated with a wrong password");
+		} catch (LdapAuthenticationException e)
+		{
+			//ok, expected
+		}
+		
+		RemotelyAuthenticatedInput ret = client.bindAndSearch("user1", "user1", clientConfig);
+		assertTrue(containsAttribute(ret.getAttributes(), "sn", "User1 surname"));
+	}
+
+	private LdapClientConfiguration getPooledSystemConfiguration()
+	{
+		Properties p = new Properties();
+		p.setProperty(PREFIX+SERVERS+"1", hostname);
+		p.setProperty(PREFIX+PORTS+"1", port);
+		p.setProperty(PREFIX+USER_DN_TEMPLATE, "cn={USERNAME},ou=users,dc=unity-example,dc=com");
+		p.setProperty(PREFIX+ATTRIBUTES+"1", "sn");
+		p.setProperty(PREFIX+BIND_AS, "system");
+		p.setProperty(PREFIX+SYSTEM_DN, "cn=user2,ou=users,dc=unity-example,dc=com");
+		p.setProperty(PREFIX+SYSTEM_PASSWORD, "user1");
+		p.setProperty(PREFIX+CONNECTION_POOL_SIZE, "2");
+		p.setProperty(PREFIX+TRANSLATION_PROFILE, "dummy");
+		return new LdapClientConfiguration(new LdapProperties(p), pkiManagement);
+	}
+	
 	@Test
 	public void shouldReturnAttributesWithUserTemplateAndAnonymousConnect() throws Exception
 	{
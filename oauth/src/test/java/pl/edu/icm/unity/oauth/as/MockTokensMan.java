@@ -34,6 +34,15 @@ public class MockTokensMan implements TokensManagement
 		tokens.put(type+value, t);
 	}
 
+	@Override
+	public void addToken(String type, String value, EntityParam owner, byte[] contents,
+			Date created, Date expires, Date inactivityDeadline) throws 
+			IllegalIdentityValueException, IllegalTypeException
+	{
+		addToken(type, value, owner, contents, created, expires);
+		getTokenById(type, value).setInactivityDeadline(inactivityDeadline);
+	}
+
 	@Override
 	public void removeToken(String type, String value) 
 	{
@@ -49,6 +58,14 @@ public class MockTokensMan implements TokensManagement
 		tokens.put(type+value, t);
 	}
 
+	@Override
+	public void updateToken(String type, String value, Date expires, Date inactivityDeadline, 
+			byte[] contents)
+	{
+		updateToken(type, value, expires, contents);
+		getTokenById(type, value).setInactivityDeadline(inactivityDeadline);
+	}
+
 	@Override
 	public Token getTokenById(String type, String value) 
 	{
@@ -87,4 +104,10 @@ public class MockTokensMan implements TokensManagement
 	{
 		return null;
 	}
+
+	@Override
+	public List<Token> getInactiveTokens(String type, int limit)
+	{
+		throw new RuntimeException("unimplemented");
+	}
 }
\ No newline at end of file
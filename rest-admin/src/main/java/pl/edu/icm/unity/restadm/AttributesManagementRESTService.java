@@ -60,7 +60,7 @@ class AttributesManagementRESTService
 		}
 
 		return attributes.stream()
-				.map(ExternalizedAttribute::new)
+				.map(this::createWithStoredValuesInlined)
 				.collect(Collectors.toList());
 	}
 
@@ -76,14 +76,21 @@ class AttributesManagementRESTService
 			entity, effective, groupsPathsPatterns, null, true);
 
 		return attributes.stream()
-			.map(ExternalizedAttribute::new)
+			.map(this::createWithStoredValuesInlined)
 			.collect(groupingBy(Attribute::getGroupPath, toList()));
 	}
 
 	private ExternalizedAttribute createWithSimpleValues(AttributeExt attribute)
 	{
 		List<String> simpleValues = valueConverter.internalValuesToExternal(attribute.getName(), attribute.getValues());
-		return new ExternalizedAttribute(attribute, simpleValues);
+		return new ExternalizedAttribute(createWithStoredValuesInlined(attribute), simpleValues);
+	}
+
+	private ExternalizedAttribute createWithStoredValuesInlined(AttributeExt attribute)
+	{
+		ExternalizedAttribute ret = new ExternalizedAttribute(attribute);
+		ret.setValues(valueConverter.storedValuesToInternal(attribute.getName(), attribute.getValues()));
+		return ret;
 	}
 
 	Collection<AttributeExt> getAttributes(EntityParam entityParam, String group, String attribute)
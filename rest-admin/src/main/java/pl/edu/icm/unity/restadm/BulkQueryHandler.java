@@ -31,6 +31,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import pl.edu.icm.unity.Constants;
 import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.engine.api.AttributeValueConverter;
 import pl.edu.icm.unity.engine.api.bulk.BulkGroupQueryService;
 import pl.edu.icm.unity.engine.api.bulk.GroupMembershipData;
 import pl.edu.icm.unity.engine.api.bulk.GroupsWithMembers;
@@ -51,11 +52,13 @@ public class BulkQueryHandler implements RESTAdminHandler
 	private static final Logger log = Log.getLogger(Log.U_SERVER_REST, RESTAdmin.class);
 	private final ObjectMapper mapper = Constants.MAPPER;
 	private final BulkGroupQueryService bulkQueryService;
+	private final AttributeValueConverter valueConverter;
 
 	@Autowired
-	BulkQueryHandler(BulkGroupQueryService bulkQueryService)
+	BulkQueryHandler(BulkGroupQueryService bulkQueryService, AttributeValueConverter valueConverter)
 	{
 		this.bulkQueryService = bulkQueryService;
+		this.valueConverter = valueConverter;
 	}
 
 	@Path("/group-members/{groupPath}")
@@ -73,7 +76,7 @@ public class BulkQueryHandler implements RESTAdminHandler
 		List<GroupMember> ret = new ArrayList<>(userAttributes.size());
 		for (Long memberId: userAttributes.keySet())
 		{
-			Collection<AttributeExt> attributes = userAttributes.get(memberId).values(); 
+			Collection<AttributeExt> attributes = withStoredValuesInlined(userAttributes.get(memberId).values());
 			Entity entity = entitiesData.get(memberId);
 			ret.add(new GroupMember(group, entity, attributes));
 		}
@@ -106,10 +109,23 @@ public class BulkQueryHandler implements RESTAdminHandler
 		for (Entry<String, List<pl.edu.icm.unity.engine.api.bulk.EntityGroupAttributes>> groupData: members.membersByGroup.entrySet())
 		{
 			List<EntityGroupAttributes> perGroupAttributes = groupData.getValue().stream()
-					.map(src -> new EntityGroupAttributes(src.entityId, src.attribtues.values()))
+					.map(src -> new EntityGroupAttributes(src.entityId, 
+							withStoredValuesInlined(src.attribtues.values())))
 					.collect(Collectors.toList());
 			attributesByGroup.put(groupData.getKey(), perGroupAttributes);
 		}
 		return mapper.writeValueAsString(new MultiGroupMembers(members.entities.values(), attributesByGroup));
 	}
+
+	private Collection<AttributeExt> withStoredValuesInlined(Collection<AttributeExt> attributes)
+	{
+		List<AttributeExt> ret = new ArrayList<>(attributes.size());
+		for (AttributeExt attribute: attributes)
+		{
+			AttributeExt inlined = new AttributeExt(attribute);
+			inlined.setValues(valueConverter.storedValuesToInternal(attribute.getName(), attribute.getValues()));
+			ret.add(inlined);
+		}
+		return ret;
+	}
 }
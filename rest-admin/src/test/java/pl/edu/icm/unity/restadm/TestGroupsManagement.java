@@ -9,6 +9,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import java.awt.image.BufferedImage;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -30,14 +32,21 @@ import com.google.common.collect.Sets;
 
 import pl.edu.icm.unity.Constants;
 import pl.edu.icm.unity.JsonUtil;
+import pl.edu.icm.unity.attr.ImageType;
+import pl.edu.icm.unity.attr.UnityImage;
+import pl.edu.icm.unity.stdext.attr.ImageAttribute;
+import pl.edu.icm.unity.stdext.attr.ImageAttributeSyntax;
 import pl.edu.icm.unity.stdext.identity.UsernameIdentity;
+import pl.edu.icm.unity.types.basic.AttributeExt;
 import pl.edu.icm.unity.types.basic.AttributeStatement;
+import pl.edu.icm.unity.types.basic.AttributeType;
 import pl.edu.icm.unity.types.basic.AttributeStatement.ConflictResolution;
 import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.basic.Group;
 import pl.edu.icm.unity.types.basic.GroupContents;
 import pl.edu.icm.unity.types.basic.GroupMember;
 import pl.edu.icm.unity.types.basic.IdentityTaV;
+import pl.edu.icm.unity.types.basic.MultiGroupMembers;
 
 /**
  * Groups management test
@@ -200,4 +209,58 @@ public class TestGroupsManagement extends RESTAdminTestBase
 				new TypeReference<List<GroupMember>>(){});
 		assertThat(groupContent.size(), is(2));
 	}
+	
+	@Test
+	public void shouldReturnImageContentsOfMembersWithBulkQuery() throws Exception
+	{
+		// given
+		UnityImage image = setupMemberWithImage();
+		HttpGet get = new HttpGet("/restadm/v1/group-members/%2F");
+		
+		// when
+		HttpResponse getResponse = client.execute(host, get, localcontext);
+		
+		// then
+		String contents = EntityUtils.toString(getResponse.getEntity());
+		assertEquals(contents, Status.OK.getStatusCode(), getResponse.getStatusLine().getStatusCode());
+		List<GroupMember> groupContent = Constants.MAPPER.readValue(contents, 
+				new TypeReference<List<GroupMember>>(){});
+		AttributeExt photo = groupContent.stream()
+				.flatMap(member -> member.getAttributes().stream())
+				.filter(attribute -> attribute.getName().equals("photo"))
+				.findAny().get();
+		assertThat(photo.getValues(), equalTo(Lists.newArrayList(image.serialize())));
+	}
+
+	@Test
+	public void shouldReturnImageContentsOfMembersWithMultiGroupBulkQuery() throws Exception
+	{
+		// given
+		UnityImage image = setupMemberWithImage();
+		HttpPost post = new HttpPost("/restadm/v1/group-members-multi/%2F");
+		post.setEntity(new StringEntity("[\"/\"]", ContentType.APPLICATION_JSON));
+		
+		// when
+		HttpResponse postResponse = client.execute(host, post, localcontext);
+		
+		// then
+		String contents = EntityUtils.toString(postResponse.getEntity());
+		assertEquals(contents, Status.OK.getStatusCode(), postResponse.getStatusLine().getStatusCode());
+		MultiGroupMembers groupContent = Constants.MAPPER.readValue(contents, MultiGroupMembers.class);
+		AttributeExt photo = groupContent.members.get("/").stream()
+				.map(member -> member.attributes)
+				.flatMap(Collection::stream)
+				.filter(attribute -> attribute.getName().equals("photo"))
+				.findAny().get();
+		assertThat(photo.getValues(), equalTo(Lists.newArrayList(image.serialize())));
+	}
+
+	private UnityImage setupMemberWithImage() throws Exception
+	{
+		aTypeMan.addAttributeType(new AttributeType("photo", ImageAttributeSyntax.ID));
+		UnityImage image = new UnityImage(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), ImageType.PNG);
+		EntityParam entityParam = new EntityParam(new IdentityTaV(UsernameIdentity.ID, DEF_USER));
+		attrsMan.setAttribute(entityParam, ImageAttribute.of("photo", "/", image));
+		return image;
+	}
 }
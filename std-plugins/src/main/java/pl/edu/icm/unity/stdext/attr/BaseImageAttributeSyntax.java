@@ -6,6 +6,8 @@ package pl.edu.icm.unity.stdext.attr;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import pl.edu.icm.unity.attr.UnityImage;
+import pl.edu.icm.unity.engine.api.attributes.AttributeContentStore;
 import pl.edu.icm.unity.engine.api.attributes.AttributeValueSyntax;
 import pl.edu.icm.unity.stdext.utils.ImageConfiguration;
 
@@ -17,6 +19,10 @@ import pl.edu.icm.unity.stdext.utils.ImageConfiguration;
  * <p>
  * Note: for performance reasons the equals is implemented to always return
  * false, so each image is always assumed to be different then another.
+ * <p>
+ * Image contents are persisted out of line, in the attribute content store, the stored value
+ * holds only a reference to the contents, which are loaded on demand. Values serialized with
+ * {@link #convertToString(Object)} or {@link #serializeSimple(Object)} always carry the contents inline.
  *
  * @author K. Benedyczak, R. Ledzinski
  */
@@ -70,6 +76,10 @@ public abstract class BaseImageAttributeSyntax<T> implements AttributeValueSynta
 	{
 		return false;
 	}
-}
-
 
+	protected void storeContentsExternally(UnityImage image, AttributeContentStore contentStore)
+	{
+		if (image != null && image.getContentId() == null)
+			image.setContentId(contentStore.store(image.getImage()));
+	}
+}
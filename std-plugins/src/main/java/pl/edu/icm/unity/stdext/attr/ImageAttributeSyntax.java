@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import pl.edu.icm.unity.attr.UnityImage;
 import pl.edu.icm.unity.engine.api.attributes.AbstractAttributeValueSyntaxFactory;
+import pl.edu.icm.unity.engine.api.attributes.AttributeContentStore;
 import pl.edu.icm.unity.exceptions.IllegalAttributeValueException;
 import pl.edu.icm.unity.exceptions.InternalException;
 import pl.edu.icm.unity.stdext.utils.ImageValidatorUtil;
@@ -54,6 +55,20 @@ public class ImageAttributeSyntax extends BaseImageAttributeSyntax<UnityImage>
 		return value.serialize();
 	}
 
+	@Override
+	public String toStorageForm(String stringRepresentation, AttributeContentStore contentStore)
+	{
+		UnityImage value = convertFromString(stringRepresentation);
+		storeContentsExternally(value, contentStore);
+		return value.serializeAsReference();
+	}
+
+	@Override
+	public String fromStorageForm(String storedValue)
+	{
+		return convertToString(convertFromString(storedValue));
+	}
+
 	@Component
 	public static class Factory extends AbstractAttributeValueSyntaxFactory<UnityImage>
 	{
@@ -19,6 +19,7 @@ import org.springframework.util.StringUtils;
 import pl.edu.icm.unity.attr.LinkableImage;
 import pl.edu.icm.unity.attr.UnityImage;
 import pl.edu.icm.unity.engine.api.attributes.AbstractAttributeValueSyntaxFactory;
+import pl.edu.icm.unity.engine.api.attributes.AttributeContentStore;
 import pl.edu.icm.unity.engine.api.attributes.PublicAttributeContent;
 import pl.edu.icm.unity.engine.api.attributes.PublicAttributeInfo;
 import pl.edu.icm.unity.engine.api.attributes.PublicAttributeSpec;
@@ -77,6 +78,22 @@ public class PublicLinkableImageSyntax extends BaseImageAttributeSyntax<Linkable
 		return value.toJsonString();
 	}
 
+	@Override
+	public String toStorageForm(String stringRepresentation, AttributeContentStore contentStore)
+	{
+		LinkableImage value = convertFromString(stringRepresentation);
+		if (value.getUnityImage() == null)
+			return stringRepresentation;
+		storeContentsExternally(value.getUnityImage(), contentStore);
+		return value.toJsonStringWithImageReference();
+	}
+
+	@Override
+	public String fromStorageForm(String storedValue)
+	{
+		return convertToString(convertFromString(storedValue));
+	}
+
 	@Override
 	public String serializeSimple(LinkableImage value)
 	{
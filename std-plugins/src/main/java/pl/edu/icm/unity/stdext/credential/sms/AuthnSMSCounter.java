@@ -5,15 +5,13 @@
 
 package pl.edu.icm.unity.stdext.credential.sms;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.Element;
-import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.PersistenceConfiguration;
-import net.sf.ehcache.config.Searchable;
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.NamedCache;
 import pl.edu.icm.unity.engine.api.authn.AuthenticationSubject;
 import pl.edu.icm.unity.engine.api.utils.CacheProvider;
 
@@ -26,48 +24,37 @@ import pl.edu.icm.unity.engine.api.utils.CacheProvider;
 public class AuthnSMSCounter
 {
 	private static final String CACHE_ID = "AuthnSMSCounter";
-	private Ehcache smsReqCache;
+	private static final CacheSettings CACHE_SETTINGS = new CacheSettings(100000, 
+			Duration.ZERO, Duration.ofHours(48));
+	private NamedCache<String, Integer> smsReqCache;
 	
 	@Autowired
 	public AuthnSMSCounter(CacheProvider cacheProvider)
 	{
-
-		CacheConfiguration cacheConfig = new CacheConfiguration(CACHE_ID, 0);
-		Searchable searchable = new Searchable();
-		searchable.values(true);
-		cacheConfig.addSearchable(searchable);
-		cacheConfig.setTimeToIdleSeconds(48 * 3600);
-		cacheConfig.setEternal(false);
-		PersistenceConfiguration persistCfg = new PersistenceConfiguration();
-		persistCfg.setStrategy("none");
-		cacheConfig.persistence(persistCfg);
-		smsReqCache = cacheProvider.getManager().addCacheIfAbsent(new Cache(cacheConfig));
+		smsReqCache = cacheProvider.getCache(CACHE_ID, CACHE_SETTINGS);
 	}
 
-	public synchronized void incValue(AuthenticationSubject username)
+	public void incValue(AuthenticationSubject username)
 	{
-		Element element = smsReqCache.get(username);
-		int value = 1;
-		if (element != null && element.getObjectValue() != null)
-		{
-			int old = Integer.parseInt(element.getObjectValue().toString());
-			value = old + 1;
-		}
-		smsReqCache.put(new Element(username, value));
+		smsReqCache.compute(getKey(username), (key, old) -> old == null ? 1 : old + 1);
 	}
 
-	public synchronized boolean reset(AuthenticationSubject username)
+	public boolean reset(AuthenticationSubject username)
+	{
+		return smsReqCache.remove(getKey(username));
+	}
+	
+	public int getValue(AuthenticationSubject username)
 	{
-		return smsReqCache.remove(username);
+		Integer value = smsReqCache.get(getKey(username));
+		return value == null ? 0 : value;
 	}
 	
-	public synchronized int getValue(AuthenticationSubject username)
+	/**
+	 * Subjects are not used as keys directly, as the cache may be shared among cluster nodes.
+	 */
+	private static String getKey(AuthenticationSubject subject)
 	{
-		Element element = smsReqCache.get(username);
-		if (element != null && element.getObjectValue() != null)
-		{
-			return Integer.parseInt(element.getObjectValue().toString());
-		}
-		return 0;
+		return subject.entityId != null ? "entity:" + subject.entityId : "identity:" + subject.identity;
 	}
 }
@@ -79,6 +79,12 @@ public class PersistentIdentity extends AbstractIdentityTypeProvider
 		return false;
 	}
 	
+	@Override
+	public boolean isExpirable()
+	{
+		return false;
+	}
+	
 	@Override
 	public String getHumanFriendlyDescription(MessageSource msg)
 	{
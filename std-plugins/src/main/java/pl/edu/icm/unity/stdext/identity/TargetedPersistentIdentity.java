@@ -87,6 +87,12 @@ public class TargetedPersistentIdentity extends AbstractIdentityTypeProvider
 		return false;
 	}
 	
+	@Override
+	public boolean isExpirable()
+	{
+		return false;
+	}
+	
 	@Override
 	public String getHumanFriendlyDescription(MessageSource msg)
 	{
@@ -4,16 +4,24 @@
  */
 package pl.edu.icm.unity.stdext.attr;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.junit.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import pl.edu.icm.unity.attr.UnityImage;
+import pl.edu.icm.unity.engine.api.attributes.AttributeContentStore;
 import pl.edu.icm.unity.exceptions.IllegalAttributeValueException;
 
 public class TestImageAttribute
@@ -63,4 +71,53 @@ public class TestImageAttribute
 		assertEquals(ias2.getConfig().getMaxHeight(), 16);
 		assertEquals(ias2.getMaxSize(), 20000);
 	}
+
+	@Test
+	public void shouldStoreSameContentsOutOfLineOnce() throws Exception
+	{
+		InMemoryContentStore contentStore = new InMemoryContentStore();
+		Function<String, byte[]> previousLoader = UnityImage.getContentLoader();
+		UnityImage.setContentLoader(contentStore::load);
+		try
+		{
+			ImageAttributeSyntax ias = new ImageAttributeSyntax();
+			UnityImage bi = new UnityImage(Paths.get("src/test/resources/img/test-image_100x100.jpg"));
+			String inline = ias.convertToString(bi);
+			
+			String stored = ias.toStorageForm(inline, contentStore);
+			String storedAgain = ias.toStorageForm(inline, contentStore);
+			
+			assertEquals(stored, storedAgain);
+			assertEquals(1, contentStore.contents.size());
+			assertFalse(stored.contains(Base64.getEncoder().encodeToString(bi.getImage())));
+			UnityImage after = ias.convertFromString(stored);
+			assertEquals(bi.getImage().length, after.getSize());
+			assertArrayEquals(bi.getImage(), after.getImage());
+			assertEquals(stored, ias.toStorageForm(stored, contentStore));
+			assertEquals(inline, ias.fromStorageForm(stored));
+			assertEquals(inline, ias.serializeSimple(ias.convertFromString(stored)));
+		} finally
+		{
+			UnityImage.setContentLoader(previousLoader);
+		}
+	}
+	
+	private static class InMemoryContentStore implements AttributeContentStore
+	{
+		private final Map<String, byte[]> contents = new HashMap<>();
+		
+		@Override
+		public String store(byte[] data)
+		{
+			String id = String.valueOf(Arrays.hashCode(data));
+			contents.put(id, data);
+			return id;
+		}
+
+		@Override
+		public byte[] load(String contentId)
+		{
+			return contents.get(contentId);
+		}
+	}
 }
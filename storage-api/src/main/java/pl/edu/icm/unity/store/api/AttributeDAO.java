@@ -35,6 +35,12 @@ public interface AttributeDAO extends BasicCRUDDAO<StoredAttribute>
 	 * @return all attributes (in any group) of members of the given group
 	 */
 	List<StoredAttribute> getAttributesOfGroupMembers(String group);
+
+	/**
+	 * @return all attributes (in any group) of members of the given group with entity ids in 
+	 * the given, inclusive range
+	 */
+	List<StoredAttribute> getAttributesOfGroupMembersInRange(String group, long fromEntityId, long toEntityId);
 	
 	/**
 	 * Simplified version of {@link #getEntityAttributes(long, String, String)}. 
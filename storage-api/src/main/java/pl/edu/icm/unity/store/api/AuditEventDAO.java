@@ -5,6 +5,7 @@
 package pl.edu.icm.unity.store.api;
 
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 
 import java.util.Date;
 import java.util.List;
@@ -19,6 +20,12 @@ public interface AuditEventDAO extends BasicCRUDDAO<AuditEvent>
 	String DAO_ID = "AuditEventDAO";
 	String NAME = "Audit event";
 
+	/**
+	 * Stores all given events, using multi-row inserts. Audit entities and tags shared by the events
+	 * are resolved once per batch.
+	 */
+	void createBatch(List<AuditEvent> events);
+
 	/**
 	 * List of available Tags.
 	 * @return all {@link AuditEvent} objects sorted by timestamp.
@@ -54,4 +61,30 @@ public interface AuditEventDAO extends BasicCRUDDAO<AuditEvent>
 	 * @return AuditEvent list
 	 */
 	List<AuditEvent> getOrderedLogs(final Date from, final Date until, final int limit, final String order, final int direction);
+
+	/**
+	 * Retrieve a page of AuditEvents for given time period, sorted by timestamp. Pages are addressed by 
+	 * the position of the last event of the previous page, so the cost of fetching a page does not depend
+	 * on how deep in the log it is.
+	 * @param from
+	 * 		From date or from the earliest timestamp (if null)
+	 * @param until
+	 * 		Until date or till the latest timestamp (if null)
+	 * @param after
+	 * 		Key of the previous page, as returned with it, or null to get the first page
+	 * @param pageSize
+	 * 		Maximum number of returned records
+	 * @param direction
+	 * 		Descending in case of negative value, ascending order in other cases.
+	 */
+	AuditEventsPage getLogsPage(final Date from, final Date until, final AuditEventsPage.PageKey after, 
+			final int pageSize, final int direction);
+
+	/**
+	 * Removes the oldest events (with their tags) which are older then the given date.
+	 * @param limit
+	 * 		Maximum number of removed records, to keep the transaction of a reasonable size.
+	 * @return number of removed events
+	 */
+	int deleteOlderThan(final Date olderThan, final int limit);
 }
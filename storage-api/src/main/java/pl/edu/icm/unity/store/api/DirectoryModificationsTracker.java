@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.api;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Provides versions of the stored directory data, which are increased after each committed modification. 
+ * Allows for keeping in-memory snapshots of the data, which are incrementally refreshed.
+ * <p>
+ * Global data covers attribute types, attribute classes, groups, credentials, credential requirements
+ * and enquiry forms. Entities data covers entities with their identities, attributes and group memberships.
+ */
+public interface DirectoryModificationsTracker
+{
+	/**
+	 * @return false if modifications are not tracked with the configured storage engine. In such case 
+	 * versions are not reliable and must not be used to validate cached data.
+	 */
+	boolean isTrackingModifications();
+	
+	long getGlobalDataVersion();
+	
+	long getEntitiesDataVersion();
+	
+	/**
+	 * @return ids of entities modified after the given version of entities data. Empty optional is returned
+	 * if the modifications are not known anymore or if an unspecified set of entities was modified.
+	 */
+	Optional<Set<Long>> getEntitiesModifiedSince(long entitiesDataVersion);
+}
@@ -4,7 +4,9 @@
  */
 package pl.edu.icm.unity.store.api;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import pl.edu.icm.unity.types.basic.EntityInformation;
 
@@ -18,4 +20,20 @@ public interface EntityDAO extends BasicCRUDDAO<EntityInformation>
 	String NAME = "entity";
 	
 	List<EntityInformation> getByGroup(String group);
+	
+	/**
+	 * @return members of the given group with ids in the given, inclusive range
+	 */
+	List<EntityInformation> getByGroupInRange(String group, long fromEntityId, long toEntityId);
+	
+	/**
+	 * @return at most limit of entities with scheduled operation (including removal requested by user)
+	 * due at or before the given time. Entities with the earliest operation time are returned first.
+	 */
+	List<EntityInformation> getWithScheduledOperationDue(Date time, int limit);
+	
+	/**
+	 * @return time of the earliest scheduled operation of all entities or empty if there is none.
+	 */
+	Optional<Date> getNextScheduledOperationTime();
 }
@@ -18,6 +18,11 @@ public interface FileDAO extends NamedCRUDDAOWithTS<FileData>
 {
 	String DAO_ID = "FileDAO";
 	String NAME = "file";
+	/**
+	 * Owner type of files holding contents of attribute values. Those files are not 
+	 * owned by any system configuration element and are dumped together with attributes.
+	 */
+	String ATTRIBUTE_CONTENTS_OWNER_TYPE = "ATTRIBUTE";
 
 }
 
@@ -21,5 +21,7 @@ public interface IdentityDAO extends NamedCRUDDAO<StoredIdentity>
 	List<Identity> getByEntity(long entityId);
 	List<StoredIdentity> getByEntityFull(long entityId);
 	List<StoredIdentity> getByGroup(String group);
+	List<StoredIdentity> getByGroupInRange(String group, long fromEntityId, long toEntityId);
 	long getCountByType(List<String> types);
+	List<StoredIdentity> getByType(String type);
 }
@@ -33,6 +33,18 @@ public interface MembershipDAO
 
 	List<GroupMembership> getMembers(String group);
 	
+	/**
+	 * @return at most limit members of the group with entity id greater than afterEntityId, 
+	 * ordered by entity id. Allows for scanning group members in pages.
+	 */
+	List<GroupMembership> getMembersPage(String group, long afterEntityId, int limit);
+
+	/**
+	 * @return all memberships (in any group) of members of the given group with entity ids in the given,
+	 * inclusive range
+	 */
+	List<GroupMembership> getMembershipsOfGroupMembers(String group, long fromEntityId, long toEntityId);
+	
 	List<GroupMembership> getAll();
 	
 	default Set<String> getEntityMembershipSimple(long entityId)
@@ -24,4 +24,20 @@ public interface TokenDAO extends BasicCRUDDAO<Token>
 	List<Token> getByType(String type);
 	List<Token> getOwned(String type, long entityId);
 	List<Token> getExpired();
+	
+	/**
+	 * @return at most batchSize of expired tokens, the ones which expired first are returned first.
+	 */
+	List<Token> getExpiredBatch(int batchSize);
+	
+	/**
+	 * @return at most batchSize of tokens of the given type, which inactivity deadline has passed or 
+	 * is not set.
+	 */
+	List<Token> getInactiveBatch(String type, int batchSize);
+	
+	/**
+	 * Removes all given tokens (identified by type and value). Tokens which are not present are ignored.
+	 */
+	void deleteBatch(List<Token> tokens);
 }
@@ -4,13 +4,22 @@
  */
 package pl.edu.icm.unity.store.api.generic;
 
+import java.util.List;
+
 import pl.edu.icm.unity.types.registration.EnquiryResponseState;
+import pl.edu.icm.unity.types.registration.RegistrationRequestStatus;
 
 /**
  * Easy access to {@link EnquiryResponseState} storage.
  * 
  * @author K. Benedyczak
  */
-public interface EnquiryResponseDB extends NamedCRUDDAOWithTS<EnquiryResponseState>
+public interface EnquiryResponseDB extends UserRequestDB<EnquiryResponseState>
 {
+	/**
+	 * @param status if null responses with any status are returned
+	 * @return responses of the given entity to the given form, ordered by creation
+	 */
+	List<EnquiryResponseState> getByFormAndEntity(String formId, long entityId, 
+			RegistrationRequestStatus status);
 }
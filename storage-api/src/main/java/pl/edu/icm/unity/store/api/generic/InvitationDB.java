@@ -4,6 +4,8 @@
  */
 package pl.edu.icm.unity.store.api.generic;
 
+import java.util.List;
+
 import pl.edu.icm.unity.types.registration.invite.InvitationWithCode;
 
 
@@ -14,4 +16,18 @@ import pl.edu.icm.unity.types.registration.invite.InvitationWithCode;
  */
 public interface InvitationDB extends NamedCRUDDAOWithTS<InvitationWithCode>
 {
+	/**
+	 * @return invitations to the given form, ordered by creation
+	 */
+	List<InvitationWithCode> getByForm(String formId);
+
+	/**
+	 * @return invitations sent to the given contact address, ordered by creation
+	 */
+	List<InvitationWithCode> getByContactAddress(String contactAddress);
+	
+	/**
+	 * @return a page of all invitations, ordered by creation
+	 */
+	List<InvitationWithCode> getPage(int offset, int limit);
 }
@@ -11,6 +11,6 @@ import pl.edu.icm.unity.types.registration.RegistrationRequestState;
  * 
  * @author K. Benedyczak
  */
-public interface RegistrationRequestDB extends NamedCRUDDAOWithTS<RegistrationRequestState>
+public interface RegistrationRequestDB extends UserRequestDB<RegistrationRequestState>
 {
 }
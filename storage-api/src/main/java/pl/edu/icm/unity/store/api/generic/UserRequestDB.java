@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.api.generic;
+
+import java.util.List;
+
+import pl.edu.icm.unity.types.registration.RegistrationRequestStatus;
+import pl.edu.icm.unity.types.registration.UserRequestState;
+
+/**
+ * Common storage operations of registration requests and enquiry responses. 
+ * Lookups by form and status are performed with database indexes.
+ */
+public interface UserRequestDB<T extends UserRequestState<?>> extends NamedCRUDDAOWithTS<T>
+{
+	/**
+	 * @param status if null requests with any status are returned
+	 * @return requests of the given form, ordered by creation
+	 */
+	List<T> getByForm(String formId, RegistrationRequestStatus status);
+	
+	/**
+	 * @return a page of all requests, ordered by creation
+	 */
+	List<T> getPage(int offset, int limit);
+}
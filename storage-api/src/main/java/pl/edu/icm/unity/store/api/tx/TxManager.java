@@ -19,4 +19,9 @@ public interface TxManager
 	 * Add special actions to be executed after transaction is successfully committed.
 	 */
 	void addPostCommitAction(Runnable action);
+	
+	/**
+	 * @return true if the current thread is running a transaction.
+	 */
+	boolean isTransactionActive();
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.store.api.DirectoryModificationsTracker;
+import pl.edu.icm.unity.store.api.tx.TxManager;
+
+/**
+ * Modifications are recorded by RDBMS DAOs and applied after the transaction is committed. 
+ * Hazelcast engine doesn't record modifications, as other cluster members can modify the data.
+ * <p>
+ * Only a limited number of recent entity modifications is remembered.
+ */
+@Component
+public class DirectoryModificationsTrackerImpl implements DirectoryModificationsTracker, CachingDAO
+{
+	private static final int MAX_REMEMBERED_ENTITY_MODIFICATIONS = 10000;
+	private static final long ALL_ENTITIES = -1;
+	
+	private final TxManager txManager;
+	private final boolean enabled;
+	private final NavigableMap<Long, Long> modifiedEntitiesByVersion = new TreeMap<>();
+	private long globalDataVersion;
+	private long entitiesDataVersion;
+	
+	@Autowired
+	public DirectoryModificationsTrackerImpl(TxManager txManager, StorageConfiguration cfg)
+	{
+		this.txManager = txManager;
+		this.enabled = cfg.getEngine() == StorageEngine.rdbms;
+	}
+
+	@Override
+	public boolean isTrackingModifications()
+	{
+		return enabled;
+	}
+
+	@Override
+	public synchronized long getGlobalDataVersion()
+	{
+		return globalDataVersion;
+	}
+
+	@Override
+	public synchronized long getEntitiesDataVersion()
+	{
+		return entitiesDataVersion;
+	}
+
+	@Override
+	public synchronized Optional<Set<Long>> getEntitiesModifiedSince(long version)
+	{
+		if (version >= entitiesDataVersion)
+			return Optional.of(Collections.emptySet());
+		if (modifiedEntitiesByVersion.isEmpty() || modifiedEntitiesByVersion.firstKey() > version + 1)
+			return Optional.empty();
+		Set<Long> ret = new HashSet<>();
+		for (Long entityId: modifiedEntitiesByVersion.tailMap(version, false).values())
+		{
+			if (entityId == ALL_ENTITIES)
+				return Optional.empty();
+			ret.add(entityId);
+		}
+		return Optional.of(ret);
+	}
+
+	public void globalDataModified()
+	{
+		recordModification(this::increaseGlobalDataVersion);
+	}
+
+	public void entityModified(long entityId)
+	{
+		recordModification(() -> addEntityModification(entityId));
+	}
+
+	public void allEntitiesModified()
+	{
+		recordModification(() -> addEntityModification(ALL_ENTITIES));
+	}
+
+	@Override
+	public void invalidateCache()
+	{
+		recordModification(() -> 
+		{
+			increaseGlobalDataVersion();
+			addEntityModification(ALL_ENTITIES);
+		});
+	}
+	
+	private void recordModification(Runnable versionUpdate)
+	{
+		if (!enabled)
+			return;
+		if (txManager.isTransactionActive())
+			txManager.addPostCommitAction(versionUpdate);
+		else
+			versionUpdate.run();
+	}
+	
+	private synchronized void increaseGlobalDataVersion()
+	{
+		globalDataVersion++;
+	}
+	
+	private synchronized void addEntityModification(long entityId)
+	{
+		entitiesDataVersion++;
+		modifiedEntitiesByVersion.put(entitiesDataVersion, entityId);
+		if (modifiedEntitiesByVersion.size() > MAX_REMEMBERED_ENTITY_MODIFICATIONS)
+			modifiedEntitiesByVersion.pollFirstEntry();
+	}
+}
@@ -91,5 +91,6 @@ public class StorageCleanerImpl implements StorageCleaner
 	public void deletePreImport(List<String> content)
 	{
 		storeLoaderInternal.deletePreImport(content);	
+		clearCache();
 	}
 }
@@ -24,7 +24,8 @@ public enum AppSchemaVersions
 	V_SINCE_3_2_0(10, "3.2.0"),
 	V_SINCE_3_3_0(11, "3.3.0"),
 	V_SINCE_3_4_0(12, "3.4.0"),
-	V_SINCE_3_5_0(13, "3.5.0");
+	V_SINCE_3_5_0(13, "3.5.0"),
+	V_SINCE_3_6_0(14, "3.6.0");
 	
 	private String name;
 	private int appSchemaVersion;
@@ -13,6 +13,7 @@ import pl.edu.icm.unity.store.impl.attribute.AttributeIE;
 import pl.edu.icm.unity.store.impl.attributetype.AttributeTypesIE;
 import pl.edu.icm.unity.store.impl.audit.AuditEventIE;
 import pl.edu.icm.unity.store.impl.entities.EntityIE;
+import pl.edu.icm.unity.store.impl.files.AttributeContentIE;
 import pl.edu.icm.unity.store.impl.files.FileIE;
 import pl.edu.icm.unity.store.impl.groups.GroupIE;
 import pl.edu.icm.unity.store.impl.identities.IdentityIE;
@@ -150,7 +151,7 @@ public class DBDumpContentTypeMapper
 	{
 		return Arrays.asList(IdentityIE.IDENTITIES_OBJECT_TYPE, EntityIE.ENTITIES_OBJECT_TYPE,
 				AttributeIE.ATTRIBUTES_OBJECT_TYPE, MembershipIE.GROUP_MEMBERS_OBJECT_TYPE,
-				TokensIE.TOKEN_OBJECT_TYPE);
+				TokensIE.TOKEN_OBJECT_TYPE, AttributeContentIE.ATTRIBUTE_CONTENTS_OBJECT_TYPE);
 	}
 
 	public static List<String> getSignupRequestsElements()
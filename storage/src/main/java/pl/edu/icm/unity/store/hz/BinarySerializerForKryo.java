@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Field level, binary serialization for Kryo. Can be provided for frequently stored types, 
+ * to avoid costly JSON serialization performed by {@link JsonSerializerForKryo}. For each type with binary serializer
+ * also the JSON serializer must be available, as it is used to read data stored in the legacy format 
+ * and to check size limits.
+ * <p>
+ * Implementations must not change the written format: if this is needed a new format version 
+ * must be introduced in {@link KryoVersionedSerializer}.
+ */
+public interface BinarySerializerForKryo<T>
+{
+	void write(Output output, T src);
+	T read(Input input);
+	Class<?> getClazz();
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import pl.edu.icm.unity.base.cache.CacheBackend;
+import pl.edu.icm.unity.base.cache.LocalCacheBackend;
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.store.StorageConfiguration;
+import pl.edu.icm.unity.store.StorageEngine;
+
+/**
+ * Selects implementation of the server caches: caches are shared in the Hazelcast cluster when 
+ * Hazelcast storage engine is used, otherwise they are local.
+ */
+@Configuration
+public class CacheBackendFactory
+{
+	private static final Logger log = Log.getLogger(Log.U_SERVER_DB, CacheBackendFactory.class);
+
+	@Autowired
+	@Bean
+	public CacheBackend getCacheBackend(StorageConfiguration systemCfg, HazelcastInstance hzInstance)
+	{
+		if (systemCfg.getEngine() != StorageEngine.hz)
+			return new LocalCacheBackend();
+		log.info("Server caches are shared in Hazelcast cluster");
+		return new HazelcastCacheBackend(hzInstance);
+	}
+}
@@ -23,6 +23,7 @@ import pl.edu.icm.unity.store.ReferenceUpdateHandler.PlannedUpdateEvent;
 import pl.edu.icm.unity.store.api.BasicCRUDDAO;
 import pl.edu.icm.unity.store.hz.rdbmsflush.RDBMSMutationEvent;
 import pl.edu.icm.unity.store.hz.tx.HzTransactionTL;
+import pl.edu.icm.unity.store.rdbms.GenericRDBMSCRUD;
 
 /**
  * Generic BasicCRUDDAO implementation on hazelcast map.
@@ -36,12 +37,12 @@ public abstract class GenericBasicHzCRUD<T> implements BasicCRUDDAO<T>, HzDAO, R
 	protected final String name;
 	protected final String rdbmsCounterpartDaoName;
 	protected IAtomicLong index;
-	private BasicCRUDDAO<T> rdbmsDAO;
+	private GenericRDBMSCRUD<T, ?> rdbmsDAO;
 	private Set<ReferenceRemovalHandler> deleteHandlers = new HashSet<>();
 	private Set<ReferenceUpdateHandler<T>> updateHandlers = new HashSet<>();
 	
 	public GenericBasicHzCRUD(String storeId, String name, String rdbmsCounterpartDaoName,
-			BasicCRUDDAO<T> rdbmsDAO)
+			GenericRDBMSCRUD<T, ?> rdbmsDAO)
 	{
 		STORE_ID = storeId;
 		this.name = name;
@@ -58,9 +59,7 @@ public abstract class GenericBasicHzCRUD<T> implements BasicCRUDDAO<T>, HzDAO, R
 			throw new IllegalStateException("In-memory data is non empty before loading " + name + 
 					", have " + getMap().size() + " entries");
 
-		List<T> all = rdbmsDAO.getAll();
-		for (T element: all)
-			createNoPropagateToRDBMS(element);
+		rdbmsDAO.forEach(this::createNoPropagateToRDBMS);
 	}
 
 	protected long createNoPropagateToRDBMS(T obj) throws IllegalArgumentException
@@ -113,7 +112,7 @@ public abstract class GenericBasicHzCRUD<T> implements BasicCRUDDAO<T>, HzDAO, R
 	public long getCount()
 	{
 		TransactionalMap<Long, T> hMap = getMap();
-		return hMap.values().size();
+		return hMap.size();
 	}
 	/**
 	 * For extensions
@@ -12,11 +12,11 @@ import java.util.Set;
 
 import com.hazelcast.core.TransactionalMap;
 
-import pl.edu.icm.unity.store.api.BasicCRUDDAO;
 import pl.edu.icm.unity.store.api.NamedCRUDDAO;
 import pl.edu.icm.unity.store.hz.rdbmsflush.RDBMSMutationEvent;
 import pl.edu.icm.unity.store.hz.tx.HzTransactionTL;
 import pl.edu.icm.unity.store.impl.StorageLimits;
+import pl.edu.icm.unity.store.rdbms.GenericRDBMSCRUD;
 import pl.edu.icm.unity.store.types.UpdateFlag;
 import pl.edu.icm.unity.types.NamedObject;
 
@@ -27,7 +27,7 @@ import pl.edu.icm.unity.types.NamedObject;
 public abstract class GenericNamedHzCRUD<T extends NamedObject> extends GenericBasicHzCRUD<T> implements NamedCRUDDAO<T>
 {
 	public GenericNamedHzCRUD(String storeId, String name, String rdbmsCounterpartDaoName,
-			BasicCRUDDAO<T> rdbmsDAO)
+			GenericRDBMSCRUD<T, ?> rdbmsDAO)
 	{
 		super(storeId, name, rdbmsCounterpartDaoName, rdbmsDAO);
 	}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.config.MaxSizeConfig.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+
+import pl.edu.icm.unity.base.cache.CacheBackend;
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.CacheStatistics;
+import pl.edu.icm.unity.base.cache.NamedCache;
+
+/**
+ * Creates caches shared by all cluster nodes, stored in Hazelcast maps. Each map is configured 
+ * with a near cache, so repeated reads of the same entries are served locally until the entry 
+ * is modified on any node.
+ */
+class HazelcastCacheBackend implements CacheBackend
+{
+	static final String MAP_PREFIX = "unity.cache.";
+	private final HazelcastInstance hzInstance;
+
+	HazelcastCacheBackend(HazelcastInstance hzInstance)
+	{
+		this.hzInstance = hzInstance;
+	}
+
+	@Override
+	public <K, V> NamedCache<K, V> createCache(String name, CacheSettings settings)
+	{
+		String mapName = MAP_PREFIX + name;
+		hzInstance.getConfig().addMapConfig(createMapConfig(mapName, settings));
+		IMap<K, V> map = hzInstance.getMap(mapName);
+		return new HazelcastNamedCache<>(name, map);
+	}
+
+	private MapConfig createMapConfig(String mapName, CacheSettings settings)
+	{
+		int timeToLive = (int) settings.timeToLive.getSeconds();
+		int maxIdle = (int) settings.maxIdle.getSeconds();
+		NearCacheConfig nearCacheConfig = new NearCacheConfig()
+				.setInvalidateOnChange(true)
+				.setTimeToLiveSeconds(timeToLive)
+				.setMaxIdleSeconds(maxIdle)
+				.setEvictionConfig(new EvictionConfig(settings.maxEntries, 
+						EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+		return new MapConfig(mapName)
+				.setTimeToLiveSeconds(timeToLive)
+				.setMaxIdleSeconds(maxIdle)
+				.setEvictionPolicy(EvictionPolicy.LRU)
+				.setMaxSizeConfig(new MaxSizeConfig(getMaxEntriesPerNode(settings), MaxSizePolicy.PER_NODE))
+				.setNearCacheConfig(nearCacheConfig);
+	}
+
+	/**
+	 * Hazelcast enforces the size limit in each partition separately, so a limit lower than 
+	 * the number of partitions would cause eviction of all entries.
+	 */
+	private int getMaxEntriesPerNode(CacheSettings settings)
+	{
+		return Math.max(settings.maxEntries, hzInstance.getPartitionService().getPartitions().size());
+	}
+
+	private static class HazelcastNamedCache<K, V> implements NamedCache<K, V>
+	{
+		private final String name;
+		private final IMap<K, V> map;
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong misses = new AtomicLong();
+
+		HazelcastNamedCache(String name, IMap<K, V> map)
+		{
+			this.name = name;
+			this.map = map;
+		}
+
+		@Override
+		public String getName()
+		{
+			return name;
+		}
+
+		@Override
+		public V get(K key)
+		{
+			V value = map.get(key);
+			if (value == null)
+				misses.incrementAndGet();
+			else
+				hits.incrementAndGet();
+			return value;
+		}
+
+		@Override
+		public void put(K key, V value)
+		{
+			map.set(key, value);
+		}
+
+		@Override
+		public boolean remove(K key)
+		{
+			return map.remove(key) != null;
+		}
+
+		/**
+		 * The entry is locked in the cluster for the time of update.
+		 */
+		@Override
+		public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction)
+		{
+			map.lock(key);
+			try
+			{
+				V updated = remappingFunction.apply(key, map.get(key));
+				if (updated == null)
+					map.delete(key);
+				else
+					map.set(key, updated);
+				return updated;
+			} finally
+			{
+				map.unlock(key);
+			}
+		}
+
+		@Override
+		public Collection<V> values()
+		{
+			return new ArrayList<>(map.values());
+		}
+
+		@Override
+		public CacheStatistics getStatistics()
+		{
+			return new CacheStatistics(hits.get(), misses.get(), map.size());
+		}
+	}
+}
@@ -35,6 +35,8 @@ public class HzConfiguration extends RDBMSConfiguration
 	public static final String MEMBERS = "members.";
 	public static final String INTERFACE_IP = "listenAddress";
 	public static final String INTERFACE_PORT = "port";
+	public static final String RDBMS_FLUSH_MAX_BATCHES = "rdbmsFlushMaxBatches";
+	public static final String BINARY_SERIALIZATION = "binarySerialization";
 	
 	@DocumentationReferenceMeta
 	public static final Map<String, PropertyMD> META = new HashMap<>();
@@ -59,6 +61,16 @@ public class HzConfiguration extends RDBMSConfiguration
 						+ "Should not be accessible from outside."));
 		META.put(INTERFACE_PORT, new PropertyMD("5701").
 				setDescription("Port used for the internal cluster communication"));
+		META.put(RDBMS_FLUSH_MAX_BATCHES, new PropertyMD("100").setPositive().
+				setDescription("Maximum number of queued in-memory transactions which are persisted "
+						+ "in the background in a single RDBMS transaction. Larger values "
+						+ "allow for faster catching up with bursts of modifications."));
+		META.put(BINARY_SERIALIZATION, new PropertyMD("true").
+				setDescription("If set to false, the most frequently used objects are stored in "
+						+ "Hazelcast in the legacy, JSON based format. Objects in both formats "
+						+ "are always accepted, so this should be set to false only "
+						+ "during a rolling upgrade of a cluster, which includes members "
+						+ "not supporting the binary format."));
 		
 	}
 	
@@ -5,7 +5,10 @@
 package pl.edu.icm.unity.store.hz;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 
@@ -14,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Stopwatch;
 import com.hazelcast.core.DistributedObject;
 import com.hazelcast.core.HazelcastInstance;
 
@@ -113,18 +117,28 @@ public class HzStoreLoader implements StoreLoaderInternal
 	private void loadFromPersistentStore()
 	{
 		log.info("Loading data from the persistent data store");
-		attributeTypeDAO.populateFromRDBMS(hzInstance);
-		identityTypeDAO.populateFromRDBMS(hzInstance);
-		entityDAO.populateFromRDBMS(hzInstance);
-		identityDAO.populateFromRDBMS(hzInstance);
-		groupDAO.populateFromRDBMS(hzInstance);
-		membershipDAO.populateFromRDBMS(hzInstance);
-		attributeDAO.populateFromRDBMS(hzInstance);
-		tokenDAO.populateFromRDBMS(hzInstance);
-		eventDAO.populateFromRDBMS(hzInstance);
-		genericObjDAO.populateFromRDBMS(hzInstance);
+		Map<String, Long> timings = new LinkedHashMap<>();
+		Stopwatch watch = Stopwatch.createStarted();
+		loadTimed(attributeTypeDAO, "attribute types", timings);
+		loadTimed(identityTypeDAO, "identity types", timings);
+		loadTimed(entityDAO, "entities", timings);
+		loadTimed(identityDAO, "identities", timings);
+		loadTimed(groupDAO, "groups", timings);
+		loadTimed(membershipDAO, "group memberships", timings);
+		loadTimed(attributeDAO, "attributes", timings);
+		loadTimed(tokenDAO, "tokens", timings);
+		loadTimed(eventDAO, "events", timings);
+		loadTimed(genericObjDAO, "generic objects", timings);
 		sink.start();
-		log.info("Population of the in-memory data store completed");
+		log.info("Population of the in-memory data store completed in {}, loading times [ms]: {}", 
+				watch, timings);
+	}
+	
+	private void loadTimed(HzDAO dao, String name, Map<String, Long> timings)
+	{
+		Stopwatch watch = Stopwatch.createStarted();
+		dao.populateFromRDBMS(hzInstance);
+		timings.put(name, watch.elapsed(TimeUnit.MILLISECONDS));
 	}
 	
 	private void loadTransactional()
@@ -25,4 +25,12 @@ public interface JsonSerializerForKryo<T>
 	{
 		StorageLimits.checkContentsLimit(contents);
 	}
+	
+	/**
+	 * @return maximum size of JSON contents enforced by {@link #assertSizeLimit(byte[])}
+	 */
+	default int getSizeLimit()
+	{
+		return StorageLimits.CONTENTS_LIMIT;
+	}
 }
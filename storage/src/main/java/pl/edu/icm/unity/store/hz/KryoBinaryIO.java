@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Helpers for {@link BinarySerializerForKryo} implementations, handling nullable values.
+ * Strings are handled by Kryo directly, as it supports null strings natively.
+ */
+public final class KryoBinaryIO
+{
+	private static final long NULL_MARKER = Long.MIN_VALUE;
+	
+	private KryoBinaryIO()
+	{
+	}
+	
+	public static void writeDate(Output output, Date date)
+	{
+		output.writeLong(date == null ? NULL_MARKER : date.getTime());
+	}
+
+	public static Date readDate(Input input)
+	{
+		long value = input.readLong();
+		return value == NULL_MARKER ? null : new Date(value);
+	}
+
+	public static void writeLong(Output output, Long value)
+	{
+		output.writeBoolean(value != null);
+		if (value != null)
+			output.writeLong(value);
+	}
+
+	public static Long readLong(Input input)
+	{
+		return input.readBoolean() ? input.readLong() : null;
+	}
+	
+	public static void writeBytes(Output output, byte[] bytes)
+	{
+		if (bytes == null)
+		{
+			output.writeInt(0, true);
+			return;
+		}
+		output.writeInt(bytes.length + 1, true);
+		output.writeBytes(bytes);
+	}
+
+	public static byte[] readBytes(Input input)
+	{
+		int length = input.readInt(true) - 1;
+		return length < 0 ? null : input.readBytes(length);
+	}
+
+	public static <E extends Enum<E>> void writeEnum(Output output, E value)
+	{
+		output.writeString(value == null ? null : value.name());
+	}
+
+	public static <E extends Enum<E>> E readEnum(Input input, Class<E> type)
+	{
+		String name = input.readString();
+		return name == null ? null : Enum.valueOf(type, name);
+	}
+	
+	public static void writeStrings(Output output, List<String> values)
+	{
+		if (values == null)
+		{
+			output.writeInt(0, true);
+			return;
+		}
+		output.writeInt(values.size() + 1, true);
+		for (String value: values)
+			output.writeString(value);
+	}
+
+	public static List<String> readStrings(Input input)
+	{
+		int size = input.readInt(true) - 1;
+		if (size < 0)
+			return null;
+		List<String> ret = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			ret.add(input.readString());
+		return ret;
+	}
+}
@@ -27,18 +27,29 @@ public class KryoJsonSerializer<T> extends Serializer<T>
 
 	@Override
 	public void write(Kryo kryo, Output output, T object)
+	{
+		byte[] asBytes = toJsonBytes(object);
+		output.writeInt(asBytes.length);
+		output.writeBytes(asBytes);
+	}
+
+	byte[] toJsonBytes(T object)
 	{
 		ObjectNode json = jsonSerializer.toJson(object);
 		byte[] asBytes = JsonUtil.serialize2Bytes(json);
 		jsonSerializer.assertSizeLimit(asBytes);
-		output.writeInt(asBytes.length);
-		output.writeBytes(asBytes);
+		return asBytes;
 	}
 
 	@Override
 	public T read(Kryo kryo, Input input, Class<T> type)
 	{
 		int length = input.readInt();
+		return readJson(input, length);
+	}
+	
+	T readJson(Input input, int length)
+	{
 		byte[] src = new byte[length];
 		input.readBytes(src);
 		ObjectNode json = JsonUtil.parse(src);
@@ -4,6 +4,7 @@
  */
 package pl.edu.icm.unity.store.hz;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import pl.edu.icm.unity.store.StorageConfiguration;
+import pl.edu.icm.unity.store.StorageEngine;
 import pl.edu.icm.unity.store.hz.rdbmsflush.RDBMSEventsBatch;
 import pl.edu.icm.unity.store.hz.rdbmsflush.RDBMSMutationEvent;
 
@@ -19,7 +22,8 @@ import com.esotericsoftware.kryo.pool.KryoFactory;
 import com.esotericsoftware.kryo.pool.KryoPool;
 
 /**
- * Creates {@link Kryo} engine, configured with all required type serializers.
+ * Creates {@link Kryo} engine, configured with all required type serializers. Types with 
+ * {@link BinarySerializerForKryo} available are serialized with it, other types are serialized via JSON.
  * @author K. Benedyczak
  */
 @Configuration
@@ -27,18 +31,50 @@ public class KryoPoolFactory
 {
 	@Autowired
 	private List<JsonSerializerForKryo<?>> jsonSerializers;
+	@Autowired
+	private List<BinarySerializerForKryo<?>> binarySerializers;
+	@Autowired
+	private StorageConfiguration storageConfiguration;
 	
 	public Kryo getInstance()
 	{
+		Map<Class<?>, BinarySerializerForKryo<?>> binarySerializersByClass = new HashMap<>();
+		for (BinarySerializerForKryo<?> ser: binarySerializers)
+			binarySerializersByClass.put(ser.getClazz(), ser);
+		boolean writeBinary = isBinarySerializationEnabled();
+		
 		Kryo kryo = new Kryo();
 		for (JsonSerializerForKryo<?> ser: jsonSerializers)
-			kryo.register(ser.getClazz(), new KryoJsonSerializer<>(ser));
+		{
+			BinarySerializerForKryo<?> binarySerializer = binarySerializersByClass.get(ser.getClazz());
+			if (binarySerializer != null)
+				kryo.register(ser.getClazz(), createVersionedSerializer(ser, binarySerializer, 
+						writeBinary));
+			else
+				kryo.register(ser.getClazz(), new KryoJsonSerializer<>(ser));
+		}
 		kryo.register(RDBMSEventsBatch.class);
 		kryo.register(RDBMSMutationEvent.class);
 		kryo.register(Map.class);
 		return kryo;
 	}
 	
+	@SuppressWarnings("unchecked")
+	private <T> KryoVersionedSerializer<T> createVersionedSerializer(JsonSerializerForKryo<?> jsonSerializer, 
+			BinarySerializerForKryo<?> binarySerializer, boolean writeBinary)
+	{
+		return new KryoVersionedSerializer<>((JsonSerializerForKryo<T>) jsonSerializer, 
+				(BinarySerializerForKryo<T>) binarySerializer, writeBinary);
+	}
+	
+	private boolean isBinarySerializationEnabled()
+	{
+		if (storageConfiguration.getEngine() != StorageEngine.hz)
+			return true;
+		HzConfiguration hzConfig = storageConfiguration.getEngineConfig();
+		return hzConfig.getBooleanValue(HzConfiguration.BINARY_SERIALIZATION);
+	}
+	
 	@Bean
 	public KryoPool getKryoPool()
 	{
@@ -26,8 +26,13 @@ import com.hazelcast.nio.serialization.StreamSerializer;
 @Component
 public class KryoSerializer implements StreamSerializer<Object>
 {
+	private final KryoPool kryoP;
+	
 	@Autowired
-	private KryoPool kryoP;	
+	public KryoSerializer(KryoPool kryoP)
+	{
+		this.kryoP = kryoP;
+	}
 	
 	@Override
 	public void write(ObjectDataOutput out, Object batch) throws IOException
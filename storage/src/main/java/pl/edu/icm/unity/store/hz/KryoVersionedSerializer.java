@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Kryo serializer writing objects with {@link BinarySerializerForKryo}, prefixed with a format version tag.
+ * <p>
+ * The legacy format, written by {@link KryoJsonSerializer}, starts with a non negative length of JSON contents,
+ * so binary format versions are tagged with negative numbers. Both formats are always accepted when reading.
+ * Writing of the binary format can be turned off, so that a cluster can be upgraded member by member.
+ */
+public class KryoVersionedSerializer<T> extends Serializer<T>
+{
+	public static final int BINARY_FORMAT_V1 = -1;
+	
+	/**
+	 * Upper bound of the ratio between sizes of JSON and binary representations. Used to skip JSON size 
+	 * checks when binary size guarantees that the limit is not exceeded. The worst case
+	 * is a string with control characters, which are 6 times longer when escaped in JSON.
+	 */
+	private static final int MAX_JSON_EXPANSION = 6;
+	private static final int MAX_JSON_STRUCTURE_OVERHEAD = 1024;
+	
+	private final KryoJsonSerializer<T> jsonSerializer;
+	private final BinarySerializerForKryo<T> binarySerializer;
+	private final int sizeLimit;
+	private final boolean writeBinary;
+
+	public KryoVersionedSerializer(JsonSerializerForKryo<T> jsonSerializer, 
+			BinarySerializerForKryo<T> binarySerializer, boolean writeBinary)
+	{
+		this.jsonSerializer = new KryoJsonSerializer<>(jsonSerializer);
+		this.binarySerializer = binarySerializer;
+		this.sizeLimit = jsonSerializer.getSizeLimit();
+		this.writeBinary = writeBinary;
+	}
+
+	@Override
+	public void write(Kryo kryo, Output output, T object)
+	{
+		if (!writeBinary)
+		{
+			jsonSerializer.write(kryo, output, object);
+			return;
+		}
+		output.writeInt(BINARY_FORMAT_V1);
+		long start = output.total();
+		binarySerializer.write(output, object);
+		long binarySize = output.total() - start;
+		if (binarySize * MAX_JSON_EXPANSION + MAX_JSON_STRUCTURE_OVERHEAD > sizeLimit)
+			jsonSerializer.toJsonBytes(object);
+	}
+
+	@Override
+	public T read(Kryo kryo, Input input, Class<T> type)
+	{
+		int formatTag = input.readInt();
+		if (formatTag >= 0)
+			return jsonSerializer.readJson(input, formatTag);
+		if (formatTag == BINARY_FORMAT_V1)
+			return binarySerializer.read(input);
+		throw new KryoException("Unsupported serialization format version " + formatTag + 
+				" of " + type.getName() + ", data was likely written by a newer version of Unity");
+	}
+}
@@ -4,10 +4,13 @@
  */
 package pl.edu.icm.unity.store.hz.rdbmsflush;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.logging.log4j.Logger;
@@ -27,14 +30,19 @@ import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.store.StorageConfiguration;
 import pl.edu.icm.unity.store.StorageEngine;
 import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.store.hz.HzConfiguration;
 import pl.edu.icm.unity.store.hz.tx.HzTransactionTL;
 import pl.edu.icm.unity.store.hz.tx.HzTransactionalRunner;
+import pl.edu.icm.unity.store.rdbms.tx.SQLBatchTransactionalRunner;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
-import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionalRunner;
 
 /**
  * Background thread flushing RBMS mutation events from the global queue to RDBMS.
  * Only one such thread is really working in a cluster so we have linear ordering of RDBMS transactions.
+ * <p>
+ * All batches which are available in the queue (up to a configured limit) are applied in a single 
+ * RDBMS transaction, using batched JDBC statements. Redundant updates are dropped before applying, 
+ * see {@link RDBMSEventsCompactor}. 
  * 
  * @author K. Benedyczak
  */
@@ -52,26 +60,39 @@ public class RDBMSEventSink
 	private TransactionalRunner hztx;
 	private TransactionalRunner rdbmsTx;
 	private RDBMSMutationEventProcessor rdbmsProcessor;
+	private RDBMSEventsCompactor compactor;
+	private int maxBatchesPerTransaction = 1;
 
 	private volatile AtomicBoolean stopped = new AtomicBoolean(false);
 	private volatile CountDownLatch latch = new CountDownLatch(0);
 	private volatile AtomicBoolean working = new AtomicBoolean(false);
 	private Thread flushThread;
 	private LinkedList<Exception> asyncProblems = new LinkedList<>();
+	
+	private volatile int queueDepth;
+	private volatile long lastFlushLag;
+	private final AtomicLong maxFlushLag = new AtomicLong();
+	private final AtomicLong flushedTransactions = new AtomicLong();
+	private final AtomicLong flushedBatches = new AtomicLong();
+	private final AtomicLong flushedEvents = new AtomicLong();
+	private final AtomicLong skippedEvents = new AtomicLong();
 
 	@Autowired
 	public RDBMSEventSink(StorageConfiguration systemCfg, HazelcastInstance hzInstance,
 			@Qualifier(HzTransactionalRunner.NAME) TransactionalRunner hztx, 
-			@Qualifier(SQLTransactionalRunner.NAME) TransactionalRunner rdbmsTx,
+			@Qualifier(SQLBatchTransactionalRunner.NAME) TransactionalRunner rdbmsTx,
 			RDBMSMutationEventProcessor rdbmsProcessor)
 	{
 		this.hzInstance = hzInstance;
 		this.hztx = hztx;
 		this.rdbmsTx = rdbmsTx;
 		this.rdbmsProcessor = rdbmsProcessor;
+		this.compactor = new RDBMSEventsCompactor(rdbmsProcessor::isUpdateByKeyOverridable);
 		if (systemCfg.getEnumValue(StorageConfiguration.ENGINE, StorageEngine.class) == 
 				StorageEngine.hz)
 		{
+			HzConfiguration hzConfig = systemCfg.getEngineConfig();
+			maxBatchesPerTransaction = hzConfig.getIntValue(HzConfiguration.RDBMS_FLUSH_MAX_BATCHES);
 			hzInstance.getLifecycleService().addLifecycleListener(this::onShutdown);
 			Runtime.getRuntime().addShutdownHook(new Thread(() -> stop()));
 			flushThread = new Thread();
@@ -121,6 +142,13 @@ public class RDBMSEventSink
 		}
 	}
 	
+	public RDBMSFlushStatistics getStatistics()
+	{
+		return new RDBMSFlushStatistics(queueDepth, lastFlushLag, maxFlushLag.get(), 
+				flushedTransactions.get(), flushedBatches.get(), flushedEvents.get(), 
+				skippedEvents.get());
+	}
+	
 	private void awaitAndConsume()
 	{
 		ILock lock = hzInstance.getLock(RDBMS_EVENTS_CONSUMER_LOCK);
@@ -157,7 +185,8 @@ public class RDBMSEventSink
 	/**
 	 * Executed only by a single thread in the cluster. Waits for notification on non empty queue 
 	 * (it has also safety measure to recheck the queue from time to time manually) and if some workload is found
-	 * proceeds with operation.
+	 * proceeds with operation. All batches available in the queue, up to the configured limit, are 
+	 * flushed together.
 	 * @return true if there are more batches in the queue
 	 */
 	private boolean processEvents()
@@ -183,19 +212,50 @@ public class RDBMSEventSink
 				}
 			} while (batch == null && !stopped.get());
 			if (batch != null)
-				processSingleBatch(batch);
-			return queue.size() > 0;
+				processBatches(pollAvailable(queue, batch));
+			queueDepth = queue.size();
+			return queueDepth > 0;
 		});
 	}
 
-	private void processSingleBatch(RDBMSEventsBatch batch)
+	private List<RDBMSEventsBatch> pollAvailable(TransactionalQueue<RDBMSEventsBatch> queue, 
+			RDBMSEventsBatch first)
 	{
-		log.trace("Got RDBMS events batch for processing, size: {}", batch.getEvents().size());
+		List<RDBMSEventsBatch> batches = new ArrayList<>();
+		batches.add(first);
+		while (batches.size() < maxBatchesPerTransaction)
+		{
+			RDBMSEventsBatch next = queue.poll();
+			if (next == null)
+				break;
+			batches.add(next);
+		}
+		return batches;
+	}
+	
+	private void processBatches(List<RDBMSEventsBatch> batches)
+	{
+		List<RDBMSMutationEvent> events = compactor.compact(batches);
+		int allEvents = batches.stream().mapToInt(batch -> batch.getEvents().size()).sum();
+		log.trace("Got {} RDBMS events batches for processing, events: {}, after compaction: {}", 
+				batches.size(), allEvents, events.size());
 		rdbmsTx.runInTransaction(() -> {
-			for (RDBMSMutationEvent event : batch.getEvents())
+			for (RDBMSMutationEvent event : events)
 				rdbmsProcessor.apply(event, SQLTransactionTL.getSql());
 		});
-		log.trace("RDBMS events batch was flushed");
+		updateStatistics(batches, allEvents, events.size());
+		log.trace("RDBMS events batches were flushed");
+	}
+	
+	private void updateStatistics(List<RDBMSEventsBatch> batches, int allEvents, int appliedEvents)
+	{
+		long lag = System.currentTimeMillis() - batches.get(0).getCreationTimestamp();
+		lastFlushLag = lag;
+		maxFlushLag.accumulateAndGet(lag, Math::max);
+		flushedTransactions.incrementAndGet();
+		flushedBatches.addAndGet(batches.size());
+		flushedEvents.addAndGet(appliedEvents);
+		skippedEvents.addAndGet(allEvents - appliedEvents);
 	}
 }
 
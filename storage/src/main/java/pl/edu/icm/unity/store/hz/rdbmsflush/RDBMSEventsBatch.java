@@ -14,6 +14,7 @@ import java.util.List;
 public class RDBMSEventsBatch
 {
 	private List<RDBMSMutationEvent> events;
+	private long creationTimestamp;
 
 	protected RDBMSEventsBatch()
 	{
@@ -22,10 +23,20 @@ public class RDBMSEventsBatch
 	public RDBMSEventsBatch(List<RDBMSMutationEvent> events)
 	{
 		this.events = events;
+		this.creationTimestamp = System.currentTimeMillis();
 	}
 
 	public List<RDBMSMutationEvent> getEvents()
 	{
 		return events;
 	}
+
+	/**
+	 * @return time when the batch was created, i.e. when the originating transaction was committed.
+	 * Used to measure the flush lag.
+	 */
+	public long getCreationTimestamp()
+	{
+		return creationTimestamp;
+	}
 }
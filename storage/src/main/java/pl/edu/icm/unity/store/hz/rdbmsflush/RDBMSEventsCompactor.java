@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz.rdbmsflush;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Merges a sequence of {@link RDBMSEventsBatch}es into a single ordered list of events, 
+ * dropping redundant mutations. Currently an update by key is dropped if the very same element 
+ * is updated by key again later on, and the DAO declares that such updates are overridable.
+ * Order of the remaining events is preserved.
+ */
+class RDBMSEventsCompactor
+{
+	static final String UPDATE_BY_KEY_OPERATION = "updateByKey";
+	
+	private final Predicate<String> updateOverridableDAO;
+
+	RDBMSEventsCompactor(Predicate<String> updateOverridableDAO)
+	{
+		this.updateOverridableDAO = updateOverridableDAO;
+	}
+
+	List<RDBMSMutationEvent> compact(List<RDBMSEventsBatch> batches)
+	{
+		List<RDBMSMutationEvent> all = new ArrayList<>();
+		for (RDBMSEventsBatch batch: batches)
+			all.addAll(batch.getEvents());
+		
+		Map<String, Set<Object>> laterUpdatedKeys = new HashMap<>();
+		List<RDBMSMutationEvent> reversedRet = new ArrayList<>(all.size());
+		for (int i = all.size() - 1; i >= 0; i--)
+		{
+			RDBMSMutationEvent event = all.get(i);
+			if (isOverridableUpdate(event))
+			{
+				Set<Object> updatedKeys = laterUpdatedKeys.computeIfAbsent(event.getDao(), 
+						dao -> new HashSet<>());
+				if (!updatedKeys.add(event.getArgs()[0]))
+					continue;
+			}
+			reversedRet.add(event);
+		}
+		Collections.reverse(reversedRet);
+		return reversedRet;
+	}
+	
+	private boolean isOverridableUpdate(RDBMSMutationEvent event)
+	{
+		return UPDATE_BY_KEY_OPERATION.equals(event.getOperation()) 
+				&& event.getArgs() != null
+				&& event.getArgs().length == 2
+				&& updateOverridableDAO.test(event.getDao());
+	}
+}
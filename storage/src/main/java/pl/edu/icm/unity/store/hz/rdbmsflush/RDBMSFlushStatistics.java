@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz.rdbmsflush;
+
+/**
+ * Snapshot of the statistics of the Hazelcast to RDBMS flush process, as seen by the local cluster member.
+ * Values are meaningful only on the member which is actually performing the flush.
+ */
+public class RDBMSFlushStatistics
+{
+	public final int queueDepth;
+	public final long lastFlushLagMs;
+	public final long maxFlushLagMs;
+	public final long flushedTransactions;
+	public final long flushedBatches;
+	public final long flushedEvents;
+	public final long skippedEvents;
+
+	RDBMSFlushStatistics(int queueDepth, long lastFlushLagMs, long maxFlushLagMs, long flushedTransactions,
+			long flushedBatches, long flushedEvents, long skippedEvents)
+	{
+		this.queueDepth = queueDepth;
+		this.lastFlushLagMs = lastFlushLagMs;
+		this.maxFlushLagMs = maxFlushLagMs;
+		this.flushedTransactions = flushedTransactions;
+		this.flushedBatches = flushedBatches;
+		this.flushedEvents = flushedEvents;
+		this.skippedEvents = skippedEvents;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RDBMSFlushStatistics [queueDepth=" + queueDepth + ", lastFlushLagMs=" + lastFlushLagMs
+				+ ", maxFlushLagMs=" + maxFlushLagMs + ", flushedTransactions=" + flushedTransactions
+				+ ", flushedBatches=" + flushedBatches + ", flushedEvents=" + flushedEvents
+				+ ", skippedEvents=" + skippedEvents + "]";
+	}
+}
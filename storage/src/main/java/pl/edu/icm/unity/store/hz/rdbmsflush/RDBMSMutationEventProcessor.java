@@ -55,6 +55,16 @@ public class RDBMSMutationEventProcessor
 		this.daos = daos;
 	}
 	
+	/**
+	 * @return true if the given DAO allows for skipping update by key of an element which is updated again later.
+	 * See {@link RDBMSDAO#isUpdateByKeyOverridable()}.
+	 */
+	public boolean isUpdateByKeyOverridable(String dao)
+	{
+		RDBMSDAO rdbmsDAO = daos.get(dao);
+		return rdbmsDAO != null && rdbmsDAO.isUpdateByKeyOverridable();
+	}
+	
 	public void apply(RDBMSMutationEvent event, SqlSession sql)
 	{
 		Map<String, Method> daoM = daoMethods.get(event.getDao());
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.attribute;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import pl.edu.icm.unity.store.hz.BinarySerializerForKryo;
+import pl.edu.icm.unity.store.hz.KryoBinaryIO;
+import pl.edu.icm.unity.store.types.StoredAttribute;
+import pl.edu.icm.unity.types.basic.Attribute;
+import pl.edu.icm.unity.types.basic.AttributeExt;
+
+/**
+ * Binary Kryo serialization of {@link StoredAttribute}.
+ */
+@Component
+public class AttributeBinarySerializer implements BinarySerializerForKryo<StoredAttribute>
+{
+	@Override
+	public void write(Output output, StoredAttribute src)
+	{
+		AttributeExt attribute = src.getAttribute();
+		output.writeLong(src.getEntityId());
+		output.writeString(attribute.getName());
+		output.writeString(attribute.getValueSyntax());
+		output.writeString(attribute.getGroupPath());
+		KryoBinaryIO.writeStrings(output, attribute.getValues());
+		output.writeString(attribute.getTranslationProfile());
+		output.writeString(attribute.getRemoteIdp());
+		output.writeBoolean(attribute.isDirect());
+		KryoBinaryIO.writeDate(output, attribute.getCreationTs());
+		KryoBinaryIO.writeDate(output, attribute.getUpdateTs());
+	}
+
+	@Override
+	public StoredAttribute read(Input input)
+	{
+		long entityId = input.readLong();
+		String name = input.readString();
+		String valueSyntax = input.readString();
+		String groupPath = input.readString();
+		List<String> values = KryoBinaryIO.readStrings(input);
+		String translationProfile = input.readString();
+		String remoteIdp = input.readString();
+		boolean direct = input.readBoolean();
+		Date creationTs = KryoBinaryIO.readDate(input);
+		Date updateTs = KryoBinaryIO.readDate(input);
+		Attribute base = new Attribute(name, valueSyntax, groupPath, 
+				values == null ? Collections.emptyList() : values, remoteIdp, translationProfile);
+		return new StoredAttribute(new AttributeExt(base, direct, creationTs, updateTs), entityId);
+	}
+
+	@Override
+	public Class<StoredAttribute> getClazz()
+	{
+		return StoredAttribute.class;
+	}
+}
@@ -8,7 +8,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -210,20 +209,35 @@ public class AttributeHzStore extends GenericBasicHzCRUD<StoredAttribute> implem
 	@Override
 	public List<StoredAttribute> getAttributesOfGroupMembers(String group)
 	{
-		Set<Long> members = membershipDAO.getMembers(group).stream()
+		Long[] members = membershipDAO.getMembers(group).stream()
 				.map(mem -> mem.getEntityId())
-				.collect(Collectors.toSet());
+				.toArray(Long[]::new);
+		if (members.length == 0)
+			return new ArrayList<>(0);
+		EntryObject e = new PredicateBuilder().getEntryObject();
+		TransactionalMap<Long, StoredAttribute> hMap = getMap();
+		return new ArrayList<>(hMap.values(e.get("entityId").in(members)));
+	}
+
+	@Override
+	public List<StoredAttribute> getAttributesOfGroupMembersInRange(String group, long fromEntityId, long toEntityId)
+	{
+		Long[] members = membershipDAO.getMemberIdsInRange(group, fromEntityId, toEntityId);
+		if (members.length == 0)
+			return new ArrayList<>(0);
+		EntryObject e = new PredicateBuilder().getEntryObject();
 		TransactionalMap<Long, StoredAttribute> hMap = getMap();
-		return hMap.values().stream()
-				.filter(sa -> members.contains(sa.getEntityId()))
-				.collect(Collectors.toList());
+		return new ArrayList<>(hMap.values(e.get("entityId").in(members)));
 	}
 
 	@Override
 	public long getCountWithoutType(List<String> types)
 	{
 		TransactionalMap<Long, StoredAttribute> hMap = getMap();
-		return hMap.values().stream().filter(a -> !types.contains(a.getAttribute().getName())).count();
+		if (types.isEmpty())
+			return hMap.size();
+		EntryObject e = new PredicateBuilder().getEntryObject();
+		return hMap.size() - hMap.keySet(e.get("name").in(types.toArray(new String[types.size()]))).size();
 	}
 	
 	@Override
@@ -61,4 +61,10 @@ public class AttributeJsonSerializer implements JsonSerializerForKryo<StoredAttr
 	{
 		StorageLimits.checkAttributeLimit(contents, attributeSizeLimit);
 	}
+	
+	@Override
+	public int getSizeLimit()
+	{
+		return attributeSizeLimit;
+	}
 }
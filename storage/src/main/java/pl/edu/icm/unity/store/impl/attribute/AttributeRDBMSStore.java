@@ -12,6 +12,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.StorageConfiguration;
 import pl.edu.icm.unity.store.api.AttributeDAO;
 import pl.edu.icm.unity.store.api.GroupDAO;
@@ -33,17 +34,57 @@ public class AttributeRDBMSStore extends GenericRDBMSCRUD<StoredAttribute, Attri
 	public static final String BEAN = DAO_ID + "rdbms";
 	private final GroupDAO groupDAO;
 	private final Integer attributeSizeLimit;
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
 	
 	@Autowired
 	AttributeRDBMSStore(AttributeRDBMSSerializer dbSerializer,
 			GroupDAO groupDAO,
-			StorageConfiguration storageConfiguration)
+			StorageConfiguration storageConfiguration,
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(AttributesMapper.class, dbSerializer, NAME);
 		this.groupDAO = groupDAO;
+		this.modificationsTracker = modificationsTracker;
 		attributeSizeLimit = storageConfiguration.getIntValue(StorageConfiguration.MAX_ATTRIBUTE_SIZE);
 	}
 
+	@Override
+	public long create(StoredAttribute obj)
+	{
+		long ret = super.create(obj);
+		modificationsTracker.entityModified(obj.getEntityId());
+		return ret;
+	}
+
+	@Override
+	public void createWithId(long key, StoredAttribute obj)
+	{
+		super.createWithId(key, obj);
+		modificationsTracker.entityModified(obj.getEntityId());
+	}
+	
+	@Override
+	public void updateByKey(long key, StoredAttribute obj)
+	{
+		super.updateByKey(key, obj);
+		modificationsTracker.entityModified(obj.getEntityId());
+	}
+	
+	@Override
+	public void deleteByKey(long id)
+	{
+		long entityId = getByKey(id).getEntityId();
+		super.deleteByKey(id);
+		modificationsTracker.entityModified(entityId);
+	}
+	
+	@Override
+	public void deleteAll()
+	{
+		super.deleteAll();
+		modificationsTracker.allEntitiesModified();
+	}
+
 	@Override
 	public void updateAttribute(StoredAttribute a)
 	{
@@ -60,6 +101,7 @@ public class AttributeRDBMSStore extends GenericRDBMSCRUD<StoredAttribute, Attri
 		preUpdateCheck(oldParsed, a);
 		toUpdate.setId(oldSingle.getId());
 		mapper.updateByKey(toUpdate);		
+		modificationsTracker.entityModified(a.getEntityId());
 	}
 
 	@Override
@@ -77,6 +119,7 @@ public class AttributeRDBMSStore extends GenericRDBMSCRUD<StoredAttribute, Attri
 			throw new IllegalArgumentException(elementName + " [" + attribute + 
 					"] does not exist");
 		mapper.deleteByKey(existing.get(0).getId());
+		modificationsTracker.entityModified(entityId);
 	}
 
 	@Override
@@ -88,6 +131,7 @@ public class AttributeRDBMSStore extends GenericRDBMSCRUD<StoredAttribute, Attri
 		param.setEntityId(entityId);
 		param.setGroupId(groupId);
 		mapper.deleteAttributesInGroup(param);
+		modificationsTracker.entityModified(entityId);
 	}
 
 	@Override
@@ -126,6 +170,15 @@ public class AttributeRDBMSStore extends GenericRDBMSCRUD<StoredAttribute, Attri
 		return convertList(groupMembersAttributes);
 	}
 
+	@Override
+	public List<StoredAttribute> getAttributesOfGroupMembersInRange(String group, long fromEntityId, long toEntityId)
+	{
+		AttributesMapper mapper = SQLTransactionTL.getSql().getMapper(AttributesMapper.class);
+		List<AttributeBean> groupMembersAttributes = mapper.getGroupMembersAttributesRange(group, 
+				fromEntityId, toEntityId);
+		return convertList(groupMembersAttributes);
+	}
+
 	@Override
 	public long getCountWithoutType(List<String> types)
 	{
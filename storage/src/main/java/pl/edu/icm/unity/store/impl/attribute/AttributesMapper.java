@@ -6,6 +6,8 @@ package pl.edu.icm.unity.store.impl.attribute;
 
 import java.util.List;
 
+import org.apache.ibatis.annotations.Param;
+
 import pl.edu.icm.unity.store.rdbms.BasicCRUDMapper;
 
 
@@ -22,5 +24,8 @@ public interface AttributesMapper extends BasicCRUDMapper<AttributeBean>
 	
 	List<AttributeBean> getGroupMembersAttributes(String group);
 	
+	List<AttributeBean> getGroupMembersAttributesRange(@Param("group") String group, 
+			@Param("fromEntityId") long fromEntityId, @Param("toEntityId") long toEntityId);
+	
 	long getCountWithoutType(List<String> types);
 }
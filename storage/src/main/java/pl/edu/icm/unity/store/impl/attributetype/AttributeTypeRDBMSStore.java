@@ -7,6 +7,7 @@ package pl.edu.icm.unity.store.impl.attributetype;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.rdbms.GenericNamedRDBMSCRUD;
 import pl.edu.icm.unity.types.basic.AttributeType;
 
@@ -20,10 +21,62 @@ public class AttributeTypeRDBMSStore extends GenericNamedRDBMSCRUD<AttributeType
 		implements AttributeTypeDAOInternal
 {
 	public static final String BEAN = DAO_ID + "rdbms";
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
 
 	@Autowired
-	AttributeTypeRDBMSStore(AttributeTypeRDBMSSerializer jsonSerializer)
+	AttributeTypeRDBMSStore(AttributeTypeRDBMSSerializer jsonSerializer, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(AttributeTypesMapper.class, jsonSerializer, "attribute type");
+		this.modificationsTracker = modificationsTracker;
+	}
+
+	@Override
+	public long create(AttributeType obj)
+	{
+		long ret = super.create(obj);
+		modificationsTracker.globalDataModified();
+		return ret;
+	}
+
+	@Override
+	public void createWithId(long key, AttributeType obj)
+	{
+		super.createWithId(key, obj);
+		modificationsTracker.globalDataModified();
+	}
+	
+	@Override
+	public void updateByKey(long key, AttributeType obj)
+	{
+		String oldName = getByKey(key).getName();
+		super.updateByKey(key, obj);
+		modificationsTracker.globalDataModified();
+		if (!oldName.equals(obj.getName()))
+			modificationsTracker.allEntitiesModified();
+	}
+	
+	@Override
+	public void delete(String id)
+	{
+		super.delete(id);
+		modificationsTracker.globalDataModified();
+		modificationsTracker.allEntitiesModified();
+	}
+	
+	@Override
+	public void deleteByKey(long id)
+	{
+		super.deleteByKey(id);
+		modificationsTracker.globalDataModified();
+		modificationsTracker.allEntitiesModified();
+	}
+	
+	@Override
+	public void deleteAll()
+	{
+		super.deleteAll();
+		modificationsTracker.globalDataModified();
+		modificationsTracker.allEntitiesModified();
 	}
 }
@@ -4,13 +4,21 @@
  */
 package pl.edu.icm.unity.store.impl.audit;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import pl.edu.icm.unity.store.api.tx.TxManager;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
 import pl.edu.icm.unity.types.basic.audit.AuditEntity;
 
 /**
  * RDBMS storage of {@link AuditEntity}. Helper repository to handle actions related to AuditEntity entries.
  * <p>
+ * Ids of AuditEntity rows are cached, keyed by entity id, as the same entities are referenced by
+ * most of the events. The cache is updated only after commit, so it never points to a rolled back row.
+ * <p>
  * Package private access - public methods are exposed via AuditEventDAO.
  *
  * @author R. Ledzinski
@@ -18,15 +26,34 @@ import pl.edu.icm.unity.types.basic.audit.AuditEntity;
 @Repository
 class AuditEntityRDBMSStore
 {
+	private final Map<Long, CachedAuditEntity> cache = new ConcurrentHashMap<>();
+	private final TxManager txManager;
+
+	@Autowired
+	AuditEntityRDBMSStore(TxManager txManager)
+	{
+		this.txManager = txManager;
+	}
+
+	void invalidateCache()
+	{
+		cache.clear();
+	}
+
 	Long findOrCreateEntity(AuditEntity auditEntity)
 	{
 		if (auditEntity == null) {
 			return null;
 		}
+		CachedAuditEntity cached = cache.get(auditEntity.getEntityId());
+		if (cached != null && cached.entity.equals(auditEntity))
+			return cached.id;
 		Long id = getAuditEntityId(auditEntity);
 		if (id == null) {
 			id = createAuditEntity(auditEntity);
 		}
+		CachedAuditEntity toCache = new CachedAuditEntity(auditEntity, id);
+		txManager.addPostCommitAction(() -> cache.put(auditEntity.getEntityId(), toCache));
 		return id;
 	}
 
@@ -43,4 +70,16 @@ class AuditEntityRDBMSStore
 		mapper.createAuditEntity(bean);
 		return bean.getId();
 	}
+
+	private static class CachedAuditEntity
+	{
+		private final AuditEntity entity;
+		private final long id;
+
+		CachedAuditEntity(AuditEntity entity, long id)
+		{
+			this.entity = entity;
+			this.id = id;
+		}
+	}
 }
@@ -13,6 +13,8 @@ import pl.edu.icm.unity.types.basic.audit.AuditEvent;
 import pl.edu.icm.unity.types.basic.audit.AuditEventAction;
 import pl.edu.icm.unity.types.basic.audit.AuditEventType;
 
+import java.util.function.Function;
+
 import static java.util.Objects.isNull;
 
 /**
@@ -32,14 +34,22 @@ public class AuditEventJsonSerializer implements RDBMSObjectSerializer<AuditEven
 
 	@Override
 	public AuditEventBean toDB(AuditEvent object)
+	{
+		return toDB(object, auditEntityDAO::findOrCreateEntity);
+	}
+
+	/**
+	 * @param auditEntityResolver provides DB ids of (possibly created) {@link AuditEntity} rows
+	 */
+	AuditEventBean toDB(AuditEvent object, Function<AuditEntity, Long> auditEntityResolver)
 	{
 		return new AuditEventBean(
 				object.getName(),
 				JsonUtil.serialize2Bytes(object.getDetails()),
 				object.getType().toString(),
 				object.getTimestamp(),
-				auditEntityDAO.findOrCreateEntity(object.getSubject()),
-				auditEntityDAO.findOrCreateEntity(object.getInitiator()),
+				auditEntityResolver.apply(object.getSubject()),
+				auditEntityResolver.apply(object.getInitiator()),
 				object.getAction().toString());
 	}
 
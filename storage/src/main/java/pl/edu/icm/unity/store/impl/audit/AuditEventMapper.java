@@ -26,6 +26,15 @@ public interface AuditEventMapper extends BasicCRUDMapper<AuditEventBean>
 
 	void insertAuditTags(@Param("eventId") long eventId, @Param("tagList") Set<String> tags);
 
+	void createBatch(List<AuditEventBean> beans);
+	void insertAuditTagsBatch(List<AuditEventBean> beansWithTags);
+
 	List<AuditEventBean> getOrderedLogs(@Param("from") Date from, @Param("until") Date until, @Param("limit") int limit,
 										@Param("order") String order, @Param("direction") String direction);
+	List<AuditEventBean> getLogsPage(@Param("from") Date from, @Param("until") Date until,
+			@Param("afterTimestamp") Date afterTimestamp, @Param("afterId") Long afterId,
+			@Param("limit") int limit, @Param("descending") boolean descending);
+	List<AuditEventBean> getTagsOfEvents(List<Long> eventIds);
+
+	int deleteOlderThan(@Param("olderThan") Date olderThan, @Param("limit") int limit);
 }
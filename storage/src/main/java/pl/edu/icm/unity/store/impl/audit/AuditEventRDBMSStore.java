@@ -12,11 +12,21 @@ import pl.edu.icm.unity.store.CachingDAO;
 import pl.edu.icm.unity.store.api.AuditEventDAO;
 import pl.edu.icm.unity.store.rdbms.GenericRDBMSCRUD;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
+import pl.edu.icm.unity.types.basic.audit.AuditEntity;
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
 
 /**
  * RDBMS storage of {@link AuditEvent}
@@ -26,17 +36,22 @@ import java.util.Set;
 public class AuditEventRDBMSStore extends GenericRDBMSCRUD<AuditEvent, AuditEventBean>
 					implements AuditEventDAO, CachingDAO
 {
-	private static final int LIMIT_MULTIPLIER = 2;
+	private static final int MAX_BATCH_INSERT = 100;
 	private static final Logger log = Log.getLogger(Log.U_SERVER_DB, AuditEventRDBMSStore.class);
 	public static final String BEAN = DAO_ID + "rdbms";
 
 	private AuditTagRDBMSStore tagDAO;
+	private AuditEntityRDBMSStore auditEntityDAO;
+	private AuditEventJsonSerializer auditSerializer;
 
 	@Autowired
-	public AuditEventRDBMSStore(final AuditEventJsonSerializer jsonSerializer, AuditTagRDBMSStore tagDAO)
+	public AuditEventRDBMSStore(final AuditEventJsonSerializer jsonSerializer, AuditTagRDBMSStore tagDAO,
+			AuditEntityRDBMSStore auditEntityDAO)
 	{
 		super(AuditEventMapper.class, jsonSerializer, NAME);
 		this.tagDAO = tagDAO;
+		this.auditEntityDAO = auditEntityDAO;
+		this.auditSerializer = jsonSerializer;
 	}
 
 	@Override
@@ -45,16 +60,52 @@ public class AuditEventRDBMSStore extends GenericRDBMSCRUD<AuditEvent, AuditEven
 		log.trace("Getting logs from: {}, until: {}, limit: {}, Order: {}, dir: {}", from, until, limit, sortOrder, direction);
 
 		AuditEventMapper mapper = SQLTransactionTL.getSql().getMapper(AuditEventMapper.class);
-		// SQL returns duplicated AuditEvents, if there are multiple TAGS related to the event.
-		// The assumption is that, there will be no more than 2 tags in average.
-		List<AuditEvent> list = convertList(mapper.getOrderedLogs(from, until, limit * LIMIT_MULTIPLIER, AuditEventSortOrder.getByName(sortOrder).colName, direction < 0 ? "DESC" : "ASC"));
-		if (list.size() > limit)
-		{
-			return list.subList(0, limit);
-		} else
+		List<AuditEventBean> beans = mapper.getOrderedLogs(from, until, limit, 
+				AuditEventSortOrder.getByName(sortOrder).colName, direction < 0 ? "DESC" : "ASC");
+		return convertList(withTags(beans, mapper));
+	}
+
+	@Override
+	public AuditEventsPage getLogsPage(final Date from, final Date until, final AuditEventsPage.PageKey after, 
+			final int pageSize, final int direction)
+	{
+		log.trace("Getting logs page from: {}, until: {}, after: {}, size: {}, dir: {}", from, until, after, pageSize, direction);
+
+		AuditEventMapper mapper = SQLTransactionTL.getSql().getMapper(AuditEventMapper.class);
+		List<AuditEventBean> beans = mapper.getLogsPage(from, until, 
+				after == null ? null : after.getTimestamp(), after == null ? null : after.getId(), 
+				pageSize + 1, direction < 0);
+		AuditEventsPage.PageKey nextPageKey = null;
+		if (beans.size() > pageSize)
 		{
-			return list;
+			beans = beans.subList(0, pageSize);
+			AuditEventBean last = beans.get(pageSize - 1);
+			nextPageKey = new AuditEventsPage.PageKey(last.getTimestamp(), last.getId());
 		}
+		return new AuditEventsPage(convertList(withTags(beans, mapper)), nextPageKey);
+	}
+
+	private List<AuditEventBean> withTags(List<AuditEventBean> beans, AuditEventMapper mapper)
+	{
+		if (beans.isEmpty())
+			return beans;
+		List<Long> ids = beans.stream().map(AuditEventBean::getId).collect(Collectors.toList());
+		Map<Long, Set<String>> tagsById = new HashMap<>();
+		for (List<Long> idsPart: Lists.partition(ids, MAX_BATCH_INSERT))
+			for (AuditEventBean eventTags: mapper.getTagsOfEvents(idsPart))
+				tagsById.put(eventTags.getId(), eventTags.getTags());
+		for (AuditEventBean bean: beans)
+			bean.setTags(tagsById.getOrDefault(bean.getId(), new HashSet<>()));
+		return beans;
+	}
+
+	@Override
+	public int deleteOlderThan(final Date olderThan, final int limit)
+	{
+		AuditEventMapper mapper = SQLTransactionTL.getSql().getMapper(AuditEventMapper.class);
+		int removed = mapper.deleteOlderThan(olderThan, limit);
+		log.debug("Removed {} audit events older then {}", removed, olderThan);
+		return removed;
 	}
 
 	@Override
@@ -68,6 +119,33 @@ public class AuditEventRDBMSStore extends GenericRDBMSCRUD<AuditEvent, AuditEven
 		return id;
 	}
 
+	@Override
+	public void createBatch(final List<AuditEvent> events)
+	{
+		log.debug("Inserting batch of {} events", events.size());
+		AuditEventMapper mapper = SQLTransactionTL.getSql().getMapper(AuditEventMapper.class);
+		Map<AuditEntity, Long> resolvedEntities = new HashMap<>();
+		Function<AuditEntity, Long> entityResolver = entity -> entity == null ? null :  
+				resolvedEntities.computeIfAbsent(entity, auditEntityDAO::findOrCreateEntity);
+		for (List<AuditEvent> part: Lists.partition(events, MAX_BATCH_INSERT))
+		{
+			List<AuditEventBean> beans = new ArrayList<>(part.size());
+			List<AuditEventBean> beansWithTags = new ArrayList<>();
+			for (AuditEvent event: part)
+			{
+				AuditEventBean bean = auditSerializer.toDB(event, entityResolver);
+				assertContentsLimit(bean.getContents());
+				bean.setTags(event.getTags());
+				beans.add(bean);
+				if (event.getTags() != null && !event.getTags().isEmpty())
+					beansWithTags.add(bean);
+			}
+			mapper.createBatch(beans);
+			if (!beansWithTags.isEmpty())
+				tagDAO.insertAuditTagsBatch(beansWithTags);
+		}
+	}
+
 	@Override
 	public void updateByKey(final long key, final AuditEvent obj) {
 		throw new UnsupportedOperationException("Update operation is not supported for AuditEvents.");
@@ -83,5 +161,6 @@ public class AuditEventRDBMSStore extends GenericRDBMSCRUD<AuditEvent, AuditEven
 	public void invalidateCache() 
 	{
 		tagDAO.invalidateCache();
+		auditEntityDAO.invalidateCache();
 	}
 }
@@ -8,6 +8,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.ibatis.exceptions.PersistenceException;
@@ -54,6 +55,18 @@ class AuditTagRDBMSStore
 		mapper.insertAuditTags(eventId, tagList);
 	}
 
+	/**
+	 * Adds tags of all given events, which must be already stored, with a single statement.
+	 */
+	void insertAuditTagsBatch(List<AuditEventBean> eventsWithTags)
+	{
+		Set<String> allTags = new HashSet<>();
+		eventsWithTags.forEach(event -> allTags.addAll(event.getTags()));
+		insertTags(allTags);
+		AuditEventMapper mapper = SQLTransactionTL.getSql().getMapper(AuditEventMapper.class);
+		mapper.insertAuditTagsBatch(eventsWithTags);
+	}
+
 	/**
 	 * Impl note: tx savepoints are used to workaround postgres specific problem, which rollback complete transaction
 	 * on error. As in the case of adding tag error is harmless we rollback only the failed insert.  
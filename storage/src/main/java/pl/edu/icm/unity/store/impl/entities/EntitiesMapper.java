@@ -4,16 +4,25 @@
  */
 package pl.edu.icm.unity.store.impl.entities;
 
+import java.util.Date;
 import java.util.List;
 
-import pl.edu.icm.unity.store.rdbms.BaseBean;
+import org.apache.ibatis.annotations.Param;
+
 import pl.edu.icm.unity.store.rdbms.BasicCRUDMapper;
 
 /**
  * Access to entities operations.
  * @author K. Benedyczak
  */
-public interface EntitiesMapper extends BasicCRUDMapper<BaseBean>
+public interface EntitiesMapper extends BasicCRUDMapper<EntityBean>
 {
-	List<BaseBean> getByGroup(String path);
+	List<EntityBean> getByGroup(String path);
+	
+	List<EntityBean> getByGroupRange(@Param("group") String path, 
+			@Param("fromEntityId") long fromEntityId, @Param("toEntityId") long toEntityId);
+	
+	List<EntityBean> getWithOperationDue(@Param("time") Date time, @Param("limit") int limit);
+	
+	Date getNextOperationTime();
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.entities;
+
+import java.util.Date;
+import java.util.Objects;
+
+import pl.edu.icm.unity.store.rdbms.BaseBean;
+
+/**
+ * In DB representation of entity. Besides the contents holds the time of the earliest scheduled operation,
+ * so that entities with operations due can be found without parsing all entities.
+ */
+public class EntityBean extends BaseBean
+{
+	private Date nextOperationTime;
+
+	public EntityBean()
+	{
+	}
+
+	public EntityBean(byte[] contents, Date nextOperationTime)
+	{
+		super(null, contents);
+		this.nextOperationTime = nextOperationTime;
+	}
+
+	public Date getNextOperationTime()
+	{
+		return nextOperationTime;
+	}
+
+	public void setNextOperationTime(Date nextOperationTime)
+	{
+		this.nextOperationTime = nextOperationTime;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * super.hashCode() + Objects.hashCode(nextOperationTime);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (!super.equals(obj))
+			return false;
+		EntityBean other = (EntityBean) obj;
+		return Objects.equals(nextOperationTime, other.nextOperationTime);
+	}
+}
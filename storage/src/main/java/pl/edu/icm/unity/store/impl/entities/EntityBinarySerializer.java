@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.entities;
+
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import pl.edu.icm.unity.store.hz.BinarySerializerForKryo;
+import pl.edu.icm.unity.store.hz.KryoBinaryIO;
+import pl.edu.icm.unity.types.basic.EntityInformation;
+import pl.edu.icm.unity.types.basic.EntityScheduledOperation;
+import pl.edu.icm.unity.types.basic.EntityState;
+
+/**
+ * Binary Kryo serialization of {@link EntityInformation}.
+ */
+@Component
+public class EntityBinarySerializer implements BinarySerializerForKryo<EntityInformation>
+{
+	@Override
+	public void write(Output output, EntityInformation src)
+	{
+		KryoBinaryIO.writeLong(output, src.getId());
+		KryoBinaryIO.writeEnum(output, src.getEntityState());
+		KryoBinaryIO.writeDate(output, src.getScheduledOperationTime());
+		KryoBinaryIO.writeEnum(output, src.getScheduledOperation());
+		KryoBinaryIO.writeDate(output, src.getRemovalByUserTime());
+	}
+
+	@Override
+	public EntityInformation read(Input input)
+	{
+		Long id = KryoBinaryIO.readLong(input);
+		EntityInformation ret = id == null ? new EntityInformation() : new EntityInformation(id);
+		ret.setEntityState(KryoBinaryIO.readEnum(input, EntityState.class));
+		ret.setScheduledOperationTime(KryoBinaryIO.readDate(input));
+		ret.setScheduledOperation(KryoBinaryIO.readEnum(input, EntityScheduledOperation.class));
+		ret.setRemovalByUserTime(KryoBinaryIO.readDate(input));
+		return ret;
+	}
+
+	@Override
+	public Class<EntityInformation> getClazz()
+	{
+		return EntityInformation.class;
+	}
+}
@@ -4,8 +4,14 @@
  */
 package pl.edu.icm.unity.store.impl.entities;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +32,9 @@ import pl.edu.icm.unity.types.basic.GroupMembership;
  * Note on creation: the methods {@link #createNoPropagateToRDBMS(EntityInformation)} (internal) and
  * {@link #createWithId(EntityInformation)} preserves the id given in input. The {@link #create(EntityInformation)} 
  * invents a new id.  
+ * <p>
+ * Times of the earliest scheduled operations are kept in an auxiliary map, which holds only entities
+ * with some operation scheduled, so that due entities can be found without scanning all entities.
  * @author K. Benedyczak
  */
 @Repository(EntityHzStore.STORE_ID)
@@ -48,6 +57,7 @@ public class EntityHzStore extends GenericBasicHzCRUD<EntityInformation> impleme
 			throw new IllegalArgumentException(name + " [" + key + "] already exists");
 		hMap.put(key, obj);
 		index.incrementAndGet();
+		addNextOperationTime(key, obj);
 		return key;
 	}
 
@@ -60,6 +70,7 @@ public class EntityHzStore extends GenericBasicHzCRUD<EntityInformation> impleme
 			key = index.incrementAndGet();
 		obj.setId(key);
 		hMap.put(key, obj);
+		addNextOperationTime(key, obj);
 		HzTransactionTL.enqueueRDBMSMutation(new RDBMSMutationEvent(rdbmsCounterpartDaoName, 
 				"createWithId", key, obj));
 		return key;
@@ -74,17 +85,99 @@ public class EntityHzStore extends GenericBasicHzCRUD<EntityInformation> impleme
 				"createWithId", key, obj));
 	}
 
+	@Override
+	public void updateByKey(long id, EntityInformation obj)
+	{
+		super.updateByKey(id, obj);
+		updateNextOperationTime(id, obj);
+	}
+	
+	@Override
+	public EntityInformation deleteByKeyRet(long id, boolean fireEvent)
+	{
+		EntityInformation removed = super.deleteByKeyRet(id, fireEvent);
+		getNextOperationTimeMap().remove(id);
+		return removed;
+	}
+	
+	@Override
+	public List<EntityInformation> getWithScheduledOperationDue(Date time, int limit)
+	{
+		TransactionalMap<Long, Date> nextOperationTimeMap = getNextOperationTimeMap();
+		TransactionalMap<Long, EntityInformation> hMap = getMap();
+		List<Map.Entry<Long, Date>> due = new ArrayList<>();
+		for (Long entityId: nextOperationTimeMap.keySet())
+		{
+			Date nextOperationTime = nextOperationTimeMap.get(entityId);
+			if (nextOperationTime != null && !nextOperationTime.after(time))
+				due.add(new SimpleImmutableEntry<>(entityId, nextOperationTime));
+		}
+		return due.stream()
+				.sorted(Map.Entry.comparingByValue())
+				.limit(limit)
+				.map(entry -> hMap.get(entry.getKey()))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+	
+	@Override
+	public Optional<Date> getNextScheduledOperationTime()
+	{
+		return getNextOperationTimeMap().values().stream()
+				.filter(Objects::nonNull)
+				.min(Comparator.naturalOrder());
+	}
+	
 	@Override
 	public List<EntityInformation> getByGroup(String group)
 	{
 		TransactionalMap<String, Map<Long, GroupMembership>> byGroupMap = getByGroupMap();
 		Map<Long, GroupMembership> groupMembers = byGroupMap.get(group);
+		if (groupMembers == null)
+			return new ArrayList<>(0);
 		TransactionalMap<Long, EntityInformation> hMap = getMap();
-		return hMap.values().stream()
-				.filter(ei -> groupMembers.containsKey(ei.getId()))
+		return groupMembers.keySet().stream()
+				.map(hMap::get)
+				.filter(Objects::nonNull)
 				.collect(Collectors.toList());
 	}
 	
+	@Override
+	public List<EntityInformation> getByGroupInRange(String group, long fromEntityId, long toEntityId)
+	{
+		TransactionalMap<String, Map<Long, GroupMembership>> byGroupMap = getByGroupMap();
+		Map<Long, GroupMembership> groupMembers = byGroupMap.get(group);
+		if (groupMembers == null)
+			return new ArrayList<>(0);
+		TransactionalMap<Long, EntityInformation> hMap = getMap();
+		return groupMembers.keySet().stream()
+				.filter(entityId -> entityId >= fromEntityId && entityId <= toEntityId)
+				.map(hMap::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+	
+	private void addNextOperationTime(long id, EntityInformation obj)
+	{
+		Date nextOperationTime = obj.getNextScheduledOperationTime();
+		if (nextOperationTime != null)
+			getNextOperationTimeMap().put(id, nextOperationTime);
+	}
+	
+	private void updateNextOperationTime(long id, EntityInformation obj)
+	{
+		Date nextOperationTime = obj.getNextScheduledOperationTime();
+		if (nextOperationTime == null)
+			getNextOperationTimeMap().remove(id);
+		else
+			getNextOperationTimeMap().put(id, nextOperationTime);
+	}
+	
+	private TransactionalMap<Long, Date> getNextOperationTimeMap()
+	{
+		return HzTransactionTL.getHzContext().getMap(STORE_ID + "_nextOperationTime");
+	}
+	
 	private TransactionalMap<String, Map<Long, GroupMembership>> getByGroupMap()
 	{
 		return HzTransactionTL.getHzContext().getMap(STORE_ID + "_byGroup");
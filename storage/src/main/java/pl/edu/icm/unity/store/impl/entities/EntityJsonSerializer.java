@@ -10,7 +10,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import pl.edu.icm.unity.JsonUtil;
 import pl.edu.icm.unity.store.hz.JsonSerializerForKryo;
-import pl.edu.icm.unity.store.rdbms.BaseBean;
 import pl.edu.icm.unity.store.rdbms.RDBMSObjectSerializer;
 import pl.edu.icm.unity.types.basic.EntityInformation;
 
@@ -19,19 +18,20 @@ import pl.edu.icm.unity.types.basic.EntityInformation;
  * @author K. Benedyczak
  */
 @Component
-public class EntityJsonSerializer implements RDBMSObjectSerializer<EntityInformation, BaseBean>, 
+public class EntityJsonSerializer implements RDBMSObjectSerializer<EntityInformation, EntityBean>, 
 		JsonSerializerForKryo<EntityInformation>
 {
 	@Override
-	public BaseBean toDB(EntityInformation object)
+	public EntityBean toDB(EntityInformation object)
 	{
-		BaseBean ret = new BaseBean(null, JsonUtil.serialize2Bytes(object.toJsonBase()));
+		EntityBean ret = new EntityBean(JsonUtil.serialize2Bytes(object.toJsonBase()), 
+				object.getNextScheduledOperationTime());
 		ret.setId(object.getId());
 		return ret;
 	}
 
 	@Override
-	public EntityInformation fromDB(BaseBean bean)
+	public EntityInformation fromDB(EntityBean bean)
 	{
 		EntityInformation ret = new EntityInformation(bean.getId());
 		ret.fromJsonBase(JsonUtil.parse(bean.getContents()));
@@ -4,13 +4,15 @@
  */
 package pl.edu.icm.unity.store.impl.entities;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.api.EntityDAO;
-import pl.edu.icm.unity.store.rdbms.BaseBean;
 import pl.edu.icm.unity.store.rdbms.GenericRDBMSCRUD;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
 import pl.edu.icm.unity.types.basic.EntityInformation;
@@ -21,14 +23,23 @@ import pl.edu.icm.unity.types.basic.EntityInformation;
  * @author K. Benedyczak
  */
 @Repository(EntityRDBMSStore.BEAN)
-public class EntityRDBMSStore extends GenericRDBMSCRUD<EntityInformation, BaseBean> implements EntityDAO
+public class EntityRDBMSStore extends GenericRDBMSCRUD<EntityInformation, EntityBean> implements EntityDAO
 {
 	public static final String BEAN = DAO_ID + "rdbms";
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
 
 	@Autowired
-	public EntityRDBMSStore(EntityJsonSerializer jsonSerializer)
+	public EntityRDBMSStore(EntityJsonSerializer jsonSerializer, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(EntitiesMapper.class, jsonSerializer, NAME);
+		this.modificationsTracker = modificationsTracker;
+	}
+
+	@Override
+	public boolean isUpdateByKeyOverridable()
+	{
+		return true;
 	}
 	
 	@Override
@@ -36,14 +47,65 @@ public class EntityRDBMSStore extends GenericRDBMSCRUD<EntityInformation, BaseBe
 	{
 		long ret = super.create(obj);
 		obj.setId(ret);
+		modificationsTracker.entityModified(ret);
 		return ret;
 	}
 
+	@Override
+	public void createWithId(long key, EntityInformation obj)
+	{
+		super.createWithId(key, obj);
+		modificationsTracker.entityModified(key);
+	}
+	
+	@Override
+	public void updateByKey(long key, EntityInformation obj)
+	{
+		super.updateByKey(key, obj);
+		modificationsTracker.entityModified(key);
+	}
+	
+	@Override
+	public void deleteByKey(long id)
+	{
+		super.deleteByKey(id);
+		modificationsTracker.entityModified(id);
+	}
+	
+	@Override
+	public void deleteAll()
+	{
+		super.deleteAll();
+		modificationsTracker.allEntitiesModified();
+	}
+
 	@Override
 	public List<EntityInformation> getByGroup(String group)
 	{
 		EntitiesMapper mapper = SQLTransactionTL.getSql().getMapper(EntitiesMapper.class);
-		List<BaseBean> allInDB = mapper.getByGroup(group);
+		List<EntityBean> allInDB = mapper.getByGroup(group);
 		return convertList(allInDB);
 	}
+
+	@Override
+	public List<EntityInformation> getByGroupInRange(String group, long fromEntityId, long toEntityId)
+	{
+		EntitiesMapper mapper = SQLTransactionTL.getSql().getMapper(EntitiesMapper.class);
+		List<EntityBean> allInDB = mapper.getByGroupRange(group, fromEntityId, toEntityId);
+		return convertList(allInDB);
+	}
+
+	@Override
+	public List<EntityInformation> getWithScheduledOperationDue(Date time, int limit)
+	{
+		EntitiesMapper mapper = SQLTransactionTL.getSql().getMapper(EntitiesMapper.class);
+		return convertList(mapper.getWithOperationDue(time, limit));
+	}
+
+	@Override
+	public Optional<Date> getNextScheduledOperationTime()
+	{
+		EntitiesMapper mapper = SQLTransactionTL.getSql().getMapper(EntitiesMapper.class);
+		return Optional.ofNullable(mapper.getNextOperationTime());
+	}
 }
@@ -13,7 +13,7 @@ import pl.edu.icm.unity.store.hz.MapConfigProvider;
 
 
 /**
- * Configures events map: index on nextProcessing
+ * Configures events map: sorted index on nextProcessing
  * @author K. Benedyczak
  */
 @Component
@@ -25,7 +25,7 @@ public class EventsConfigProvider implements MapConfigProvider
 		MapConfig mapConfig = new MapConfig();
 		mapConfig.setName(EventHzStore.STORE_ID);
 
-		MapIndexConfig eventIndexCfg = new MapIndexConfig("nextProcessing", false);
+		MapIndexConfig eventIndexCfg = new MapIndexConfig("nextProcessing", true);
 		mapConfig.addMapIndexConfig(eventIndexCfg);
 		return mapConfig;
 	}
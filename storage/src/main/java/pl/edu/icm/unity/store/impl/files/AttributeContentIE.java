@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.files;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import pl.edu.icm.unity.base.file.FileData;
+import pl.edu.icm.unity.store.api.FileDAO;
+import pl.edu.icm.unity.store.export.AbstractIEBase;
+
+/**
+ * Handles import/export of files with contents of attribute values. 
+ */
+@Component
+public class AttributeContentIE extends AbstractIEBase<FileData>
+{
+	public static final String ATTRIBUTE_CONTENTS_OBJECT_TYPE = "attributeContents";
+	
+	private FileDAO dao;
+	private FileJsonSerializer serializer;
+	
+	@Autowired
+	public AttributeContentIE(FileDAO dao, FileJsonSerializer serializer)
+	{
+		super(12, ATTRIBUTE_CONTENTS_OBJECT_TYPE);
+		this.dao = dao;
+		this.serializer = serializer;
+	}
+
+	@Override
+	protected List<FileData> getAllToExport()
+	{
+		return dao.getAll().stream()
+				.filter(file -> FileDAO.ATTRIBUTE_CONTENTS_OWNER_TYPE.equals(file.getOwnerType()))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	protected ObjectNode toJsonSingle(FileData exportedObj)
+	{
+		return serializer.toJson(exportedObj);
+	}
+
+	@Override
+	protected void createSingle(FileData toCreate)
+	{
+		dao.create(toCreate);
+	}
+
+	@Override
+	protected FileData fromJsonSingle(ObjectNode src)
+	{
+		return serializer.fromJson(src);
+	}
+}
@@ -5,6 +5,7 @@
 package pl.edu.icm.unity.store.impl.files;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -16,7 +17,7 @@ import pl.edu.icm.unity.store.api.FileDAO;
 import pl.edu.icm.unity.store.export.AbstractIEBase;
 
 /**
- * Handles import/export of file.
+ * Handles import/export of file. Contents of attribute values are handled by {@link AttributeContentIE}.
  * @author P.Piernik
  */
 @Component
@@ -38,7 +39,9 @@ public class FileIE extends AbstractIEBase<FileData>
 	@Override
 	protected List<FileData> getAllToExport()
 	{
-		return dao.getAll();
+		return dao.getAll().stream()
+				.filter(file -> !FileDAO.ATTRIBUTE_CONTENTS_OWNER_TYPE.equals(file.getOwnerType()))
+				.collect(Collectors.toList());
 	}
 
 	@Override
@@ -11,6 +11,7 @@ import org.apache.ibatis.exceptions.PersistenceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.impl.StorageLimits;
 import pl.edu.icm.unity.store.rdbms.GenericNamedRDBMSCRUD;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
@@ -25,15 +26,25 @@ import pl.edu.icm.unity.types.basic.Group;
 public class GroupRDBMSStore extends GenericNamedRDBMSCRUD<Group, GroupBean> implements GroupDAOInternal
 {
 	public static final String BEAN = DAO_ID + "rdbms";
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
 
 	@Autowired
-	public GroupRDBMSStore(GroupJsonSerializer jsonSerializer)
+	public GroupRDBMSStore(GroupJsonSerializer jsonSerializer, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(GroupsMapper.class, jsonSerializer, NAME);
+		this.modificationsTracker = modificationsTracker;
 	}
 	
 	@Override
 	public long create(Group obj)
+	{
+		long ret = createNoTracking(obj);
+		modificationsTracker.globalDataModified();
+		return ret;
+	}
+	
+	private long createNoTracking(Group obj)
 	{
 		StorageLimits.checkNameLimit(obj.getName());
 		try
@@ -63,8 +74,7 @@ public class GroupRDBMSStore extends GenericNamedRDBMSCRUD<Group, GroupBean> imp
 		}
 	}
 	
-	@Override
-	public void updateByKey(long key, Group obj)
+	private void updateByKeyNoTracking(long key, Group obj)
 	{
 		StorageLimits.checkNameLimit(obj.getName());
 		GroupsMapper mapper = SQLTransactionTL.getSql().getMapper(GroupsMapper.class);
@@ -91,6 +101,47 @@ public class GroupRDBMSStore extends GenericNamedRDBMSCRUD<Group, GroupBean> imp
 		mapper.updateByKey(toUpdate);		
 	}
 
+	@Override
+	public void createWithId(long key, Group obj)
+	{
+		super.createWithId(key, obj);
+		modificationsTracker.globalDataModified();
+	}
+	
+	@Override
+	public void updateByKey(long key, Group obj)
+	{
+		String oldName = getByKey(key).getName();
+		updateByKeyNoTracking(key, obj);
+		modificationsTracker.globalDataModified();
+		if (!oldName.equals(obj.getName()))
+			modificationsTracker.allEntitiesModified();
+	}
+	
+	@Override
+	public void delete(String id)
+	{
+		super.delete(id);
+		modificationsTracker.globalDataModified();
+		modificationsTracker.allEntitiesModified();
+	}
+	
+	@Override
+	public void deleteByKey(long id)
+	{
+		super.deleteByKey(id);
+		modificationsTracker.globalDataModified();
+		modificationsTracker.allEntitiesModified();
+	}
+	
+	@Override
+	public void deleteAll()
+	{
+		super.deleteAll();
+		modificationsTracker.globalDataModified();
+		modificationsTracker.allEntitiesModified();
+	}
+
 	private void updateChilderenPaths(String oldPath, String newPath, GroupsMapper mapper)
 	{
 		List<GroupBean> all = mapper.getAll();
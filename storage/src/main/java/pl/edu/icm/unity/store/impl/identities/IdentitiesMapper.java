@@ -6,6 +6,8 @@ package pl.edu.icm.unity.store.impl.identities;
 
 import java.util.List;
 
+import org.apache.ibatis.annotations.Param;
+
 import pl.edu.icm.unity.store.rdbms.NamedCRUDMapper;
 
 /**
@@ -16,5 +18,8 @@ public interface IdentitiesMapper extends NamedCRUDMapper<IdentityBean>
 {
 	List<IdentityBean> getByEntity(long entityId);
 	List<IdentityBean> getByGroup(String group);
+	List<IdentityBean> getByGroupRange(@Param("group") String group, 
+			@Param("fromEntityId") long fromEntityId, @Param("toEntityId") long toEntityId);
 	long getCountByType(List<String> types);
+	List<IdentityBean> getByType(String type);
 }
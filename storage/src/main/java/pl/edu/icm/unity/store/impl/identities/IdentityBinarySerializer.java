@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.identities;
+
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import pl.edu.icm.unity.JsonUtil;
+import pl.edu.icm.unity.store.hz.BinarySerializerForKryo;
+import pl.edu.icm.unity.store.hz.KryoBinaryIO;
+import pl.edu.icm.unity.store.types.StoredIdentity;
+import pl.edu.icm.unity.types.basic.Identity;
+import pl.edu.icm.unity.types.confirmation.ConfirmationInfo;
+
+/**
+ * Binary Kryo serialization of {@link StoredIdentity}. Identity metadata, which is free form JSON 
+ * and is rarely set, is stored in JSON form.
+ */
+@Component
+public class IdentityBinarySerializer implements BinarySerializerForKryo<StoredIdentity>
+{
+	@Override
+	public void write(Output output, StoredIdentity src)
+	{
+		Identity identity = src.getIdentity();
+		output.writeString(identity.getTypeId());
+		output.writeString(identity.getValue());
+		output.writeLong(identity.getEntityId());
+		output.writeString(identity.getComparableValue());
+		output.writeString(identity.getTarget());
+		output.writeString(identity.getRealm());
+		output.writeString(identity.getTranslationProfile());
+		output.writeString(identity.getRemoteIdp());
+		KryoBinaryIO.writeDate(output, identity.getCreationTs());
+		KryoBinaryIO.writeDate(output, identity.getUpdateTs());
+		writeConfirmationInfo(output, identity.getConfirmationInfo());
+		output.writeString(identity.getMetadata() == null ? null : JsonUtil.serialize(identity.getMetadata()));
+	}
+
+	@Override
+	public StoredIdentity read(Input input)
+	{
+		Identity identity = new Identity(input.readString(), input.readString(), input.readLong(), 
+				input.readString());
+		identity.setTarget(input.readString());
+		identity.setRealm(input.readString());
+		identity.setTranslationProfile(input.readString());
+		identity.setRemoteIdp(input.readString());
+		identity.setCreationTs(KryoBinaryIO.readDate(input));
+		identity.setUpdateTs(KryoBinaryIO.readDate(input));
+		identity.setConfirmationInfo(readConfirmationInfo(input));
+		String metadata = input.readString();
+		if (metadata != null)
+			identity.setMetadata(JsonUtil.parse(metadata, JsonNode.class));
+		return new StoredIdentity(identity);
+	}
+
+	private void writeConfirmationInfo(Output output, ConfirmationInfo confirmationInfo)
+	{
+		output.writeBoolean(confirmationInfo != null);
+		if (confirmationInfo == null)
+			return;
+		output.writeBoolean(confirmationInfo.isConfirmed());
+		output.writeLong(confirmationInfo.getConfirmationDate());
+		output.writeInt(confirmationInfo.getSentRequestAmount());
+	}
+	
+	private ConfirmationInfo readConfirmationInfo(Input input)
+	{
+		if (!input.readBoolean())
+			return null;
+		ConfirmationInfo ret = new ConfirmationInfo();
+		ret.setConfirmed(input.readBoolean());
+		ret.setConfirmationDate(input.readLong());
+		ret.setSentRequestAmount(input.readInt());
+		return ret;
+	}
+	
+	@Override
+	public Class<StoredIdentity> getClazz()
+	{
+		return StoredIdentity.class;
+	}
+}
@@ -13,7 +13,7 @@ import pl.edu.icm.unity.store.hz.MapConfigProvider;
 
 
 /**
- * Configures identities map: index on entityId
+ * Configures identities map: index on entityId and on identity type
  * @author K. Benedyczak
  */
 @Component
@@ -27,6 +27,8 @@ public class IdentityConfigProvider implements MapConfigProvider
 
 		MapIndexConfig entityIndexCfg = new MapIndexConfig("entityId", false);
 		mapConfig.addMapIndexConfig(entityIndexCfg);
+		MapIndexConfig typeIndexCfg = new MapIndexConfig("identity.typeId", false);
+		mapConfig.addMapIndexConfig(typeIndexCfg);
 		return mapConfig;
 	}
 }
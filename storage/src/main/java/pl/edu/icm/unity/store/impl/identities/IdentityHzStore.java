@@ -6,7 +6,6 @@ package pl.edu.icm.unity.store.impl.identities;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -85,12 +84,27 @@ public class IdentityHzStore extends GenericNamedHzCRUD<StoredIdentity> implemen
 	@Override
 	public List<StoredIdentity> getByGroup(String group)
 	{
-		Set<Long> members = membershipStore.getMembers(group).stream()
+		Long[] members = membershipStore.getMembers(group).stream()
 				.map(member -> member.getEntityId())
-				.collect(Collectors.toSet());
-		return getAll().stream()
-				.filter(si -> members.contains(si.getEntityId()))
-				.collect(Collectors.toList());
+				.toArray(Long[]::new);
+		return getByEntities(members);
+	}
+
+	@Override
+	public List<StoredIdentity> getByGroupInRange(String group, long fromEntityId, long toEntityId)
+	{
+		return getByEntities(membershipStore.getMemberIdsInRange(group, fromEntityId, toEntityId));
+	}
+
+	private List<StoredIdentity> getByEntities(Long[] entities)
+	{
+		if (entities.length == 0)
+			return new ArrayList<>(0);
+		TransactionalMap<Long, StoredIdentity> hMap = getMap();
+		EntryObject e = new PredicateBuilder().getEntryObject();
+		@SuppressWarnings("unchecked")
+		Predicate<Long, StoredIdentity> predicate = e.get("entityId").in(entities);
+		return new ArrayList<>(hMap.values(predicate));
 	}
 
 	@Override
@@ -98,4 +112,14 @@ public class IdentityHzStore extends GenericNamedHzCRUD<StoredIdentity> implemen
 	{
 		return getAll().stream().filter(si -> types.contains(si.getIdentity().getTypeId())).count();
 	}
+
+	@Override
+	public List<StoredIdentity> getByType(String type)
+	{
+		TransactionalMap<Long, StoredIdentity> hMap = getMap();
+		EntryObject e = new PredicateBuilder().getEntryObject();
+		@SuppressWarnings("unchecked")
+		Predicate<Long, StoredIdentity> predicate = e.get("identity.typeId").equal(type);
+		return new ArrayList<>(hMap.values(predicate));
+	}
 }
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.api.IdentityDAO;
 import pl.edu.icm.unity.store.rdbms.GenericNamedRDBMSCRUD;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
@@ -26,11 +27,59 @@ import pl.edu.icm.unity.types.basic.Identity;
 public class IdentityRDBMSStore extends GenericNamedRDBMSCRUD<StoredIdentity, IdentityBean> implements IdentityDAO
 {
 	public static final String BEAN = DAO_ID + "rdbms";
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
 
 	@Autowired
-	public IdentityRDBMSStore(IdentityJsonSerializer jsonSerializer)
+	public IdentityRDBMSStore(IdentityJsonSerializer jsonSerializer, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(IdentitiesMapper.class, jsonSerializer, NAME);
+		this.modificationsTracker = modificationsTracker;
+	}
+
+	@Override
+	public long create(StoredIdentity obj)
+	{
+		long ret = super.create(obj);
+		modificationsTracker.entityModified(obj.getEntityId());
+		return ret;
+	}
+
+	@Override
+	public void createWithId(long key, StoredIdentity obj)
+	{
+		super.createWithId(key, obj);
+		modificationsTracker.entityModified(obj.getEntityId());
+	}
+	
+	@Override
+	public void updateByKey(long key, StoredIdentity obj)
+	{
+		super.updateByKey(key, obj);
+		modificationsTracker.entityModified(obj.getEntityId());
+	}
+	
+	@Override
+	public void delete(String id)
+	{
+		long entityId = get(id).getEntityId();
+		super.delete(id);
+		modificationsTracker.entityModified(entityId);
+	}
+	
+	@Override
+	public void deleteByKey(long id)
+	{
+		long entityId = getByKey(id).getEntityId();
+		super.deleteByKey(id);
+		modificationsTracker.entityModified(entityId);
+	}
+	
+	@Override
+	public void deleteAll()
+	{
+		super.deleteAll();
+		modificationsTracker.allEntitiesModified();
 	}
 
 	@Override
@@ -75,10 +124,28 @@ public class IdentityRDBMSStore extends GenericNamedRDBMSCRUD<StoredIdentity, Id
 		return ret;
 	}
 
+	@Override
+	public List<StoredIdentity> getByGroupInRange(String group, long fromEntityId, long toEntityId)
+	{
+		IdentitiesMapper mapper = SQLTransactionTL.getSql().getMapper(IdentitiesMapper.class);
+		List<IdentityBean> allInDB = mapper.getByGroupRange(group, fromEntityId, toEntityId);
+		List<StoredIdentity> ret = new ArrayList<>(allInDB.size());
+		for (IdentityBean bean: allInDB)
+			ret.add(jsonSerializer.fromDB(bean));
+		return ret;
+	}
+
 	@Override
 	public long getCountByType(List<String> types)
 	{
 		IdentitiesMapper mapper = SQLTransactionTL.getSql().getMapper(IdentitiesMapper.class);
 		return mapper.getCountByType(types);
 	}
+
+	@Override
+	public List<StoredIdentity> getByType(String type)
+	{
+		IdentitiesMapper mapper = SQLTransactionTL.getSql().getMapper(IdentitiesMapper.class);
+		return convertList(mapper.getByType(type));
+	}
 }
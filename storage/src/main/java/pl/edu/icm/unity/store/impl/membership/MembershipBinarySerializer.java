@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.membership;
+
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import pl.edu.icm.unity.store.hz.BinarySerializerForKryo;
+import pl.edu.icm.unity.store.hz.KryoBinaryIO;
+import pl.edu.icm.unity.types.basic.GroupMembership;
+
+/**
+ * Binary Kryo serialization of {@link GroupMembership}.
+ */
+@Component
+public class MembershipBinarySerializer implements BinarySerializerForKryo<GroupMembership>
+{
+	@Override
+	public void write(Output output, GroupMembership src)
+	{
+		output.writeString(src.getGroup());
+		output.writeLong(src.getEntityId());
+		KryoBinaryIO.writeDate(output, src.getCreationTs());
+		output.writeString(src.getTranslationProfile());
+		output.writeString(src.getRemoteIdp());
+	}
+
+	@Override
+	public GroupMembership read(Input input)
+	{
+		return new GroupMembership(input.readString(), input.readLong(), KryoBinaryIO.readDate(input),
+				input.readString(), input.readString());
+	}
+
+	@Override
+	public Class<GroupMembership> getClazz()
+	{
+		return GroupMembership.class;
+	}
+}
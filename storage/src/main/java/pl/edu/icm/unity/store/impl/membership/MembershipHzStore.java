@@ -5,9 +5,12 @@
 package pl.edu.icm.unity.store.impl.membership;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +21,6 @@ import com.hazelcast.core.TransactionalMap;
 
 import pl.edu.icm.unity.base.utils.Log;
 import pl.edu.icm.unity.store.ReferenceUpdateHandler.PlannedUpdateEvent;
-import pl.edu.icm.unity.store.api.GroupDAO;
 import pl.edu.icm.unity.store.api.MembershipDAO;
 import pl.edu.icm.unity.store.hz.HzDAO;
 import pl.edu.icm.unity.store.hz.rdbmsflush.RDBMSMutationEvent;
@@ -50,15 +52,12 @@ public class MembershipHzStore implements MembershipDAO, HzDAO
 	private static final String RDBMS_DAO_NAME = MembershipRDBMSStore.BEAN;
 
 	private MembershipRDBMSStore rdbmsStore;
-
-	private GroupDAO groupDAO;
 	
 	@Autowired
 	public MembershipHzStore(MembershipRDBMSStore rdbmsStore, GroupHzStore groupDAO, 
 			EntityHzStore entityDAO)
 	{
 		this.rdbmsStore = rdbmsStore;
-		this.groupDAO = groupDAO;
 		groupDAO.addRemovalHandler(this::groupRemoved);
 		groupDAO.addUpdateHandler(this::groupUpdated);
 		entityDAO.addRemovalHandler(this::entityRemoved);
@@ -112,14 +111,22 @@ public class MembershipHzStore implements MembershipDAO, HzDAO
 	public void populateFromRDBMS(HazelcastInstance hzInstance)
 	{
 		log.info("Loading group memberships from persistent storage");
-		List<Group> allGroups = groupDAO.getAll();
-		for (Group group: allGroups)
+		Map<Long, Map<String, GroupMembership>> byEntity = new HashMap<>();
+		Map<String, Map<Long, GroupMembership>> byGroup = new HashMap<>();
+		AtomicLong loaded = new AtomicLong();
+		rdbmsStore.forEach(element ->
 		{
-			List<GroupMembership> all = rdbmsStore.getMembers(group.getName());
-			for (GroupMembership element: all)
-				createHZOnly(element);
-		}
-		log.info("Loaded {} group memberships from persistent storage", allGroups.size());
+			byEntity.computeIfAbsent(element.getEntityId(), id -> new HashMap<>(128))
+				.put(element.getGroup(), element);
+			byGroup.computeIfAbsent(element.getGroup(), group -> new HashMap<>())
+				.put(element.getEntityId(), element);
+			loaded.incrementAndGet();
+		});
+		TransactionalMap<Long, Map<String, GroupMembership>> mapByEntity = getByEntityMap();
+		byEntity.forEach(mapByEntity::set);
+		TransactionalMap<String, Map<Long, GroupMembership>> mapByGroup = getByGroupMap();
+		byGroup.forEach(mapByGroup::set);
+		log.info("Loaded {} group memberships from persistent storage", loaded.get());
 	}
 
 	@Override
@@ -239,6 +246,58 @@ public class MembershipHzStore implements MembershipDAO, HzDAO
 		return new ArrayList<>(map.values());
 	}
 
+	/**
+	 * Members of a group are stored in a single map entry, so it is always read as a whole. 
+	 * Only the page members are ordered though.
+	 */
+	@Override
+	public List<GroupMembership> getMembersPage(String group, long afterEntityId, int limit)
+	{
+		Map<Long, GroupMembership> groupMembers = getByGroupMap().get(group);
+		if (groupMembers == null || limit <= 0)
+			return new ArrayList<>(0);
+		Comparator<GroupMembership> byEntity = Comparator.comparingLong(GroupMembership::getEntityId);
+		PriorityQueue<GroupMembership> page = new PriorityQueue<>(limit + 1, byEntity.reversed());
+		for (GroupMembership member: groupMembers.values())
+		{
+			if (member.getEntityId() <= afterEntityId)
+				continue;
+			page.add(member);
+			if (page.size() > limit)
+				page.poll();
+		}
+		List<GroupMembership> ret = new ArrayList<>(page);
+		ret.sort(byEntity);
+		return ret;
+	}
+
+	/**
+	 * @return ids of the group members, which are in the given range (inclusive)
+	 */
+	public Long[] getMemberIdsInRange(String group, long fromEntityId, long toEntityId)
+	{
+		Map<Long, GroupMembership> groupMembers = getByGroupMap().get(group);
+		if (groupMembers == null)
+			return new Long[0];
+		return groupMembers.keySet().stream()
+				.filter(entityId -> entityId >= fromEntityId && entityId <= toEntityId)
+				.toArray(Long[]::new);
+	}
+
+	@Override
+	public List<GroupMembership> getMembershipsOfGroupMembers(String group, long fromEntityId, long toEntityId)
+	{
+		TransactionalMap<Long, Map<String, GroupMembership>> byEntityMap = getByEntityMap();
+		List<GroupMembership> ret = new ArrayList<>();
+		for (Long entityId: getMemberIdsInRange(group, fromEntityId, toEntityId))
+		{
+			Map<String, GroupMembership> memberships = byEntityMap.get(entityId);
+			if (memberships != null)
+				ret.addAll(memberships.values());
+		}
+		return ret;
+	}
+
 	@Override
 	public List<GroupMembership> getAll()
 	{
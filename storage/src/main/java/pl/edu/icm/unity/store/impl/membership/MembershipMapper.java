@@ -6,6 +6,8 @@ package pl.edu.icm.unity.store.impl.membership;
 
 import java.util.List;
 
+import org.apache.ibatis.annotations.Param;
+
 
 /**
  * Access to the GroupMembership.xml operations.
@@ -23,5 +25,11 @@ public interface MembershipMapper
 
 	List<GroupElementBean> getMembers(long groupId);
 	
+	List<GroupElementBean> getMembersPage(@Param("groupId") long groupId, 
+			@Param("afterEntityId") long afterEntityId, @Param("limit") int limit);
+
+	List<GroupElementBean> getMembershipsOfGroupMembers(@Param("groupId") long groupId, 
+			@Param("fromEntityId") long fromEntityId, @Param("toEntityId") long toEntityId);
+	
 	List<GroupElementBean> getAll();
 }
@@ -6,13 +6,16 @@ package pl.edu.icm.unity.store.impl.membership;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.api.GroupDAO;
 import pl.edu.icm.unity.store.api.MembershipDAO;
 import pl.edu.icm.unity.store.impl.StorageLimits;
+import pl.edu.icm.unity.store.rdbms.CursorReader;
 import pl.edu.icm.unity.store.rdbms.RDBMSDAO;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
 import pl.edu.icm.unity.types.basic.GroupMembership;
@@ -28,12 +31,15 @@ public class MembershipRDBMSStore implements MembershipDAO, RDBMSDAO
 	public static final String BEAN = DAO_ID + "rdbms";
 	private MembershipJsonSerializer jsonSerializer;
 	private GroupDAO groupDAO;
+	private DirectoryModificationsTrackerImpl modificationsTracker;
 	
 	@Autowired
-	MembershipRDBMSStore(MembershipJsonSerializer jsonSerializer, GroupDAO groupDAO)
+	MembershipRDBMSStore(MembershipJsonSerializer jsonSerializer, GroupDAO groupDAO, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		this.jsonSerializer = jsonSerializer;
 		this.groupDAO = groupDAO;
+		this.modificationsTracker = modificationsTracker;
 	}
 
 	@Override
@@ -43,6 +49,7 @@ public class MembershipRDBMSStore implements MembershipDAO, RDBMSDAO
 		GroupElementBean toAdd = jsonSerializer.toDB(obj);
 		StorageLimits.checkContentsLimit(toAdd.getContents());
 		mapper.create(toAdd);
+		modificationsTracker.entityModified(obj.getEntityId());
 	}
 
 	@Override
@@ -56,6 +63,7 @@ public class MembershipRDBMSStore implements MembershipDAO, RDBMSDAO
 			throw new IllegalArgumentException("Entity " + entityId + 
 					" is not a member of group " + group);
 		mapper.deleteByKey(param);
+		modificationsTracker.entityModified(entityId);
 	}
 
 	@Override
@@ -84,6 +92,25 @@ public class MembershipRDBMSStore implements MembershipDAO, RDBMSDAO
 		return deserializeList(entityMembershipB);
 	}
 
+	@Override
+	public List<GroupMembership> getMembersPage(String group, long afterEntityId, int limit)
+	{
+		MembershipMapper mapper = SQLTransactionTL.getSql().getMapper(MembershipMapper.class);
+		long groupId = groupDAO.getKeyForName(group);
+		List<GroupElementBean> entityMembershipB = mapper.getMembersPage(groupId, afterEntityId, limit);
+		return deserializeList(entityMembershipB);
+	}
+
+	@Override
+	public List<GroupMembership> getMembershipsOfGroupMembers(String group, long fromEntityId, long toEntityId)
+	{
+		MembershipMapper mapper = SQLTransactionTL.getSql().getMapper(MembershipMapper.class);
+		long groupId = groupDAO.getKeyForName(group);
+		List<GroupElementBean> entityMembershipB = mapper.getMembershipsOfGroupMembers(groupId, 
+				fromEntityId, toEntityId);
+		return deserializeList(entityMembershipB);
+	}
+
 	@Override
 	public List<GroupMembership> getAll()
 	{
@@ -92,6 +119,14 @@ public class MembershipRDBMSStore implements MembershipDAO, RDBMSDAO
 		return deserializeList(entityMembershipB);
 	}
 	
+	/**
+	 * Passes all memberships to the consumer, reading them with a database cursor.
+	 */
+	public void forEach(Consumer<GroupMembership> consumer)
+	{
+		CursorReader.<GroupElementBean>forEach(MembershipMapper.class, "getAll", 
+				bean -> consumer.accept(jsonSerializer.fromDB(bean)));
+	}
 	
 	private List<GroupMembership> deserializeList(List<GroupElementBean> entityMembershipB)
 	{
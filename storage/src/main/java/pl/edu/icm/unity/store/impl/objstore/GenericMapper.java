@@ -7,6 +7,8 @@ package pl.edu.icm.unity.store.impl.objstore;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.ibatis.annotations.Param;
+
 import pl.edu.icm.unity.store.rdbms.BasicCRUDMapper;
 
 /**
@@ -22,4 +24,7 @@ public interface GenericMapper extends BasicCRUDMapper<GenericObjectBean>
 	Set<String> selectObjectTypes();
 	GenericObjectBean selectObjectByNameType(GenericObjectBean nameType);
 	long getCountByType(String type);
+	List<GenericObjectBean> selectObjectsMatching(GenericObjectBean pattern);
+	List<GenericObjectBean> selectObjectsOfTypePage(@Param("type") String type, 
+			@Param("offset") int offset, @Param("limit") int limit);
 }
@@ -5,13 +5,24 @@
 package pl.edu.icm.unity.store.impl.objstore;
 
 import java.util.Date;
+import java.util.Objects;
 
 import pl.edu.icm.unity.store.rdbms.BaseBean;
 
+/**
+ * Generic object as stored in DB. Besides the serialized contents, objects of some types 
+ * (registration requests, enquiry responses, invitations) have lookup properties set, which are stored 
+ * in separate, indexed columns so that the objects can be filtered in the database. 
+ * Lookup properties are null for other objects.
+ */
 public class GenericObjectBean extends BaseBean
 {
 	private String type;
 	private Date lastUpdate;
+	private String formId;
+	private String status;
+	private Long entityId;
+	private String contactAddress;
 
 	public GenericObjectBean()
 	{
@@ -49,6 +60,53 @@ public class GenericObjectBean extends BaseBean
 		this.lastUpdate = lastUpdate;
 	}
 	
+	public String getFormId()
+	{
+		return formId;
+	}
+	public void setFormId(String formId)
+	{
+		this.formId = formId;
+	}
+	
+	public String getStatus()
+	{
+		return status;
+	}
+	public void setStatus(String status)
+	{
+		this.status = status;
+	}
+	
+	public Long getEntityId()
+	{
+		return entityId;
+	}
+	public void setEntityId(Long entityId)
+	{
+		this.entityId = entityId;
+	}
+	
+	public String getContactAddress()
+	{
+		return contactAddress;
+	}
+	public void setContactAddress(String contactAddress)
+	{
+		this.contactAddress = contactAddress;
+	}
+	
+	/**
+	 * Copies lookup properties from the given object.
+	 */
+	public void copyLookupProperties(GenericObjectBean from)
+	{
+		this.formId = from.formId;
+		this.status = from.status;
+		this.entityId = from.entityId;
+		this.contactAddress = from.contactAddress;
+	}
+	
 	@Override
 	public int hashCode()
 	{
@@ -56,6 +114,7 @@ public class GenericObjectBean extends BaseBean
 		int result = super.hashCode();
 		result = prime * result + ((lastUpdate == null) ? 0 : lastUpdate.hashCode());
 		result = prime * result + ((type == null) ? 0 : type.hashCode());
+		result = prime * result + Objects.hash(formId, status, entityId, contactAddress);
 		return result;
 	}
 	@Override
@@ -80,6 +139,8 @@ public class GenericObjectBean extends BaseBean
 				return false;
 		} else if (!type.equals(other.type))
 			return false;
-		return true;
+		return Objects.equals(formId, other.formId) && Objects.equals(status, other.status)
+				&& Objects.equals(entityId, other.entityId) 
+				&& Objects.equals(contactAddress, other.contactAddress);
 	}
 }
@@ -13,7 +13,7 @@ import pl.edu.icm.unity.store.hz.MapConfigProvider;
 
 
 /**
- * Configures generic objects map: indices on type and name.
+ * Configures generic objects map: indices on type, name and lookup properties.
  * @author K. Benedyczak
  */
 @Component
@@ -29,6 +29,9 @@ public class GenericObjectConfigProvider implements MapConfigProvider
 		mapConfig.addMapIndexConfig(typeIndexCfg);
 		MapIndexConfig valueIndexCfg = new MapIndexConfig("name", false);
 		mapConfig.addMapIndexConfig(valueIndexCfg);
+		mapConfig.addMapIndexConfig(new MapIndexConfig("formId", false));
+		mapConfig.addMapIndexConfig(new MapIndexConfig("entityId", false));
+		mapConfig.addMapIndexConfig(new MapIndexConfig("contactAddress", false));
 		return mapConfig;
 	}
 }
@@ -6,9 +6,11 @@ package pl.edu.icm.unity.store.impl.objstore;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -122,6 +124,7 @@ public class GenericObjectHzStore extends GenericBasicHzCRUD<GenericObjectBean>
 		toUpdate.setContents(obj.getContents());
 		toUpdate.setName(obj.getName());
 		toUpdate.setLastUpdate(obj.getLastUpdate());
+		toUpdate.copyLookupProperties(obj);
 		updateByKey(toUpdate.getId(), toUpdate);
 	}
 	
@@ -132,6 +135,35 @@ public class GenericObjectHzStore extends GenericBasicHzCRUD<GenericObjectBean>
 			throw new IllegalArgumentException("Changing object type is illegal");
 	}
 	
+	@Override
+	public List<GenericObjectBean> getObjectsMatching(GenericObjectBean pattern)
+	{
+		TransactionalMap<Long, GenericObjectBean> hMap = getMap();
+		EntryObject e = new PredicateBuilder().getEntryObject();
+		PredicateBuilder pBuilder = e.get("type").equal(pattern.getType());
+		if (pattern.getFormId() != null)
+			pBuilder = safeAdd(pBuilder, e.get("formId").equal(pattern.getFormId()));
+		if (pattern.getStatus() != null)
+			pBuilder = safeAdd(pBuilder, e.get("status").equal(pattern.getStatus()));
+		if (pattern.getEntityId() != null)
+			pBuilder = safeAdd(pBuilder, e.get("entityId").equal(pattern.getEntityId()));
+		if (pattern.getContactAddress() != null)
+			pBuilder = safeAdd(pBuilder, e.get("contactAddress").equal(pattern.getContactAddress()));
+		return hMap.values(pBuilder).stream()
+				.sorted(Comparator.comparing(GenericObjectBean::getId))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<GenericObjectBean> getObjectsOfTypePage(String type, int offset, int limit)
+	{
+		return getObjectsOfType(type).stream()
+				.sorted(Comparator.comparing(GenericObjectBean::getId))
+				.skip(offset)
+				.limit(limit)
+				.collect(Collectors.toList());
+	}
+	
 	private PredicateBuilder getPredicate(String type, String value)
 	{
 		EntryObject e = new PredicateBuilder().getEntryObject();
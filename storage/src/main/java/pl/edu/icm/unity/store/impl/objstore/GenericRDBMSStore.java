@@ -60,6 +60,7 @@ public class GenericRDBMSStore extends GenericRDBMSCRUD<GenericObjectBean, Gener
 		toUpdate.setContents(obj.getContents());
 		toUpdate.setName(obj.getName());
 		toUpdate.setLastUpdate(obj.getLastUpdate());
+		toUpdate.copyLookupProperties(obj);
 		mapper.updateByKey(toUpdate);
 	}
 	
@@ -99,4 +100,18 @@ public class GenericRDBMSStore extends GenericRDBMSCRUD<GenericObjectBean, Gener
 		GenericMapper mapper = SQLTransactionTL.getSql().getMapper(GenericMapper.class);
 		return mapper.getCountByType(type);
 	}
+
+	@Override
+	public List<GenericObjectBean> getObjectsMatching(GenericObjectBean pattern)
+	{
+		GenericMapper mapper = SQLTransactionTL.getSql().getMapper(GenericMapper.class);
+		return mapper.selectObjectsMatching(pattern);
+	}
+
+	@Override
+	public List<GenericObjectBean> getObjectsOfTypePage(String type, int offset, int limit)
+	{
+		GenericMapper mapper = SQLTransactionTL.getSql().getMapper(GenericMapper.class);
+		return mapper.selectObjectsOfTypePage(type, offset, limit);
+	}
 }
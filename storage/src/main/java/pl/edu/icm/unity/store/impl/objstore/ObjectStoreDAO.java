@@ -35,6 +35,17 @@ public interface ObjectStoreDAO extends BasicCRUDDAO<GenericObjectBean>
 	void removeObjectsByType(String type);
 	void updateObject(String name, String type, GenericObjectBean updated); 
 	long getCountByType(String type);
+	
+	/**
+	 * @param pattern type and lookup properties which must be matched by the returned objects. 
+	 * Lookup properties which are null are not used for matching.
+	 */
+	List<GenericObjectBean> getObjectsMatching(GenericObjectBean pattern);
+	
+	/**
+	 * @return a page of objects of the given type, ordered by their keys
+	 */
+	List<GenericObjectBean> getObjectsOfTypePage(String type, int offset, int limit);
 }
 
 
@@ -14,6 +14,7 @@ public class TokenBean extends BaseBean
 	private Long owner;
 	private Date created;
 	private Date expires;
+	private Date inactivityDeadline;
 
 	public TokenBean()
 	{
@@ -72,6 +73,14 @@ public class TokenBean extends BaseBean
 	{
 		this.expires = expires;
 	}
+	public Date getInactivityDeadline()
+	{
+		return inactivityDeadline;
+	}
+	public void setInactivityDeadline(Date inactivityDeadline)
+	{
+		this.inactivityDeadline = inactivityDeadline;
+	}
 	
 	public boolean isExpired()
 	{
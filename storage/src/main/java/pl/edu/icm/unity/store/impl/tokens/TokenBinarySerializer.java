@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.tokens;
+
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import pl.edu.icm.unity.base.token.Token;
+import pl.edu.icm.unity.store.hz.BinarySerializerForKryo;
+import pl.edu.icm.unity.store.hz.KryoBinaryIO;
+
+/**
+ * Binary Kryo serialization of {@link Token}.
+ */
+@Component
+public class TokenBinarySerializer implements BinarySerializerForKryo<Token>
+{
+	@Override
+	public void write(Output output, Token src)
+	{
+		output.writeString(src.getType());
+		output.writeString(src.getValue());
+		KryoBinaryIO.writeLong(output, src.getOwner());
+		KryoBinaryIO.writeDate(output, src.getCreated());
+		KryoBinaryIO.writeDate(output, src.getExpires());
+		KryoBinaryIO.writeDate(output, src.getInactivityDeadline());
+		KryoBinaryIO.writeBytes(output, src.getContents());
+	}
+
+	@Override
+	public Token read(Input input)
+	{
+		Token ret = new Token(input.readString(), input.readString(), KryoBinaryIO.readLong(input));
+		ret.setCreated(KryoBinaryIO.readDate(input));
+		ret.setExpires(KryoBinaryIO.readDate(input));
+		ret.setInactivityDeadline(KryoBinaryIO.readDate(input));
+		ret.setContents(KryoBinaryIO.readBytes(input));
+		return ret;
+	}
+
+	@Override
+	public Class<Token> getClazz()
+	{
+		return Token.class;
+	}
+}
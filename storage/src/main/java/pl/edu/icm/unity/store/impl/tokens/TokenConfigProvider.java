@@ -13,7 +13,8 @@ import pl.edu.icm.unity.store.hz.MapConfigProvider;
 
 
 /**
- * Configures tokens map: indices on owner, type and name.
+ * Configures tokens map: indices on owner, type and name, sorted indices on expiration 
+ * time and inactivity deadline.
  * @author K. Benedyczak
  */
 @Component
@@ -31,6 +32,10 @@ public class TokenConfigProvider implements MapConfigProvider
 		mapConfig.addMapIndexConfig(typeIndexCfg);
 		MapIndexConfig valueIndexCfg = new MapIndexConfig("value", false);
 		mapConfig.addMapIndexConfig(valueIndexCfg);
+		MapIndexConfig expiresIndexCfg = new MapIndexConfig("expires", true);
+		mapConfig.addMapIndexConfig(expiresIndexCfg);
+		MapIndexConfig inactivityIndexCfg = new MapIndexConfig("inactivityDeadline", true);
+		mapConfig.addMapIndexConfig(inactivityIndexCfg);
 		return mapConfig;
 	}
 }
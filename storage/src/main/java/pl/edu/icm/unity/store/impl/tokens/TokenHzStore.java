@@ -4,17 +4,27 @@
  */
 package pl.edu.icm.unity.store.impl.tokens;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
 import com.hazelcast.core.TransactionalMap;
 import com.hazelcast.query.EntryObject;
+import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.PredicateBuilder;
+import com.hazelcast.query.Predicates;
 
 import pl.edu.icm.unity.base.token.Token;
 import pl.edu.icm.unity.store.api.TokenDAO;
@@ -30,6 +40,7 @@ import pl.edu.icm.unity.store.hz.GenericBasicHzCRUD;
 public class TokenHzStore extends GenericBasicHzCRUD<Token> implements TokenDAO
 {
 	public static final String STORE_ID = DAO_ID + "hz";
+	private IMap<Long, Token> committedMap;
 
 	@Autowired
 	public TokenHzStore(TokenRDBMSStore rdbmsDAO)
@@ -37,6 +48,13 @@ public class TokenHzStore extends GenericBasicHzCRUD<Token> implements TokenDAO
 		super(STORE_ID, NAME, TokenRDBMSStore.BEAN, rdbmsDAO);
 	}
 
+	@Override
+	public void populateFromRDBMS(HazelcastInstance hzInstance)
+	{
+		super.populateFromRDBMS(hzInstance);
+		committedMap = hzInstance.getMap(STORE_ID);
+	}
+
 	@Override
 	public void delete(String type, String id)
 	{
@@ -95,6 +113,57 @@ public class TokenHzStore extends GenericBasicHzCRUD<Token> implements TokenDAO
 		return getByPredicate(pBuilder);
 	}
 
+	/**
+	 * Transactional map doesn't support paging, so the page is selected with the sorted expires index 
+	 * of the committed map and then re-read in the current transaction.
+	 */
+	@Override
+	public List<Token> getExpiredBatch(int batchSize)
+	{
+		Date now = new Date();
+		PagingPredicate<Long, Token> paging = new PagingPredicate<>(
+				Predicates.lessThan("expires", now), new ExpiresComparator(), batchSize);
+		return getPage(paging, token -> token.getExpires() != null && token.getExpires().before(now))
+				.stream()
+				.sorted(Comparator.comparing(Token::getExpires))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Token> getInactiveBatch(String type, int batchSize)
+	{
+		Date now = new Date();
+		PagingPredicate<Long, Token> paging = new PagingPredicate<>(Predicates.and(
+				Predicates.equal("type", type), 
+				Predicates.or(Predicates.lessThan("inactivityDeadline", now), 
+						Predicates.equal("inactivityDeadline", null))), 
+				batchSize);
+		return getPage(paging, token -> token.getInactivityDeadline() == null 
+				|| token.getInactivityDeadline().before(now));
+	}
+
+	@Override
+	public void deleteBatch(List<Token> tokens)
+	{
+		TransactionalMap<Long, Token> hMap = getMap();
+		for (Token token: tokens)
+		{
+			PredicateBuilder pBuilder = getPredicate(token.getType(), null, token.getValue());
+			for (Long key: hMap.keySet(pBuilder))
+				deleteByKey(key);
+		}
+	}
+
+	private List<Token> getPage(PagingPredicate<Long, Token> paging, Predicate<Token> stillMatching)
+	{
+		TransactionalMap<Long, Token> hMap = getMap();
+		return committedMap.keySet(paging).stream()
+				.map(hMap::get)
+				.filter(Objects::nonNull)
+				.filter(stillMatching)
+				.collect(Collectors.toList());
+	}
+
 	private List<Token> getByPredicate(PredicateBuilder pBuilder)
 	{
 		TransactionalMap<Long, Token> hMap = getMap();
@@ -119,4 +188,13 @@ public class TokenHzStore extends GenericBasicHzCRUD<Token> implements TokenDAO
 	{
 		return existing == null ? condition : existing.and(condition);
 	}
+	
+	private static class ExpiresComparator implements Comparator<Map.Entry<Long, Token>>, Serializable
+	{
+		@Override
+		public int compare(Map.Entry<Long, Token> o1, Map.Entry<Long, Token> o2)
+		{
+			return o1.getValue().getExpires().compareTo(o2.getValue().getExpires());
+		}
+	}
 }
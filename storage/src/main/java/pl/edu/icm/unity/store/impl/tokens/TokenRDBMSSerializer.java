@@ -22,6 +22,7 @@ public class TokenRDBMSSerializer implements RDBMSObjectSerializer<Token, TokenB
 		TokenBean ret = new TokenBean(object.getValue(), object.getContents(), 
 				object.getType(), object.getOwner(), object.getCreated());
 		ret.setExpires(object.getExpires());
+		ret.setInactivityDeadline(object.getInactivityDeadline());
 		return ret;
 	}
 
@@ -32,6 +33,7 @@ public class TokenRDBMSSerializer implements RDBMSObjectSerializer<Token, TokenB
 		token.setContents(bean.getContents());
 		token.setCreated(bean.getCreated());
 		token.setExpires(bean.getExpires());
+		token.setInactivityDeadline(bean.getInactivityDeadline());
 		return token;
 	}
 }
@@ -6,6 +6,7 @@ package pl.edu.icm.unity.store.impl.tokens;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -31,6 +32,12 @@ public class TokenRDBMSStore extends GenericRDBMSCRUD<Token, TokenBean> implemen
 		super(TokensMapper.class, serializer, NAME);
 	}
 
+	@Override
+	public boolean isUpdateByKeyOverridable()
+	{
+		return true;
+	}
+
 	@Override
 	public void delete(String type, String id)
 	{
@@ -53,6 +60,7 @@ public class TokenRDBMSStore extends GenericRDBMSCRUD<Token, TokenBean> implemen
 					token.getType() + "//" + token.getValue() + "] does not exist");
 		inDB.setContents(token.getContents());
 		inDB.setExpires(token.getExpires());
+		inDB.setInactivityDeadline(token.getInactivityDeadline());
 		mapper.updateByKey(inDB);
 	}
 
@@ -92,4 +100,32 @@ public class TokenRDBMSStore extends GenericRDBMSCRUD<Token, TokenBean> implemen
 		List<TokenBean> allInDB = mapper.getExpired(new Date());
 		return convertList(allInDB);
 	}
+
+	@Override
+	public List<Token> getExpiredBatch(int batchSize)
+	{
+		TokensMapper mapper = SQLTransactionTL.getSql().getMapper(TokensMapper.class);
+		List<TokenBean> allInDB = mapper.getExpiredBatch(new Date(), batchSize);
+		return convertList(allInDB);
+	}
+
+	@Override
+	public List<Token> getInactiveBatch(String type, int batchSize)
+	{
+		TokensMapper mapper = SQLTransactionTL.getSql().getMapper(TokensMapper.class);
+		List<TokenBean> allInDB = mapper.getInactiveBatch(type, new Date(), batchSize);
+		return convertList(allInDB);
+	}
+
+	@Override
+	public void deleteBatch(List<Token> tokens)
+	{
+		if (tokens.isEmpty())
+			return;
+		TokensMapper mapper = SQLTransactionTL.getSql().getMapper(TokensMapper.class);
+		List<TokenBean> toDelete = tokens.stream()
+				.map(token -> new TokenBean(token.getValue(), token.getType()))
+				.collect(Collectors.toList());
+		mapper.deleteByTypeAndName(toDelete);
+	}
 }
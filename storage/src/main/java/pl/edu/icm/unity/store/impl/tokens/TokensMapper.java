@@ -7,6 +7,8 @@ package pl.edu.icm.unity.store.impl.tokens;
 import java.util.Date;
 import java.util.List;
 
+import org.apache.ibatis.annotations.Param;
+
 import pl.edu.icm.unity.store.rdbms.BasicCRUDMapper;
 
 /**
@@ -19,4 +21,8 @@ public interface TokensMapper extends BasicCRUDMapper<TokenBean>
 	public List<TokenBean> getByOwner(TokenBean toSelect);
 	public List<TokenBean> getByType(String type);
 	public List<TokenBean> getExpired(Date now);
+	public List<TokenBean> getExpiredBatch(@Param("now") Date now, @Param("limit") int limit);
+	public List<TokenBean> getInactiveBatch(@Param("type") String type, @Param("now") Date now, 
+			@Param("limit") int limit);
+	public void deleteByTypeAndName(List<TokenBean> toDelete);
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+
+package pl.edu.icm.unity.store.migration.to3_6;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.base.utils.Log;
+import pl.edu.icm.unity.store.impl.entities.EntitiesMapper;
+import pl.edu.icm.unity.store.impl.entities.EntityBean;
+import pl.edu.icm.unity.store.impl.entities.EntityJsonSerializer;
+import pl.edu.icm.unity.store.impl.objstore.GenericMapper;
+import pl.edu.icm.unity.store.impl.objstore.GenericObjectBean;
+import pl.edu.icm.unity.store.migration.InDBContentsUpdater;
+import pl.edu.icm.unity.store.objstore.GenericEntityHandler;
+import pl.edu.icm.unity.store.objstore.reg.eresp.EnquiryResponseHandler;
+import pl.edu.icm.unity.store.objstore.reg.invite.InvitationHandler;
+import pl.edu.icm.unity.store.objstore.reg.req.RegistrationRequestHandler;
+import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
+
+/**
+ * Tokens table indexes were added in SQL schema migration.
+ * Here lookup columns of registration requests, enquiry responses and invitations,
+ * added in SQL schema migration, are filled. The same applies to the next scheduled operation time 
+ * of entities.
+ */
+@Component
+public class InDBUpdateFromSchema13 implements InDBContentsUpdater
+{
+	private static final Logger LOG = Log.getLogger(Log.U_SERVER_DB, InDBUpdateFromSchema13.class);
+
+	private final List<GenericEntityHandler<?>> handlers;
+	private final EntityJsonSerializer entitySerializer;
+
+	@Autowired
+	public InDBUpdateFromSchema13(RegistrationRequestHandler requestHandler,
+			EnquiryResponseHandler responseHandler, InvitationHandler invitationHandler,
+			EntityJsonSerializer entitySerializer)
+	{
+		this.handlers = Arrays.asList(requestHandler, responseHandler, invitationHandler);
+		this.entitySerializer = entitySerializer;
+	}
+
+	@Override
+	public int getUpdatedVersion()
+	{
+		return 13;
+	}
+
+	@Override
+	public void update() throws IOException
+	{
+		for (GenericEntityHandler<?> handler: handlers)
+			fillLookupColumns(handler);
+		fillEntitiesNextOperationTime();
+	}
+
+	private <T> void fillLookupColumns(GenericEntityHandler<T> handler)
+	{
+		GenericMapper genericMapper = SQLTransactionTL.getSql().getMapper(GenericMapper.class);
+		List<GenericObjectBean> objects = genericMapper.selectObjectsByType(handler.getType());
+		for (GenericObjectBean object: objects)
+		{
+			GenericObjectBean withLookup = handler.toBlob(handler.fromBlob(object));
+			object.copyLookupProperties(withLookup);
+			genericMapper.updateByKey(object);
+		}
+		LOG.info("Updated lookup columns of {} objects of type {}", objects.size(), handler.getType());
+	}
+
+	private void fillEntitiesNextOperationTime()
+	{
+		EntitiesMapper entitiesMapper = SQLTransactionTL.getSql().getMapper(EntitiesMapper.class);
+		int updated = 0;
+		for (EntityBean entity: entitiesMapper.getAll())
+		{
+			EntityBean withNextOperationTime = entitySerializer.toDB(entitySerializer.fromDB(entity));
+			if (withNextOperationTime.getNextOperationTime() == null)
+				continue;
+			entity.setNextOperationTime(withNextOperationTime.getNextOperationTime());
+			entitiesMapper.updateByKey(entity);
+			updated++;
+		}
+		LOG.info("Updated next scheduled operation time of {} entities", updated);
+	}
+}
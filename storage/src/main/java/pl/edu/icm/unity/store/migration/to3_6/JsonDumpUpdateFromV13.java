@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+
+package pl.edu.icm.unity.store.migration.to3_6;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.store.export.JsonDumpUpdate;
+
+/**
+ * Empty update: dump format was not changed.
+ */
+@Component
+public class JsonDumpUpdateFromV13 implements JsonDumpUpdate
+{
+	@Override
+	public int getUpdatedVersion()
+	{
+		return 13;
+	}
+
+	@Override
+	public InputStream update(InputStream is) throws IOException
+	{
+		return is;
+	}
+}
@@ -98,6 +98,32 @@ public class GenericObjectsDAOImpl<T extends NamedObject> implements NamedCRUDDA
 		return ret;
 	}
 
+	/**
+	 * For extensions supporting lookups by indexed properties
+	 * @param pattern lookup properties of returned objects. Type is set by this method.
+	 */
+	protected List<T> getMatching(GenericObjectBean pattern)
+	{
+		pattern.setType(type);
+		return fromBlobs(dbGeneric.getObjectsMatching(pattern));
+	}
+
+	/**
+	 * @return a page of all objects, ordered by creation
+	 */
+	public List<T> getPage(int offset, int limit)
+	{
+		return fromBlobs(dbGeneric.getObjectsOfTypePage(type, offset, limit));
+	}
+	
+	private List<T> fromBlobs(List<GenericObjectBean> allRaw)
+	{
+		List<T> ret = new ArrayList<>(allRaw.size());
+		for (GenericObjectBean raw: allRaw)
+			ret.add(handler.fromBlob(raw));
+		return ret;
+	}
+	
 	@Override
 	public List<Map.Entry<T, Date>> getAllWithUpdateTimestamps()
 	{
@@ -161,12 +187,14 @@ public class GenericObjectsDAOImpl<T extends NamedObject> implements NamedCRUDDA
 		
 		firePreRemove(raw.getId(), name, removed);
 		dbGeneric.removeObject(name, type);
+		postModification();
 	}
 
 	@Override
 	public void deleteAll()
 	{
 		dbGeneric.removeObjectsByType(type);
+		postModification();
 	}
 	
 	@Override
@@ -183,6 +211,7 @@ public class GenericObjectsDAOImpl<T extends NamedObject> implements NamedCRUDDA
 		GenericObjectBean blob = handler.toBlob(newValue);
 		blob.setLastUpdate(new Date());
 		dbGeneric.updateObject(current, blob.getType(), blob);
+		postModification();
 	}
 
 	@Override
@@ -192,6 +221,7 @@ public class GenericObjectsDAOImpl<T extends NamedObject> implements NamedCRUDDA
 		GenericObjectBean raw = handler.toBlob(obj);
 		raw.setLastUpdate(new Date());
 		dbGeneric.updateByKey(id, raw);
+		postModification();
 	}
 
 	@Override
@@ -219,7 +249,9 @@ public class GenericObjectsDAOImpl<T extends NamedObject> implements NamedCRUDDA
 		if (exists(newValue.getName()))
 			throw new IllegalArgumentException("The [" + newValue.getName() + "] " + objectName +
 					" already exists");
-		return dbGeneric.create(blob);
+		long ret = dbGeneric.create(blob);
+		postModification();
+		return ret;
 	}
 
 	@Override
@@ -231,12 +263,21 @@ public class GenericObjectsDAOImpl<T extends NamedObject> implements NamedCRUDDA
 			throw new IllegalArgumentException("The [" + obj.getName() + "] " + objectName +
 					" already exists");
 		dbGeneric.createWithId(id, blob);
+		postModification();
 	}
 	
 	@Override
 	public void deleteByKey(long id)
 	{
 		dbGeneric.deleteByKey(id);
+		postModification();
+	}
+	
+	/**
+	 * For extensions, invoked after each modification of the stored objects
+	 */
+	protected void postModification()
+	{
 	}
 
 	@Override
@@ -7,6 +7,7 @@ package pl.edu.icm.unity.store.objstore.ac;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.api.generic.AttributeClassDB;
 import pl.edu.icm.unity.store.impl.objstore.ObjectStoreDAO;
 import pl.edu.icm.unity.store.objstore.GenericObjectsDAOImpl;
@@ -19,10 +20,19 @@ import pl.edu.icm.unity.types.basic.AttributesClass;
 @Component
 public class AttributeClassDBImpl extends GenericObjectsDAOImpl<AttributesClass> implements AttributeClassDB 
 {
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
+	
 	@Autowired
 	AttributeClassDBImpl(AttributeClassHandler handler,
-			ObjectStoreDAO dbGeneric)
+			ObjectStoreDAO dbGeneric, DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(handler, dbGeneric, AttributesClass.class, "attributes class");
+		this.modificationsTracker = modificationsTracker;
+	}
+	
+	@Override
+	protected void postModification()
+	{
+		modificationsTracker.globalDataModified();
 	}
 }
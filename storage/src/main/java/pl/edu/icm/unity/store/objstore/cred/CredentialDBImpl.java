@@ -7,6 +7,7 @@ package pl.edu.icm.unity.store.objstore.cred;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.api.generic.CredentialDB;
 import pl.edu.icm.unity.store.impl.objstore.ObjectStoreDAO;
 import pl.edu.icm.unity.store.objstore.GenericObjectsDAOImpl;
@@ -19,9 +20,19 @@ import pl.edu.icm.unity.types.authn.CredentialDefinition;
 @Component
 public class CredentialDBImpl extends GenericObjectsDAOImpl<CredentialDefinition> implements CredentialDB
 {
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
+	
 	@Autowired
-	CredentialDBImpl(CredentialHandler handler, ObjectStoreDAO dbGeneric)
+	CredentialDBImpl(CredentialHandler handler, ObjectStoreDAO dbGeneric, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(handler, dbGeneric, CredentialDefinition.class, "credential");
+		this.modificationsTracker = modificationsTracker;
+	}
+	
+	@Override
+	protected void postModification()
+	{
+		modificationsTracker.globalDataModified();
 	}
 }
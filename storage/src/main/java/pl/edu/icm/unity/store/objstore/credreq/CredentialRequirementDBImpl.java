@@ -9,6 +9,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.api.generic.CredentialRequirementDB;
 import pl.edu.icm.unity.store.impl.objstore.ObjectStoreDAO;
 import pl.edu.icm.unity.store.objstore.GenericObjectsDAOImpl;
@@ -25,14 +26,24 @@ import pl.edu.icm.unity.types.authn.CredentialRequirements;
 public class CredentialRequirementDBImpl extends GenericObjectsDAOImpl<CredentialRequirements>
 			implements CredentialRequirementDB
 {
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
+	
 	@Autowired
 	public CredentialRequirementDBImpl(CredentialRequirementHandler handler,
-			ObjectStoreDAO dbGeneric, CredentialDBImpl credentialDB)
+			ObjectStoreDAO dbGeneric, CredentialDBImpl credentialDB, 
+			DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(handler, dbGeneric, CredentialRequirements.class,	"credential requirement");
+		this.modificationsTracker = modificationsTracker;
 		credentialDB.addRemovalHandler(this::restrictCredentialRemoval);
 	}
 	
+	@Override
+	protected void postModification()
+	{
+		modificationsTracker.globalDataModified();
+	}
+	
 	
 	private void restrictCredentialRemoval(long removedId, String removedName)
 	{
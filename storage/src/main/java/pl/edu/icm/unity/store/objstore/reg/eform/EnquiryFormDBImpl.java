@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import pl.edu.icm.unity.base.msgtemplates.reg.EnquiryFilledTemplateDef;
 import pl.edu.icm.unity.base.msgtemplates.reg.NewEnquiryTemplateDef;
+import pl.edu.icm.unity.store.DirectoryModificationsTrackerImpl;
 import pl.edu.icm.unity.store.ReferenceRemovalHandler;
 import pl.edu.icm.unity.store.ReferenceUpdateHandler;
 import pl.edu.icm.unity.store.api.generic.EnquiryFormDB;
@@ -41,12 +42,15 @@ import pl.edu.icm.unity.types.registration.EnquiryForm.EnquiryType;
 @Component
 public class EnquiryFormDBImpl extends GenericObjectsDAOImpl<EnquiryForm> implements EnquiryFormDB
 {
+	private final DirectoryModificationsTrackerImpl modificationsTracker;
+	
 	@Autowired
 	public EnquiryFormDBImpl(EnquiryFormHandler handler, ObjectStoreDAO dbGeneric,
 			CredentialDBImpl credDAO, AttributeTypeDAOInternal atDAO, GroupDAOInternal groupDAO,
-			MessageTemplateDBImpl msgTemplateDB)
+			MessageTemplateDBImpl msgTemplateDB, DirectoryModificationsTrackerImpl modificationsTracker)
 	{
 		super(handler, dbGeneric, EnquiryForm.class, "enquiry form");
+		this.modificationsTracker = modificationsTracker;
 		credDAO.addRemovalHandler(new CredentialChangeListener(this));
 		credDAO.addUpdateHandler(new CredentialRenameListener<>(this));
 		
@@ -65,6 +69,12 @@ public class EnquiryFormDBImpl extends GenericObjectsDAOImpl<EnquiryForm> implem
 		addUpdateHandler(changeListener);
 	}
 	
+	@Override
+	protected void postModification()
+	{
+		modificationsTracker.globalDataModified();
+	}
+	
 	private class MessageTemplateChangeListener extends BaseTemplateChangeListener
 	{
 		@Override
@@ -4,15 +4,19 @@
  */
 package pl.edu.icm.unity.store.objstore.reg.eresp;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import pl.edu.icm.unity.store.api.generic.EnquiryResponseDB;
+import pl.edu.icm.unity.store.impl.objstore.GenericObjectBean;
 import pl.edu.icm.unity.store.impl.objstore.ObjectStoreDAO;
 import pl.edu.icm.unity.store.objstore.GenericObjectsDAOImpl;
 import pl.edu.icm.unity.store.objstore.cred.CredentialDBImpl;
 import pl.edu.icm.unity.store.objstore.reg.RequestCredentialChangeListener;
 import pl.edu.icm.unity.types.registration.EnquiryResponseState;
+import pl.edu.icm.unity.types.registration.RegistrationRequestStatus;
 
 /**
  * Easy access to {@link EnquiryResponseState} storage.
@@ -30,4 +34,24 @@ public class EnquiryResponseDBImpl extends GenericObjectsDAOImpl<EnquiryResponse
 		super(handler, dbGeneric, EnquiryResponseState.class, "enquiry response");
 		credentialDB.addUpdateHandler(new RequestCredentialChangeListener<>(this));
 	}
+
+	@Override
+	public List<EnquiryResponseState> getByForm(String formId, RegistrationRequestStatus status)
+	{
+		GenericObjectBean pattern = new GenericObjectBean();
+		pattern.setFormId(formId);
+		pattern.setStatus(status == null ? null : status.name());
+		return getMatching(pattern);
+	}
+
+	@Override
+	public List<EnquiryResponseState> getByFormAndEntity(String formId, long entityId,
+			RegistrationRequestStatus status)
+	{
+		GenericObjectBean pattern = new GenericObjectBean();
+		pattern.setFormId(formId);
+		pattern.setEntityId(entityId);
+		pattern.setStatus(status == null ? null : status.name());
+		return getMatching(pattern);
+	}
 }
@@ -32,8 +32,12 @@ public class EnquiryResponseHandler extends DefaultEntityHandler<EnquiryResponse
 	@Override
 	public GenericObjectBean toBlob(EnquiryResponseState value)
 	{
-		return new GenericObjectBean(value.getName(), 
+		GenericObjectBean blob = new GenericObjectBean(value.getName(), 
 				JsonUtil.serialize2Bytes(value.toJson()), supportedType);
+		blob.setFormId(value.getRequest().getFormId());
+		blob.setStatus(value.getStatus().name());
+		blob.setEntityId(value.getEntityId());
+		return blob;
 	}
 
 	@Override
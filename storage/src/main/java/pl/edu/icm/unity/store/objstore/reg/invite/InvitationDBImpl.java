@@ -4,10 +4,13 @@
  */
 package pl.edu.icm.unity.store.objstore.reg.invite;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import pl.edu.icm.unity.store.api.generic.InvitationDB;
+import pl.edu.icm.unity.store.impl.objstore.GenericObjectBean;
 import pl.edu.icm.unity.store.impl.objstore.ObjectStoreDAO;
 import pl.edu.icm.unity.store.objstore.GenericObjectsDAOImpl;
 import pl.edu.icm.unity.types.registration.invite.InvitationWithCode;
@@ -26,4 +29,20 @@ public class InvitationDBImpl extends GenericObjectsDAOImpl<InvitationWithCode>
 	{
 		super(handler, dbGeneric, InvitationWithCode.class, "invitation");
 	}
+
+	@Override
+	public List<InvitationWithCode> getByForm(String formId)
+	{
+		GenericObjectBean pattern = new GenericObjectBean();
+		pattern.setFormId(formId);
+		return getMatching(pattern);
+	}
+
+	@Override
+	public List<InvitationWithCode> getByContactAddress(String contactAddress)
+	{
+		GenericObjectBean pattern = new GenericObjectBean();
+		pattern.setContactAddress(contactAddress);
+		return getMatching(pattern);
+	}
 }
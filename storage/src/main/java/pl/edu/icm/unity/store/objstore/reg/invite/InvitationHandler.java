@@ -32,8 +32,11 @@ public class InvitationHandler extends DefaultEntityHandler<InvitationWithCode>
 	@Override
 	public GenericObjectBean toBlob(InvitationWithCode value)
 	{
-		return new GenericObjectBean(value.getName(), 
+		GenericObjectBean blob = new GenericObjectBean(value.getName(), 
 				JsonUtil.serialize2Bytes(value.toJson()), supportedType);
+		blob.setFormId(value.getInvitation().getFormId());
+		blob.setContactAddress(value.getInvitation().getContactAddress());
+		return blob;
 	}
 
 	@Override
@@ -4,15 +4,19 @@
  */
 package pl.edu.icm.unity.store.objstore.reg.req;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import pl.edu.icm.unity.store.api.generic.RegistrationRequestDB;
+import pl.edu.icm.unity.store.impl.objstore.GenericObjectBean;
 import pl.edu.icm.unity.store.impl.objstore.ObjectStoreDAO;
 import pl.edu.icm.unity.store.objstore.GenericObjectsDAOImpl;
 import pl.edu.icm.unity.store.objstore.cred.CredentialDBImpl;
 import pl.edu.icm.unity.store.objstore.reg.RequestCredentialChangeListener;
 import pl.edu.icm.unity.types.registration.RegistrationRequestState;
+import pl.edu.icm.unity.types.registration.RegistrationRequestStatus;
 
 /**
  * Easy access to {@link RegistrationRequestState} storage.
@@ -30,4 +34,13 @@ public class RegistrationRequestDBImpl extends GenericObjectsDAOImpl<Registratio
 		super(handler, dbGeneric, RegistrationRequestState.class, "registration request");
 		credentialDB.addUpdateHandler(new RequestCredentialChangeListener<>(this));
 	}
+
+	@Override
+	public List<RegistrationRequestState> getByForm(String formId, RegistrationRequestStatus status)
+	{
+		GenericObjectBean pattern = new GenericObjectBean();
+		pattern.setFormId(formId);
+		pattern.setStatus(status == null ? null : status.name());
+		return getMatching(pattern);
+	}
 }
@@ -32,8 +32,11 @@ public class RegistrationRequestHandler extends DefaultEntityHandler<Registratio
 	@Override
 	public GenericObjectBean toBlob(RegistrationRequestState value)
 	{
-		return new GenericObjectBean(value.getName(), 
+		GenericObjectBean blob = new GenericObjectBean(value.getName(), 
 				JsonUtil.serialize2Bytes(value.toJson()), supportedType);
+		blob.setFormId(value.getRequest().getFormId());
+		blob.setStatus(value.getStatus().name());
+		return blob;
 	}
 
 	@Override
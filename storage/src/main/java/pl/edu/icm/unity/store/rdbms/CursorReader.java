@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.rdbms;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
+
+/**
+ * Reads results of a mapper's query with a database cursor, so that they are not loaded
+ * into memory all at once. Must be used in a transaction, the cursor is closed before returning.
+ * @author K. Benedyczak
+ */
+public class CursorReader
+{
+	public static <BEAN> void forEach(Class<?> mapperClass, String statementId, Consumer<BEAN> consumer)
+	{
+		try (Cursor<BEAN> cursor = SQLTransactionTL.getSql().selectCursor(
+				mapperClass.getName() + "." + statementId))
+		{
+			cursor.forEach(consumer);
+		} catch (IOException e)
+		{
+			throw new IllegalStateException("Can not close database cursor of " + statementId, e);
+		}
+	}
+}
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import pl.edu.icm.unity.store.ReferenceAwareDAO;
 import pl.edu.icm.unity.store.ReferenceRemovalHandler;
@@ -132,6 +133,15 @@ public abstract class GenericRDBMSCRUD<T, DBT extends GenericDBBean>
 		return convertList(allInDB);
 	}
 	
+	/**
+	 * Passes all elements to the consumer. Elements are read with a database cursor, so unlike 
+	 * {@link #getAll()} not all of them are kept in memory.
+	 */
+	public void forEach(Consumer<T> consumer)
+	{
+		CursorReader.<DBT>forEach(mapperClass, "getAll", bean -> consumer.accept(jsonSerializer.fromDB(bean)));
+	}
+	
 	@Override
 	public long getCount()
 	{
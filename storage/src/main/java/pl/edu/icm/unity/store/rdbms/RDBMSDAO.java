@@ -10,5 +10,14 @@ package pl.edu.icm.unity.store.rdbms;
  */
 public interface RDBMSDAO
 {
-
+	/**
+	 * @return true if an update by key of an element can be skipped when it is followed by another update by key 
+	 * of the same element, regardless of other modifications performed in between. This is the case for DAOs 
+	 * which elements are not referenced by name from other elements and which updates do not 
+	 * modify any other element.
+	 */
+	default boolean isUpdateByKeyOverridable()
+	{
+		return false;
+	}
 }
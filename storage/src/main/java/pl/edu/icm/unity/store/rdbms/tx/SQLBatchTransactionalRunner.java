@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.rdbms.tx;
+
+import org.springframework.stereotype.Component;
+
+import pl.edu.icm.unity.exceptions.EngineException;
+import pl.edu.icm.unity.store.StorageEngine;
+import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
+import pl.edu.icm.unity.store.tx.TransactionalExt;
+
+/**
+ * RDBMS transactional runner using batched statements execution - see {@link TransactionalExt#batchedStatements()}.
+ * Useful for bulk modifications which do not rely on results of individual statements.
+ */
+@Component(SQLBatchTransactionalRunner.NAME)
+public class SQLBatchTransactionalRunner implements TransactionalRunner
+{
+	public static final String NAME = "SQLBatchTransactionalRunner";
+	
+	@TransactionalExt(storageEngine=StorageEngine.rdbms, batchedStatements=true)
+	@Override
+	public void runInTransaction(TxRunnable code)
+	{
+		code.run();
+	}
+
+	@TransactionalExt(storageEngine=StorageEngine.rdbms, batchedStatements=true)
+	@Override
+	public <T> T runInTransactionRet(TxRunnableRet<T> code)
+	{
+		return code.run();
+	}
+	
+	@TransactionalExt(storageEngine=StorageEngine.rdbms, batchedStatements=true, autoCommit = false)
+	@Override
+	public void runInTransactionNoAutoCommit(TxRunnable code)
+	{
+		code.run();
+	}
+	
+	@TransactionalExt(storageEngine=StorageEngine.rdbms, batchedStatements=true, autoCommit = false)
+	@Override
+	public <T> T runInTransactionNoAutoCommitRet(TxRunnableRet<T> code)
+	{
+		return code.run();
+	}
+
+	@TransactionalExt(storageEngine=StorageEngine.rdbms, batchedStatements=true)
+	@Override
+	public void runInTransactionThrowing(TxRunnableThrowing code) throws EngineException
+	{
+		code.run();
+	}
+	
+	@TransactionalExt(storageEngine=StorageEngine.rdbms, batchedStatements=true)
+	@Override
+	public <T> T runInTransactionRetThrowing(TxRunnableThrowingRet<T> code) throws EngineException
+	{
+		return code.run();
+	}
+}
@@ -5,6 +5,7 @@
 package pl.edu.icm.unity.store.rdbms.tx;
 
 import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.logging.log4j.Logger;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -35,11 +36,18 @@ public class SQLTransactionEngine implements TransactionEngine
 	
 	@Override
 	public Object runInTransaction(ProceedingJoinPoint pjp, int maxRetries, boolean autoCommit) throws Throwable 
+	{
+		return runInTransaction(pjp, maxRetries, autoCommit, false);
+	}
+	
+	@Override
+	public Object runInTransaction(ProceedingJoinPoint pjp, int maxRetries, boolean autoCommit, 
+			boolean batchedStatements) throws Throwable 
 	{
 		int retry = 0;
 		do
 		{
-			setupTransactionSession(pjp);
+			setupTransactionSession(pjp, batchedStatements);
 			try
 			{
 				Object retVal = pjp.proceed();
@@ -72,7 +80,7 @@ public class SQLTransactionEngine implements TransactionEngine
 		} while(true);
 	}
 	
-	private void setupTransactionSession(ProceedingJoinPoint pjp)
+	private void setupTransactionSession(ProceedingJoinPoint pjp, boolean batchedStatements)
 	{
 		TransactionsState<SQLTransactionState> transactionsStack = SQLTransactionTL.getState();
 		
@@ -80,7 +88,8 @@ public class SQLTransactionEngine implements TransactionEngine
 		{
 			if (log.isTraceEnabled())
 				log.trace("Starting sql session for " + pjp.toShortString());
-			SqlSession sqlSession = dbSessionMan.getSqlSession(true);
+			SqlSession sqlSession = dbSessionMan.getSqlSession(batchedStatements ? 
+					ExecutorType.BATCH : ExecutorType.SIMPLE, true);
 			transactionsStack.push(new SQLTransactionState(sqlSession));
 		} else
 		{
@@ -16,4 +16,14 @@ public interface TransactionEngine
 	String NAME_PFX = "TransactionEngine";
 	
 	Object runInTransaction(ProceedingJoinPoint pjp, int maxRetries, boolean transactional) throws Throwable;
+	
+	/**
+	 * As {@link #runInTransaction(ProceedingJoinPoint, int, boolean)} but additionally allows for requesting 
+	 * statements batching. Engines which do not support batching simply ignore the last argument.
+	 */
+	default Object runInTransaction(ProceedingJoinPoint pjp, int maxRetries, boolean transactional, 
+			boolean batchedStatements) throws Throwable
+	{
+		return runInTransaction(pjp, maxRetries, transactional);
+	}
 }
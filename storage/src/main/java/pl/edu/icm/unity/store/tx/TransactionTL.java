@@ -34,6 +34,11 @@ public class TransactionTL
 		get().getRootTransaction().addPostCommitAction(action);
 	}
 
+	static boolean isTransactionActive()
+	{
+		return !HzTransactionTL.getState().isEmpty() || !SQLTransactionTL.getState().isEmpty();
+	}
+
 	private static TransactionsState<? extends TransactionState> get()
 	{
 		if (HzTransactionTL.getState().isEmpty())
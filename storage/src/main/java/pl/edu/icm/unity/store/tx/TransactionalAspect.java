@@ -49,7 +49,7 @@ public class TransactionalAspect
 	private Object retryIfNeeded4Class(ProceedingJoinPoint pjp, TransactionalExt transactional) throws Throwable 
 	{
 		return getEngine(transactional.storageEngine()).runInTransaction(pjp, transactional.maxRetries(), 
-				transactional.autoCommit());
+				transactional.autoCommit(), transactional.batchedStatements());
 	};
 	
 	@Around("(execution(public * pl.edu.icm.unity..*.*(..)) || execution(public * io.imunity..*.*(..))) && "
@@ -57,7 +57,7 @@ public class TransactionalAspect
 	public Object retryIfNeeded4Method(ProceedingJoinPoint pjp, TransactionalExt transactional) throws Throwable 
 	{
 		return getEngine(transactional.storageEngine()).runInTransaction(pjp, transactional.maxRetries(), 
-				transactional.autoCommit());
+				transactional.autoCommit(), transactional.batchedStatements());
 	}
 	
 	@Around("(execution(public * pl.edu.icm.unity..*.*(..)) || execution(public * io.imunity..*.*(..))) && "
@@ -28,5 +28,12 @@ public @interface TransactionalExt
 	
 	boolean autoCommit() default true;
 
+	/**
+	 * If true then the engine is asked to batch statements of the transaction, if it supports this.
+	 * Batched statements are sent to the database at the latest at commit time, so this should be 
+	 * only used by code which doesn't rely on results of individual modifications.
+	 */
+	boolean batchedStatements() default false;
+
 	StorageEngine storageEngine();
 }
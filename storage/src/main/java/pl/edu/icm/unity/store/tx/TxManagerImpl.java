@@ -26,4 +26,10 @@ public class TxManagerImpl implements TxManager
 	{
 		TransactionTL.addPostCommitAction(action);
 	}
+
+	@Override
+	public boolean isTransactionActive()
+	{
+		return TransactionTL.isTransactionActive();
+	}
 }
@@ -13,6 +13,7 @@ import java.util.List;
 
 import org.junit.Test;
 
+import pl.edu.icm.unity.store.impl.files.AttributeContentIE;
 import pl.edu.icm.unity.store.impl.identities.IdentityIE;
 import pl.edu.icm.unity.store.objstore.cred.CredentialHandler;
 import pl.edu.icm.unity.store.objstore.credreq.CredentialRequirementHandler;
@@ -58,6 +59,18 @@ public class DBDumpContentMapperTest
 		assertThat(ret, not(hasItem(CredentialHandler.CREDENTIAL_OBJECT_TYPE)));
 	}
 
+	@Test
+	public void shouldGetAttributeContentsWithUsersNotWithSystemConfig()
+	{
+		List<String> users = DBDumpContentTypeMapper.getDBElements(
+				new DBDumpContentElements(false, false, true, false, false));
+		List<String> system = DBDumpContentTypeMapper.getDBElements(
+				new DBDumpContentElements(true, false, false, false, false));
+
+		assertThat(users, hasItem(AttributeContentIE.ATTRIBUTE_CONTENTS_OBJECT_TYPE));
+		assertThat(system, not(hasItem(AttributeContentIE.ATTRIBUTE_CONTENTS_OBJECT_TYPE)));
+	}
+
 	@Test
 	public void shouldGetAlsoDirectorySchemaWhenClearUsers()
 	{
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.GlobalSerializerConfig;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import pl.edu.icm.unity.base.cache.CacheSettings;
+import pl.edu.icm.unity.base.cache.CacheStatistics;
+import pl.edu.icm.unity.base.cache.NamedCache;
+
+public class HazelcastCacheBackendTest
+{
+	private static HazelcastInstance hzInstance;
+
+	@BeforeClass
+	public static void startHazelcast()
+	{
+		Config config = new Config("cacheBackendTest");
+		JoinConfig join = config.getNetworkConfig().getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(false);
+		GlobalSerializerConfig globalSCfg = new GlobalSerializerConfig();
+		globalSCfg.setImplementation(new KryoSerializer(new KryoPool.Builder(Kryo::new).build()));
+		config.getSerializationConfig().setGlobalSerializerConfig(globalSCfg);
+		hzInstance = Hazelcast.newHazelcastInstance(config);
+	}
+
+	@AfterClass
+	public static void stopHazelcast()
+	{
+		hzInstance.shutdown();
+	}
+
+	@Test
+	public void shouldShareEntriesBetweenCachesOfTheSameName()
+	{
+		CacheSettings settings = new CacheSettings(100, Duration.ZERO, Duration.ZERO);
+		NamedCache<String, Integer> cache1 = new HazelcastCacheBackend(hzInstance).createCache("shared", settings);
+		NamedCache<String, Integer> cache2 = new HazelcastCacheBackend(hzInstance).createCache("shared", settings);
+
+		cache1.put("key", 1);
+
+		assertThat(cache2.get("key")).isEqualTo(1);
+		assertThat(cache2.values()).containsExactly(1);
+		assertThat(cache2.remove("key")).isTrue();
+		assertThat(cache1.get("key")).isNull();
+	}
+
+	@Test
+	public void shouldComputeEntriesAtomically() throws Exception
+	{
+		CacheSettings settings = new CacheSettings(100, Duration.ZERO, Duration.ZERO);
+		NamedCache<String, Integer> cache1 = new HazelcastCacheBackend(hzInstance).createCache("computed", settings);
+		NamedCache<String, Integer> cache2 = new HazelcastCacheBackend(hzInstance).createCache("computed", settings);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> results = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++)
+		{
+			NamedCache<String, Integer> cache = i % 2 == 0 ? cache1 : cache2;
+			results.add(executor.submit(() -> cache.compute("key", (key, value) -> value == null ? 1 : value + 1)));
+		}
+		for (Future<?> result: results)
+			result.get();
+		executor.shutdown();
+
+		assertThat(cache1.get("key")).isEqualTo(100);
+		assertThat(cache2.compute("key", (key, value) -> null)).isNull();
+		assertThat(cache1.get("key")).isNull();
+	}
+
+	@Test
+	public void shouldExpireEntries() throws InterruptedException
+	{
+		NamedCache<String, Integer> cache = new HazelcastCacheBackend(hzInstance).createCache("expiring", 
+				new CacheSettings(100, Duration.ofSeconds(1), Duration.ZERO));
+		cache.put("key", 1);
+
+		Thread.sleep(2000);
+
+		assertThat(cache.get("key")).isNull();
+	}
+
+	@Test
+	public void shouldCountHitsAndMisses()
+	{
+		NamedCache<String, Integer> cache = new HazelcastCacheBackend(hzInstance).createCache("stats", 
+				new CacheSettings(100, Duration.ZERO, Duration.ZERO));
+		cache.put("key", 1);
+
+		cache.get("key");
+		cache.get("key");
+		cache.get("missing");
+
+		CacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.hits).isEqualTo(2);
+		assertThat(statistics.misses).isEqualTo(1);
+		assertThat(statistics.entries).isEqualTo(1);
+	}
+}
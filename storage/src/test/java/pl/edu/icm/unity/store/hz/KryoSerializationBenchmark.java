@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import pl.edu.icm.unity.Constants;
+import pl.edu.icm.unity.store.impl.identities.IdentityBinarySerializer;
+import pl.edu.icm.unity.store.impl.identities.IdentityJsonSerializer;
+import pl.edu.icm.unity.store.types.StoredIdentity;
+import pl.edu.icm.unity.types.basic.Identity;
+
+/**
+ * Compares performance of the legacy JSON based and binary Kryo serialization of identities. 
+ * Not run as a part of the build, use the main method to run it manually.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KryoSerializationBenchmark
+{
+	private Kryo jsonKryo;
+	private Kryo binaryKryo;
+	private StoredIdentity identity;
+	private byte[] jsonSerialized;
+	private byte[] binarySerialized;
+	private Output output;
+	
+	@Setup
+	public void setup()
+	{
+		IdentityJsonSerializer jsonSerializer = new IdentityJsonSerializer();
+		jsonKryo = new Kryo();
+		jsonKryo.register(StoredIdentity.class, new KryoJsonSerializer<>(jsonSerializer));
+		binaryKryo = new Kryo();
+		binaryKryo.register(StoredIdentity.class, new KryoVersionedSerializer<>(jsonSerializer, 
+				new IdentityBinarySerializer(), true));
+		
+		identity = createIdentity();
+		output = new Output(4096, -1);
+		jsonSerialized = write(jsonKryo);
+		binarySerialized = write(binaryKryo);
+	}
+	
+	@Benchmark
+	public byte[] writeJson()
+	{
+		return write(jsonKryo);
+	}
+
+	@Benchmark
+	public byte[] writeBinary()
+	{
+		return write(binaryKryo);
+	}
+
+	@Benchmark
+	public StoredIdentity readJson()
+	{
+		return jsonKryo.readObject(new Input(jsonSerialized), StoredIdentity.class);
+	}
+
+	@Benchmark
+	public StoredIdentity readBinary()
+	{
+		return binaryKryo.readObject(new Input(binarySerialized), StoredIdentity.class);
+	}
+	
+	private byte[] write(Kryo kryo)
+	{
+		output.clear();
+		kryo.writeObject(output, identity);
+		return output.toBytes();
+	}
+	
+	private static StoredIdentity createIdentity()
+	{
+		ObjectNode meta = Constants.MAPPER.createObjectNode();
+		meta.put("origin", "benchmark");
+		Identity identity = new Identity("userName", "some-user@example.com", 1234, 
+				"some-user@example.com");
+		identity.setMetadata(meta);
+		identity.setRemoteIdp("https://idp.example.com");
+		identity.setTranslationProfile("remoteProfile");
+		identity.setCreationTs(new Date());
+		identity.setUpdateTs(new Date());
+		return new StoredIdentity(identity);
+	}
+	
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(KryoSerializationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
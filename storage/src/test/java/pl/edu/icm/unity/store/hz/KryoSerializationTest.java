@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Lists;
+
+import pl.edu.icm.unity.Constants;
+import pl.edu.icm.unity.base.token.Token;
+import pl.edu.icm.unity.store.types.StoredAttribute;
+import pl.edu.icm.unity.store.types.StoredIdentity;
+import pl.edu.icm.unity.types.basic.Attribute;
+import pl.edu.icm.unity.types.basic.AttributeExt;
+import pl.edu.icm.unity.types.basic.EntityInformation;
+import pl.edu.icm.unity.types.basic.EntityScheduledOperation;
+import pl.edu.icm.unity.types.basic.EntityState;
+import pl.edu.icm.unity.types.basic.GroupMembership;
+import pl.edu.icm.unity.types.basic.Identity;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations={"classpath*:META-INF/components.xml"})
+public class KryoSerializationTest
+{
+	@Autowired
+	private KryoPoolFactory kryoFactory;
+	@Autowired
+	private List<JsonSerializerForKryo<?>> jsonSerializers;
+	
+	@Test
+	public void shouldRoundTripToken()
+	{
+		Token token = new Token("type", "value", 12L);
+		token.setCreated(new Date(1000));
+		token.setExpires(new Date(2000));
+		token.setContents(new byte[] {1, 2, 3});
+		
+		assertThat(roundTrip(token), is(token));
+	}
+
+	@Test
+	public void shouldRoundTripEntity()
+	{
+		EntityInformation entity = new EntityInformation(33);
+		entity.setEntityState(EntityState.onlyLoginPermitted);
+		entity.setScheduledOperation(EntityScheduledOperation.DISABLE);
+		entity.setScheduledOperationTime(new Date(1000));
+		entity.setRemovalByUserTime(new Date(2000));
+		
+		assertThat(roundTrip(entity), is(entity));
+	}
+
+	@Test
+	public void shouldRoundTripMembership()
+	{
+		GroupMembership membership = new GroupMembership("/A/B", 3, new Date(1000), 
+				"translationProfile", "remoteIdp");
+		
+		assertThat(roundTrip(membership), is(membership));
+	}
+
+	@Test
+	public void shouldRoundTripAttribute()
+	{
+		StoredAttribute attribute = getAttribute();
+		
+		assertThat(roundTrip(attribute), is(attribute));
+	}
+
+	@Test
+	public void shouldRoundTripIdentity()
+	{
+		StoredIdentity identity = getIdentity();
+		
+		assertThat(roundTrip(identity), is(identity));
+	}
+
+	@Test
+	public void shouldReadLegacyJsonFormat()
+	{
+		StoredIdentity identity = getIdentity();
+		Kryo kryo = kryoFactory.getInstance();
+		Output output = new Output(1024, -1);
+		new KryoJsonSerializer<>(getJsonSerializer(StoredIdentity.class)).write(kryo, output, identity);
+		
+		StoredIdentity read = getSerializer(kryo, StoredIdentity.class).read(kryo, 
+				new Input(output.toBytes()), StoredIdentity.class);
+		
+		assertThat(read, is(identity));
+	}
+
+	@Test(expected = KryoException.class)
+	public void shouldRejectUnknownFormatVersion()
+	{
+		Kryo kryo = kryoFactory.getInstance();
+		Output output = new Output(16, -1);
+		output.writeInt(-100);
+		
+		getSerializer(kryo, StoredIdentity.class).read(kryo, new Input(output.toBytes()), StoredIdentity.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T roundTrip(T object)
+	{
+		Kryo kryo = kryoFactory.getInstance();
+		Class<T> clazz = (Class<T>) object.getClass();
+		Serializer<T> serializer = getSerializer(kryo, clazz);
+		Output output = new Output(1024, -1);
+		serializer.write(kryo, output, object);
+		
+		Input input = new Input(output.toBytes());
+		assertThat(input.readInt(), is(KryoVersionedSerializer.BINARY_FORMAT_V1));
+		input.setPosition(0);
+		return serializer.read(kryo, input, clazz);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> Serializer<T> getSerializer(Kryo kryo, Class<T> clazz)
+	{
+		return kryo.getRegistration(clazz).getSerializer();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> JsonSerializerForKryo<T> getJsonSerializer(Class<T> clazz)
+	{
+		return (JsonSerializerForKryo<T>) jsonSerializers.stream()
+				.filter(ser -> ser.getClazz().equals(clazz))
+				.findAny().get();
+	}
+	
+	private StoredAttribute getAttribute()
+	{
+		Attribute attr = new Attribute("attr", "syntax", "/A", 
+				Lists.newArrayList("value1", "value2"), "remoteIdp", "translationProfile");
+		AttributeExt attributeExt = new AttributeExt(attr, true, new Date(100), new Date(1000));
+		return new StoredAttribute(attributeExt, 5);
+	}
+	
+	private StoredIdentity getIdentity()
+	{
+		ObjectNode meta = Constants.MAPPER.createObjectNode();
+		meta.put("key", "value");
+		Identity identity = new Identity("username", "value", 5, "comparable");
+		identity.setMetadata(meta);
+		identity.setRealm("realm");
+		identity.setRemoteIdp("remoteIdp");
+		identity.setTarget("target");
+		identity.setTranslationProfile("translationProfile");
+		identity.setCreationTs(new Date(100));
+		identity.setUpdateTs(new Date(200));
+		return new StoredIdentity(identity);
+	}
+}
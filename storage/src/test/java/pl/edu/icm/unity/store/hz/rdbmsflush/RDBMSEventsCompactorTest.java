@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.hz.rdbmsflush;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RDBMSEventsCompactorTest
+{
+	private RDBMSEventsCompactor compactor = new RDBMSEventsCompactor(dao -> dao.equals("overridable"));
+	
+	@Test
+	public void shouldDropEarlierUpdateOfTheSameElement()
+	{
+		RDBMSMutationEvent update1 = new RDBMSMutationEvent("overridable", "updateByKey", 1L, "v1");
+		RDBMSMutationEvent other = new RDBMSMutationEvent("other", "createWithId", 1L, "o");
+		RDBMSMutationEvent update2 = new RDBMSMutationEvent("overridable", "updateByKey", 1L, "v2");
+		
+		List<RDBMSMutationEvent> compacted = compactor.compact(Arrays.asList(
+				new RDBMSEventsBatch(Arrays.asList(update1, other)),
+				new RDBMSEventsBatch(Arrays.asList(update2))));
+		
+		assertThat(compacted, is(Arrays.asList(other, update2)));
+	}
+
+	@Test
+	public void shouldPreserveUpdatesOfDifferentElements()
+	{
+		RDBMSMutationEvent update1 = new RDBMSMutationEvent("overridable", "updateByKey", 1L, "v1");
+		RDBMSMutationEvent update2 = new RDBMSMutationEvent("overridable", "updateByKey", 2L, "v2");
+		
+		List<RDBMSMutationEvent> compacted = compactor.compact(Arrays.asList(
+				new RDBMSEventsBatch(Arrays.asList(update1)),
+				new RDBMSEventsBatch(Arrays.asList(update2))));
+		
+		assertThat(compacted, is(Arrays.asList(update1, update2)));
+	}
+	
+	@Test
+	public void shouldPreserveUpdatesOfNotOverridableDAO()
+	{
+		RDBMSMutationEvent update1 = new RDBMSMutationEvent("other", "updateByKey", 1L, "v1");
+		RDBMSMutationEvent update2 = new RDBMSMutationEvent("other", "updateByKey", 1L, "v2");
+		
+		List<RDBMSMutationEvent> compacted = compactor.compact(Arrays.asList(
+				new RDBMSEventsBatch(Arrays.asList(update1, update2))));
+		
+		assertThat(compacted, is(Arrays.asList(update1, update2)));
+	}
+}
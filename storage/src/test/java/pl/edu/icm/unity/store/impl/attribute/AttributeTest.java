@@ -158,6 +158,68 @@ public class AttributeTest extends AbstractBasicDAOTest<StoredAttribute>
 		});
 	}
 	
+	@Test
+	public void noAttributesOfMembersAreReturnedForEmptyGroup()
+	{
+		tx.runInTransaction(() -> {
+			AttributeDAO dao = getDAO();
+			StoredAttribute obj = getObject("");
+			obj.getAttribute().setGroupPath("/");
+			obj.getAttribute().setName("attr");
+			dao.create(obj);
+			
+			List<StoredAttribute> attributes = dao.getAttributesOfGroupMembers("/C");
+			
+			assertThat(attributes).isEmpty();
+		});
+	}
+	
+	@Test
+	public void attributesOfNotExcludedTypesAreCounted()
+	{
+		tx.runInTransaction(() -> {
+			AttributeDAO dao = getDAO();
+			StoredAttribute obj = getObject("");
+			obj.getAttribute().setName("attr");
+			dao.create(obj);
+			StoredAttribute obj2 = getObject("");
+			obj2.getAttribute().setName("attr2");
+			dao.create(obj2);
+			StoredAttribute obj3 = getObject("");
+			obj3.getAttribute().setName("attr3");
+			dao.create(obj3);
+			
+			assertThat(dao.getCountWithoutType(Lists.newArrayList("attr", "attr3"))).isEqualTo(1);
+			assertThat(dao.getCountWithoutType(Collections.emptyList())).isEqualTo(3);
+			assertThat(dao.getCount()).isEqualTo(3);
+		});
+	}
+	
+	@Test
+	public void attributesOfGroupMembersInEntityRangeAreReturned()
+	{
+		tx.runInTransaction(() -> {
+			AttributeDAO dao = getDAO();
+			StoredAttribute obj = getObject("");
+			obj.getAttribute().setGroupPath("/");
+			obj.getAttribute().setName("attr");
+			dao.create(obj);
+			
+			StoredAttribute obj2 = getObject("");
+			obj2.getAttribute().setGroupPath("/C");
+			obj2.getAttribute().setName("attr2");
+			obj2 = new StoredAttribute(obj2.getAttribute(), entityId2);
+			dao.create(obj2);
+
+			membershipDao.create(new GroupMembership("/C", entityId, new Date(1)));
+			membershipDao.create(new GroupMembership("/C", entityId2, new Date(1)));
+			
+			List<StoredAttribute> attributes = dao.getAttributesOfGroupMembersInRange("/C", entityId2, entityId2);
+			
+			assertAllAndOnlyAllInSA(Lists.newArrayList(obj2), attributes);
+		});
+	}
+	
 	@Test
 	public void allAttributesByNameAndGroupAreReturned()
 	{
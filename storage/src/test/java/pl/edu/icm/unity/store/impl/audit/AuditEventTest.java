@@ -14,13 +14,16 @@ import pl.edu.icm.unity.types.basic.audit.AuditEntity;
 import pl.edu.icm.unity.types.basic.audit.AuditEvent;
 import pl.edu.icm.unity.types.basic.audit.AuditEventAction;
 import pl.edu.icm.unity.types.basic.audit.AuditEventType;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class AuditEventTest extends AbstractBasicDAOTest<AuditEvent>
@@ -149,6 +152,36 @@ public class AuditEventTest extends AbstractBasicDAOTest<AuditEvent>
 		});
 	}
 
+	@Test
+	public void shouldStoreEventsInBatch()
+	{
+		// given
+		AuditEvent event1 = getObject("");
+		AuditEvent event2 = mutateObject(event1);
+		AuditEvent event3 = AuditEvent.builder()
+				.name("name3")
+				.type(AuditEventType.GROUP)
+				.timestamp(new Date())
+				.action(AuditEventAction.ADD)
+				.initiator(new AuditEntity(100L, "Initiator", "initiator@example.com"))
+				.build();
+
+		tx.runInTransaction(() -> {
+			// when
+			dao.createBatch(Arrays.asList(event1, event2, event3));
+			TransactionTL.manualCommit();
+
+			// than
+			List<AuditEvent> events = dao.getAll();
+			assertEquals(3, events.size());
+			assertTrue(events.contains(event1));
+			assertTrue(events.contains(event2));
+			assertTrue(events.contains(event3));
+			Set<String> allTags = dao.getAllTags();
+			assertTrue(allTags.containsAll(Arrays.asList("TAG1", "TAG2", "TAG3")));
+		});
+	}
+
 	@Test
 	public void shouldIgnoreDuplicateTags()
 	{
@@ -401,6 +434,107 @@ public class AuditEventTest extends AbstractBasicDAOTest<AuditEvent>
 		});
 	}
 
+	@Test
+	public void shouldReturnAllTagsOfLimitedEvents()
+	{
+		// given
+		List<AuditEvent> list = prepareAuditEvents();
+
+		tx.runInTransaction(() -> {
+			// when
+			List<AuditEvent> logs = dao.getOrderedLogs(null, null, 2, "timestamp", -1);
+
+			// than
+			assertEquals(Arrays.asList(list.get(3), list.get(2)), logs);
+			assertEquals(list.get(3).getTags(), logs.get(0).getTags());
+		});
+	}
+
+	@Test
+	public void shouldIterateOverAllEventsWithPages()
+	{
+		// given
+		List<AuditEvent> list = prepareAuditEvents();
+
+		tx.runInTransaction(() -> {
+			// when
+			AuditEventsPage page1 = dao.getLogsPage(null, null, null, 3, -1);
+			AuditEventsPage page2 = dao.getLogsPage(null, null, page1.getNextPageKey(), 3, -1);
+
+			// than
+			assertEquals(Arrays.asList(list.get(3), list.get(2), list.get(1)), page1.getEvents());
+			assertTrue(page1.hasNextPage());
+			assertEquals(Arrays.asList(list.get(0)), page2.getEvents());
+			assertFalse(page2.hasNextPage());
+		});
+	}
+
+	@Test
+	public void shouldIterateOverEventsWithEqualTimestampsWithPages()
+	{
+		// given
+		Date timestamp = new Date();
+		List<AuditEvent> events = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			events.add(AuditEvent.builder()
+					.name("name" + i)
+					.type(AuditEventType.IDENTITY)
+					.timestamp(timestamp)
+					.action(AuditEventAction.ADD)
+					.initiator(new AuditEntity(100L, "Initiator", "initiator@example.com"))
+					.tags("TAG" + i)
+					.build());
+
+		tx.runInTransaction(() -> {
+			dao.createBatch(events);
+
+			// when
+			List<AuditEvent> read = new ArrayList<>();
+			AuditEventsPage page = dao.getLogsPage(null, null, null, 2, 1);
+			read.addAll(page.getEvents());
+			while (page.hasNextPage())
+			{
+				page = dao.getLogsPage(null, null, page.getNextPageKey(), 2, 1);
+				read.addAll(page.getEvents());
+			}
+
+			// than
+			assertEquals(events, read);
+		});
+	}
+
+	@Test
+	public void shouldDeleteOnlyEventsOlderThanGivenDate()
+	{
+		// given
+		List<AuditEvent> list = prepareAuditEvents();
+
+		tx.runInTransaction(() -> {
+			// when
+			int removed = dao.deleteOlderThan(list.get(2).getTimestamp(), 100);
+
+			// than
+			assertEquals(2, removed);
+			assertEquals(Arrays.asList(list.get(3), list.get(2)), dao.getLogs(null, null, 100));
+		});
+	}
+
+	@Test
+	public void shouldDeleteOldestEventsUpToLimit()
+	{
+		// given
+		List<AuditEvent> list = prepareAuditEvents();
+
+		tx.runInTransaction(() -> {
+			// when
+			int removed = dao.deleteOlderThan(new Date(list.get(3).getTimestamp().getTime() + 1000), 3);
+
+			// than
+			assertEquals(3, removed);
+			assertEquals(Arrays.asList(list.get(3)), dao.getLogs(null, null, 100));
+		});
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void shouldThrowExceptionForIncorrectOrderValue()
 	{
@@ -10,8 +10,10 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -136,4 +138,113 @@ public class EntityTest extends AbstractBasicDAOTest<EntityInformation>
 			assertThat(ret, hasItems(dao.getByKey(id1), dao.getByKey(id2)));
 		});
 	}
+	
+	@Test
+	public void shouldReturnByGroupMembershipInEntityRange()
+	{
+		tx.runInTransaction(() -> {
+			long id1 = dao.create(getObject("1"));
+			long id2 = dao.create(getObject("2"));
+			long id3 = dao.create(getObject("3"));
+			
+			groupDAO.create(new Group("/C"));
+			membershipDao.create(new GroupMembership("/C", id1, new Date(1)));
+			membershipDao.create(new GroupMembership("/C", id2, new Date(1)));
+			membershipDao.create(new GroupMembership("/C", id3, new Date(1)));
+			
+			List<EntityInformation> ret = dao.getByGroupInRange("/C", id2, id3);
+
+			assertThat(ret.size(), is(2));
+			assertThat(ret, hasItems(dao.getByKey(id2), dao.getByKey(id3)));
+		});
+	}
+	
+	@Test
+	public void shouldReturnEmptyListForGroupWithoutMembers()
+	{
+		tx.runInTransaction(() -> {
+			dao.create(getObject("1"));
+			groupDAO.create(new Group("/C"));
+			
+			List<EntityInformation> ret = dao.getByGroup("/C");
+
+			assertThat(ret, is(notNullValue()));
+			assertThat(ret.isEmpty(), is(true));
+		});
+	}
+	
+	@Test
+	public void shouldReturnEntitiesWithOperationDueInOrder()
+	{
+		tx.runInTransaction(() -> {
+			long id1 = dao.create(getScheduled(new Date(3000), null));
+			long id2 = dao.create(getScheduled(null, new Date(1000)));
+			long id3 = dao.create(getScheduled(new Date(2000), new Date(4000)));
+			dao.create(getScheduled(new Date(10000), null));
+			dao.create(new EntityInformation());
+			
+			List<EntityInformation> ret = dao.getWithScheduledOperationDue(new Date(5000), 10);
+
+			assertThat(ret, is(Arrays.asList(dao.getByKey(id2), dao.getByKey(id3), dao.getByKey(id1))));
+		});
+	}
+
+	@Test
+	public void shouldLimitEntitiesWithOperationDue()
+	{
+		tx.runInTransaction(() -> {
+			dao.create(getScheduled(new Date(3000), null));
+			long id2 = dao.create(getScheduled(null, new Date(1000)));
+			dao.create(getScheduled(new Date(2000), null));
+			
+			List<EntityInformation> ret = dao.getWithScheduledOperationDue(new Date(5000), 1);
+
+			assertThat(ret, is(Arrays.asList(dao.getByKey(id2))));
+		});
+	}
+	
+	@Test
+	public void shouldNotReturnEntityWithClearedSchedule()
+	{
+		tx.runInTransaction(() -> {
+			long id1 = dao.create(getScheduled(new Date(3000), new Date(4000)));
+			
+			EntityInformation updated = dao.getByKey(id1);
+			updated.setScheduledOperation(null);
+			updated.setScheduledOperationTime(null);
+			updated.setRemovalByUserTime(null);
+			dao.updateByKey(id1, updated);
+			
+			assertThat(dao.getWithScheduledOperationDue(new Date(5000), 10).isEmpty(), is(true));
+			assertThat(dao.getNextScheduledOperationTime(), is(Optional.empty()));
+		});
+	}
+
+	@Test
+	public void shouldReturnEarliestScheduledOperationTime()
+	{
+		tx.runInTransaction(() -> {
+			dao.create(getScheduled(new Date(3000), null));
+			long id2 = dao.create(getScheduled(null, new Date(1000)));
+			dao.create(new EntityInformation());
+			
+			assertThat(dao.getNextScheduledOperationTime(), is(Optional.of(new Date(1000))));
+			
+			dao.deleteByKey(id2);
+			
+			assertThat(dao.getNextScheduledOperationTime(), is(Optional.of(new Date(3000))));
+		});
+	}
+	
+	private EntityInformation getScheduled(Date operationTime, Date removalByUserTime)
+	{
+		EntityInformation ei = new EntityInformation();
+		if (operationTime != null)
+		{
+			ei.setScheduledOperation(EntityScheduledOperation.DISABLE);
+			ei.setScheduledOperationTime(operationTime);
+		}
+		ei.setRemovalByUserTime(removalByUserTime);
+		return ei;
+	}
 }
@@ -141,6 +141,27 @@ public class IdentityTest extends AbstractNamedDAOTest<StoredIdentity>
 		});
 	}
 	
+	@Test
+	public void shouldReturnByGroupMembershipInEntityRange()
+	{
+		tx.runInTransaction(() -> {
+			StoredIdentity obj = getObject("name1");
+			dao.create(obj);
+			StoredIdentity obj2 = getObject("name2");
+			obj2.getIdentity().setEntityId(entity2);
+			dao.create(obj2);
+			
+			groupDAO.create(new Group("/C"));
+			membershipDao.create(new GroupMembership("/C", entity, new Date(1)));
+			membershipDao.create(new GroupMembership("/C", entity2, new Date(1)));
+			
+			List<StoredIdentity> ret = dao.getByGroupInRange("/C", entity2, entity2);
+
+			assertThat(ret.size(), is(1));
+			assertEquals(obj2, ret.get(0));
+		});
+	}
+	
 	@Override
 	@Test
 	public void shouldFailOnCreatingWithTooLongName()
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.store.impl.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.GlobalSerializerConfig;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.transaction.TransactionContext;
+
+import pl.edu.icm.unity.store.hz.KryoJsonSerializer;
+import pl.edu.icm.unity.store.hz.KryoSerializer;
+import pl.edu.icm.unity.store.hz.tx.HzTransactionState;
+import pl.edu.icm.unity.store.hz.tx.HzTransactionTL;
+import pl.edu.icm.unity.store.impl.entities.EntityHzStore;
+import pl.edu.icm.unity.store.impl.groups.GroupHzStore;
+import pl.edu.icm.unity.types.basic.GroupMembership;
+
+public class MembershipHzStoreTest
+{
+	private static HazelcastInstance hzInstance;
+	private MembershipRDBMSStore rdbmsStore;
+	private MembershipHzStore hzStore;
+	private TransactionContext hzTransaction;
+
+	@BeforeClass
+	public static void startHazelcast()
+	{
+		Config config = new Config("membershipHzStoreTest");
+		JoinConfig join = config.getNetworkConfig().getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(false);
+		KryoPool kryoPool = new KryoPool.Builder(() ->
+		{
+			Kryo kryo = new Kryo();
+			kryo.register(GroupMembership.class, new KryoJsonSerializer<>(new MembershipJsonSerializer()));
+			return kryo;
+		}).build();
+		GlobalSerializerConfig globalSCfg = new GlobalSerializerConfig();
+		globalSCfg.setImplementation(new KryoSerializer(kryoPool));
+		config.getSerializationConfig().setGlobalSerializerConfig(globalSCfg);
+		hzInstance = Hazelcast.newHazelcastInstance(config);
+	}
+
+	@AfterClass
+	public static void stopHazelcast()
+	{
+		hzInstance.shutdown();
+	}
+
+	@Before
+	public void init()
+	{
+		rdbmsStore = mock(MembershipRDBMSStore.class);
+		hzStore = new MembershipHzStore(rdbmsStore, mock(GroupHzStore.class), mock(EntityHzStore.class));
+		hzTransaction = hzInstance.newTransactionContext();
+		hzTransaction.beginTransaction();
+		HzTransactionTL.getState().push(new HzTransactionState(hzTransaction, () -> {}, () -> {}));
+	}
+
+	@After
+	public void cleanup()
+	{
+		HzTransactionTL.getState().pop();
+		hzTransaction.rollbackTransaction();
+	}
+
+	@Test
+	public void shouldLoadStreamedMembershipsByEntityAndByGroup()
+	{
+		doAnswer(invocation ->
+		{
+			Consumer<GroupMembership> consumer = invocation.getArgument(0);
+			consumer.accept(new GroupMembership("/", 1, new Date(1000)));
+			consumer.accept(new GroupMembership("/A", 1, new Date(2000)));
+			consumer.accept(new GroupMembership("/", 2, new Date(3000)));
+			return null;
+		}).when(rdbmsStore).forEach(any());
+
+		hzStore.populateFromRDBMS(hzInstance);
+
+		verify(rdbmsStore, never()).getAll();
+		assertThat(hzStore.getEntityMembership(1)).extracting(GroupMembership::getGroup)
+			.containsExactlyInAnyOrder("/", "/A");
+		assertThat(hzStore.getEntityMembership(2)).extracting(GroupMembership::getGroup)
+			.containsExactly("/");
+		assertThat(hzStore.getMembers("/")).extracting(GroupMembership::getEntityId)
+			.containsExactlyInAnyOrder(1L, 2L);
+		assertThat(hzStore.getMembers("/A")).extracting(GroupMembership::getEntityId)
+			.containsExactly(1L);
+		assertThat(hzStore.getAll()).hasSize(3);
+	}
+}
@@ -108,6 +108,41 @@ public class MembershipTest
 		});
 	}	
 
+	@Test
+	public void shouldReturnMembersPageOrderedByEntity()
+	{
+		tx.runInTransaction(() -> {
+			long entity3 = entDao.create(new EntityInformation());
+			dao.create(new GroupMembership("/A", entity3, null));
+			dao.create(new GroupMembership("/A", entity2, null));
+			dao.create(new GroupMembership("/A", entity, null));
+			
+			List<GroupMembership> firstPage = dao.getMembersPage("/A", Long.MIN_VALUE, 2);
+			List<GroupMembership> secondPage = dao.getMembersPage("/A", firstPage.get(1).getEntityId(), 2);
+			
+			assertThat(firstPage.size(), is(2));
+			assertThat(firstPage.get(0).getEntityId(), is(entity));
+			assertThat(firstPage.get(1).getEntityId(), is(entity2));
+			assertThat(secondPage.size(), is(1));
+			assertThat(secondPage.get(0).getEntityId(), is(entity3));
+		});
+	}
+
+	@Test
+	public void shouldReturnAllMembershipsOfGroupMembersInRange()
+	{
+		tx.runInTransaction(() -> {
+			dao.create(new GroupMembership("/A", entity, null));
+			dao.create(new GroupMembership("/B", entity, null));
+			dao.create(new GroupMembership("/A", entity2, null));
+			
+			List<GroupMembership> memberships = dao.getMembershipsOfGroupMembers("/B", entity, entity2);
+			
+			assertThat(memberships.size(), is(2));
+			assertThat(memberships.stream().allMatch(gm -> gm.getEntityId() == entity), is(true));
+		});
+	}	
+
 	@Test
 	public void shouldReturnCreatedMembershipByGetAll()
 	{
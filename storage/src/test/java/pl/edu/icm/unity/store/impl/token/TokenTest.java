@@ -18,6 +18,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.google.common.collect.Lists;
+
 import pl.edu.icm.unity.base.token.Token;
 import pl.edu.icm.unity.store.api.EntityDAO;
 import pl.edu.icm.unity.store.api.TokenDAO;
@@ -192,6 +194,77 @@ public class TokenTest extends AbstractBasicDAOTest<Token>
 		});
 	}	
 
+	@Test
+	public void expiredBatchIsLimitedAndStartsFromOldest()
+	{
+		Token oldest = getObject("type1", "name2", entityId);
+		tx.runInTransaction(() -> {
+			Token newer = getObject("type1", "name", entityId);
+			newer.setExpires(new Date(3000));
+			dao.create(newer);
+			oldest.setExpires(new Date(1000));
+			dao.create(oldest);
+			Token notExpired = getObject("type1", "name3", entityId2);
+			notExpired.setExpires(new Date(System.currentTimeMillis() + 100000));
+			dao.create(notExpired);
+		});
+		
+		tx.runInTransaction(() -> {
+			List<Token> batch = dao.getExpiredBatch(1);
+			List<Token> all = dao.getExpiredBatch(10);
+
+			assertThat(batch.size(), is(1));
+			assertThat(batch.get(0), is(oldest));
+			assertThat(all.size(), is(2));
+		});
+	}
+
+	@Test
+	public void inactiveBatchContainsTokensOfTypeWithPassedOrMissingDeadline()
+	{
+		tx.runInTransaction(() -> {
+			Token inactive = getObject("type1", "name", entityId);
+			dao.create(inactive);
+			Token withoutDeadline = getObject("type1", "name2", entityId);
+			withoutDeadline.setInactivityDeadline(null);
+			dao.create(withoutDeadline);
+			Token active = getObject("type1", "name3", entityId2);
+			active.setInactivityDeadline(new Date(System.currentTimeMillis() + 100000));
+			dao.create(active);
+			Token otherType = getObject("type2", "name", entityId2);
+			dao.create(otherType);
+		});
+		
+		tx.runInTransaction(() -> {
+			List<Token> batch = dao.getInactiveBatch("type1", 1);
+			List<Token> all = dao.getInactiveBatch("type1", 10);
+
+			assertThat(batch.size(), is(1));
+			assertThat(all.size(), is(2));
+			assertThat(all.contains(getObject("type1", "name", entityId)), is(true));
+			assertThat(all.stream().anyMatch(t -> t.getValue().equals("name2")), is(true));
+		});
+	}
+
+	@Test
+	public void onlyTokensInBatchAreRemoved()
+	{
+		tx.runInTransaction(() -> {
+			Token obj = getObject("type1", "name", entityId);
+			dao.create(obj);
+			Token obj2 = getObject("type2", "name", entityId);
+			dao.create(obj2);
+			Token obj3 = getObject("type1", "name3", entityId2);
+			dao.create(obj3);
+
+			dao.deleteBatch(Lists.newArrayList(obj, obj3, getObject("type1", "missing", entityId)));
+
+			List<Token> remaining = dao.getAll();
+			assertThat(remaining.size(), is(1));
+			assertThat(remaining.get(0), is(obj2));
+		});
+	}
+
 	@Override
 	@Test
 	public void importExportIsIdempotent()
@@ -217,6 +290,7 @@ public class TokenTest extends AbstractBasicDAOTest<Token>
 		ret.setContents(new byte[] {'a'});
 		ret.setCreated(new Date(100));
 		ret.setExpires(new Date(1000));
+		ret.setInactivityDeadline(new Date(500));
 		return ret;
 	}
 
@@ -225,6 +299,7 @@ public class TokenTest extends AbstractBasicDAOTest<Token>
 	{
 		src.setContents(new byte[] {'b', 'b'});
 		src.setExpires(new Date(2000));
+		src.setInactivityDeadline(new Date(1500));
 		return src;
 	}
 }
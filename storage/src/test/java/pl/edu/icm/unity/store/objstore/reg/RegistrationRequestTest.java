@@ -6,10 +6,13 @@ package pl.edu.icm.unity.store.objstore.reg;
 
 import static com.googlecode.catchexception.CatchException.catchException;
 import static com.googlecode.catchexception.CatchException.caughtException;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertThat;
 
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +59,57 @@ public class RegistrationRequestTest extends AbstractNamedWithTSTest<Registratio
 		});
 	}
 	
+	@Test
+	public void shouldReturnRequestsOfFormWithStatus()
+	{
+		tx.runInTransaction(() -> {
+			dao.create(getObject("r1"));
+			RegistrationRequestState accepted = getObject("r2");
+			accepted.setStatus(RegistrationRequestStatus.accepted);
+			dao.create(accepted);
+			dao.create(mutateObject(getObject("r3")));
+
+			assertThat(getIds(dao.getByForm("f1", null)), is(Lists.newArrayList("r1", "r2")));
+			assertThat(getIds(dao.getByForm("f1", RegistrationRequestStatus.pending)), 
+					is(Lists.newArrayList("r1")));
+			assertThat(dao.getByForm("f3", null).isEmpty(), is(true));
+		});
+	}
+
+	@Test
+	public void shouldReturnRequestsOfFormAfterUpdate()
+	{
+		tx.runInTransaction(() -> {
+			RegistrationRequestState request = getObject("r1");
+			dao.create(request);
+			request.setStatus(RegistrationRequestStatus.rejected);
+			dao.update(request);
+
+			assertThat(dao.getByForm("f1", RegistrationRequestStatus.pending).isEmpty(), is(true));
+			assertThat(getIds(dao.getByForm("f1", RegistrationRequestStatus.rejected)), 
+					is(Lists.newArrayList("r1")));
+		});
+	}
+	
+	@Test
+	public void shouldReturnPageOfRequests()
+	{
+		tx.runInTransaction(() -> {
+			for (int i = 0; i < 5; i++)
+				dao.create(getObject("r" + i));
+
+			assertThat(getIds(dao.getPage(1, 2)), is(Lists.newArrayList("r1", "r2")));
+			assertThat(getIds(dao.getPage(4, 2)), is(Lists.newArrayList("r4")));
+		});
+	}
+	
+	private List<String> getIds(List<RegistrationRequestState> requests)
+	{
+		return requests.stream()
+				.map(RegistrationRequestState::getRequestId)
+				.collect(Collectors.toList());
+	}
+	
 	@Override
 	protected NamedCRUDDAOWithTS<RegistrationRequestState> getDAO()
 	{
@@ -31,6 +31,7 @@ import pl.edu.icm.unity.store.StorageEngine;
 import pl.edu.icm.unity.store.api.tx.TransactionalRunner;
 import pl.edu.icm.unity.store.impl.attributetype.AttributeTypeBean;
 import pl.edu.icm.unity.store.impl.attributetype.AttributeTypesMapper;
+import pl.edu.icm.unity.store.rdbms.tx.SQLBatchTransactionalRunner;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionTL;
 import pl.edu.icm.unity.store.rdbms.tx.SQLTransactionalRunner;
 
@@ -40,6 +41,9 @@ public class RDBMSTransactionTest
 {
 	@Autowired @Qualifier(SQLTransactionalRunner.NAME)
 	private TransactionalRunner tx;
+
+	@Autowired @Qualifier(SQLBatchTransactionalRunner.NAME)
+	private TransactionalRunner batchTx;
 	
 	@Autowired
 	private StorageCleanerImpl initDB;
@@ -72,6 +76,29 @@ public class RDBMSTransactionTest
 		assertThat(ret, is(notNullValue()));
 	}
 
+	@Test
+	public void rdbmsBatchedTransactionIsPersistedAfterCommit()
+	{
+		batchTx.runInTransaction(() -> {
+			getMapper().create(getObject("n1"));
+			getMapper().create(getObject("n2"));
+		});
+		
+		assertThat(getFromDB("n1"), is(notNullValue()));
+		assertThat(getFromDB("n2"), is(notNullValue()));
+	}
+
+	@Test
+	public void rdbmsBatchedDataIsVisibleInTransaction()
+	{
+		AttributeTypeBean ret = batchTx.runInTransactionRet(() -> {
+			getMapper().create(getObject("n1"));
+			return getMapper().getByName("n1");
+		});
+		
+		assertThat(ret, is(notNullValue()));
+	}
+	
 	@Test
 	public void rdbmsDataIsPersistedInTransaction()
 	{
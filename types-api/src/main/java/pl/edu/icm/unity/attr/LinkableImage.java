@@ -61,9 +61,22 @@ public class LinkableImage
 	}
 
 	public String toJsonString()
+	{
+		return toJsonString(image == null ? null : image.serialize());
+	}
+
+	/**
+	 * As {@link #toJsonString()} but the image is serialized with {@link UnityImage#serializeAsReference()}.
+	 */
+	public String toJsonStringWithImageReference()
+	{
+		return toJsonString(image == null ? null : image.serializeAsReference());
+	}
+
+	private String toJsonString(String serializedImage)
 	{
 		ObjectNode node = Constants.MAPPER.createObjectNode();
-		node.put(JSON_IMAGE_PROPERTY_NAME, image == null ? null : image.serialize());
+		node.put(JSON_IMAGE_PROPERTY_NAME, serializedImage);
 		node.put(JSON_URL_PROPERTY_NAME, url == null ? null : url.toExternalForm());
 		node.put(JSON_EXTERNAL_ID_PROPERTY_NAME, externalId == null ? null : externalId.toString());
 		return node.toString();
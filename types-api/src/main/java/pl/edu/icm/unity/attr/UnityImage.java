@@ -16,6 +16,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.function.Function;
 
 import javax.imageio.ImageIO;
 
@@ -27,6 +28,9 @@ import pl.edu.icm.unity.exceptions.InternalException;
 /**
  * Class providing Image related information and operations.
  * Currently supports JPG, GIF and PNG image types.
+ * <p>
+ * Image contents can be stored out of line: in such case the image carries only a content id and the
+ * contents are loaded lazily, on first access, with the globally registered content loader.
  *
  * @author R. Ledzinski
  */
@@ -34,9 +38,15 @@ public class UnityImage
 {
 	private static final String JSON_TYPE_NAME = "type";
 	private static final String JSON_VALUE_NAME = "value";
+	private static final String JSON_CONTENT_ID_NAME = "contentId";
+	private static final String JSON_SIZE_NAME = "size";
+
+	private static volatile Function<String, byte[]> contentLoader;
 
 	private byte[] image;
 	private ImageType type;
+	private String contentId;
+	private int size;
 
 	public UnityImage(String serializedObject) throws IOException
 	{
@@ -67,24 +77,72 @@ public class UnityImage
 			throw new InternalException("Image can not be encoded as " + type, e);
 		}
 
-		this.image = bos.toByteArray();
-		this.type = type;
+		setImage(bos.toByteArray(), type);
 	}
 
 	public UnityImage(Path path) throws IOException
 	{
-		this.image = Files.readAllBytes(path);
+		byte[] rawData = Files.readAllBytes(path);
 		int dotIdx = path.toString().lastIndexOf('.');
 		if (dotIdx == -1)
 			throw new IllegalArgumentException("Cannot extract extension from path: '" + path.toString() + "'");
-		this.type = ImageType.fromExt(path.toString().substring(dotIdx + 1));
+		setImage(rawData, ImageType.fromExt(path.toString().substring(dotIdx + 1)));
+	}
+
+	/**
+	 * Registers a function used to load contents of images stored out of line, by content id.
+	 */
+	public static void setContentLoader(Function<String, byte[]> loader)
+	{
+		contentLoader = loader;
+	}
+
+	/**
+	 * @return the currently registered loader of contents of images stored out of line, or null
+	 */
+	public static Function<String, byte[]> getContentLoader()
+	{
+		return contentLoader;
 	}
 
 	public byte[] getImage()
 	{
+		if (image == null && contentId != null)
+		{
+			Function<String, byte[]> loader = contentLoader;
+			if (loader == null)
+				throw new IllegalStateException("Image contents " + contentId +
+						" are stored externally, but no content loader is registered");
+			image = loader.apply(contentId);
+		}
 		return image;
 	}
 
+	/**
+	 * @return id of the externally stored contents of the image or null if the contents are held inline
+	 */
+	public String getContentId()
+	{
+		return contentId;
+	}
+
+	/**
+	 * Marks the image contents as stored out of line under the given id. The id is used
+	 * by {@link #serializeAsReference()}.
+	 */
+	public void setContentId(String contentId)
+	{
+		this.contentId = contentId;
+	}
+
+	/**
+	 * @return size of the image contents in bytes, available also when the contents were not loaded yet
+	 */
+	public int getSize()
+	{
+		return size;
+	}
+
 	/**
 	 * Recreate the image to match given maximum width and height keeping current aspect ratio.
 	 * If image already fits the size no action in taken.
@@ -101,7 +159,7 @@ public class UnityImage
 		int h = bufferedImage.getHeight();
 
 		if (w <= maxWidth && h <= maxHeight)
-			return Arrays.copyOf(image, image.length); // Scaling not needed, image smaller than limitation
+			return Arrays.copyOf(getImage(), getImage().length); // Scaling not needed, image smaller than limitation
 
 		// Calculated multiplies
 		double ratioW = maxWidth / (double) w;
@@ -140,7 +198,7 @@ public class UnityImage
 	public BufferedImage getBufferedImage()
 	{
 		BufferedImage bi;
-		ByteArrayInputStream bis = new ByteArrayInputStream(image);
+		ByteArrayInputStream bis = new ByteArrayInputStream(getImage());
 		try
 		{
 			bi = ImageIO.read(bis);
@@ -176,6 +234,8 @@ public class UnityImage
 	{
 		this.image = image;
 		this.type = type;
+		this.size = image.length;
+		this.contentId = null;
 	}
 
 	/**
@@ -214,20 +274,47 @@ public class UnityImage
 		setImage(getScaledDownImage(maxWidth, maxHeight), type);
 	}
 
+	/**
+	 * @return self contained serialized form, with the image contents inlined. Contents stored
+	 * out of line are loaded if needed.
+	 */
 	public String serialize()
 	{
 		ObjectNode node = Constants.MAPPER.createObjectNode();
 		node.put(JSON_TYPE_NAME, type.toString());
-		node.put(JSON_VALUE_NAME, Base64.getEncoder().encodeToString(image));
+		node.put(JSON_VALUE_NAME, Base64.getEncoder().encodeToString(getImage()));
+		return node.toString();
+	}
 
+	/**
+	 * @return serialized form with only a reference to the contents stored out of line. 
+	 * Should be used only for persisting the image.
+	 */
+	public String serializeAsReference()
+	{
+		if (contentId == null)
+			throw new IllegalStateException("Image contents are not stored externally");
+		ObjectNode node = Constants.MAPPER.createObjectNode();
+		node.put(JSON_TYPE_NAME, type.toString());
+		node.put(JSON_CONTENT_ID_NAME, contentId);
+		node.put(JSON_SIZE_NAME, size);
 		return node.toString();
 	}
 
 	public void deserialize(String stringRepresentation) throws IOException
 	{
 		ObjectNode node = (ObjectNode) Constants.MAPPER.readTree(stringRepresentation);
-		byte[] rawData = Base64.getDecoder().decode(node.get(JSON_VALUE_NAME).asText());
 		ImageType type = ImageType.valueOf(node.get(JSON_TYPE_NAME).asText());
-		setImage(rawData, type);
+		if (node.hasNonNull(JSON_CONTENT_ID_NAME))
+		{
+			this.image = null;
+			this.type = type;
+			this.contentId = node.get(JSON_CONTENT_ID_NAME).asText();
+			this.size = node.get(JSON_SIZE_NAME).asInt();
+		} else
+		{
+			byte[] rawData = Base64.getDecoder().decode(node.get(JSON_VALUE_NAME).asText());
+			setImage(rawData, type);
+		}
 	}
 }
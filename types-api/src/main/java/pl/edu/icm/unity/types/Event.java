@@ -11,5 +11,12 @@ package pl.edu.icm.unity.types;
  */
 public interface Event
 {
-
+	/**
+	 * @return category of the event. Events are dispatched only to listeners subscribed to 
+	 * their category. By default the event class name is used.
+	 */
+	default String getCategory()
+	{
+		return getClass().getName();
+	}
 }
@@ -80,6 +80,19 @@ public class EntityInformation
 		this.removalByUserTime = removalByUserTime;
 	}
 
+	/**
+	 * @return the earliest of the scheduled operation time and the removal by user time or null
+	 * if none of them is set.
+	 */
+	public Date getNextScheduledOperationTime()
+	{
+		if (scheduledOperationTime == null)
+			return removalByUserTime;
+		if (removalByUserTime == null)
+			return scheduledOperationTime;
+		return scheduledOperationTime.before(removalByUserTime) ? scheduledOperationTime : removalByUserTime;
+	}
+
 	public Long getId()
 	{
 		return id;
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.types.basic.audit;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single page of audit events, ordered by timestamp. The page carries the key of its last event,
+ * which is used to retrieve the next page without counting or skipping the already returned events.
+ */
+public class AuditEventsPage
+{
+	private final List<AuditEvent> events;
+	private final PageKey nextPageKey;
+
+	public AuditEventsPage(List<AuditEvent> events, PageKey nextPageKey)
+	{
+		this.events = events;
+		this.nextPageKey = nextPageKey;
+	}
+
+	public List<AuditEvent> getEvents()
+	{
+		return events;
+	}
+
+	/**
+	 * @return key to be used to fetch the next page or null if there are no more events.
+	 */
+	public PageKey getNextPageKey()
+	{
+		return nextPageKey;
+	}
+
+	public boolean hasNextPage()
+	{
+		return nextPageKey != null;
+	}
+
+	/**
+	 * Position of an event in the log: its timestamp with the storage id resolving ties.
+	 */
+	public static class PageKey
+	{
+		private final Date timestamp;
+		private final long id;
+
+		public PageKey(Date timestamp, long id)
+		{
+			this.timestamp = timestamp;
+			this.id = id;
+		}
+
+		public Date getTimestamp()
+		{
+			return timestamp;
+		}
+
+		public long getId()
+		{
+			return id;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			PageKey that = (PageKey) o;
+			return id == that.id && Objects.equals(timestamp, that.timestamp);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(timestamp, id);
+		}
+
+		@Override
+		public String toString()
+		{
+			return "PageKey [timestamp=" + timestamp + ", id=" + id + "]";
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 Bixbit - Krzysztof Benedyczak. All rights reserved.
+ * See LICENCE.txt file for licensing information.
+ */
+package pl.edu.icm.unity.types.bulkops;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Progress of a single execution of a bulk processing rule. Chunk failures describe groups of entities
+ * for which processing failed, each entry holds entity ids range of the chunk and the error.
+ */
+public class BulkProcessingStatus
+{
+	private final String ruleId;
+	private final String actionName;
+	private final Instant started;
+	private final Instant finished;
+	private final long processedEntities;
+	private final long matchedEntities;
+	private final long failedEntities;
+	private final List<String> chunkFailures;
+
+	public BulkProcessingStatus(String ruleId, String actionName, Instant started, Instant finished,
+			long processedEntities, long matchedEntities, long failedEntities, List<String> chunkFailures)
+	{
+		this.ruleId = ruleId;
+		this.actionName = actionName;
+		this.started = started;
+		this.finished = finished;
+		this.processedEntities = processedEntities;
+		this.matchedEntities = matchedEntities;
+		this.failedEntities = failedEntities;
+		this.chunkFailures = Collections.unmodifiableList(chunkFailures);
+	}
+
+	public String getRuleId()
+	{
+		return ruleId;
+	}
+
+	public String getActionName()
+	{
+		return actionName;
+	}
+
+	public Instant getStarted()
+	{
+		return started;
+	}
+
+	/**
+	 * @return null if the processing is still running
+	 */
+	public Instant getFinished()
+	{
+		return finished;
+	}
+
+	public boolean isRunning()
+	{
+		return finished == null;
+	}
+
+	public long getProcessedEntities()
+	{
+		return processedEntities;
+	}
+
+	public long getMatchedEntities()
+	{
+		return matchedEntities;
+	}
+
+	public long getFailedEntities()
+	{
+		return failedEntities;
+	}
+
+	public List<String> getChunkFailures()
+	{
+		return chunkFailures;
+	}
+
+	/**
+	 * @return number of processed entities per second, until now or until the end of processing
+	 */
+	public double getThroughput()
+	{
+		long millis = Duration.between(started, finished == null ? Instant.now() : finished).toMillis();
+		return millis == 0 ? 0 : processedEntities * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "BulkProcessingStatus [ruleId=" + ruleId + ", actionName=" + actionName + ", started=" + started
+				+ ", finished=" + finished + ", processedEntities=" + processedEntities
+				+ ", matchedEntities=" + matchedEntities + ", failedEntities=" + failedEntities
+				+ ", chunkFailures=" + chunkFailures + "]";
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(ruleId, actionName, started, finished, processedEntities, matchedEntities,
+				failedEntities, chunkFailures);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		BulkProcessingStatus other = (BulkProcessingStatus) obj;
+		return Objects.equals(ruleId, other.ruleId) && Objects.equals(actionName, other.actionName)
+				&& Objects.equals(started, other.started) && Objects.equals(finished, other.finished)
+				&& processedEntities == other.processedEntities
+				&& matchedEntities == other.matchedEntities
+				&& failedEntities == other.failedEntities
+				&& Objects.equals(chunkFailures, other.chunkFailures);
+	}
+}
@@ -358,10 +358,7 @@ public class EnquiryResponseEditorController
 
 	public boolean checkIfRequestExists(String name) throws EngineException
 	{
-		return !enquiryManagement.getEnquiryResponses().stream()
-				.filter(r -> r.getRequest().getFormId().equals(name)
-						&& r.getStatus().equals(RegistrationRequestStatus.pending))
-				.collect(Collectors.toList()).isEmpty();
+		return !enquiryManagement.getEnquiryResponses(name, RegistrationRequestStatus.pending).isEmpty();
 	}
 	
 	public void removePendingRequest(String form) throws EngineException
@@ -10,6 +10,7 @@ import com.vaadin.data.provider.Query;
 import com.vaadin.navigator.ViewChangeListener.ViewChangeEvent;
 import com.vaadin.server.SerializablePredicate;
 import com.vaadin.shared.data.sort.SortDirection;
+import com.vaadin.ui.Button;
 import com.vaadin.ui.ComboBox;
 import com.vaadin.ui.CustomComponent;
 import com.vaadin.ui.DateTimeField;
@@ -44,6 +45,7 @@ import pl.edu.icm.unity.types.basic.EntityParam;
 import pl.edu.icm.unity.types.basic.GroupMembership;
 import pl.edu.icm.unity.types.basic.audit.AuditEventAction;
 import pl.edu.icm.unity.types.basic.audit.AuditEventType;
+import pl.edu.icm.unity.types.basic.audit.AuditEventsPage;
 import pl.edu.icm.unity.webui.common.EntityWithLabel;
 import pl.edu.icm.unity.webui.common.GridWithActionColumn;
 import pl.edu.icm.unity.webui.common.Images;
@@ -101,7 +103,9 @@ class AuditEventsView extends CustomComponent implements UnityView
 	private final ChipsWithTextfield searchFilter;
 	private final DateTimeField fromFilter;
 	private final DateTimeField untilFilter;
+	private final Button loadMoreButton;
 	private GridWithActionColumn<AuditEventEntry> auditEventsGrid;
+	private AuditEventsPage.PageKey nextPageKey;
 
 	@Autowired
 	AuditEventsView(MessageSource msg, AuditEventManagement eventManagement,
@@ -117,6 +121,7 @@ class AuditEventsView extends CustomComponent implements UnityView
 		this.fromFilter = new DateTimeField(msg.getMessage("AuditEventsView.from"));
 		this.untilFilter = new DateTimeField(msg.getMessage("AuditEventsView.until"));
 		this.searchFilter = new ChipsWithTextfield(msg, true, false);
+		this.loadMoreButton = new Button(msg.getMessage("AuditEventsView.loadMore"));
 	}
 
 	@Override
@@ -138,7 +143,8 @@ class AuditEventsView extends CustomComponent implements UnityView
 		diabledMsg.setValue(msg.getMessage("AuditEventsView.disabledMsg"));
 		diabledMsg.setVisible(!eventManagement.isPublisherEnabled());
 
-		gridWrapper.addComponents(diabledMsg, titleLabel, filterLayout, auditEventsGrid);
+		loadMoreButton.addClickListener(e -> loadMore());
+		gridWrapper.addComponents(diabledMsg, titleLabel, filterLayout, auditEventsGrid, loadMoreButton);
 
 		gridWrapper.setExpandRatio(auditEventsGrid, 2);
 		gridWrapper.setSizeFull();
@@ -280,7 +286,7 @@ class AuditEventsView extends CustomComponent implements UnityView
 		return wrapper;
 	}
 
-	private Collection<AuditEventEntry> getAuditEvents()
+	private Collection<AuditEventEntry> getAuditEvents(AuditEventsPage.PageKey after)
 	{
 		try
 		{
@@ -296,20 +302,25 @@ class AuditEventsView extends CustomComponent implements UnityView
 			SortDirection direction =  TIMESTAMP.equals(auditEventsGrid.getSortOrder().get(0).getSorted().getId())
 					? auditEventsGrid.getSortOrder().get(0).getDirection()
 					: SortDirection.DESCENDING;
-			List<AuditEventEntry> list = eventManagement.getAuditEvents(from,
+			AuditEventsPage page = eventManagement.getAuditEventsPage(from,
 						until,
+						after,
 						limitFilter.getValue(),
-						TIMESTAMP,
-						direction == SortDirection.ASCENDING ? 1 : -1).stream()
+						direction == SortDirection.ASCENDING ? 1 : -1);
+			List<AuditEventEntry> list = page.getEvents().stream()
 					.map(ae -> new AuditEventEntry(msg, ae))
 					.collect(Collectors.toList());
 			log.debug("AuditEvents retrieval time: {} ms" , System.currentTimeMillis() - now);
+			nextPageKey = page.getNextPageKey();
+			loadMoreButton.setEnabled(page.hasNextPage());
 			return list;
 		} catch (Exception e)
 		{
 			NotificationPopup.showError(msg, new ControllerException("Error", e));
 		}
 
+		nextPageKey = null;
+		loadMoreButton.setEnabled(false);
 		return Collections.emptyList();
 	}
 
@@ -407,7 +418,17 @@ class AuditEventsView extends CustomComponent implements UnityView
 
 	private <T> void refreshDataSet(T newValue)
 	{
-		auditEventsGrid.setItems(getAuditEvents());
+		auditEventsGrid.setItems(getAuditEvents(null));
+		refreshGrid(null);
+	}
+
+	private void loadMore()
+	{
+		if (nextPageKey == null)
+			return;
+		List<AuditEventEntry> all = new ArrayList<>(auditEventsGrid.getElements());
+		all.addAll(getAuditEvents(nextPageKey));
+		auditEventsGrid.setItems(all);
 		refreshGrid(null);
 	}
 